@@ -287,7 +287,10 @@ CREATE TABLE `t_pay_order` (
         `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
         PRIMARY KEY (`pay_order_id`),
         UNIQUE KEY `Uni_MchNo_MchOrderNo` (`mch_no`, `mch_order_no`),
-        INDEX(`created_at`)
+        INDEX(`created_at`),
+        INDEX `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`),
+        INDEX `Idx_MchOrderNo` (`mch_order_no`),
+        INDEX `Idx_ChannelOrderNo` (`channel_order_no`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付订单表';
 
 
@@ -310,7 +313,8 @@ CREATE TABLE `t_mch_notify_record` (
         `created_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
         `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
         PRIMARY KEY (`notify_id`),
-        UNIQUE KEY `Uni_OrderId_Type` (`order_id`, `order_type`)
+        UNIQUE KEY `Uni_OrderId_Type` (`order_id`, `order_type`),
+        INDEX(`created_at`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1001 DEFAULT CHARSET=utf8mb4 COMMENT='商户通知记录表';
 
 
@@ -364,7 +368,12 @@ CREATE TABLE `t_refund_order` (
           `created_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
           `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
           PRIMARY KEY (`refund_order_id`),
-          UNIQUE KEY `Uni_MchNo_MchRefundNo` (`mch_no`, `mch_refund_no`)
+          UNIQUE KEY `Uni_MchNo_MchRefundNo` (`mch_no`, `mch_refund_no`),
+          INDEX(`created_at`),
+          INDEX `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`),
+          INDEX `Idx_PayOrderId` (`pay_order_id`),
+          INDEX `Idx_ChannelPayOrderNo` (`channel_pay_order_no`),
+          INDEX `Idx_MchRefundNo` (`mch_refund_no`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='退款订单表';
 
 
@@ -388,6 +397,7 @@ CREATE TABLE `t_transfer_order` (
            `transfer_desc` VARCHAR(128) NOT NULL DEFAULT '' COMMENT '转账备注信息',
            `client_ip` VARCHAR(32) DEFAULT NULL COMMENT '客户端IP',
            `state` TINYINT(6) NOT NULL DEFAULT '0' COMMENT '支付状态: 0-订单生成, 1-转账中, 2-转账成功, 3-转账失败, 4-订单关闭',
+           `dispatch_state` TINYINT(6) NOT NULL DEFAULT '0' COMMENT '后台调用状态: 0-无需后台调用或已开始调用渠道接口, 1-待后台调用渠道接口(批量转账)',
            `channel_extra` VARCHAR(512) DEFAULT NULL COMMENT '特定渠道发起额外参数',
            `channel_order_no` VARCHAR(64) DEFAULT NULL COMMENT '渠道订单号',
            `err_code` VARCHAR(128) DEFAULT NULL COMMENT '渠道支付错误码',
@@ -399,7 +409,10 @@ CREATE TABLE `t_transfer_order` (
            `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
            PRIMARY KEY (`transfer_id`),
            UNIQUE KEY `Uni_MchNo_MchOrderNo` (`mch_no`, `mch_order_no`),
-           INDEX(`created_at`)
+           INDEX(`created_at`),
+           INDEX `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`),
+           INDEX `Idx_MchOrderNo` (`mch_order_no`),
+           INDEX `Idx_ChannelOrderNo` (`channel_order_no`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='转账订单表';
 
 -- 商户分账接收者账号组
@@ -472,9 +485,27 @@ CREATE TABLE `t_pay_order_division_record` (
           `cal_division_amount` BIGINT(20) NOT NULL COMMENT '计算该接收方的分账金额,单位分',
           `created_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
           `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
-          PRIMARY KEY (`record_id`)
+          PRIMARY KEY (`record_id`),
+          INDEX(`created_at`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1001 DEFAULT CHARSET=utf8mb4 COMMENT='分账记录表';
 
+-- 历史数据归档表（结构与活跃表一致， 由支付网关归档任务写入）
+--   归档表去除业务唯一约束（商户订单号等， 商户可能在归档后复用）， 仅保留主键唯一， 改为普通索引
+DROP TABLE IF EXISTS `t_pay_order_archive`;
+CREATE TABLE `t_pay_order_archive` LIKE `t_pay_order`;
+ALTER TABLE `t_pay_order_archive` DROP INDEX `Uni_MchNo_MchOrderNo`, ADD INDEX `Idx_MchNo_MchOrderNo` (`mch_no`, `mch_order_no`);
+DROP TABLE IF EXISTS `t_refund_order_archive`;
+CREATE TABLE `t_refund_order_archive` LIKE `t_refund_order`;
+ALTER TABLE `t_refund_order_archive` DROP INDEX `Uni_MchNo_MchRefundNo`, ADD INDEX `Idx_MchNo_MchRefundNo` (`mch_no`, `mch_refund_no`);
+DROP TABLE IF EXISTS `t_transfer_order_archive`;
+CREATE TABLE `t_transfer_order_archive` LIKE `t_transfer_order`;
+ALTER TABLE `t_transfer_order_archive` DROP INDEX `Uni_MchNo_MchOrderNo`, ADD INDEX `Idx_MchNo_MchOrderNo` (`mch_no`, `mch_order_no`);
+DROP TABLE IF EXISTS `t_mch_notify_record_archive`;
+CREATE TABLE `t_mch_notify_record_archive` LIKE `t_mch_notify_record`;
+ALTER TABLE `t_mch_notify_record_archive` DROP INDEX `Uni_OrderId_Type`, ADD INDEX `Idx_OrderId_Type` (`order_id`, `order_type`);
+DROP TABLE IF EXISTS `t_pay_order_division_record_archive`;
+CREATE TABLE `t_pay_order_division_record_archive` LIKE `t_pay_order_division_record`;
+
 
 
 #####  ↑↑↑↑↑↑↑↑↑↑  表结构DDL  ↑↑↑↑↑↑↑↑↑↑  #####
@@ -773,3 +804,12 @@ VALUES ('plspay', '计全付', 1, 0, 1,
         '[{"wayCode": "ALI_APP"}, {"wayCode": "ALI_BAR"}, {"wayCode": "ALI_JSAPI"}, {"wayCode": "ALI_LITE"}, {"wayCode": "ALI_PC"}, {"wayCode": "ALI_QR"}, {"wayCode": "ALI_WAP"}, {"wayCode": "WX_APP"}, {"wayCode": "WX_BAR"}, {"wayCode": "WX_H5"}, {"wayCode": "WX_JSAPI"}, {"wayCode": "WX_LITE"}, {"wayCode": "WX_NATIVE"}]',
         'http://jeequan.oss-cn-beijing.aliyuncs.com/jeepay/img/plspay.svg', '#0CACFF', 1, '计全付');
 
+-- 模拟支付通道（压测、联调使用）： 默认停用， 需在运营平台启用该支付接口， 并在支付网关配置 isys.mock-pay.enabled=true 后方可使用
+INSERT INTO t_pay_interface_define (if_code, if_name, is_mch_mode, is_isv_mode, config_page_type, isv_params, isvsub_mch_params, normal_mch_params, way_codes, icon, bg_color, state, remark)
+VALUES ('mockpay', '模拟支付', 1, 0, 1,
+        NULL,
+        NULL,
+        '[{"name":"key","desc":"回调签名密钥","type":"text","verify":"required","star":"1"},{"name":"latencyMs","desc":"模拟接口耗时（毫秒）","type":"text","verify":""},{"name":"successRatio","desc":"成功比例（0-100， 默认100）","type":"text","verify":""},{"name":"notifyDelaySeconds","desc":"异步回调延迟（秒， 0为同步返回结果）","type":"text","verify":""}]',
+        '[{"wayCode": "ALI_APP"}, {"wayCode": "ALI_BAR"}, {"wayCode": "ALI_JSAPI"}, {"wayCode": "ALI_LITE"}, {"wayCode": "ALI_PC"}, {"wayCode": "ALI_QR"}, {"wayCode": "ALI_WAP"}, {"wayCode": "WX_APP"}, {"wayCode": "WX_BAR"}, {"wayCode": "WX_H5"}, {"wayCode": "WX_JSAPI"}, {"wayCode": "WX_LITE"}, {"wayCode": "WX_NATIVE"}, {"wayCode": "YSF_BAR"}, {"wayCode": "YSF_JSAPI"}]',
+        NULL, '#8C8C8C', 0, '模拟支付通道');
+
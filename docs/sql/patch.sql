@@ -283,3 +283,44 @@ INSERT INTO t_pay_way (way_code, way_name) VALUES ('UP_JSAPI', '银联Js支付')
 -- 分账状态新增： 已受理
 alter table t_pay_order_division_record modify column `state` TINYINT(6) NOT NULL COMMENT '状态: 0-待分账 1-分账成功（明确成功）, 2-分账失败（明确失败）, 3-分账已受理（上游受理）';
 
+
+## -- ++++ [v2.3.0] ===>
+
+-- 归档任务按创建时间扫描， 增加索引
+alter table t_refund_order add index(`created_at`);
+alter table t_mch_notify_record add index(`created_at`);
+alter table t_pay_order_division_record add index(`created_at`);
+
+-- 订单列表游标分页（ 商户维度按创建时间倒序 ）， 增加索引
+alter table t_pay_order add index `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`);
+alter table t_refund_order add index `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`);
+alter table t_transfer_order add index `Idx_MchNo_CreatedAt` (`mch_no`, `created_at`);
+
+-- 三合一订单号查询（ 支付/商户/渠道订单号 ）， 每个单号列均需可按索引查找
+alter table t_pay_order add index `Idx_MchOrderNo` (`mch_order_no`), add index `Idx_ChannelOrderNo` (`channel_order_no`);
+alter table t_refund_order add index `Idx_PayOrderId` (`pay_order_id`), add index `Idx_ChannelPayOrderNo` (`channel_pay_order_no`), add index `Idx_MchRefundNo` (`mch_refund_no`);
+alter table t_transfer_order add index `Idx_MchOrderNo` (`mch_order_no`), add index `Idx_ChannelOrderNo` (`channel_order_no`);
+
+-- 批量转账： 订单入库后由后台线程池调用渠道接口， 标记待调用的订单（ 节点宕机或重启时由补单任务恢复 ）
+alter table t_transfer_order add column `dispatch_state` TINYINT(6) NOT NULL DEFAULT '0' COMMENT '后台调用状态: 0-无需后台调用或已开始调用渠道接口, 1-待后台调用渠道接口(批量转账)' after `state`;
+
+-- 历史数据归档表（结构与活跃表一致， 由支付网关归档任务写入）
+--   归档表去除业务唯一约束（商户订单号等， 商户可能在归档后复用）， 仅保留主键唯一， 改为普通索引
+CREATE TABLE `t_pay_order_archive` LIKE `t_pay_order`;
+ALTER TABLE `t_pay_order_archive` DROP INDEX `Uni_MchNo_MchOrderNo`, ADD INDEX `Idx_MchNo_MchOrderNo` (`mch_no`, `mch_order_no`);
+CREATE TABLE `t_refund_order_archive` LIKE `t_refund_order`;
+ALTER TABLE `t_refund_order_archive` DROP INDEX `Uni_MchNo_MchRefundNo`, ADD INDEX `Idx_MchNo_MchRefundNo` (`mch_no`, `mch_refund_no`);
+CREATE TABLE `t_transfer_order_archive` LIKE `t_transfer_order`;
+ALTER TABLE `t_transfer_order_archive` DROP INDEX `Uni_MchNo_MchOrderNo`, ADD INDEX `Idx_MchNo_MchOrderNo` (`mch_no`, `mch_order_no`);
+CREATE TABLE `t_mch_notify_record_archive` LIKE `t_mch_notify_record`;
+ALTER TABLE `t_mch_notify_record_archive` DROP INDEX `Uni_OrderId_Type`, ADD INDEX `Idx_OrderId_Type` (`order_id`, `order_type`);
+CREATE TABLE `t_pay_order_division_record_archive` LIKE `t_pay_order_division_record`;
+
+-- 模拟支付通道（压测、联调使用）： 默认停用， 需在运营平台启用该支付接口， 并在支付网关配置 isys.mock-pay.enabled=true 后方可使用
+INSERT INTO t_pay_interface_define (if_code, if_name, is_mch_mode, is_isv_mode, config_page_type, isv_params, isvsub_mch_params, normal_mch_params, way_codes, icon, bg_color, state, remark)
+VALUES ('mockpay', '模拟支付', 1, 0, 1,
+        NULL,
+        NULL,
+        '[{"name":"key","desc":"回调签名密钥","type":"text","verify":"required","star":"1"},{"name":"latencyMs","desc":"模拟接口耗时（毫秒）","type":"text","verify":""},{"name":"successRatio","desc":"成功比例（0-100， 默认100）","type":"text","verify":""},{"name":"notifyDelaySeconds","desc":"异步回调延迟（秒， 0为同步返回结果）","type":"text","verify":""}]',
+        '[{"wayCode": "ALI_APP"}, {"wayCode": "ALI_BAR"}, {"wayCode": "ALI_JSAPI"}, {"wayCode": "ALI_LITE"}, {"wayCode": "ALI_PC"}, {"wayCode": "ALI_QR"}, {"wayCode": "ALI_WAP"}, {"wayCode": "WX_APP"}, {"wayCode": "WX_BAR"}, {"wayCode": "WX_H5"}, {"wayCode": "WX_JSAPI"}, {"wayCode": "WX_LITE"}, {"wayCode": "WX_NATIVE"}, {"wayCode": "YSF_BAR"}, {"wayCode": "YSF_JSAPI"}]',
+        NULL, '#8C8C8C', 0, '模拟支付通道');
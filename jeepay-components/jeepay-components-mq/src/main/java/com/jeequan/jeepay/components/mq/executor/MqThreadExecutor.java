@@ -15,13 +15,17 @@
  */
 package com.jeequan.jeepay.components.mq.executor;
 
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
 * MQ 线程池配置
@@ -36,6 +40,8 @@ public class MqThreadExecutor {
 
     public static final String EXECUTOR_PAYORDER_MCH_NOTIFY = "mqQueue4PayOrderMchNotifyExecutor";
 
+    public static final String EXECUTOR_MQ_SEND = "mqSendExecutor";
+
     /*
      * 功能描述:
      * 支付结果通知到商户的异步执行器 （由于量大， 单独新建一个线程池处理， 之前的不做变动 ）
@@ -54,6 +60,31 @@ public class MqThreadExecutor {
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy()); //对拒绝task的处理策略
         executor.setKeepAliveSeconds(60); // 允许的空闲时间
         executor.initialize();
+
+        // 统计： 等待队列长度 & 活动线程数
+        JeepayMetrics.gauge("jeepay.mq.executor.queue", () -> executor.getThreadPoolExecutor().getQueue().size(), "executor", EXECUTOR_PAYORDER_MCH_NOTIFY);
+        JeepayMetrics.gauge("jeepay.mq.executor.active", executor::getActiveCount, "executor", EXECUTOR_PAYORDER_MCH_NOTIFY);
+        return executor;
+    }
+
+    /*
+     * 功能描述:
+     * MQ消息异步发送执行器 （不支持原生异步发送的厂商使用）
+     * 使用JDK线程池而非ThreadPoolTaskExecutor， 避免影响@Async默认执行器的选择。
+     * 队列已满时拒绝（AbortPolicy）， 由调用方转入本地重试缓冲区， 不阻塞调用线程。
+     */
+    @Bean(EXECUTOR_MQ_SEND)
+    public ThreadPoolExecutor mqSendExecutor() {
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 16, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(5000), r -> {
+            Thread thread = new Thread(r, "mqSendExecutor-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        JeepayMetrics.gauge("jeepay.mq.executor.queue", () -> executor.getQueue().size(), "executor", EXECUTOR_MQ_SEND);
+        JeepayMetrics.gauge("jeepay.mq.executor.active", executor::getActiveCount, "executor", EXECUTOR_MQ_SEND);
         return executor;
     }
 
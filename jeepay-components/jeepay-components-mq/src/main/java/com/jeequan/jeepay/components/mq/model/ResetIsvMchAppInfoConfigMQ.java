@@ -25,7 +25,7 @@ import lombok.NoArgsConstructor;
 /**
 *
 * 定义MQ消息格式
-* 业务场景： [ 更新服务商/商户/商户应用配置信息 ]
+* 业务场景： [ 更新服务商/商户/商户应用配置信息/商户分账账号 ]
 *
 * @author terrfly
 * @site https://www.jeequan.com
@@ -46,6 +46,7 @@ public class ResetIsvMchAppInfoConfigMQ extends AbstractMQ {
     public static final byte RESET_TYPE_ISV_INFO = 1;
     public static final byte RESET_TYPE_MCH_INFO = 2;
     public static final byte RESET_TYPE_MCH_APP = 3;
+    public static final byte RESET_TYPE_MCH_DIVISION = 4; // 商户分账账号及账号组
 
     /**  【！重要配置项！】 定义Msg消息载体 **/
     @Data
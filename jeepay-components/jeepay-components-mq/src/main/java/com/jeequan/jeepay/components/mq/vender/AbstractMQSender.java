@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender;
+
+import com.jeequan.jeepay.components.mq.executor.MqThreadExecutor;
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+* MQ 消息发送器 抽象类：
+* 不支持原生异步发送的厂商使用MQ发送线程池执行， 不支持批量发送的厂商逐条发送。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 13:12
+*/
+@Slf4j
+public abstract class AbstractMQSender implements IMQSender {
+
+    @Resource(name = MqThreadExecutor.EXECUTOR_MQ_SEND)
+    private Executor mqSendExecutor;
+
+    @Override
+    public void sendAsync(AbstractMQ mqModel, int delay, MQSendCallback callback) {
+
+        try {
+            mqSendExecutor.execute(() -> {
+                Throwable ex = null;
+                try {
+                    if(delay > 0){
+                        send(mqModel, delay);
+                    }else{
+                        send(mqModel);
+                    }
+                } catch (Throwable e) {
+                    ex = e;
+                }
+                complete(callback, mqModel, ex);
+            });
+        } catch (RejectedExecutionException e) { // 线程池已满
+            complete(callback, mqModel, e);
+        }
+    }
+
+    @Override
+    public List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels) {
+
+        List<AbstractMQ> failList = new ArrayList<>();
+        for (AbstractMQ mqModel : mqModels) {
+            try {
+                send(mqModel);
+            } catch (Exception e) {
+                log.error("MQ消息发送异常, mq={}", mqModel.getMQName(), e);
+                failList.add(mqModel);
+            }
+        }
+        return failList;
+    }
+
+    /** 回调发送结果 **/
+    protected static void complete(MQSendCallback callback, AbstractMQ mqModel, Throwable e){
+
+        if(callback == null){
+            if(e != null){
+                log.error("MQ消息异步发送异常, mq={}", mqModel.getMQName(), e);
+            }
+            return;
+        }
+
+        try {
+            callback.onComplete(mqModel, e);
+        } catch (Exception callbackEx) {
+            log.error("MQ消息发送回调异常, mq={}", mqModel.getMQName(), callbackEx);
+        }
+    }
+
+}
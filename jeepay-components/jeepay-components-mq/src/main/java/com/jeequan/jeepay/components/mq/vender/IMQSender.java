@@ -17,6 +17,8 @@ package com.jeequan.jeepay.components.mq.vender;
 
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
 
+import java.util.List;
+
 /**
 * MQ 消息发送器 接口定义
 *
@@ -32,4 +34,10 @@ public interface IMQSender {
     /** 推送MQ消息， 延迟接收，单位：s **/
     void send(AbstractMQ mqModel, int delay);
 
+    /** 异步推送MQ消息， 不阻塞调用线程；delay=0表示实时， 发送完成后回调callback（可为空） **/
+    void sendAsync(AbstractMQ mqModel, int delay, MQSendCallback callback);
+
+    /** 批量推送实时MQ消息（同一目标的消息由厂商实现合并发送）， 返回发送失败的消息 **/
+    List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels);
+
 }
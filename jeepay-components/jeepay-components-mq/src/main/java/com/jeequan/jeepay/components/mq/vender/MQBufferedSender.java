@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender;
+
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+* MQ 消息缓冲发送器 （业务热点路径使用， 如：商户通知、分账、轮询查单）：
+*   1. 调用方仅将消息放入本地缓冲队列， 不阻塞请求线程；
+*   2. 发送线程在极短的时间窗口内合并同一目标的实时消息， 批量发送；延迟消息异步发送；
+*   3. 发送失败的消息进入本地重试缓冲区， 按指数退避重试， 超过最大重试次数后记录错误日志（含消息内容）；
+*      缓冲区仅在内存中， 节点宕机或超过重试次数的消息需由业务方根据DB状态补发（ 如：商户通知补发任务 MchNotifyRecordReissueTask ）；
+*   4. 缓冲队列已满时退化为调用方同步发送， 不丢弃消息。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 13:30
+*/
+@Slf4j
+@Component
+public class MQBufferedSender {
+
+    /** 是否开启缓冲发送， 关闭时直接同步发送 **/
+    @Value("${isys.mq.buffer.enabled:true}")
+    private boolean enabled;
+
+    /** 合并窗口（毫秒） **/
+    @Value("${isys.mq.buffer.window-ms:5}")
+    private long windowMs;
+
+    /** 单批最大消息数 **/
+    @Value("${isys.mq.buffer.batch-size:64}")
+    private int batchSize;
+
+    /** 缓冲队列容量 **/
+    @Value("${isys.mq.buffer.capacity:10000}")
+    private int capacity;
+
+    /** 最大重试次数 **/
+    @Value("${isys.mq.buffer.max-retry:8}")
+    private int maxRetry;
+
+    /** 重试最大间隔（秒） **/
+    private static final long MAX_RETRY_INTERVAL = 60;
+
+    /** 应用停止时等待发送线程结束的最长时间（毫秒） **/
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+
+    @Autowired private IMQSender mqSender;
+
+    private LinkedBlockingQueue<PendingMsg> pendingQueue;
+    private final DelayQueue<PendingMsg> retryQueue = new DelayQueue<>();
+    private volatile boolean running = true;
+    private Thread flushThread;
+    private Thread retryThread;
+
+    @PostConstruct
+    public void init(){
+
+        if(!enabled){
+            return;
+        }
+
+        pendingQueue = new LinkedBlockingQueue<>(capacity);
+
+        flushThread = new Thread(this::flushLoop, "mqBufferedSender-flush");
+        flushThread.setDaemon(true);
+        flushThread.start();
+
+        retryThread = new Thread(this::retryLoop, "mqBufferedSender-retry");
+        retryThread.setDaemon(true);
+        retryThread.start();
+
+        JeepayMetrics.gauge("jeepay.mq.buffer.pending", () -> pendingQueue.size());
+        JeepayMetrics.gauge("jeepay.mq.buffer.retry", retryQueue::size);
+    }
+
+    /** 推送MQ消息， 实时 **/
+    public void send(AbstractMQ mqModel){
+        send(mqModel, 0);
+    }
+
+    /** 推送MQ消息， 延迟接收，单位：s **/
+    public void send(AbstractMQ mqModel, int delay){
+
+        if(!enabled){
+            doSend(mqModel, delay);
+            return;
+        }
+
+        // 缓冲队列已满， 调用方同步发送
+        if(!running || !pendingQueue.offer(new PendingMsg(mqModel, delay))){
+            log.warn("MQ缓冲队列已满或已停止, 同步发送, mq={}", mqModel.getMQName());
+            try {
+                doSend(mqModel, delay);
+            } catch (Exception e) {
+                log.error("MQ消息同步发送异常, 转入重试, mq={}", mqModel.getMQName(), e);
+                retry(new PendingMsg(mqModel, delay));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+
+        if(!enabled){
+            return;
+        }
+
+        running = false;
+        flushThread.interrupt();
+        retryThread.interrupt();
+
+        // 等待发送线程处理完已取出的消息
+        try {
+            flushThread.join(SHUTDOWN_WAIT_MILLIS);
+            retryThread.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 缓冲队列及重试缓冲区中的剩余消息同步发送 （ 忽略重试间隔 ）
+        List<PendingMsg> remainList = new ArrayList<>();
+        pendingQueue.drainTo(remainList);
+        remainList.addAll(retryQueue); // DelayQueue.drainTo仅取出已到期的消息
+        retryQueue.clear();
+        remainList.forEach(this::sendOnShutdown);
+    }
+
+    /** 应用停止时同步发送， 失败时记录错误日志（含消息内容） **/
+    private void sendOnShutdown(PendingMsg msg){
+        try {
+            doSend(msg.mqModel, msg.delay);
+        } catch (Exception e) {
+            JeepayMetrics.increment("jeepay.mq.buffer.dropped", "mq", msg.mqModel.getMQName());
+            log.error("MQ消息发送失败(应用停止), 消息已丢弃, mq={}, msg={}", msg.mqModel.getMQName(), msg.mqModel.toMessage(), e);
+        }
+    }
+
+    /** 合并发送线程 **/
+    private void flushLoop(){
+
+        List<PendingMsg> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+        while (running && !interrupted) {
+            try {
+                PendingMsg first = pendingQueue.poll(1, TimeUnit.SECONDS);
+                if(first == null){
+                    continue;
+                }
+                batch.add(first);
+
+                // 等待合并窗口内的其他消息
+                if(windowMs > 0 && pendingQueue.size() < batchSize - 1){
+                    Thread.sleep(windowMs);
+                }
+                pendingQueue.drainTo(batch, batchSize - 1);
+
+            } catch (InterruptedException e) { // 应用停止： 已取出的消息发送后退出， 剩余消息由destroy同步发送
+                interrupted = true;
+            }
+
+            // 仅重试未送达的消息， 已送达的消息不重复发送
+            flush(batch).forEach(this::retry);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 实时消息按目标分组批量发送， 延迟消息异步发送 （ 失败时由回调转入重试 ）
+     * @return 未送达的实时消息 （ 由调用方转入重试 ）
+     */
+    private List<PendingMsg> flush(List<PendingMsg> batch){
+
+        List<PendingMsg> undeliveredList = new ArrayList<>();
+        List<AbstractMQ> realtimeList = new ArrayList<>();
+        Map<AbstractMQ, PendingMsg> realtimeMap = new IdentityHashMap<>();
+        for (PendingMsg msg : batch) {
+            if(msg.delay > 0){
+                try {
+                    mqSender.sendAsync(msg.mqModel, msg.delay, (mqModel, e) -> {
+                        if(e != null){
+                            log.error("MQ消息异步发送异常, 转入重试, mq={}", mqModel.getMQName(), e);
+                            retry(msg);
+                        }
+                    });
+                } catch (Exception e) { // 未提交成功， 回调不会执行
+                    log.error("MQ消息异步发送异常, 转入重试, mq={}", msg.mqModel.getMQName(), e);
+                    undeliveredList.add(msg);
+                }
+            }else{
+                realtimeList.add(msg.mqModel);
+                realtimeMap.put(msg.mqModel, msg);
+            }
+        }
+
+        if(realtimeList.isEmpty()){
+            return undeliveredList;
+        }
+
+        List<AbstractMQ> failList;
+        try {
+            failList = mqSender.sendBatch(realtimeList);
+        } catch (Exception e) { // 发送器未返回逐条结果， 按整批未送达处理
+            log.error("MQ消息批量发送异常, 转入重试, size={}", realtimeList.size(), e);
+            failList = realtimeList;
+        }
+        for (AbstractMQ mqModel : failList) {
+            undeliveredList.add(realtimeMap.get(mqModel));
+        }
+        return undeliveredList;
+    }
+
+    /** 重试线程 **/
+    private void retryLoop(){
+
+        while (running) {
+            PendingMsg msg = null;
+            try {
+                msg = retryQueue.poll(1, TimeUnit.SECONDS);
+                if(msg == null){
+                    continue;
+                }
+                doSend(msg.mqModel, msg.delay);
+                log.info("MQ消息重试发送成功, mq={}, retryCount={}", msg.mqModel.getMQName(), msg.retryCount);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                if(msg != null){
+                    log.error("MQ消息重试发送异常, mq={}", msg.mqModel.getMQName(), e);
+                    retry(msg);
+                }
+            }
+        }
+    }
+
+    /** 放入重试缓冲区 （ 应用停止后直接同步发送， 避免消息留在不再处理的缓冲区中 ） **/
+    private void retry(PendingMsg msg){
+
+        if(!running){
+            sendOnShutdown(msg);
+            return;
+        }
+
+        msg.retryCount++;
+        if(msg.retryCount > maxRetry){
+            JeepayMetrics.increment("jeepay.mq.buffer.dropped", "mq", msg.mqModel.getMQName());
+            log.error("MQ消息发送失败且超过最大重试次数, 消息已丢弃, mq={}, msg={}", msg.mqModel.getMQName(), msg.mqModel.toMessage());
+            return;
+        }
+
+        long intervalSeconds = Math.min(1L << (msg.retryCount - 1), MAX_RETRY_INTERVAL);
+        msg.nextTime = System.currentTimeMillis() + intervalSeconds * 1000;
+        retryQueue.offer(msg);
+    }
+
+    private void doSend(AbstractMQ mqModel, int delay){
+        if(delay > 0){
+            mqSender.send(mqModel, delay);
+        }else{
+            mqSender.send(mqModel);
+        }
+    }
+
+    /** 待发送消息 **/
+    private static class PendingMsg implements Delayed {
+
+        private final AbstractMQ mqModel;
+        private final int delay;
+        private int retryCount = 0;
+        private long nextTime = 0;
+
+        PendingMsg(AbstractMQ mqModel, int delay) {
+            this.mqModel = mqModel;
+            this.delay = delay;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(nextTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(nextTime, ((PendingMsg) o).nextTime);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender;
+
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+
+/**
+* MQ 异步发送完成回调
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 13:10
+*/
+@FunctionalInterface
+public interface MQSendCallback {
+
+    /** 发送完成， e为空表示发送成功 **/
+    void onComplete(AbstractMQ mqModel, Throwable e);
+
+}
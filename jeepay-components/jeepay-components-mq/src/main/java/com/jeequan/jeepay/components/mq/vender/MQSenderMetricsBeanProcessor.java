@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender;
+
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+* 统计MQ消息发送耗时： 对所有厂商的 IMQSender 进行包装， 按 MQ名称 & 类型 & 结果 记录。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:20
+*/
+@Component
+public class MQSenderMetricsBeanProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+        if(!(bean instanceof IMQSender)){
+            return bean;
+        }
+
+        IMQSender target = (IMQSender) bean;
+        return new IMQSender() {
+
+            @Override
+            public void send(AbstractMQ mqModel) {
+                long startNanos = JeepayMetrics.start();
+                boolean isSuccess = false;
+                try {
+                    target.send(mqModel);
+                    isSuccess = true;
+                } finally {
+                    record(mqModel, startNanos, "realtime", isSuccess);
+                }
+            }
+
+            @Override
+            public void send(AbstractMQ mqModel, int delay) {
+                long startNanos = JeepayMetrics.start();
+                boolean isSuccess = false;
+                try {
+                    target.send(mqModel, delay);
+                    isSuccess = true;
+                } finally {
+                    record(mqModel, startNanos, "delay", isSuccess);
+                }
+            }
+
+            @Override
+            public void sendAsync(AbstractMQ mqModel, int delay, MQSendCallback callback) {
+                long startNanos = JeepayMetrics.start();
+                target.sendAsync(mqModel, delay, (model, e) -> {
+                    record(model, startNanos, "async", e == null);
+                    if(callback != null){
+                        callback.onComplete(model, e);
+                    }
+                });
+            }
+
+            @Override
+            public List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels) {
+                long startNanos = JeepayMetrics.start();
+                List<AbstractMQ> failList = target.sendBatch(mqModels);
+                JeepayMetrics.record("jeepay.mq.send.batch", startNanos, "outcome", failList.isEmpty() ? "success" : "fail");
+                return failList;
+            }
+        };
+    }
+
+    private static void record(AbstractMQ mqModel, long startNanos, String mode, boolean isSuccess){
+        JeepayMetrics.record("jeepay.mq.send", startNanos, "mq", mqModel.getMQName(), "type", mqModel.getMQType().name(),
+                "mode", mode, "outcome", isSuccess ? "success" : "fail");
+    }
+
+}
@@ -17,7 +17,8 @@ package com.jeequan.jeepay.components.mq.vender.activemq;
 
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.AbstractMQSender;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.activemq.ScheduledMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -25,6 +26,10 @@ import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Component;
 
 import javax.jms.TextMessage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
 *  activeMQ 消息发送器的实现
@@ -33,9 +38,10 @@ import javax.jms.TextMessage;
 * @site https://www.jeequan.com
 * @date 2021/7/23 16:52
 */
+@Slf4j
 @Component
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.ACTIVE_MQ)
-public class ActiveMQSender implements IMQSender {
+public class ActiveMQSender extends AbstractMQSender {
 
     @Autowired
     private ActiveMQConfig activeMQConfig;
@@ -59,4 +65,28 @@ public class ActiveMQSender implements IMQSender {
         });
     }
 
+    @Override
+    public List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels) {
+
+        // 按目标分组， 同一目标的消息使用同一个session & producer发送
+        Map<String, List<AbstractMQ>> destMap = new LinkedHashMap<>();
+        mqModels.forEach(mqModel -> destMap.computeIfAbsent(mqModel.getMQName(), k -> new ArrayList<>()).add(mqModel));
+
+        List<AbstractMQ> failList = new ArrayList<>();
+        destMap.forEach((mqName, list) -> {
+            try {
+                jmsTemplate.execute(activeMQConfig.getDestination(list.get(0)), (session, producer) -> {
+                    for (AbstractMQ mqModel : list) {
+                        producer.send(session.createTextMessage(mqModel.toMessage()));
+                    }
+                    return null;
+                });
+            } catch (Exception e) {
+                log.error("MQ消息批量发送异常, mq={}, size={}", mqName, list.size(), e);
+                failList.addAll(list);
+            }
+        });
+        return failList;
+    }
+
 }
@@ -17,11 +17,14 @@ package com.jeequan.jeepay.components.mq.vender.aliyunrocketmq;
 
 import com.alibaba.fastjson.JSONObject;
 import com.aliyun.openservices.ons.api.Message;
+import com.aliyun.openservices.ons.api.OnExceptionContext;
 import com.aliyun.openservices.ons.api.Producer;
+import com.aliyun.openservices.ons.api.SendCallback;
 import com.aliyun.openservices.ons.api.SendResult;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.AbstractMQSender;
+import com.jeequan.jeepay.components.mq.vender.MQSendCallback;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -37,7 +40,7 @@ import java.util.TreeMap;
 @Slf4j
 @Component
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.ALIYUN_ROCKET_MQ)
-public class AliYunRocketMQSender implements IMQSender {
+public class AliYunRocketMQSender extends AbstractMQSender {
 
     /** 最大延迟24小时 */
     private static final int MAX_DELAY_TIME = 60 * 60 * 24;
@@ -56,22 +59,50 @@ public class AliYunRocketMQSender implements IMQSender {
 
     @Override
     public void send(AbstractMQ mqModel, int delaySeconds) {
+        sendMessage(buildMessage(mqModel, delaySeconds));
+    }
+
+    @Override
+    public void sendAsync(AbstractMQ mqModel, int delaySeconds, MQSendCallback callback) {
+
+        try {
+            getProducerClient().sendAsync(buildMessage(mqModel, delaySeconds), new SendCallback() {
+                @Override
+                public void onSuccess(SendResult sendResult) {
+                    complete(callback, mqModel, null);
+                }
+
+                @Override
+                public void onException(OnExceptionContext context) {
+                    complete(callback, mqModel, context.getException());
+                }
+            });
+        } catch (Exception e) {
+            complete(callback, mqModel, e);
+        }
+    }
+
+    private Message buildMessage(AbstractMQ mqModel, int delaySeconds) {
         Message message = new Message(mqModel.getMQName(), AliYunRocketMQFactory.defaultTag, mqModel.toMessage().getBytes());
         if (delaySeconds > 0) {
             long delayTime = System.currentTimeMillis() + delayTimeCorrector(delaySeconds) * 1000;
             // 设置消息需要被投递的时间。
             message.setStartDeliverTime(delayTime);
         }
-        sendMessage(message);
+        return message;
     }
 
     private void sendMessage(Message message) {
+        SendResult sendResult = getProducerClient().send(message);
+        log.info("消息队列推送返回结果：{}", JSONObject.toJSONString(sendResult));
+    }
+
+    private Producer getProducerClient() {
         if (producerClient == null) {
             producerClient = aliYunRocketMQFactory.producerClient();
         }
         producerClient.start();
-        SendResult sendResult = producerClient.send(message);
-        log.info("消息队列推送返回结果：{}", JSONObject.toJSONString(sendResult));
+        return producerClient;
     }
 
     /**
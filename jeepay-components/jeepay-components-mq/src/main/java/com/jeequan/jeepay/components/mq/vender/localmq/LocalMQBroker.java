@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson.JSON;
+import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
+import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+* 本地MQ（进程内）消息代理： 仅在vender=localMQ时 进行实例化
+*
+* 1. 实时消息直接投递到本进程的@LocalMQListener接收器；
+* 2. 延迟消息进入时间轮， 按实际秒数到期投递 （不存在RocketMQ的延迟级别取整问题）；
+* 3. 配置persist-path时， 未投递完成的消息定期写入本地文件， 重启后恢复；
+* 4. 开启redis-bridge时， 广播消息 及 本进程无接收器的点对点消息 通过Redis发布订阅转发到其他应用（如运营平台发起的商户通知重发）；
+* 5. 接收器在消费线程池中同步处理（不使用@Async）， 处理完成后才从持久化数据中移除； 消费队列已满时由投递线程直接消费（背压）。
+*
+* 适用于单节点部署和压测基准， 多节点部署请使用独立的MQ。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:20
+*/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.LOCAL_MQ)
+public class LocalMQBroker implements SmartInitializingSingleton {
+
+    /** Redis桥接频道 （发布订阅与DB无关， 各应用使用不同的Redis DB也可互通） **/
+    private static final String BRIDGE_CHANNEL = "JEEPAY_LOCAL_MQ";
+
+    /** 当前节点ID， 用于忽略自身发出的桥接消息 **/
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    @Value("${isys.mq.local.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${isys.mq.local.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${isys.mq.local.consumer-threads:8}")
+    private int consumerThreads;
+
+    @Value("${isys.mq.local.consumer-queue-size:10000}")
+    private int consumerQueueSize;
+
+    @Value("${isys.mq.local.persist-path:}")
+    private String persistPath;
+
+    @Value("${isys.mq.local.persist-interval-ms:1000}")
+    private long persistIntervalMs;
+
+    @Value("${isys.mq.local.redis-bridge:true}")
+    private boolean redisBridge;
+
+    @Autowired private ApplicationContext applicationContext;
+    @Autowired private RedisConnectionFactory redisConnectionFactory;
+    @Autowired private StringRedisTemplate stringRedisTemplate;
+
+    /** 接收器  mqName -> receivers **/
+    private Map<String, List<IMQMsgReceiver>> receiverMap = Collections.emptyMap();
+
+    /** 未投递完成的消息 （延迟中 + 等待消费）， 持久化的数据来源 **/
+    private final Map<String, LocalMQMessage> pendingMap = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private boolean persistEnabled;
+
+    private LocalMQTimerWheel<LocalMQMessage> timerWheel;
+    private ThreadPoolExecutor consumerExecutor;
+    private ScheduledExecutorService persistExecutor;
+    private RedisMessageListenerContainer bridgeContainer;
+
+    /** 所有单例初始化完成后注册接收器并启动， 保证恢复持久化消息时接收器已就绪 **/
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        Map<String, List<IMQMsgReceiver>> map = new HashMap<>();
+        applicationContext.getBeansWithAnnotation(LocalMQListener.class).forEach((beanName, bean) -> {
+            LocalMQListener listener = applicationContext.findAnnotationOnBean(beanName, LocalMQListener.class);
+            map.computeIfAbsent(listener.value(), k -> new ArrayList<>()).add((IMQMsgReceiver) bean);
+        });
+        receiverMap = map;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        consumerExecutor = new ThreadPoolExecutor(consumerThreads, consumerThreads, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(consumerQueueSize), r -> {
+            Thread thread = new Thread(r, "localMQConsumer-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        timerWheel = new LocalMQTimerWheel<>("localMQTimerWheel", tickMs, wheelSize, this::dispatch);
+        timerWheel.start();
+
+        if(redisBridge){
+            bridgeContainer = new RedisMessageListenerContainer();
+            bridgeContainer.setConnectionFactory(redisConnectionFactory);
+            bridgeContainer.addMessageListener((message, pattern) -> receiveBridge(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(BRIDGE_CHANNEL));
+            bridgeContainer.afterPropertiesSet();
+            bridgeContainer.start();
+        }
+
+        persistEnabled = StrUtil.isNotBlank(persistPath);
+        if(persistEnabled){
+            recover();
+            persistExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "localMQPersist");
+                thread.setDaemon(true);
+                return thread;
+            });
+            persistExecutor.scheduleWithFixedDelay(this::persist, persistIntervalMs, persistIntervalMs, TimeUnit.MILLISECONDS);
+        }
+
+        JeepayMetrics.gauge("jeepay.mq.local.pending", pendingMap::size);
+        JeepayMetrics.gauge("jeepay.mq.local.delayed", timerWheel::size);
+        JeepayMetrics.gauge("jeepay.mq.local.consumer.queue", () -> consumerExecutor.getQueue().size());
+
+        log.info("本地MQ已启动, receivers={}, persist={}, redisBridge={}", receiverMap.keySet(), persistPath, redisBridge);
+    }
+
+    /** 发布消息， delaySeconds <= 0 为实时消息 **/
+    public void publish(AbstractMQ mqModel, int delaySeconds){
+
+        long now = System.currentTimeMillis();
+        LocalMQMessage msg = new LocalMQMessage(IdUtil.fastSimpleUUID(), nodeId, mqModel.getMQName(), mqModel.getMQType(),
+                mqModel.toMessage(), now + delaySeconds * 1000L);
+
+        if(delaySeconds <= 0){
+            dispatch(msg);
+            return;
+        }
+
+        track(msg);
+        timerWheel.schedule(msg, delaySeconds, TimeUnit.SECONDS);
+    }
+
+    /** 投递消息： 本地接收器 和 Redis桥接 **/
+    private void dispatch(LocalMQMessage msg){
+
+        List<IMQMsgReceiver> receivers = receiverMap.get(msg.getMqName());
+        boolean hasLocal = receivers != null;
+
+        if(hasLocal){
+            track(msg);
+            submit(msg, receivers);
+        }else{
+            untrack(msg);
+        }
+
+        if(redisBridge && (!hasLocal || msg.getMqType() == MQSendTypeEnum.BROADCAST)){
+            stringRedisTemplate.convertAndSend(BRIDGE_CHANNEL, JSON.toJSONString(msg));
+        }else if(!hasLocal){
+            log.warn("本地MQ无接收器, 消息已丢弃. mq={}, body={}", msg.getMqName(), msg.getBody());
+        }
+    }
+
+    /** 接收其他节点转发的消息 （不做持久化） **/
+    private void receiveBridge(String text){
+
+        LocalMQMessage msg = JSON.parseObject(text, LocalMQMessage.class);
+        if(nodeId.equals(msg.getNode())){
+            return;
+        }
+
+        List<IMQMsgReceiver> receivers = receiverMap.get(msg.getMqName());
+        if(receivers != null){
+            submit(msg, receivers);
+        }
+    }
+
+    /** 提交到消费线程池， 消费队列已满时由当前线程直接消费 （背压， 不丢弃消息） **/
+    private void submit(LocalMQMessage msg, List<IMQMsgReceiver> receivers){
+
+        try {
+            consumerExecutor.execute(() -> consume(msg, receivers));
+        } catch (RejectedExecutionException e) {
+
+            // 已停止： 消息保留在持久化数据中， 重启后恢复
+            if(consumerExecutor.isShutdown()){
+                log.warn("本地MQ已停止, 消息未消费, mq={}, persist={}", msg.getMqName(), persistEnabled);
+                return;
+            }
+
+            JeepayMetrics.increment("jeepay.mq.local.consumer.rejected", "mq", msg.getMqName());
+            consume(msg, receivers);
+        }
+    }
+
+    /** 同步消费， 全部接收器处理完成后移除持久化记录 **/
+    private void consume(LocalMQMessage msg, List<IMQMsgReceiver> receivers){
+
+        for (IMQMsgReceiver receiver : receivers) {
+            try {
+                receiver.receiveMsg(msg.getBody());
+            } catch (Exception e) {
+                log.error("本地MQ消息处理异常, mq={}, body={}", msg.getMqName(), msg.getBody(), e);
+            }
+        }
+        untrack(msg);
+    }
+
+    private void track(LocalMQMessage msg){
+        if(persistEnabled && pendingMap.put(msg.getId(), msg) == null){
+            dirty.set(true);
+        }
+    }
+
+    private void untrack(LocalMQMessage msg){
+        if(pendingMap.remove(msg.getId()) != null){
+            dirty.set(true);
+        }
+    }
+
+    /** 启动时恢复持久化的消息 **/
+    private void recover(){
+
+        Path path = Paths.get(persistPath);
+        if(!Files.exists(path)){
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if(StrUtil.isBlank(line)){
+                    continue;
+                }
+                LocalMQMessage msg = JSON.parseObject(line, LocalMQMessage.class);
+                msg.setNode(nodeId);
+                pendingMap.put(msg.getId(), msg);
+
+                long remaining = msg.getDeliverAt() - now;
+                if(remaining > 0){
+                    timerWheel.schedule(msg, remaining, TimeUnit.MILLISECONDS);
+                }else{
+                    dispatch(msg);
+                }
+            }
+            log.info("本地MQ恢复持久化消息{}条, path={}", lines.size(), persistPath);
+        } catch (Exception e) {
+            log.error("本地MQ恢复持久化消息异常, path={}", persistPath, e);
+        }
+    }
+
+    /** 写入快照文件： 先写临时文件再原子替换 **/
+    private void persist(){
+
+        if(!dirty.compareAndSet(true, false)){
+            return;
+        }
+
+        Path path = Paths.get(persistPath);
+        Path tmpPath = Paths.get(persistPath + ".tmp");
+        try {
+            if(path.getParent() != null){
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpPath, StandardCharsets.UTF_8)) {
+                for (LocalMQMessage msg : pendingMap.values()) {
+                    writer.write(JSON.toJSONString(msg));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            dirty.set(true);
+            log.error("本地MQ持久化异常, path={}", persistPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+
+        timerWheel.stop();
+        if(bridgeContainer != null){
+            bridgeContainer.destroy();
+        }
+
+        consumerExecutor.shutdown();
+        if(!consumerExecutor.awaitTermination(5, TimeUnit.SECONDS)){
+            log.warn("本地MQ关闭时仍有消息未消费完成, pending={}", pendingMap.size());
+        }
+
+        if(persistExecutor != null){
+            persistExecutor.shutdownNow();
+            dirty.set(true);
+            persist();
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+* 本地MQ消息载体 （持久化文件、 Redis桥接时使用该格式）
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:06
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocalMQMessage {
+
+    /** 消息ID **/
+    private String id;
+
+    /** 发送节点ID **/
+    private String node;
+
+    /** MQ名称 **/
+    private String mqName;
+
+    /** MQ类型 **/
+    private MQSendTypeEnum mqType;
+
+    /** 消息体 **/
+    private String body;
+
+    /** 投递时间 （毫秒时间戳） **/
+    private Long deliverAt;
+
+}
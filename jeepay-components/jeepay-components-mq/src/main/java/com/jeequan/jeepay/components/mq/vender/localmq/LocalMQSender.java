@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.vender.AbstractMQSender;
+import com.jeequan.jeepay.components.mq.vender.MQSendCallback;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+*  本地MQ（进程内） 消息发送器的实现
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:40
+*/
+@Component
+@ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.LOCAL_MQ)
+public class LocalMQSender extends AbstractMQSender {
+
+    @Autowired private LocalMQBroker localMQBroker;
+
+    @Override
+    public void send(AbstractMQ mqModel) {
+        localMQBroker.publish(mqModel, 0);
+    }
+
+    @Override
+    public void send(AbstractMQ mqModel, int delay) {
+        // 时间轮按实际秒数延迟， 无需匹配延迟级别
+        localMQBroker.publish(mqModel, delay);
+    }
+
+    /** 进程内发布不阻塞， 直接在调用线程完成 **/
+    @Override
+    public void sendAsync(AbstractMQ mqModel, int delay, MQSendCallback callback) {
+
+        Throwable ex = null;
+        try {
+            localMQBroker.publish(mqModel, delay);
+        } catch (Exception e) {
+            ex = e;
+        }
+        complete(callback, mqModel, ex);
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+* 时间轮： 单层哈希时间轮 + 圈数， 到期任务交由expiredHandler处理。
+* 精度为1个tick， 任务不会提前到期， 最多延后1个tick。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:10
+*/
+@Slf4j
+public class LocalMQTimerWheel<T> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Timeout<T>>[] wheel;
+    private final Consumer<T> expiredHandler;
+
+    /** 新增任务先进入该队列， 由工作线程在每个tick放入时间轮， 时间轮本身无需加锁 **/
+    private final Queue<Timeout<T>> pendingQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Thread workerThread;
+    private volatile boolean running = true;
+    private long startTime;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public LocalMQTimerWheel(String name, long tickMs, int wheelSize, Consumer<T> expiredHandler) {
+
+        // 槽位数量调整为2的幂次， 使用位运算取槽位
+        int normalizedSize = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(tickMs, 1));
+        this.mask = normalizedSize - 1;
+        this.wheel = new ArrayDeque[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.expiredHandler = expiredHandler;
+        this.workerThread = new Thread(this::run, name);
+        this.workerThread.setDaemon(true);
+    }
+
+    public void start(){
+        startTime = System.nanoTime();
+        workerThread.start();
+    }
+
+    public void stop(){
+        running = false;
+        workerThread.interrupt();
+    }
+
+    /** 添加延迟任务 **/
+    public void schedule(T task, long delay, TimeUnit unit){
+        long deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+        pendingQueue.add(new Timeout<>(task, deadline));
+        size.incrementAndGet();
+    }
+
+    /** 等待到期的任务数量 **/
+    public int size(){
+        return size.get();
+    }
+
+    private void run(){
+
+        while (running) {
+
+            long tickDeadline = tickNanos * (tick + 1);
+            long sleepNanos = tickDeadline - (System.nanoTime() - startTime);
+            if(sleepNanos > 0){
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+
+            transferPending();
+            expireBucket(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    /** 将新任务放入对应槽位 **/
+    private void transferPending(){
+
+        Timeout<T> timeout;
+        while ((timeout = pendingQueue.poll()) != null) {
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+
+            // 已过期的任务放入当前槽位， 本次tick即执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<Timeout<T>> bucket){
+
+        Iterator<Timeout<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<T> timeout = iterator.next();
+            if(timeout.remainingRounds > 0){
+                timeout.remainingRounds--;
+                continue;
+            }
+
+            iterator.remove();
+            size.decrementAndGet();
+            try {
+                expiredHandler.accept(timeout.task);
+            } catch (Exception e) {
+                log.error("时间轮任务处理异常", e);
+            }
+        }
+    }
+
+    private static class Timeout<T> {
+
+        private final T task;
+        private final long deadline;
+        private long remainingRounds;
+
+        private Timeout(T task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+
+}
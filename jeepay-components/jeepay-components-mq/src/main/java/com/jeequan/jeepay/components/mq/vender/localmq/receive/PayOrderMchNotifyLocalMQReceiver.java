@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender.localmq.receive;
+
+import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQMsgReceiver;
+import com.jeequan.jeepay.components.mq.vender.localmq.LocalMQListener;
+import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 本地MQ消息接收器：仅在vender=localMQ时 && 项目实现IMQReceiver接口时 进行实例化
+ * 业务：  支付订单商户通知
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 14:45
+ */
+@Component
+@ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.LOCAL_MQ)
+@ConditionalOnBean(PayOrderMchNotifyMQ.IMQReceiver.class)
+@LocalMQListener(PayOrderMchNotifyMQ.MQ_NAME)
+public class PayOrderMchNotifyLocalMQReceiver implements IMQMsgReceiver {
+
+    @Autowired
+    private PayOrderMchNotifyMQ.IMQReceiver mqReceiver;
+
+    /** 接收 【 queue 】 类型的消息 （在本地MQ消费线程中同步处理， 处理完成后消息才会确认） **/
+    @Override
+    public void receiveMsg(String msg){
+        mqReceiver.receive(PayOrderMchNotifyMQ.parse(msg));
+    }
+
+}
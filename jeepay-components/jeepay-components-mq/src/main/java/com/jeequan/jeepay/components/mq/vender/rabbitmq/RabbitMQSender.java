@@ -18,12 +18,17 @@ package com.jeequan.jeepay.components.mq.vender.rabbitmq;
 import com.jeequan.jeepay.components.mq.constant.MQSendTypeEnum;
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.AbstractMQSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  *  rabbitMQ 消息发送器的实现
  *
@@ -31,24 +36,17 @@ import org.springframework.stereotype.Component;
  * @site https://www.jeequan.com
  * @date 2021/7/23 16:52
  */
+@Slf4j
 @Component
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.RABBIT_MQ)
-public class RabbitMQSender implements IMQSender {
+public class RabbitMQSender extends AbstractMQSender {
 
     @Autowired
     private RabbitTemplate rabbitTemplate;
 
     @Override
     public void send(AbstractMQ mqModel) {
-
-        if(mqModel.getMQType() == MQSendTypeEnum.QUEUE){
-
-            rabbitTemplate.convertAndSend(mqModel.getMQName(), mqModel.toMessage());
-        }else{
-
-            // fanout模式 的 routeKEY 没意义。
-            this.rabbitTemplate.convertAndSend(RabbitMQConfig.FANOUT_EXCHANGE_NAME_PREFIX + mqModel.getMQName(), null, mqModel.toMessage());
-        }
+        send(rabbitTemplate, mqModel);
     }
 
     @Override
@@ -68,4 +66,32 @@ public class RabbitMQSender implements IMQSender {
         }
     }
 
+    @Override
+    public List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels) {
+
+        // 同一批消息使用同一个channel发送
+        try {
+            rabbitTemplate.invoke(operations -> {
+                mqModels.forEach(mqModel -> send(operations, mqModel));
+                return null;
+            });
+            return new ArrayList<>();
+        } catch (Exception e) {
+            log.error("MQ消息批量发送异常, size={}", mqModels.size(), e);
+            return new ArrayList<>(mqModels);
+        }
+    }
+
+    private void send(RabbitOperations operations, AbstractMQ mqModel) {
+
+        if(mqModel.getMQType() == MQSendTypeEnum.QUEUE){
+
+            operations.convertAndSend(mqModel.getMQName(), mqModel.toMessage());
+        }else{
+
+            // fanout模式 的 routeKEY 没意义。
+            operations.convertAndSend(RabbitMQConfig.FANOUT_EXCHANGE_NAME_PREFIX + mqModel.getMQName(), null, mqModel.toMessage());
+        }
+    }
+
 }
@@ -17,15 +17,22 @@ package com.jeequan.jeepay.components.mq.vender.rocketmq;
 
 import com.jeequan.jeepay.components.mq.constant.MQVenderCS;
 import com.jeequan.jeepay.components.mq.model.AbstractMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.AbstractMQSender;
+import com.jeequan.jeepay.components.mq.vender.MQSendCallback;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
 
 /**
@@ -35,9 +42,10 @@ import java.util.TreeMap;
  * @site https://www.jeequan.com
  * @date 2021/7/26 11:52
  */
+@Slf4j
 @Component
 @ConditionalOnProperty(name = MQVenderCS.YML_VENDER_KEY, havingValue = MQVenderCS.ROCKET_MQ)
-public class RocketMQSender implements IMQSender {
+public class RocketMQSender extends AbstractMQSender {
 
     private static final List<Integer> DELAY_TIME_LEVEL = new ArrayList<>();
     static{
@@ -75,6 +83,58 @@ public class RocketMQSender implements IMQSender {
         rocketMQTemplate.syncSend(mqModel.getMQName(), MessageBuilder.withPayload(mqModel.toMessage()).build(),300000, getNearDelayLevel(delay));
     }
 
+    @Override
+    public void sendAsync(AbstractMQ mqModel, int delay, MQSendCallback callback) {
+
+        SendCallback sendCallback = new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                complete(callback, mqModel, null);
+            }
+
+            @Override
+            public void onException(Throwable e) {
+                complete(callback, mqModel, e);
+            }
+        };
+
+        try {
+            Message<String> message = MessageBuilder.withPayload(mqModel.toMessage()).build();
+            if(delay > 0){
+                rocketMQTemplate.asyncSend(mqModel.getMQName(), message, sendCallback, 300000, getNearDelayLevel(delay));
+            }else{
+                rocketMQTemplate.asyncSend(mqModel.getMQName(), message, sendCallback);
+            }
+        } catch (Exception e) {
+            complete(callback, mqModel, e);
+        }
+    }
+
+    @Override
+    public List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels) {
+
+        // 按topic分组， 同一topic的消息合并为一次请求
+        Map<String, List<AbstractMQ>> topicMap = new LinkedHashMap<>();
+        mqModels.forEach(mqModel -> topicMap.computeIfAbsent(mqModel.getMQName(), k -> new ArrayList<>()).add(mqModel));
+
+        List<AbstractMQ> failList = new ArrayList<>();
+        topicMap.forEach((topic, list) -> {
+            try {
+                if(list.size() == 1){
+                    send(list.get(0));
+                    return;
+                }
+                List<Message<String>> messages = new ArrayList<>(list.size());
+                list.forEach(mqModel -> messages.add(MessageBuilder.withPayload(mqModel.toMessage()).build()));
+                rocketMQTemplate.syncSend(topic, messages);
+            } catch (Exception e) {
+                log.error("MQ消息批量发送异常, topic={}, size={}", topic, list.size(), e);
+                failList.addAll(list);
+            }
+        });
+        return failList;
+    }
+
     /** 获取最接近的节点值 **/
     private int getNearDelayLevel(int delay){
 
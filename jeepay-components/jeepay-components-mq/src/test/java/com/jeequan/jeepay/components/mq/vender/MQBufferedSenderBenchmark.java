@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender;
+
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+* MQ 缓冲发送器 基准测试 （ 调用方线程的单次发送耗时 ）
+*   对比： IMQSender 同步发送 与 MQBufferedSender 缓冲合并发送
+*   模拟Broker： 每次网络往返耗时 brokerRttMicros ， 批量发送一次往返发送整批消息
+*   运行： 执行main方法， 或 java -cp <test-classpath> org.openjdk.jmh.Main MQBufferedSenderBenchmark
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 12:10
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MQBufferedSenderBenchmark {
+
+    /** 模拟Broker网络往返耗时（微秒） **/
+    @Param({"500", "2000"})
+    private long brokerRttMicros;
+
+    private SimulatedBrokerSender brokerSender;
+
+    private MQBufferedSender bufferedSender;
+
+    @Setup(Level.Trial)
+    public void setup(){
+
+        brokerSender = new SimulatedBrokerSender(brokerRttMicros);
+
+        bufferedSender = new MQBufferedSender();
+        setField(bufferedSender, "enabled", true);
+        setField(bufferedSender, "windowMs", 5L);
+        setField(bufferedSender, "batchSize", 64);
+        setField(bufferedSender, "capacity", 10000);
+        setField(bufferedSender, "maxRetry", 8);
+        setField(bufferedSender, "mqSender", brokerSender);
+        bufferedSender.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        bufferedSender.destroy();
+        System.out.printf("%nbroker往返次数: %d, 送达消息数: %d%n", brokerSender.roundTrips.get(), brokerSender.sentCount.get());
+    }
+
+    /** 原实现： 调用方线程同步发送 **/
+    @Benchmark
+    @Threads(8)
+    public void syncSend() {
+        brokerSender.send(PayOrderMchNotifyMQ.build(1L));
+    }
+
+    /** 当前实现： 放入缓冲队列， 发送线程合并发送 （ 队列满时退化为同步发送 ） **/
+    @Benchmark
+    @Threads(8)
+    public void bufferedSend() {
+        bufferedSender.send(PayOrderMchNotifyMQ.build(1L));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MQBufferedSenderBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    private static void setField(Object target, String name, Object value){
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /** 模拟Broker的发送器 **/
+    private static class SimulatedBrokerSender extends AbstractMQSender {
+
+        private final long rttNanos;
+        private final AtomicLong roundTrips = new AtomicLong();
+        private final AtomicLong sentCount = new AtomicLong();
+
+        SimulatedBrokerSender(long rttMicros) {
+            this.rttNanos = TimeUnit.MICROSECONDS.toNanos(rttMicros);
+        }
+
+        @Override
+        public void send(AbstractMQ mqModel) {
+            roundTrip(1);
+        }
+
+        @Override
+        public void send(AbstractMQ mqModel, int delay) {
+            roundTrip(1);
+        }
+
+        @Override
+        public List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels) {
+            roundTrip(mqModels.size());
+            return Collections.emptyList();
+        }
+
+        private void roundTrip(int size){
+            LockSupport.parkNanos(rttNanos);
+            roundTrips.incrementAndGet();
+            sentCount.addAndGet(size);
+        }
+    }
+
+}
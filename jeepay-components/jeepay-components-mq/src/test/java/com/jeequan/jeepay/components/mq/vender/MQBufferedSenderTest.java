@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender;
+
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * MQ缓冲发送器测试： 仅重试未送达的消息， 应用停止时发送重试缓冲区中的消息
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 15:05
+ */
+public class MQBufferedSenderTest {
+
+    private final StubSender stubSender = new StubSender();
+
+    private MQBufferedSender bufferedSender;
+
+    @After
+    public void tearDown(){
+        if(bufferedSender != null){
+            bufferedSender.destroy();
+        }
+    }
+
+    @Test
+    public void partialBatchFailureRetriesOnlyUndelivered() throws Exception {
+
+        stubSender.batchFailIds.add(2L);
+        bufferedSender = newBufferedSender();
+
+        bufferedSender.send(PayOrderMchNotifyMQ.build(1L));
+        bufferedSender.send(PayOrderMchNotifyMQ.build(2L));
+        bufferedSender.send(PayOrderMchNotifyMQ.build(3L));
+
+        waitDelivered(3, 5000);
+
+        assertEquals(1, stubSender.deliveredCount(1L));
+        assertEquals(1, stubSender.deliveredCount(2L));
+        assertEquals(1, stubSender.deliveredCount(3L));
+    }
+
+    @Test
+    public void batchExceptionRetriesEachMessageOnce() throws Exception {
+
+        stubSender.batchThrows = true;
+        bufferedSender = newBufferedSender();
+
+        bufferedSender.send(PayOrderMchNotifyMQ.build(1L));
+        bufferedSender.send(PayOrderMchNotifyMQ.build(2L));
+
+        waitDelivered(2, 5000);
+
+        assertEquals(1, stubSender.deliveredCount(1L));
+        assertEquals(1, stubSender.deliveredCount(2L));
+    }
+
+    @Test
+    public void retryBufferSentOnShutdown() throws Exception {
+
+        stubSender.sendFailing = true;
+        stubSender.batchFailIds.add(1L);
+        bufferedSender = newBufferedSender();
+
+        bufferedSender.send(PayOrderMchNotifyMQ.build(1L));
+
+        // 等待进入重试缓冲区 （ 首次重试间隔1秒 ）
+        long deadline = System.currentTimeMillis() + 3000;
+        while (stubSender.batchCallCount.get() == 0 && System.currentTimeMillis() < deadline){
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(0, stubSender.deliveredCount(1L));
+
+        stubSender.sendFailing = false;
+        bufferedSender.destroy();
+        bufferedSender = null;
+
+        assertEquals(1, stubSender.deliveredCount(1L));
+    }
+
+    private MQBufferedSender newBufferedSender(){
+
+        MQBufferedSender sender = new MQBufferedSender();
+        setField(sender, "enabled", true);
+        setField(sender, "windowMs", 20L);
+        setField(sender, "batchSize", 64);
+        setField(sender, "capacity", 100);
+        setField(sender, "maxRetry", 8);
+        setField(sender, "mqSender", stubSender);
+        sender.init();
+        return sender;
+    }
+
+    private void waitDelivered(int count, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (stubSender.totalDelivered() < count && System.currentTimeMillis() < deadline){
+            Thread.sleep(10);
+        }
+        Thread.sleep(100); // 等待可能的重复发送
+    }
+
+    private static void setField(Object target, String name, Object value){
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /** 记录送达次数的发送器 **/
+    static class StubSender implements IMQSender {
+
+        final Map<Long, AtomicInteger> deliveredMap = new ConcurrentHashMap<>();
+        final List<Long> batchFailIds = new ArrayList<>();
+        final AtomicInteger batchCallCount = new AtomicInteger();
+        volatile boolean batchThrows = false;
+        volatile boolean sendFailing = false;
+
+        @Override
+        public void send(AbstractMQ mqModel) {
+            if(sendFailing){
+                throw new IllegalStateException("send fail");
+            }
+            deliver(mqModel);
+        }
+
+        @Override
+        public void send(AbstractMQ mqModel, int delay) {
+            send(mqModel);
+        }
+
+        @Override
+        public void sendAsync(AbstractMQ mqModel, int delay, MQSendCallback callback) {
+            send(mqModel);
+            callback.onComplete(mqModel, null);
+        }
+
+        @Override
+        public List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels) {
+
+            // 首次批量发送： 部分送达 或 整批异常
+            if(batchCallCount.getAndIncrement() == 0){
+                if(batchThrows){
+                    throw new IllegalStateException("batch fail");
+                }
+                List<AbstractMQ> failList = new ArrayList<>();
+                for (AbstractMQ mqModel : mqModels) {
+                    if(batchFailIds.contains(notifyId(mqModel))){
+                        failList.add(mqModel);
+                    }else{
+                        deliver(mqModel);
+                    }
+                }
+                return failList;
+            }
+
+            mqModels.forEach(this::send);
+            return new ArrayList<>();
+        }
+
+        int deliveredCount(Long notifyId){
+            AtomicInteger count = deliveredMap.get(notifyId);
+            return count == null ? 0 : count.get();
+        }
+
+        int totalDelivered(){
+            return deliveredMap.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+
+        private void deliver(AbstractMQ mqModel){
+            deliveredMap.computeIfAbsent(notifyId(mqModel), k -> new AtomicInteger()).incrementAndGet();
+        }
+
+        private static Long notifyId(AbstractMQ mqModel){
+            return ((PayOrderMchNotifyMQ) mqModel).getPayload().getNotifyId();
+        }
+    }
+
+}
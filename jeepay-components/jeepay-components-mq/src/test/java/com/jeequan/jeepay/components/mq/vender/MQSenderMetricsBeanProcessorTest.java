@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.components.mq.vender;
+
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.components.mq.executor.MqThreadExecutor;
+import com.jeequan.jeepay.components.mq.model.AbstractMQ;
+import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * MQ发送耗时统计及MQ线程池队列长度测试
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 11:15
+ */
+public class MQSenderMetricsBeanProcessorTest {
+
+    private static final String MQ_NAME = PayOrderMchNotifyMQ.MQ_NAME;
+
+    private final MQSenderMetricsBeanProcessor processor = new MQSenderMetricsBeanProcessor();
+
+    @Test
+    public void nonSenderBeanNotWrapped(){
+        Object bean = new Object();
+        assertSame(bean, processor.postProcessAfterInitialization(bean, "bean"));
+    }
+
+    @Test
+    public void sendRecordedByModeAndOutcome(){
+
+        StubSender stubSender = new StubSender();
+        IMQSender sender = (IMQSender) processor.postProcessAfterInitialization(stubSender, "stubSender");
+
+        long realtimeSuccess = sendCount("realtime", "success");
+        long delayFail = sendCount("delay", "fail");
+
+        sender.send(PayOrderMchNotifyMQ.build(1L));
+        assertEquals(1, stubSender.sentList.size());
+        assertEquals(realtimeSuccess + 1, sendCount("realtime", "success"));
+
+        stubSender.failing = true;
+        try {
+            sender.send(PayOrderMchNotifyMQ.build(2L), 10);
+            fail("发送异常应向外抛出");
+        } catch (IllegalStateException e) {
+            assertEquals(delayFail + 1, sendCount("delay", "fail"));
+        }
+    }
+
+    @Test
+    public void asyncSendRecordedOnCallback() throws Exception {
+
+        StubSender stubSender = new StubSender();
+        IMQSender sender = (IMQSender) processor.postProcessAfterInitialization(stubSender, "stubSender");
+
+        long asyncSuccess = sendCount("async", "success");
+
+        CountDownLatch latch = new CountDownLatch(1);
+        sender.sendAsync(PayOrderMchNotifyMQ.build(3L), 0, (model, e) -> latch.countDown());
+
+        latch.await();
+        assertEquals(asyncSuccess + 1, sendCount("async", "success"));
+    }
+
+    @Test
+    public void batchSendRecorded(){
+
+        StubSender stubSender = new StubSender();
+        IMQSender sender = (IMQSender) processor.postProcessAfterInitialization(stubSender, "stubSender");
+
+        JSONObject before = JeepayMetrics.snapshot("jeepay.mq.send.batch", "outcome", "success");
+        long count = before == null ? 0 : before.getLongValue("count");
+
+        List<AbstractMQ> list = new ArrayList<>();
+        list.add(PayOrderMchNotifyMQ.build(4L));
+        list.add(PayOrderMchNotifyMQ.build(5L));
+        assertTrue(sender.sendBatch(list).isEmpty());
+
+        assertEquals(count + 1, JeepayMetrics.snapshot("jeepay.mq.send.batch", "outcome", "success").getLongValue("count"));
+    }
+
+    @Test
+    public void executorQueueGaugeRegistered() throws Exception {
+
+        ThreadPoolExecutor executor = new MqThreadExecutor().mqSendExecutor();
+        try {
+            JSONObject gauge = JeepayMetrics.snapshot("jeepay.mq.executor.queue", "executor", MqThreadExecutor.EXECUTOR_MQ_SEND);
+            assertNotNull(gauge);
+            assertEquals(0, gauge.getIntValue("value"));
+
+            // 占满核心线程后， 新任务进入等待队列
+            CountDownLatch block = new CountDownLatch(1);
+            for (int i = 0; i < executor.getCorePoolSize() + 2; i++) {
+                executor.execute(() -> {
+                    try {
+                        block.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertEquals(2, JeepayMetrics.snapshot("jeepay.mq.executor.queue", "executor", MqThreadExecutor.EXECUTOR_MQ_SEND).getIntValue("value"));
+            block.countDown();
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long sendCount(String mode, String outcome){
+        JSONObject meter = JeepayMetrics.snapshot("jeepay.mq.send", "mq", MQ_NAME, "type", "QUEUE", "mode", mode, "outcome", outcome);
+        return meter == null ? 0 : meter.getLongValue("count");
+    }
+
+    /** 模拟MQ发送器 **/
+    static class StubSender implements IMQSender {
+
+        private final List<AbstractMQ> sentList = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile boolean failing = false;
+
+        @Override
+        public void send(AbstractMQ mqModel) {
+            if(failing){
+                throw new IllegalStateException("mq unavailable");
+            }
+            sentList.add(mqModel);
+        }
+
+        @Override
+        public void send(AbstractMQ mqModel, int delay) {
+            send(mqModel);
+        }
+
+        @Override
+        public void sendAsync(AbstractMQ mqModel, int delay, MQSendCallback callback) {
+            new Thread(() -> {
+                Throwable error = null;
+                try {
+                    send(mqModel);
+                } catch (Exception e) {
+                    error = e;
+                }
+                callback.onComplete(mqModel, error);
+            }).start();
+        }
+
+        @Override
+        public List<AbstractMQ> sendBatch(List<AbstractMQ> mqModels) {
+            sentList.addAll(mqModels);
+            return new ArrayList<>();
+        }
+    }
+
+}
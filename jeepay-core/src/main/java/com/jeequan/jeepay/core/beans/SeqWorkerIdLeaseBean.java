@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.beans;
+
+import cn.hutool.core.util.IdUtil;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.utils.SeqIdWorker;
+import com.jeequan.jeepay.core.utils.SeqKit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+
+/*
+* 序列号生成器 workerId 分配
+*  1. 配置了 [isys.seq.worker-id] (0 ~ 127) 时， 直接使用该值；
+*  2. 否则通过Redis租约抢占一个空闲的workerId（ 在web服务启动前完成 ）， 并定时续期（ lua脚本比较租约标识后续期 ）；
+*     仅在租约确认有效期内生成ID： 续期失败（如Redis不可用）超过租约时长后暂停生成， 租约丢失后立即暂停并重新抢占，
+*     避免租约过期后其他节点抢占同一workerId导致订单号重复。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:20
+*/
+@Slf4j
+@Component
+public class SeqWorkerIdLeaseBean implements SmartInitializingSingleton {
+
+    /** 租约缓存key **/
+    private static final String CACHE_KEY_SEQ_WORKER_ID = "SEQ_WORKER_ID_%s";
+
+    /** 租约时长（秒）， 续期间隔需远小于该值 **/
+    private static final long LEASE_SECONDS = 60;
+
+    /** 本地有效期的安全余量（毫秒）： 本地认为的租约截止时间早于Redis中的过期时间， 抵消网络延迟及时钟误差 **/
+    private static final long LEASE_SAFETY_MILLIS = 5000;
+
+    /** 配置的workerId, 小于0表示使用Redis租约 **/
+    @Value("${isys.seq.worker-id:-1}")
+    private int configWorkerId;
+
+    /** 当前节点的租约标识 **/
+    private final String leaseToken = IdUtil.fastSimpleUUID();
+
+    /** 当前持有租约的workerId, 小于0表示未持有 **/
+    private volatile int leaseWorkerId = -1;
+
+    /** 所有单例初始化完成后（ web服务、MQ监听启动前 ）分配workerId **/
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        if(configWorkerId >= 0){
+            SeqKit.setWorkerId(configWorkerId);
+            log.info("序列号生成器使用配置的workerId={}", configWorkerId);
+            return ;
+        }
+
+        // 租约确认前不允许生成ID
+        SeqKit.setWorkerIdValidUntil(0);
+
+        try {
+            acquireLease();
+        } catch (Exception e) {
+            log.error("序列号生成器workerId租约抢占异常， 暂停生成订单号， 等待下次重试", e);
+        }
+    }
+
+    /** 租约续期 （ 未持有租约时重新抢占 ） **/
+    @Scheduled(fixedDelay = 20000, initialDelay = 20000)
+    public void renewLease() {
+
+        if(configWorkerId >= 0){
+            return ;
+        }
+
+        try {
+
+            if(leaseWorkerId >= 0){
+
+                long startTime = System.currentTimeMillis();
+                if(RedisUtil.expireIfEquals(getCacheKey(leaseWorkerId), leaseToken, LEASE_SECONDS)){
+                    SeqKit.setWorkerIdValidUntil(getValidUntil(startTime));
+                    return ;
+                }
+
+                // 租约已丢失（已被其他节点抢占）， 立即暂停生成ID
+                SeqKit.setWorkerIdValidUntil(0);
+                log.warn("序列号生成器workerId={}租约已丢失， 暂停生成订单号并重新抢占.", leaseWorkerId);
+                leaseWorkerId = -1;
+            }
+
+            acquireLease();
+
+        } catch (Exception e) {
+            // 续期异常时不延长有效期， 超过有效期后自动暂停生成ID
+            log.error("序列号生成器workerId续期异常", e);
+        }
+    }
+
+    /** 释放租约 **/
+    @PreDestroy
+    public void releaseLease() {
+
+        try {
+            if(leaseWorkerId >= 0){
+                SeqKit.setWorkerIdValidUntil(0);
+                RedisUtil.delIfEquals(getCacheKey(leaseWorkerId), leaseToken);
+            }
+        } catch (Exception e) {
+            log.error("序列号生成器workerId释放异常", e);
+        }
+    }
+
+    /** 从默认workerId开始依次尝试抢占 **/
+    private void acquireLease() {
+
+        int startId = SeqKit.getWorkerId();
+        for (int i = 0; i <= SeqIdWorker.MAX_WORKER_ID; i++) {
+
+            int workerId = (startId + i) & SeqIdWorker.MAX_WORKER_ID;
+            long startTime = System.currentTimeMillis();
+            if(RedisUtil.setIfAbsent(getCacheKey(workerId), leaseToken, LEASE_SECONDS)){
+                leaseWorkerId = workerId;
+                SeqKit.setWorkerId(workerId, getValidUntil(startTime));
+                log.info("序列号生成器通过Redis租约获取workerId={}", workerId);
+                return ;
+            }
+        }
+
+        log.error("序列号生成器无可用workerId, 暂停生成订单号， 请配置[isys.seq.worker-id]或检查Redis中的[{}]租约", String.format(CACHE_KEY_SEQ_WORKER_ID, "*"));
+    }
+
+    /** 本地租约有效截止时间： 以发起请求的时间计算， 并预留安全余量 **/
+    private static long getValidUntil(long requestStartTime){
+        return requestStartTime + LEASE_SECONDS * 1000 - LEASE_SAFETY_MILLIS;
+    }
+
+    private static String getCacheKey(int workerId){
+        return String.format(CACHE_KEY_SEQ_WORKER_ID, workerId);
+    }
+
+}
@@ -18,6 +18,14 @@ package com.jeequan.jeepay.core.cache;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.model.security.JeeUserDetails;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /*
 * token service
 *
@@ -27,6 +35,15 @@ import com.jeequan.jeepay.core.model.security.JeeUserDetails;
 */
 public class ITokenService {
 
+    /** 本地缓存的最大数量, 超出时清理已过期的数据 **/
+    private static final int LOCAL_CACHE_MAX_SIZE = 10000;
+
+    /** 当前节点的登录用户本地缓存，  key = 请求中的原始token字符串 **/
+    private static final Map<String, LocalTokenCache> LOCAL_TOKEN_CACHE = new ConcurrentHashMap<>();
+
+    /** 当前节点记录的token上次续签时间(ms)，  key = token的cacheKey **/
+    private static final Map<String, Long> LOCAL_RENEW_TIME = new ConcurrentHashMap<>();
+
     /** 处理token信息
      * 1. 如果不允许多用户则踢掉之前的所有用户信息
      * 2. 更新token 缓存时间信息
@@ -49,14 +66,151 @@ public class ITokenService {
 
         //保存token
         RedisUtil.set(cacheKey, userDetail, CS.TOKEN_TIME);  //缓存时间2小时, 保存具体信息而只是uid, 因为很多场景需要得到信息， 例如验证接口权限， 每次请求都需要获取。 将信息封装在一起减少磁盘请求次数， 如果放置多个key会增加非顺序读取。
+
+        //更新用户token列表
+        Long sysUserId = userDetail.getSysUser().getSysUserId();
+        String tokenSetKey = CS.getCacheKeyTokenSet(sysUserId);
+        removeExpiredToken(tokenSetKey);
+        RedisUtil.sAdd(tokenSetKey, cacheKey);
+        RedisUtil.expire(tokenSetKey, CS.TOKEN_TIME);
+    }
+
+    /** token续签， 同时续签用户token列表 (列表的有效期不得小于其中任意一个token)
+     * renewInterval: 续签间隔(秒)， 仅当距离上次续签超过该间隔时才更新redis有效期,  <= 0 表示每次都续签
+     * 续签时将token补充至用户token列表 （ 兼容升级前已登录、 未在列表中的token， 保证"删除用户所有token"时可以查询到 ）
+     * **/
+    public static void renewTokenCache(String cacheKey, Long sysUserId, long renewInterval){
+
+        // 根据当前节点记录的上次续签时间判断， 续签间隔内不访问redis
+        long currentTime = System.currentTimeMillis();
+        if(renewInterval > 0){
+            Long lastRenewTime = LOCAL_RENEW_TIME.get(cacheKey);
+            if(lastRenewTime != null && currentTime - lastRenewTime < renewInterval * 1000){
+                return ;
+            }
+            putLocalRenewTime(cacheKey, currentTime);
+        }
+
+        String tokenSetKey = CS.getCacheKeyTokenSet(sysUserId);
+        List<String> keyList = new ArrayList<>(2);
+        keyList.add(cacheKey);
+        keyList.add(tokenSetKey);
+        RedisUtil.sAddAndMultiExpire(tokenSetKey, cacheKey, keyList, CS.TOKEN_TIME);
+    }
+
+    /** 查询用户当前所有登录token的cacheKey **/
+    public static Collection<String> getTokenCacheKeys(Long sysUserId){
+        return RedisUtil.sMembers(CS.getCacheKeyTokenSet(sysUserId));
     }
 
+    /** 删除用户所有的token信息 （如： 用户被禁用、删除） **/
+    public static void removeAllIToken(Collection<Long> sysUserIdList){
+
+        if(sysUserIdList == null || sysUserIdList.isEmpty()){
+            return ;
+        }
+
+        List<String> delKeyList = new ArrayList<>();
+        for (Long sysUserId : sysUserIdList) {
+            delKeyList.addAll(getTokenCacheKeys(sysUserId));
+            delKeyList.add(CS.getCacheKeyTokenSet(sysUserId));
+        }
+        RedisUtil.del(delKeyList.toArray(new String[0]));
+
+        removeLocalTokenCache(sysUserIdList);
+    }
 
     /** 退出时，清除token信息 */
     public static void removeIToken(String iToken, Long currentUID){
 
         //1. 清除token的信息
         RedisUtil.del(iToken);
+
+        //2. 更新用户token列表
+        RedisUtil.sRemove(CS.getCacheKeyTokenSet(currentUID), iToken);
+
+        //3. 清除本地缓存
+        removeLocalTokenCache(iToken);
+    }
+
+    /** 查询本地缓存的登录用户信息， 不存在或已过期返回null **/
+    public static JeeUserDetails getLocalTokenCache(String authToken){
+
+        LocalTokenCache localTokenCache = LOCAL_TOKEN_CACHE.get(authToken);
+        if(localTokenCache == null){
+            return null;
+        }
+
+        if(localTokenCache.expireTime < System.currentTimeMillis()){
+            LOCAL_TOKEN_CACHE.remove(authToken, localTokenCache);
+            return null;
+        }
+        return localTokenCache.userDetails;
+    }
+
+    /** 放置本地缓存的登录用户信息， cacheTime: 缓存时间(秒) **/
+    public static void putLocalTokenCache(String authToken, JeeUserDetails userDetails, long cacheTime){
+
+        if(cacheTime <= 0){
+            return ;
+        }
+
+        long currentTime = System.currentTimeMillis();
+        if(LOCAL_TOKEN_CACHE.size() >= LOCAL_CACHE_MAX_SIZE){
+            LOCAL_TOKEN_CACHE.values().removeIf(item -> item.expireTime < currentTime);
+            if(LOCAL_TOKEN_CACHE.size() >= LOCAL_CACHE_MAX_SIZE){
+                LOCAL_TOKEN_CACHE.clear();
+            }
+        }
+        LOCAL_TOKEN_CACHE.put(authToken, new LocalTokenCache(userDetails, currentTime + cacheTime * 1000));
+    }
+
+    /** 清除本地缓存： 根据token的cacheKey **/
+    public static void removeLocalTokenCache(String cacheKey){
+        LOCAL_TOKEN_CACHE.values().removeIf(item -> cacheKey.equals(item.userDetails.getCacheKey()));
+        LOCAL_RENEW_TIME.remove(cacheKey);
+    }
+
+    /** 记录token的续签时间， 超出最大数量时清理已过期（超过token有效期未续签）的数据 **/
+    private static void putLocalRenewTime(String cacheKey, long renewTime){
+
+        if(LOCAL_RENEW_TIME.size() >= LOCAL_CACHE_MAX_SIZE){
+            long expiredTime = renewTime - CS.TOKEN_TIME * 1000;
+            LOCAL_RENEW_TIME.values().removeIf(item -> item < expiredTime);
+            if(LOCAL_RENEW_TIME.size() >= LOCAL_CACHE_MAX_SIZE){
+                LOCAL_RENEW_TIME.clear();
+            }
+        }
+        LOCAL_RENEW_TIME.put(cacheKey, renewTime);
+    }
+
+    /** 清除本地缓存： 根据用户ID集合 (如权限变更、用户禁用等场景) **/
+    public static void removeLocalTokenCache(Collection<Long> sysUserIdList){
+
+        if(sysUserIdList == null || sysUserIdList.isEmpty()){
+            return ;
+        }
+
+        Set<Long> sysUserIdSet = new HashSet<>(sysUserIdList);
+        LOCAL_TOKEN_CACHE.values().removeIf(item -> sysUserIdSet.contains(item.userDetails.getSysUser().getSysUserId()));
+    }
+
+    /** 清除用户token列表中已过期的token **/
+    private static void removeExpiredToken(String tokenSetKey){
+
+        List<String> cacheKeyList = new ArrayList<>(RedisUtil.sMembers(tokenSetKey));
+        if(cacheKeyList.isEmpty()){
+            return ;
+        }
+
+        List<Long> expireList = RedisUtil.multiGetExpire(cacheKeyList);
+        List<String> expiredKeyList = new ArrayList<>();
+        for (int i = 0; i < cacheKeyList.size(); i++) {
+            if(expireList.get(i) == -2){ // key不存在
+                expiredKeyList.add(cacheKeyList.get(i));
+            }
+        }
+        RedisUtil.sRemove(tokenSetKey, expiredKeyList.toArray());
     }
 
     /**
@@ -67,6 +221,22 @@ public class ITokenService {
         //保存token 和 tokenList信息
         RedisUtil.set(currentUserInfo.getCacheKey(), currentUserInfo, CS.TOKEN_TIME);  //缓存时间2小时, 保存具体信息而只是uid, 因为很多场景需要得到信息， 例如验证接口权限， 每次请求都需要获取。 将信息封装在一起减少磁盘请求次数， 如果放置多个key会增加非顺序读取。
 
+        removeLocalTokenCache(currentUserInfo.getCacheKey());
+    }
+
+    /** 本地缓存对象 **/
+    private static class LocalTokenCache {
+
+        /** 登录用户信息 **/
+        private final JeeUserDetails userDetails;
+
+        /** 过期时间(ms) **/
+        private final long expireTime;
+
+        LocalTokenCache(JeeUserDetails userDetails, long expireTime){
+            this.userDetails = userDetails;
+            this.expireTime = expireTime;
+        }
     }
 
 }
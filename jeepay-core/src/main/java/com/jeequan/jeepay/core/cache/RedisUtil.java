@@ -17,11 +17,20 @@ package com.jeequan.jeepay.core.cache;
 
 import com.alibaba.fastjson.JSON;
 import com.jeequan.jeepay.core.utils.SpringBeansUtil;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /*
@@ -35,6 +44,22 @@ public class RedisUtil {
 
     private static StringRedisTemplate stringRedisTemplate = null;
 
+    /** 比较后设置 **/
+    private static final DefaultRedisScript<Long> SET_IF_EQUALS_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('get', KEYS[1]) or '' " +
+            "if v == ARGV[1] then redis.call('set', KEYS[2], ARGV[2], 'EX', ARGV[3]) return 1 end " +
+            "return 0", Long.class);
+
+    /** 比较后设置过期时间 **/
+    private static final DefaultRedisScript<Long> EXPIRE_IF_EQUALS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('expire', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+
+    /** 比较后删除 **/
+    private static final DefaultRedisScript<Long> DEL_IF_EQUALS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end " +
+            "return 0", Long.class);
+
     /** 获取RedisTemplate对象, 默认使用 StringRedisTemplate, 客户端可查询 **/
     private static final RedisTemplate getStringRedisTemplate(){
 
@@ -79,6 +104,12 @@ public class RedisUtil {
         getStringRedisTemplate().opsForValue().set(key, value, time, timeUnit);
     }
 
+    /** 不存在时放入缓存并设置时间, 默认单位：秒 ， 返回是否放置成功 */
+    public static boolean setIfAbsent(String key, String value, long time) {
+        Boolean result = getStringRedisTemplate().opsForValue().setIfAbsent(key, value, time, TimeUnit.SECONDS);
+        return result != null && result;
+    }
+
     /** 放置缓存对象 */
     public static void set(String key, Object value) {
         setString(key, JSON.toJSONString(value));
@@ -134,4 +165,114 @@ public class RedisUtil {
         return getStringRedisTemplate().keys(pattern);
     }
 
+    /** 批量获取缓存数据(MGET), 返回结果与keys顺序一致, 不存在的key对应null **/
+    public static List<String> multiGetString(List<String> keys) {
+        if(keys == null || keys.isEmpty()){
+            return Collections.emptyList();
+        }
+        return getStringRedisTemplate().opsForValue().multiGet(keys);
+    }
+
+    /** 批量获取过期时间(pipeline), 单位：秒, 返回结果与keys顺序一致。  -1: 永久有效,  -2: key不存在 **/
+    public static List<Long> multiGetExpire(List<String> keys) {
+        if(keys == null || keys.isEmpty()){
+            return Collections.emptyList();
+        }
+        List<Object> resultList = getStringRedisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String key : keys) {
+                stringConnection.ttl(key);
+            }
+            return null;
+        });
+
+        List<Long> expireList = new ArrayList<>(resultList.size());
+        for (Object result : resultList) {
+            expireList.add(result == null ? -2L : (Long) result);
+        }
+        return expireList;
+    }
+
+    /** 批量放置缓存(pipeline),  expireMap中对应的过期时间 > 0 时设置过期时间, 单位：秒 **/
+    public static void multiSetString(Map<String, String> valueMap, Map<String, Long> expireMap) {
+        if(valueMap == null || valueMap.isEmpty()){
+            return ;
+        }
+        getStringRedisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (Map.Entry<String, String> entry : valueMap.entrySet()) {
+                Long time = expireMap == null ? null : expireMap.get(entry.getKey());
+                if(time != null && time > 0){
+                    stringConnection.setEx(entry.getKey(), time, entry.getValue());
+                }else{
+                    stringConnection.set(entry.getKey(), entry.getValue());
+                }
+            }
+            return null;
+        });
+    }
+
+    /** 批量指定缓存失效时间(pipeline), 默认单位：秒 **/
+    public static void multiExpire(Collection<String> keys, long time) {
+        if(keys == null || keys.isEmpty()){
+            return ;
+        }
+        getStringRedisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String key : keys) {
+                stringConnection.expire(key, time);
+            }
+            return null;
+        });
+    }
+
+    /** set集合添加元素， 同时批量指定缓存失效时间(pipeline), 默认单位：秒 **/
+    public static void sAddAndMultiExpire(String setKey, String value, Collection<String> expireKeys, long time) {
+        getStringRedisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.sAdd(setKey, value);
+            for (String key : expireKeys) {
+                stringConnection.expire(key, time);
+            }
+            return null;
+        });
+    }
+
+    /** set集合： 添加元素 **/
+    public static void sAdd(String key, String... values) {
+        getStringRedisTemplate().opsForSet().add(key, values);
+    }
+
+    /** set集合： 删除元素 **/
+    public static void sRemove(String key, Object... values) {
+        if (values != null && values.length > 0) {
+            getStringRedisTemplate().opsForSet().remove(key, values);
+        }
+    }
+
+    /** set集合： 查询所有元素 **/
+    public static Set<String> sMembers(String key) {
+        Set<String> result = getStringRedisTemplate().opsForSet().members(key);
+        return result == null ? Collections.emptySet() : result;
+    }
+
+    /** checkKey的值与expectValue一致时（checkKey不存在视为空字符串）， 放入缓存并设置时间, 默认单位：秒 ， 返回是否放置成功 （lua脚本保证原子性） **/
+    public static boolean setStringIfEquals(String checkKey, String expectValue, String key, String value, long time) {
+        Long result = (Long) getStringRedisTemplate().execute(SET_IF_EQUALS_SCRIPT, Arrays.asList(checkKey, key),
+                expectValue == null ? "" : expectValue, value, String.valueOf(time));
+        return result != null && result == 1L;
+    }
+
+    /** key的值与expectValue一致时， 指定缓存失效时间, 默认单位：秒 ， 返回是否设置成功 （lua脚本保证原子性） **/
+    public static boolean expireIfEquals(String key, String expectValue, long time) {
+        Long result = (Long) getStringRedisTemplate().execute(EXPIRE_IF_EQUALS_SCRIPT, Collections.singletonList(key), expectValue, String.valueOf(time));
+        return result != null && result == 1L;
+    }
+
+    /** key的值与expectValue一致时， 删除该key ， 返回是否删除成功 （lua脚本保证原子性） **/
+    public static boolean delIfEquals(String key, String expectValue) {
+        Long result = (Long) getStringRedisTemplate().execute(DEL_IF_EQUALS_SCRIPT, Collections.singletonList(key), expectValue);
+        return result != null && result == 1L;
+    }
+
 }
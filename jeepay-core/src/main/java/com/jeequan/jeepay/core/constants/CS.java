@@ -106,12 +106,42 @@ public class CS {
         return String.format(CACHE_KEY_TOKEN, sysUserId, uuid);
     }
 
+    /** 缓存key: 当前用户所有已登录token的cacheKey集合(set), 用于按用户批量刷新/删除token, 避免使用keys命令  example: TOKEN_SET_1001 */
+    public static final String CACHE_KEY_TOKEN_SET = "TOKEN_SET_%s";
+    public static String getCacheKeyTokenSet(Long sysUserId){
+        return String.format(CACHE_KEY_TOKEN_SET, sysUserId);
+    }
+
     /** 图片验证码 缓存key **/
     public static final String CACHE_KEY_IMG_CODE = "img_code_%s";
     public static String getCacheKeyImgCode(String imgToken){
         return String.format(CACHE_KEY_IMG_CODE, imgToken);
     }
 
+    /** 支付订单状态缓存key （商户查单使用）  example: PAY_ORDER_STATE_P1432132...  */
+    public static final String CACHE_KEY_PAY_ORDER_STATE = "PAY_ORDER_STATE_%s";
+    public static String getCacheKeyPayOrderState(String payOrderId){
+        return String.format(CACHE_KEY_PAY_ORDER_STATE, payOrderId);
+    }
+
+    /** 支付订单状态版本号缓存key， 每次订单状态变更后重新生成， 用于防止并发回填覆盖新状态 **/
+    public static final String CACHE_KEY_PAY_ORDER_STATE_VER = "PAY_ORDER_STATE_VER_%s";
+    public static String getCacheKeyPayOrderStateVer(String payOrderId){
+        return String.format(CACHE_KEY_PAY_ORDER_STATE_VER, payOrderId);
+    }
+
+    /** 商户订单号 --> 支付订单号 缓存key （映射关系不会变更） **/
+    public static final String CACHE_KEY_PAY_ORDER_MCH_ORDER_NO = "PAY_ORDER_MCH_%s_%s";
+    public static String getCacheKeyPayOrderMchOrderNo(String mchNo, String mchOrderNo){
+        return String.format(CACHE_KEY_PAY_ORDER_MCH_ORDER_NO, mchNo, mchOrderNo);
+    }
+
+    /** 菜单树缓存key （系统类型 + 权限表版本摘要 + 权限集合摘要）  example: ENT_TREE_MGR_120_1634567890123_E10ADC...  */
+    public static final String CACHE_KEY_ENT_TREE = "ENT_TREE_%s_%s_%s";
+    public static String getCacheKeyEntTree(String sysType, String entVersion, String entSetDigest){
+        return String.format(CACHE_KEY_ENT_TREE, sysType, entVersion, entSetDigest);
+    }
+
     /** 回调URL的格前缀  */
     public static final String PAY_RETURNURL_FIX_ONLY_JUMP_PREFIX = "ONLYJUMP_";
 
@@ -148,6 +178,7 @@ public class CS {
         String XXPAY = "xxpay";     // 小新支付
         String PPPAY = "pppay";     // Paypal 支付
         String PLSPAY = "plspay";     // 计全支付plus
+        String MOCKPAY = "mockpay";   // 模拟支付通道（压测、联调使用）
     }
 
 
@@ -24,6 +24,7 @@ import com.jeequan.jeepay.core.beans.RequestKitBean;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.BaseModel;
+import com.jeequan.jeepay.core.model.CursorPage;
 import com.jeequan.jeepay.core.utils.DateKit;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.MutablePair;
@@ -111,6 +112,15 @@ public abstract class AbstractCtrl {
         return new Page(getPageIndex(), getPageSize(allowQueryAll));
     }
 
+    /** 获取订单列表分页信息： 请求中包含cursor参数时使用游标分页， 否则使用页码分页 **/
+    protected CursorPage getCursorIPage(){
+        JSONObject reqParam = getReqParamJSON();
+        if(reqParam.containsKey(CursorPage.CURSOR_PARAM_NAME)){
+            return CursorPage.ofCursor(reqParam.getString(CursorPage.CURSOR_PARAM_NAME), getPageSize());
+        }
+        return new CursorPage(getPageIndex(), getPageSize());
+    }
+
     /** 获取排序字段 MutablePair<是否正序， 排序字段> **/
     protected MutablePair<Boolean, String> getSortInfo() {
 
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.ctrls;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
+import com.jeequan.jeepay.core.model.ApiRes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+* 运行指标查询 （运营平台、商户平台、支付网关共用）
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 09:45
+*/
+@RestController
+public class MetricsController extends AbstractCtrl {
+
+    /** 是否开放指标查询接口 **/
+    @Value("${isys.metrics.enabled:true}")
+    private boolean enabled;
+
+    /** 允许访问的IP （多个使用英文逗号分隔）， 默认仅本机 **/
+    @Value("${isys.metrics.allow-ips:127.0.0.1,0:0:0:0:0:0:0:1}")
+    private String allowIps;
+
+    /** 查询全部指标 （仅允许配置的IP访问， 使用请求的直连地址判断， 不信任代理头） **/
+    @GetMapping("/actuator/metrics")
+    public ApiRes metrics(){
+
+        if(!enabled || !StrUtil.splitTrim(allowIps, ",").contains(request.getRemoteAddr())){
+            return ApiRes.customFail("无权限访问");
+        }
+
+        JSONObject result = new JSONObject(true);
+        result.put("meters", JeepayMetrics.snapshot());
+        result.put("droppedMeters", JeepayMetrics.getDroppedCount());
+        return ApiRes.ok(result);
+    }
+
+}
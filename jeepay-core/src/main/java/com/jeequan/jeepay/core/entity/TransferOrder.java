@@ -53,6 +53,9 @@ public class TransferOrder implements Serializable {
     public static final byte STATE_FAIL = 3; //转账失败
     public static final byte STATE_CLOSED = 4; //转账关闭
 
+    public static final byte DISPATCH_STATE_NONE = 0; //无需后台调用或已开始调用渠道接口
+    public static final byte DISPATCH_STATE_QUEUED = 1; //待后台调用渠道接口 （批量转账）
+
 
     public static final LambdaQueryWrapper<TransferOrder> gw(){
         return new LambdaQueryWrapper<>();
@@ -164,6 +167,12 @@ public class TransferOrder implements Serializable {
     @ApiModelProperty(value = "支付状态: 0-订单生成, 1-转账中, 2-转账成功, 3-转账失败, 4-订单关闭")
     private Byte state;
 
+    /**
+     * 后台调用状态: 0-无需后台调用或已开始调用渠道接口, 1-待后台调用渠道接口(批量转账)
+     */
+    @ApiModelProperty(value = "后台调用状态: 0-无需后台调用或已开始调用渠道接口, 1-待后台调用渠道接口(批量转账)")
+    private Byte dispatchState;
+
     /**
      * 特定渠道发起额外参数
      */
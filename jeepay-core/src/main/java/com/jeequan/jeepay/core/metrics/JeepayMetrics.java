@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.metrics;
+
+import com.alibaba.fastjson.JSONObject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 运行指标统计 （计时器、计数器、瞬时值）
+ *
+ * 指标名称及标签规则与 Micrometer 保持一致（如： jeepay.pay.channel.pay{ifCode,wayCode,outcome}）， 便于后续对接监控系统。
+ * 标签值仅允许使用有限集合（如： 接口代码、支付方式、结果）， 禁止使用商户号、订单号等， 超过最大指标数量时不再新增。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 14:20
+ */
+@Slf4j
+public class JeepayMetrics {
+
+    /** 最大指标数量 **/
+    private static final int MAX_METER_SIZE = 2000;
+
+    private static final Map<String, Meter> METER_MAP = new ConcurrentHashMap<>();
+
+    /** 超过最大数量被丢弃的次数 **/
+    private static final AtomicLong DROPPED_COUNT = new AtomicLong();
+
+    /** 开始计时 **/
+    public static long start(){
+        return System.nanoTime();
+    }
+
+    /** 记录耗时 （从 startNanos 至今）， tags格式： key1, value1, key2, value2 ... **/
+    public static void record(String name, long startNanos, String... tags){
+        Meter meter = getOrCreate(MeterType.TIMER, name, tags, null);
+        if(meter != null){
+            meter.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /** 记录耗时 （指定时长） **/
+    public static void record(String name, long duration, TimeUnit unit, String... tags){
+        Meter meter = getOrCreate(MeterType.TIMER, name, tags, null);
+        if(meter != null){
+            meter.record(unit.toNanos(duration));
+        }
+    }
+
+    /** 计数器 +1 **/
+    public static void increment(String name, String... tags){
+        Meter meter = getOrCreate(MeterType.COUNTER, name, tags, null);
+        if(meter != null){
+            meter.count.increment();
+        }
+    }
+
+    /** 注册瞬时值 （如： 队列长度）， 重复注册时覆盖 **/
+    public static void gauge(String name, Supplier<Number> supplier, String... tags){
+        String key = genKey(name, tags);
+        METER_MAP.put(key, new Meter(MeterType.GAUGE, name, toTagMap(tags), supplier));
+    }
+
+    /** 查询全部指标 **/
+    public static List<JSONObject> snapshot(){
+
+        List<JSONObject> result = new ArrayList<>(METER_MAP.size());
+        for (Meter meter : METER_MAP.values()) {
+            result.add(meter.toJSON());
+        }
+        result.sort(Comparator.comparing(o -> o.getString("name")));
+        return result;
+    }
+
+    /** 查询单个指标 （不存在返回null） **/
+    public static JSONObject snapshot(String name, String... tags){
+        Meter meter = METER_MAP.get(genKey(name, tags));
+        return meter == null ? null : meter.toJSON();
+    }
+
+    /** 超过最大数量被丢弃的次数 **/
+    public static long getDroppedCount(){
+        return DROPPED_COUNT.get();
+    }
+
+    private static Meter getOrCreate(MeterType type, String name, String[] tags, Supplier<Number> supplier){
+
+        String key = genKey(name, tags);
+        Meter meter = METER_MAP.get(key);
+        if(meter != null){
+            return meter;
+        }
+
+        if(METER_MAP.size() >= MAX_METER_SIZE){
+            if(DROPPED_COUNT.getAndIncrement() == 0){
+                log.warn("指标数量超过上限[{}]， 不再新增： {}", MAX_METER_SIZE, key);
+            }
+            return null;
+        }
+
+        return METER_MAP.computeIfAbsent(key, k -> new Meter(type, name, toTagMap(tags), supplier));
+    }
+
+    private static String genKey(String name, String[] tags){
+
+        if(tags == null || tags.length == 0){
+            return name;
+        }
+        StringBuilder sb = new StringBuilder(name).append('{');
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            sb.append(tags[i]).append('=').append(tags[i + 1]).append(',');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static Map<String, String> toTagMap(String[] tags){
+
+        Map<String, String> tagMap = new LinkedHashMap<>();
+        if(tags != null){
+            for (int i = 0; i + 1 < tags.length; i += 2) {
+                tagMap.put(tags[i], tags[i + 1] == null ? "none" : tags[i + 1]);
+            }
+        }
+        return tagMap;
+    }
+
+    /** 指标类型 **/
+    private enum MeterType {
+        TIMER, COUNTER, GAUGE
+    }
+
+    /** 单个指标 **/
+    private static class Meter {
+
+        private final MeterType type;
+        private final String name;
+        private final Map<String, String> tags;
+        private final Supplier<Number> supplier;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Meter(MeterType type, String name, Map<String, String> tags, Supplier<Number> supplier) {
+            this.type = type;
+            this.name = name;
+            this.tags = tags;
+            this.supplier = supplier;
+        }
+
+        void record(long nanos){
+            count.increment();
+            totalNanos.add(nanos);
+            long max;
+            while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)){
+            }
+        }
+
+        JSONObject toJSON(){
+
+            JSONObject json = new JSONObject(true);
+            json.put("name", name);
+            json.put("type", type.name().toLowerCase());
+            json.put("tags", tags);
+
+            if(type == MeterType.GAUGE){
+                Number value = null;
+                try {
+                    value = supplier.get();
+                } catch (Exception e) {
+                    log.error("获取指标[{}]异常", name, e);
+                }
+                json.put("value", value);
+
+            }else if(type == MeterType.COUNTER){
+                json.put("count", count.sum());
+
+            }else{
+                long c = count.sum();
+                long total = totalNanos.sum();
+                json.put("count", c);
+                json.put("totalMs", TimeUnit.NANOSECONDS.toMillis(total));
+                json.put("meanMs", c == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(total / c) / 1000.0);
+                json.put("maxMs", TimeUnit.NANOSECONDS.toMicros(maxNanos.get()) / 1000.0);
+            }
+            return json;
+        }
+    }
+
+}
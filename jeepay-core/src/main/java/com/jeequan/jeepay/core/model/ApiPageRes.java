@@ -48,6 +48,14 @@ public class ApiPageRes<M> extends ApiRes {
         innerPage.setCurrent(iPage.getCurrent()); //当前页码
         innerPage.setHasNext( iPage.getPages() > iPage.getCurrent()); //是否有下一页
 
+        // 游标分页： 是否有下一页由查询结果决定
+        if(iPage instanceof CursorPage){
+            CursorPage cursorPage = (CursorPage) iPage;
+            innerPage.setHasNext(cursorPage.hasNext());
+            innerPage.setNextCursor(cursorPage.getNextCursor());
+            innerPage.setTotalApprox(cursorPage.isTotalApprox());
+        }
+
         ApiPageRes result = new ApiPageRes();
         result.setData(innerPage);
         result.setCode(ApiCodeEnum.SUCCESS.getCode());
@@ -77,6 +85,14 @@ public class ApiPageRes<M> extends ApiRes {
         @ApiModelProperty(value = "是否包含下一页， true:包含 ，false: 不包含")
         private boolean hasNext;
 
+        /** 下一页游标（ 仅游标分页返回 ） */
+        @ApiModelProperty(value = "下一页游标（ 仅游标分页返回 ）")
+        private String nextCursor;
+
+        /** 总数量是否为估算值 */
+        @ApiModelProperty(value = "总数量是否为估算值， true:超出计数上限，total为估算值")
+        private boolean totalApprox;
+
     }
 
 }
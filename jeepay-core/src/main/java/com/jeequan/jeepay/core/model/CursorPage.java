@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.model;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.jeequan.jeepay.core.exception.BizException;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Date;
+
+/*
+* 游标分页对象（ 订单列表使用 ）
+*   [游标模式]： 按 (created_at, id) 倒序定位， 不使用OFFSET， 任意深度的翻页耗时一致；
+*   [页码模式]： 兼容原有pageNumber分页， 总条数采用封顶计数， 超出上限时为估算值。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:05
+*/
+@Getter
+@Setter
+public class CursorPage<T> extends Page<T> {
+
+    /** 游标 参数名 **/
+    public static final String CURSOR_PARAM_NAME = "cursor";
+
+    /** 游标分隔符：  [创建时间毫秒数]_[订单号] **/
+    private static final String CURSOR_SEPARATOR = "_";
+
+    /** 是否游标模式 **/
+    private boolean cursorMode;
+
+    /** 游标位置： 上一页最后一条记录的创建时间， 首页为空 **/
+    private Date cursorCreatedAt;
+
+    /** 游标位置： 上一页最后一条记录的订单号， 首页为空 **/
+    private String cursorId;
+
+    /** 下一页的游标， 无下一页时为空 **/
+    private String nextCursor;
+
+    /** 总条数是否为估算值 （ 超出计数上限 ） **/
+    private boolean totalApprox;
+
+    /** 是否包含下一页 **/
+    private boolean hasMore;
+
+    public CursorPage(long current, long size) {
+        super(current, size);
+    }
+
+    /** 游标模式， cursor为空表示查询首页 **/
+    public static <T> CursorPage<T> ofCursor(String cursor, long size) {
+
+        CursorPage<T> page = new CursorPage<>(1, size);
+        page.setCursorMode(true);
+
+        if(StringUtils.isEmpty(cursor)){
+            return page;
+        }
+
+        int index = cursor.indexOf(CURSOR_SEPARATOR);
+        if(index <= 0 || index == cursor.length() - 1){
+            throw new BizException("游标参数有误");
+        }
+
+        try {
+            page.setCursorCreatedAt(new Date(Long.parseLong(cursor.substring(0, index))));
+        } catch (NumberFormatException e) {
+            throw new BizException("游标参数有误");
+        }
+        page.setCursorId(cursor.substring(index + 1));
+        return page;
+    }
+
+    /** 生成游标 **/
+    public static String buildCursor(Date createdAt, String id) {
+        return createdAt.getTime() + CURSOR_SEPARATOR + id;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasMore;
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.model.params.mockpay;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.model.params.NormalMchParams;
+import com.jeequan.jeepay.core.utils.StringKit;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+/*
+ * 模拟支付通道 普通商户参数定义
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:12
+ */
+@Data
+public class MockpayNormalMchParams extends NormalMchParams {
+
+    /** 回调签名密钥 */
+    private String key;
+
+    /** 模拟渠道接口耗时（毫秒） */
+    private Integer latencyMs;
+
+    /** 成功比例（0-100） */
+    private Integer successRatio;
+
+    /** 异步回调延迟（秒）， 0表示同步返回最终结果， 不发送回调 */
+    private Integer notifyDelaySeconds;
+
+    @Override
+    public String deSenData() {
+        MockpayNormalMchParams mchParams = this;
+        if (StringUtils.isNotBlank(this.key)) {
+            mchParams.setKey(StringKit.str2Star(this.key, 4, 4, 6));
+        }
+        return ((JSONObject) JSON.toJSON(mchParams)).toJSONString();
+    }
+
+}
@@ -15,14 +15,21 @@
  */
 package com.jeequan.jeepay.core.utils;
 
+import cn.hutool.core.util.CharsetUtil;
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.CryptoException;
 import cn.hutool.crypto.SecureUtil;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.exception.BizException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
@@ -43,13 +50,66 @@ public class JeepayKit {
 
     public static byte[] AES_KEY = "4ChT08phkz59hquD795X7w==".getBytes();
 
+    /** 线程内复用已初始化的Cipher， 避免每次调用重新生成密钥和初始化Cipher， 也避免共享实例的锁竞争 **/
+    private static final ThreadLocal<AesCiphers> AES_CIPHERS = new ThreadLocal<>();
+
     /** 加密 **/
     public static String aesEncode(String str){
-        return SecureUtil.aes(JeepayKit.AES_KEY).encryptHex(str);
+        AesCiphers ciphers = getAesCiphers();
+        try {
+            return HexUtil.encodeHexStr(ciphers.encrypt.doFinal(StrUtil.bytes(str, CharsetUtil.CHARSET_UTF_8)));
+        } catch (GeneralSecurityException e) {
+            AES_CIPHERS.remove();
+            throw new CryptoException(e);
+        }
     }
 
+    /** 解密 （支持hex 和 base64） **/
     public static String aesDecode(String str){
-        return SecureUtil.aes(JeepayKit.AES_KEY).decryptStr(str);
+
+        byte[] data = SecureUtil.decode(str);
+        AesCiphers ciphers = getAesCiphers();
+        try {
+            return StrUtil.str(ciphers.decrypt.doFinal(data), CharsetUtil.CHARSET_UTF_8);
+        } catch (GeneralSecurityException e) {
+            AES_CIPHERS.remove();
+            throw new CryptoException(e);
+        }
+    }
+
+    private static AesCiphers getAesCiphers(){
+
+        byte[] key = AES_KEY;
+        AesCiphers ciphers = AES_CIPHERS.get();
+        if(ciphers == null || ciphers.key != key){
+            ciphers = new AesCiphers(key);
+            AES_CIPHERS.set(ciphers);
+        }
+        return ciphers;
+    }
+
+    /** 与SecureUtil.aes(key)一致： AES/ECB/PKCS5Padding **/
+    private static class AesCiphers {
+
+        private final byte[] key;
+        private final Cipher encrypt;
+        private final Cipher decrypt;
+
+        private AesCiphers(byte[] key) {
+            this.key = key;
+            this.encrypt = initCipher(Cipher.ENCRYPT_MODE, key);
+            this.decrypt = initCipher(Cipher.DECRYPT_MODE, key);
+        }
+
+        private static Cipher initCipher(int mode, byte[] key){
+            try {
+                Cipher cipher = Cipher.getInstance("AES");
+                cipher.init(mode, new SecretKeySpec(key, "AES"));
+                return cipher;
+            } catch (GeneralSecurityException e) {
+                throw new CryptoException(e);
+            }
+        }
     }
 
 
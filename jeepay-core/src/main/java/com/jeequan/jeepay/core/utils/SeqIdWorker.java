@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+* 序列号生成器 （ 雪花算法变种 ）
+*
+*  64位long结构：  1位符号位(0) | 41位毫秒时间戳(相对EPOCH) | 5位分片号 | 7位workerId | 10位序列号
+*  1. 时间戳与分片号可通过 parseTime / parseShard 反解， 便于按日期/分片路由查询；
+*  2. 使用CAS无锁分配序列号， 单毫秒内序列号用尽时预支后续毫秒（最多MAX_BORROW_MS）, 避免突发流量时自旋等待；
+*  3. 支持一次CAS预分配连续的一批序列号。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:20
+*/
+public class SeqIdWorker {
+
+	/** 起始时间： 2021-01-01 00:00:00 (GMT+8) **/
+	public static final long EPOCH = 1609430400000L;
+
+	public static final int SEQUENCE_BITS = 10;
+	public static final int WORKER_ID_BITS = 7;
+	public static final int SHARD_BITS = 5;
+
+	public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+	public static final int MAX_SHARD = (1 << SHARD_BITS) - 1;
+	public static final int MAX_BATCH_SIZE = 1 << SEQUENCE_BITS;
+
+	private static final int WORKER_ID_SHIFT = SEQUENCE_BITS;
+	private static final int SHARD_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
+	private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + SHARD_BITS;
+
+	/** state中 [下一个可用序列号] 占用的位数（需容纳 MAX_BATCH_SIZE, 即多1位） **/
+	private static final int STATE_SEQ_BITS = SEQUENCE_BITS + 1;
+	private static final long STATE_SEQ_MASK = (1L << STATE_SEQ_BITS) - 1;
+
+	/** 序列号用尽（或时钟回拨）时允许预支的最大毫秒数 **/
+	private static final long MAX_BORROW_MS = 1000L;
+
+	private final long workerId;
+
+	/** 分配状态： 高位为最后使用的时间戳(相对EPOCH)， 低位为下一个可用序列号 **/
+	private final AtomicLong state = new AtomicLong(0L);
+
+	public SeqIdWorker(int workerId) {
+		if(workerId < 0 || workerId > MAX_WORKER_ID){
+			throw new IllegalArgumentException("workerId must be between 0 and " + MAX_WORKER_ID);
+		}
+		this.workerId = workerId;
+	}
+
+	public int getWorkerId() {
+		return (int) workerId;
+	}
+
+	/** 生成ID **/
+	public long nextId(int shard) {
+		return compose(reserve(1), shard, 0);
+	}
+
+	/** 预分配一批连续ID （同一毫秒内， 一次CAS） **/
+	public long[] nextIds(int shard, int count) {
+
+		if(count <= 0 || count > MAX_BATCH_SIZE){
+			throw new IllegalArgumentException("count must be between 1 and " + MAX_BATCH_SIZE);
+		}
+
+		long start = reserve(count);
+		long[] result = new long[count];
+		for (int i = 0; i < count; i++) {
+			result[i] = compose(start, shard, i);
+		}
+		return result;
+	}
+
+	/** 解析ID的生成时间（毫秒时间戳） **/
+	public static long parseTime(long id) {
+		return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+	}
+
+	/** 解析ID的分片号 **/
+	public static int parseShard(long id) {
+		return (int) ((id >>> SHARD_SHIFT) & MAX_SHARD);
+	}
+
+	/** 解析ID的workerId **/
+	public static int parseWorkerId(long id) {
+		return (int) ((id >>> WORKER_ID_SHIFT) & MAX_WORKER_ID);
+	}
+
+	/** 根据分片键计算分片号 **/
+	public static int calShard(String shardKey) {
+		return shardKey == null ? 0 : (shardKey.hashCode() & Integer.MAX_VALUE) & MAX_SHARD;
+	}
+
+	/** 默认workerId： 根据进程名(pid@hostname)计算， 未配置时使用 **/
+	public static int defaultWorkerId() {
+		return (ManagementFactory.getRuntimeMXBean().getName().hashCode() & Integer.MAX_VALUE) & MAX_WORKER_ID;
+	}
+
+	/** 预留count个序列号， 返回起始状态（时间戳 + 起始序列号） **/
+	private long reserve(int count) {
+
+		while(true){
+
+			long current = state.get();
+			long lastTime = current >>> STATE_SEQ_BITS;
+			long nextSeq = current & STATE_SEQ_MASK;
+			long now = System.currentTimeMillis() - EPOCH;
+
+			long time;
+			long seq;
+			if(now > lastTime){ // 新的毫秒
+				time = now;
+				seq = 0;
+			}else if(nextSeq + count <= MAX_BATCH_SIZE){ // 当前毫秒仍有可用序列号
+				time = lastTime;
+				seq = nextSeq;
+			}else{ // 序列号用尽， 预支下一毫秒
+				time = lastTime + 1;
+				seq = 0;
+				if(time - now > MAX_BORROW_MS){ // 超出预支上限， 等待时钟追上
+					Thread.yield();
+					continue;
+				}
+			}
+
+			if(state.compareAndSet(current, (time << STATE_SEQ_BITS) | (seq + count))){
+				return (time << STATE_SEQ_BITS) | seq;
+			}
+		}
+	}
+
+	private long compose(long reserved, int shard, int offset) {
+		long time = reserved >>> STATE_SEQ_BITS;
+		long seq = (reserved & STATE_SEQ_MASK) + offset;
+		return (time << TIMESTAMP_SHIFT) | ((long) (shard & MAX_SHARD) << SHARD_SHIFT) | (workerId << WORKER_ID_SHIFT) | seq;
+	}
+
+}
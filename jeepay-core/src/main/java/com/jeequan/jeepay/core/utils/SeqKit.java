@@ -15,18 +15,16 @@
  */
 package com.jeequan.jeepay.core.utils;
 
-import cn.hutool.core.date.DatePattern;
-import cn.hutool.core.date.DateUtil;
-import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
-import com.baomidou.mybatisplus.core.toolkit.IdWorker;
-import org.springframework.context.annotation.Bean;
-import org.springframework.stereotype.Component;
+import com.jeequan.jeepay.core.exception.BizException;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.List;
 
 /*
 * 序列号生成 工具类
+*  ID格式：  前缀字母 + SeqIdWorker生成的long值（内含时间戳、分片号、workerId）
+*  workerId 通过配置项 [isys.seq.worker-id] 或 Redis租约分配， 详见： SeqWorkerIdLeaseBean
 *
 * @author terrfly
 * @author jmdhappy
@@ -35,81 +33,136 @@ import java.util.concurrent.atomic.AtomicLong;
 */
 public class SeqKit {
 
-	private static final AtomicLong PAY_ORDER_SEQ = new AtomicLong(0L);
-	private static final AtomicLong REFUND_ORDER_SEQ = new AtomicLong(0L);
-	private static final AtomicLong MHO_ORDER_SEQ = new AtomicLong(0L);
-	private static final AtomicLong TRANSFER_ID_SEQ = new AtomicLong(0L);
-	private static final AtomicLong DIVISION_BATCH_ID_SEQ = new AtomicLong(0L);
-
 	private static final String PAY_ORDER_SEQ_PREFIX = "P";
 	private static final String REFUND_ORDER_SEQ_PREFIX = "R";
 	private static final String MHO_ORDER_SEQ_PREFIX = "M";
 	private static final String TRANSFER_ID_SEQ_PREFIX = "T";
 	private static final String DIVISION_BATCH_ID_SEQ_PREFIX = "D";
 
-	/** 是否使用MybatisPlus生成分布式ID **/
-	private static final boolean IS_USE_MP_ID = true;
+	/** ID生成器 （启动时根据配置或Redis租约重新设置workerId） **/
+	private static volatile SeqIdWorker idWorker = new SeqIdWorker(SeqIdWorker.defaultWorkerId());
+
+	/** workerId的有效截止时间（毫秒）， 超过该时间（Redis租约未能续期）暂停生成ID， 避免与其他节点使用同一workerId **/
+	private static volatile long workerIdValidUntil = Long.MAX_VALUE;
+
+	/** 设置当前节点的workerId （长期有效， 如使用配置的workerId） **/
+	public static void setWorkerId(int workerId) {
+		setWorkerId(workerId, Long.MAX_VALUE);
+	}
+
+	/** 设置当前节点的workerId及其有效截止时间 **/
+	public static void setWorkerId(int workerId, long validUntil) {
+		if(idWorker.getWorkerId() != workerId){
+			idWorker = new SeqIdWorker(workerId);
+		}
+		workerIdValidUntil = validUntil;
+	}
+
+	/** 更新workerId的有效截止时间 （ 租约续期成功时延长， 租约丢失时置为0 ） **/
+	public static void setWorkerIdValidUntil(long validUntil) {
+		workerIdValidUntil = validUntil;
+	}
+
+	/** 获取ID生成器， workerId已失效时抛出异常 **/
+	private static SeqIdWorker getIdWorker() {
+		if(System.currentTimeMillis() >= workerIdValidUntil){
+			throw new BizException("序列号生成器workerId租约未确认， 暂停生成订单号");
+		}
+		return idWorker;
+	}
+
+	/** 当前节点的workerId **/
+	public static int getWorkerId() {
+		return idWorker.getWorkerId();
+	}
 
 	/** 生成支付订单号 **/
 	public static String genPayOrderId() {
-		if(IS_USE_MP_ID) {
-			return PAY_ORDER_SEQ_PREFIX + IdWorker.getIdStr();
-		}
-		return String.format("%s%s%04d",PAY_ORDER_SEQ_PREFIX,
-				DateUtil.format(new Date(), DatePattern.PURE_DATETIME_MS_PATTERN),
-				(int) PAY_ORDER_SEQ.getAndIncrement() % 10000);
+		return genPayOrderId(null);
+	}
+
+	/** 生成支付订单号 ( shardKey: 分片键， 如商户号 ) **/
+	public static String genPayOrderId(String shardKey) {
+		return genId(PAY_ORDER_SEQ_PREFIX, shardKey);
 	}
 
 	/** 生成退款订单号 **/
 	public static String genRefundOrderId() {
-		if(IS_USE_MP_ID) {
-			return REFUND_ORDER_SEQ_PREFIX + IdWorker.getIdStr();
-		}
-		return String.format("%s%s%04d",REFUND_ORDER_SEQ_PREFIX,
-				DateUtil.format(new Date(), DatePattern.PURE_DATETIME_MS_PATTERN),
-				(int) REFUND_ORDER_SEQ.getAndIncrement() % 10000);
+		return genRefundOrderId(null);
 	}
 
+	/** 生成退款订单号 ( shardKey: 分片键， 如商户号 ) **/
+	public static String genRefundOrderId(String shardKey) {
+		return genId(REFUND_ORDER_SEQ_PREFIX, shardKey);
+	}
 
 	/** 模拟生成商户订单号 **/
 	public static String genMhoOrderId() {
-		if(IS_USE_MP_ID) {
-			return MHO_ORDER_SEQ_PREFIX + IdWorker.getIdStr();
-		}
-		return String.format("%s%s%04d", MHO_ORDER_SEQ_PREFIX,
-				DateUtil.format(new Date(), DatePattern.PURE_DATETIME_MS_PATTERN),
-				(int) MHO_ORDER_SEQ.getAndIncrement() % 10000);
+		return genId(MHO_ORDER_SEQ_PREFIX, null);
 	}
 
-	/** 模拟生成商户订单号 **/
+	/** 生成转账订单号 **/
 	public static String genTransferId() {
-		if(IS_USE_MP_ID) {
-			return TRANSFER_ID_SEQ_PREFIX + IdWorker.getIdStr();
-		}
-		return String.format("%s%s%04d", TRANSFER_ID_SEQ_PREFIX,
-				DateUtil.format(new Date(), DatePattern.PURE_DATETIME_MS_PATTERN),
-				(int) TRANSFER_ID_SEQ.getAndIncrement() % 10000);
+		return genTransferId(null);
+	}
+
+	/** 生成转账订单号 ( shardKey: 分片键， 如商户号 ) **/
+	public static String genTransferId(String shardKey) {
+		return genId(TRANSFER_ID_SEQ_PREFIX, shardKey);
+	}
+
+	/** 批量预分配转账订单号 ( 单次最多 SeqIdWorker.MAX_BATCH_SIZE 个 ) **/
+	public static List<String> genTransferIds(String shardKey, int count) {
+		return genIds(TRANSFER_ID_SEQ_PREFIX, shardKey, count);
 	}
 
 	/** 模拟生成分账批次号 **/
 	public static String genDivisionBatchId() {
-		if(IS_USE_MP_ID) {
-			return DIVISION_BATCH_ID_SEQ_PREFIX + IdWorker.getIdStr();
+		return genId(DIVISION_BATCH_ID_SEQ_PREFIX, null);
+	}
+
+	/** 解析订单号的生成时间 **/
+	public static Date parseIdTime(String seqId) {
+		return new Date(SeqIdWorker.parseTime(parseIdValue(seqId)));
+	}
+
+	/** 解析订单号的分片号 **/
+	public static int parseIdShard(String seqId) {
+		return SeqIdWorker.parseShard(parseIdValue(seqId));
+	}
+
+	/** 计算分片键对应的分片号 **/
+	public static int calShard(String shardKey) {
+		return SeqIdWorker.calShard(shardKey);
+	}
+
+	private static String genId(String prefix, String shardKey) {
+		return prefix.concat(Long.toString(getIdWorker().nextId(SeqIdWorker.calShard(shardKey))));
+	}
+
+	private static List<String> genIds(String prefix, String shardKey, int count) {
+
+		long[] ids = getIdWorker().nextIds(SeqIdWorker.calShard(shardKey), count);
+
+		List<String> result = new ArrayList<>(count);
+		for (long id : ids) {
+			result.add(prefix.concat(Long.toString(id)));
 		}
-		return String.format("%s%s%04d", DIVISION_BATCH_ID_SEQ_PREFIX,
-				DateUtil.format(new Date(), DatePattern.PURE_DATETIME_MS_PATTERN),
-				(int) DIVISION_BATCH_ID_SEQ.getAndIncrement() % 10000);
+		return result;
+	}
+
+	/** 去掉前缀字母， 得到long值 **/
+	private static long parseIdValue(String seqId) {
+		return Long.parseLong(seqId.substring(1));
 	}
 
 	public static void main(String[] args) throws Exception {
-		System.out.println(genTransferId());
+		String payOrderId = genPayOrderId("M1623984572");
+		System.out.println(payOrderId + ", time=" + parseIdTime(payOrderId) + ", shard=" + parseIdShard(payOrderId));
 		System.out.println(genRefundOrderId());
-		Thread.sleep(1000);
 		System.out.println(genMhoOrderId());
-		System.out.println(genTransferId());
-		Thread.sleep(1000);
+		System.out.println(genTransferIds("M1623984572", 3));
 		System.out.println(genDivisionBatchId());
 	}
 
 }
-
@@ -18,10 +18,16 @@ package com.jeequan.jeepay.core.utils;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /*
  *  [ 通用树状结构构造器 ]
@@ -99,66 +105,48 @@ public class TreeDataBuilder {
         //定义待返回的对象
         List<JSONObject> resultNodes = new ArrayList<>();
 
-        //获取所有的根节点 （考虑根节点有多个的情况， 将根节点单独处理）
-        List<JSONObject> rootNodes = getRootNodes();
-
-        listSort(rootNodes); //排序
-
-        //遍历根节点对象
-        for (JSONObject rootNode : rootNodes) {
-
-            buildChildNodes(rootNode); //递归查找子节点并设置
-
-            resultNodes.add(rootNode); //添加到对象信息
-        }
-        return resultNodes;
-    }
-
-    /** 递归查找并赋值子节点 **/
-    private void buildChildNodes(JSONObject node) {
-        List<JSONObject> children = getChildNodes(node);
-        if (!children.isEmpty()) {
-            for (JSONObject child : children) {
-                buildChildNodes(child);
+        // 一次遍历建立索引： 全部节点ID集合 和 [pid -> 子节点集合]
+        Set<String> idSet = new HashSet<>(nodes.size() * 2);
+        Map<String, List<JSONObject>> childrenMap = new HashMap<>(nodes.size() * 2);
+        for (JSONObject n : nodes) {
+            idSet.add(n.getString(idName));
+            String pid = n.getString(pidName);
+            if(pid != null){
+                childrenMap.computeIfAbsent(pid, k -> new ArrayList<>()).add(n);
             }
-
-            listSort(children); //排序
-            node.put(childrenName, children);
         }
-    }
 
-    /** 查找当前节点的子节点 */
-    private List<JSONObject> getChildNodes(JSONObject currentNode) {
-        List<JSONObject> childNodes = new ArrayList<>();
+        //获取所有的根节点 （考虑根节点有多个的情况， 将根节点单独处理） : pid为空或pid不存在于集合中
+        List<JSONObject> rootNodes = new ArrayList<>();
         for (JSONObject n : nodes) {
-            if (currentNode.getString(idName).equals(n.getString(pidName))) {
-                childNodes.add(n);
+            String pid = n.getString(pidName);
+            if (pid == null || !idSet.contains(pid)) {
+                rootNodes.add(n);
             }
         }
-        return childNodes;
-    }
 
-    /** 判断是否为根节点 */
-    private boolean isRootNode(JSONObject node) {
-        boolean isRootNode = true;
-        for (JSONObject n : nodes) {
-            if (node.getString(pidName) != null && node.getString(pidName).equals(n.getString(idName))) {
-                isRootNode = false;
-                break;
+        listSort(rootNodes); //排序
+
+        //遍历根节点对象， 逐层查找子节点并设置
+        Deque<JSONObject> stack = new ArrayDeque<>(rootNodes);
+        while (!stack.isEmpty()) {
+
+            JSONObject node = stack.pop();
+            List<JSONObject> children = childrenMap.get(node.getString(idName));
+            if (children == null || children.isEmpty()) {
+                continue;
             }
-        }
-        return isRootNode;
-    }
 
-    /** 获取集合中所有的根节点 */
-    private List<JSONObject> getRootNodes() {
-        List<JSONObject> rootNodes = new ArrayList<>();
-        for (JSONObject n : nodes) {
-            if (isRootNode(n)) {
-                rootNodes.add(n);
+            // 仅排序一次（同ID节点共享同一子节点集合）
+            if(node.get(childrenName) != children){
+                listSort(children); //排序
+                node.put(childrenName, children);
+                stack.addAll(children);
             }
         }
-        return rootNodes;
+
+        resultNodes.addAll(rootNodes);
+        return resultNodes;
     }
 
     /** 将list进行排序  */
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.metrics;
+
+import com.alibaba.fastjson.JSONObject;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 运行指标统计测试： 计时器、计数器、瞬时值的注册及更新
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 11:05
+ */
+public class JeepayMetricsTest {
+
+    @Test
+    public void timerRegisteredAndUpdated(){
+
+        assertNull(JeepayMetrics.snapshot("test.timer", "ifCode", "alipay", "outcome", "success"));
+
+        JeepayMetrics.record("test.timer", 10, TimeUnit.MILLISECONDS, "ifCode", "alipay", "outcome", "success");
+        JeepayMetrics.record("test.timer", 30, TimeUnit.MILLISECONDS, "ifCode", "alipay", "outcome", "success");
+        JeepayMetrics.record("test.timer", JeepayMetrics.start(), "ifCode", "alipay", "outcome", "fail");
+
+        JSONObject success = JeepayMetrics.snapshot("test.timer", "ifCode", "alipay", "outcome", "success");
+        assertNotNull(success);
+        assertEquals("timer", success.getString("type"));
+        assertEquals(2, success.getLongValue("count"));
+        assertEquals(40, success.getLongValue("totalMs"));
+        assertEquals(20.0, success.getDoubleValue("meanMs"), 0.001);
+        assertEquals(30.0, success.getDoubleValue("maxMs"), 0.001);
+        assertEquals("alipay", success.getJSONObject("tags").getString("ifCode"));
+
+        // 不同标签值为不同的指标
+        assertEquals(1, JeepayMetrics.snapshot("test.timer", "ifCode", "alipay", "outcome", "fail").getLongValue("count"));
+    }
+
+    @Test
+    public void counterRegisteredAndUpdated(){
+
+        JeepayMetrics.increment("test.counter", "outcome", "success");
+        JeepayMetrics.increment("test.counter", "outcome", "success");
+        JeepayMetrics.increment("test.counter", "outcome", "fail");
+
+        JSONObject success = JeepayMetrics.snapshot("test.counter", "outcome", "success");
+        assertEquals("counter", success.getString("type"));
+        assertEquals(2, success.getLongValue("count"));
+        assertEquals(1, JeepayMetrics.snapshot("test.counter", "outcome", "fail").getLongValue("count"));
+    }
+
+    @Test
+    public void gaugeReadsCurrentValue(){
+
+        AtomicInteger queueSize = new AtomicInteger(3);
+        JeepayMetrics.gauge("test.gauge", queueSize::get, "executor", "test");
+        assertEquals(3, JeepayMetrics.snapshot("test.gauge", "executor", "test").getIntValue("value"));
+
+        queueSize.set(7);
+        assertEquals(7, JeepayMetrics.snapshot("test.gauge", "executor", "test").getIntValue("value"));
+
+        // 重复注册时覆盖
+        JeepayMetrics.gauge("test.gauge", () -> 1, "executor", "test");
+        assertEquals(1, JeepayMetrics.snapshot("test.gauge", "executor", "test").getIntValue("value"));
+    }
+
+    @Test
+    public void nullTagValueAndSnapshotOrder(){
+
+        JeepayMetrics.increment("test.order.b", "wayCode", null);
+        JeepayMetrics.increment("test.order.a");
+
+        assertEquals("none", JeepayMetrics.snapshot("test.order.b", "wayCode", null).getJSONObject("tags").getString("wayCode"));
+
+        List<JSONObject> all = JeepayMetrics.snapshot();
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getString("name").compareTo(all.get(i).getString("name")) <= 0);
+        }
+    }
+
+}
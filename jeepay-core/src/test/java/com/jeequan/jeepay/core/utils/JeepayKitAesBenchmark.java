@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.utils;
+
+import cn.hutool.crypto.SecureUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+* AES加解密 基准测试 （ 64线程并发下的每秒加解密次数 ）
+*   对比： JeepayKit(线程内复用已初始化的Cipher) 与 原实现 [每次调用 SecureUtil.aes(AES_KEY)]
+*   数据： 支付订单号 （收银台token、 渠道用户ID回调、 二维码图片地址均为同等长度的短字符串）
+*   运行： 执行main方法， 或 java -cp <test-classpath> org.openjdk.jmh.Main JeepayKitAesBenchmark
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 12:30
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class JeepayKitAesBenchmark {
+
+    private static final String PAY_ORDER_ID = "P1623984572371673089";
+
+    private static final String PAY_ORDER_TOKEN = JeepayKit.aesEncode(PAY_ORDER_ID);
+
+    /** 当前实现： 加密 **/
+    @Benchmark
+    public String jeepayKitEncode() {
+        return JeepayKit.aesEncode(PAY_ORDER_ID);
+    }
+
+    /** 当前实现： 解密 **/
+    @Benchmark
+    public String jeepayKitDecode() {
+        return JeepayKit.aesDecode(PAY_ORDER_TOKEN);
+    }
+
+    /** 原实现： 加密 **/
+    @Benchmark
+    public String legacyEncode() {
+        return SecureUtil.aes(JeepayKit.AES_KEY).encryptHex(PAY_ORDER_ID);
+    }
+
+    /** 原实现： 解密 **/
+    @Benchmark
+    public String legacyDecode() {
+        return SecureUtil.aes(JeepayKit.AES_KEY).decryptStr(PAY_ORDER_TOKEN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(JeepayKitAesBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.core.utils;
+
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 序列号生成器 基准测试 （ 多线程竞争下的每秒生成数量 ）
+*   对比： SeqKit(SeqIdWorker) 与 原实现 [前缀 + MybatisPlus IdWorker.getIdStr()]
+*   运行： 执行main方法， 或 java -cp <test-classpath> org.openjdk.jmh.Main SeqKitBenchmark
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 16:10
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeqKitBenchmark {
+
+    private static final String SHARD_KEY = "M1623984572";
+
+    /** 当前实现： 单个订单号 **/
+    @Benchmark
+    @Threads(8)
+    public String seqKitGenPayOrderId() {
+        return SeqKit.genPayOrderId(SHARD_KEY);
+    }
+
+    /** 当前实现： 批量预分配 （每次32个） **/
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(32)
+    public List<String> seqKitGenTransferIds() {
+        return SeqKit.genTransferIds(SHARD_KEY, 32);
+    }
+
+    /** 原实现 **/
+    @Benchmark
+    @Threads(8)
+    public String legacyMpIdWorker() {
+        return "P" + IdWorker.getIdStr();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(SeqKitBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
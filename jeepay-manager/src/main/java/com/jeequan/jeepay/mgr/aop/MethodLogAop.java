@@ -15,14 +15,13 @@
  */
 package com.jeequan.jeepay.mgr.aop;
 
-import com.alibaba.fastjson.JSONObject;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.beans.RequestKitBean;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.SysLog;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.security.JeeUserDetails;
-import com.jeequan.jeepay.service.impl.SysLogService;
+import com.jeequan.jeepay.service.impl.SysLogAsyncService;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
@@ -41,8 +40,6 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
 import java.util.Date;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * 方法级日志切面组件
@@ -58,16 +55,10 @@ public class MethodLogAop {
 
     private static final Logger logger = LoggerFactory.getLogger(MethodLogAop.class);
 
-    @Autowired
-    private SysLogService sysLogService;
+    @Autowired private SysLogAsyncService sysLogAsyncService;
 
     @Autowired private RequestKitBean requestKitBean;
 
-    /**
-     * 异步处理线程池
-     */
-    private final static ScheduledExecutorService scheduledThreadPool = Executors.newScheduledThreadPool(10);
-
     /**
      * 切点
      */
@@ -90,8 +81,8 @@ public class MethodLogAop {
         try {
             // 基础日志信息
             setBaseLogInfo(point, sysLog, JeeUserDetails.getCurrentUserDetails());
-            sysLog.setOptResInfo(JSONObject.toJSON(result).toString());
-            scheduledThreadPool.execute(() -> sysLogService.save(sysLog));
+            // 响应结果的序列化及入库由日志写入线程处理
+            sysLogAsyncService.asyncSave(sysLog, result);
         } catch (Exception e) {
             logger.error("methodLogError", e);
         }
@@ -109,8 +100,7 @@ public class MethodLogAop {
         final SysLog sysLog = new SysLog();
         // 基础日志信息
         setBaseLogInfo(joinPoint, sysLog, JeeUserDetails.getCurrentUserDetails());
-        sysLog.setOptResInfo(e instanceof BizException ? e.getMessage() : "请求异常");
-        scheduledThreadPool.execute(() -> sysLogService.save(sysLog));
+        sysLogAsyncService.asyncSave(sysLog, e instanceof BizException ? e.getMessage() : "请求异常");
     }
 
     /**
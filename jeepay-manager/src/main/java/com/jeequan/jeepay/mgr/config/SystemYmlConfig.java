@@ -40,7 +40,10 @@ public class SystemYmlConfig {
 	/** 是否内存缓存配置信息: true表示开启如支付网关地址/商户应用配置/服务商配置等， 开启后需检查MQ的广播模式是否正常； false表示直接查询DB.  **/
 	private Boolean cacheConfig;
 
-}
-
+	/** 登录用户信息在当前节点的本地缓存时间(秒)， 缓存期间不再查询redis ( 其他节点的权限变更最多延迟该时间生效 )， 0表示不缓存 **/
+	private Long tokenLocalCacheTime = 5L;
 
+	/** token续签间隔(秒)， 距离上次续签超过该时间才会更新redis中的有效期， 0表示每次请求都续签 **/
+	private Long tokenRenewInterval = 60L;
 
+}
@@ -59,6 +59,7 @@ public class RefundOrderController extends CommonCtrl {
             @ApiImplicitParam(name = "iToken", value = "用户身份凭证", required = true, paramType = "header"),
             @ApiImplicitParam(name = "pageNumber", value = "分页页码", dataType = "int", defaultValue = "1"),
             @ApiImplicitParam(name = "pageSize", value = "分页条数", dataType = "int", defaultValue = "20"),
+            @ApiImplicitParam(name = "cursor", value = "游标分页： 首页传空字符串， 后续传上一页返回的nextCursor（ 传入该参数时忽略pageNumber ）"),
             @ApiImplicitParam(name = "createdStart", value = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间，查询范围：大于等于此时间"),
             @ApiImplicitParam(name = "createdEnd", value = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间，查询范围：小于等于此时间"),
             @ApiImplicitParam(name = "mchNo", value = "商户号"),
@@ -75,7 +76,7 @@ public class RefundOrderController extends CommonCtrl {
         RefundOrder refundOrder = getObject(RefundOrder.class);
         JSONObject paramJSON = getReqParamJSON();
         LambdaQueryWrapper<RefundOrder> wrapper = RefundOrder.gw();
-        IPage<RefundOrder> pages = refundOrderService.pageList(getIPage(), wrapper, refundOrder, paramJSON);
+        IPage<RefundOrder> pages = refundOrderService.pageList(getCursorIPage(), wrapper, refundOrder, paramJSON);
 
         return ApiPageRes.pages(pages);
     }
@@ -17,6 +17,8 @@ package com.jeequan.jeepay.mgr.ctrl.payconfig;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.jeequan.jeepay.components.mq.model.ResetAppConfigMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.entity.MchPayPassage;
@@ -53,6 +55,7 @@ public class PayWayController extends CommonCtrl {
 	@Autowired PayWayService payWayService;
 	@Autowired MchPayPassageService mchPayPassageService;
 	@Autowired PayOrderService payOrderService;
+	@Autowired IMQSender mqSender;
 
 	/**
 	 * @Author: ZhuXiao
@@ -130,6 +133,9 @@ public class PayWayController extends CommonCtrl {
 		if (!result) {
 			return ApiRes.fail(ApiCodeEnum.SYS_OPERATION_FAIL_CREATE);
 		}
+
+		// 刷新支付方式字典
+		resetPayWayCache();
 		return ApiRes.ok();
 	}
 
@@ -154,6 +160,9 @@ public class PayWayController extends CommonCtrl {
 		if (!result) {
 			return ApiRes.fail(ApiCodeEnum.SYS_OPERATION_FAIL_UPDATE);
 		}
+
+		// 刷新支付方式字典
+		resetPayWayCache();
 		return ApiRes.ok();
 	}
 
@@ -182,8 +191,17 @@ public class PayWayController extends CommonCtrl {
 		if (!result) {
 			return ApiRes.fail(ApiCodeEnum.SYS_OPERATION_FAIL_DELETE);
 		}
+
+		// 刷新支付方式字典
+		resetPayWayCache();
 		return ApiRes.ok();
 	}
 
+	/** 清除本地字典缓存， 并广播通知其他应用刷新 **/
+	private void resetPayWayCache(){
+		payWayService.resetCache();
+		mqSender.send(ResetAppConfigMQ.build(PayWayService.CACHE_GROUP_KEY));
+	}
+
 
 }
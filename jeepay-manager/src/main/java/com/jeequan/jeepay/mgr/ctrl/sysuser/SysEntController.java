@@ -15,12 +15,10 @@
  */
 package com.jeequan.jeepay.mgr.ctrl.sysuser;
 
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.entity.SysEntitlement;
 import com.jeequan.jeepay.core.model.ApiRes;
-import com.jeequan.jeepay.core.utils.TreeDataBuilder;
 import com.jeequan.jeepay.mgr.ctrl.CommonCtrl;
 import com.jeequan.jeepay.service.impl.SysEntitlementService;
 import io.swagger.annotations.Api;
@@ -100,14 +98,8 @@ public class SysEntController extends CommonCtrl {
 	@RequestMapping(value="/showTree", method = RequestMethod.GET)
 	public ApiRes<List<JSONObject>> showTree() {
 
-		//查询全部数据
-		List<SysEntitlement> list = sysEntitlementService.list(SysEntitlement.gw().eq(SysEntitlement::getSysType, getValStringRequired("sysType")));
-
-		//转换为json树状结构
-		JSONArray jsonArray = (JSONArray) JSONArray.toJSON(list);
-		List<JSONObject> leftMenuTree = new TreeDataBuilder(jsonArray,
-				"entId", "pid", "children", "entSort", true)
-				.buildTreeObject();
+		//查询全部数据并转换为json树状结构
+		List<JSONObject> leftMenuTree = sysEntitlementService.queryAllTree(getValStringRequired("sysType"));
 
 		return ApiRes.ok(leftMenuTree);
 	}
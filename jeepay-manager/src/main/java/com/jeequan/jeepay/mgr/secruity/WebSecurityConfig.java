@@ -143,6 +143,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter{
         )
         .antMatchers(
         		"/api/anon/**", //匿名访问接口
+                "/actuator/metrics", //运行指标查询 ( 接口内部校验访问IP )
                 "/swagger-resources/**","/v2/api-docs/**" // swagger相关
         );
     }
@@ -16,6 +16,7 @@
 package com.jeequan.jeepay.mgr.service;
 
 import cn.hutool.core.util.IdUtil;
+import com.alibaba.fastjson.JSON;
 import com.jeequan.jeepay.core.cache.ITokenService;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.SysUser;
@@ -135,51 +136,59 @@ public class AuthService {
 
         for (Long sysUserId : sysUserIdList) {
 
-            Collection<String> cacheKeyList = RedisUtil.keys(CS.getCacheKeyToken(sysUserId, "*"));
-            if(cacheKeyList == null || cacheKeyList.isEmpty()){
+            //用户不存在 || 已禁用 需要删除Redis
+            if(sysUserMap.get(sysUserId) == null || sysUserMap.get(sysUserId).getState() == CS.PUB_DISABLE){
+                ITokenService.removeAllIToken(Collections.singletonList(sysUserId));
                 continue;
             }
 
-            for (String cacheKey : cacheKeyList) {
+            List<String> cacheKeyList = new ArrayList<>(ITokenService.getTokenCacheKeys(sysUserId));
+            if(cacheKeyList.isEmpty()){
+                continue;
+            }
 
-                //用户不存在 || 已禁用 需要删除Redis
-                if(sysUserMap.get(sysUserId) == null || sysUserMap.get(sysUserId).getState() == CS.PUB_DISABLE){
-                    RedisUtil.del(cacheKey);
-                    continue;
-                }
+            // 批量查询token信息及剩余有效期
+            List<String> valueList = RedisUtil.multiGetString(cacheKeyList);
+            List<Long> expireList = RedisUtil.multiGetExpire(cacheKeyList);
 
-                JeeUserDetails jwtBaseUser = RedisUtil.getObject(cacheKey, JeeUserDetails.class);
-                if(jwtBaseUser == null){
+            // 同一用户的多个token 共用sysUser及权限数据
+            SysUser sysUser = sysUserService.getById(sysUserId);
+            List<SimpleGrantedAuthority> authorities = getUserAuthority(sysUser);
+
+            Map<String, String> valueMap = new HashMap<>();
+            Map<String, Long> expireMap = new HashMap<>();
+            List<String> expiredKeyList = new ArrayList<>();
+            for (int i = 0; i < cacheKeyList.size(); i++) {
+
+                String cacheKey = cacheKeyList.get(i);
+                JeeUserDetails jwtBaseUser = JSON.parseObject(valueList.get(i), JeeUserDetails.class);
+                if(jwtBaseUser == null || expireList.get(i) == -2){ // token已过期
+                    expiredKeyList.add(cacheKey);
                     continue;
                 }
 
                 // 重新放置sysUser对象
-                jwtBaseUser.setSysUser(sysUserService.getById(sysUserId));
+                jwtBaseUser.setSysUser(sysUser);
 
                 //查询放置权限数据
-                jwtBaseUser.setAuthorities(getUserAuthority(jwtBaseUser.getSysUser()));
+                jwtBaseUser.setAuthorities(authorities);
 
-                //保存token  失效时间不变
-                RedisUtil.set(cacheKey, jwtBaseUser);
+                valueMap.put(cacheKey, JSON.toJSONString(jwtBaseUser));
+                expireMap.put(cacheKey, expireList.get(i));
             }
+
+            //保存token  失效时间不变
+            RedisUtil.multiSetString(valueMap, expireMap);
+            RedisUtil.sRemove(CS.getCacheKeyTokenSet(sysUserId), expiredKeyList.toArray());
         }
 
+        // 清除本地缓存， 使得权限变更在当前节点立即生效
+        ITokenService.removeLocalTokenCache(sysUserIdList);
     }
 
     /** 根据用户ID 删除用户缓存信息  **/
     public void delAuthentication(List<Long> sysUserIdList){
-        if(sysUserIdList == null || sysUserIdList.isEmpty()){
-            return ;
-        }
-        for (Long sysUserId : sysUserIdList) {
-            Collection<String> cacheKeyList = RedisUtil.keys(CS.getCacheKeyToken(sysUserId, "*"));
-            if(cacheKeyList == null || cacheKeyList.isEmpty()){
-                continue;
-            }
-            for (String cacheKey : cacheKeyList) {
-                RedisUtil.del(cacheKey);
-            }
-        }
+        ITokenService.removeAllIToken(sysUserIdList);
     }
 
     public List<SimpleGrantedAuthority> getUserAuthority(SysUser sysUser){
@@ -16,18 +16,14 @@
 package com.jeequan.jeepay.mch.ctrl;
 
 import cn.hutool.core.codec.Base64;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.cache.ITokenService;
 import com.jeequan.jeepay.core.constants.CS;
-import com.jeequan.jeepay.core.entity.SysEntitlement;
 import com.jeequan.jeepay.core.entity.SysUser;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.ApiRes;
 import com.jeequan.jeepay.core.model.security.JeeUserDetails;
-import com.jeequan.jeepay.core.utils.TreeDataBuilder;
 import com.jeequan.jeepay.service.impl.SysEntitlementService;
 import com.jeequan.jeepay.service.impl.SysUserAuthService;
 import com.jeequan.jeepay.service.impl.SysUserService;
@@ -42,7 +38,6 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -77,22 +72,8 @@ public class CurrentUserController extends CommonCtrl{
 		List<String> entIdList = new ArrayList<>();
 		jeeUserDetails.getAuthorities().stream().forEach(r->entIdList.add(r.getAuthority()));
 
-		List<SysEntitlement> allMenuList = new ArrayList<>();    //所有菜单集合
-
-		//2. 查询出用户所有菜单集合 (包含左侧显示菜单 和 其他类型菜单 )
-		if(!entIdList.isEmpty()){
-			allMenuList = sysEntitlementService.list(SysEntitlement.gw()
-					.in(SysEntitlement::getEntId, entIdList)
-					.in(SysEntitlement::getEntType, Arrays.asList(CS.ENT_TYPE.MENU_LEFT, CS.ENT_TYPE.MENU_OTHER))
-					.eq(SysEntitlement::getSysType, CS.SYS_TYPE.MCH)
-					.eq(SysEntitlement::getState, CS.PUB_USABLE));
-		}
-
-		//4. 转换为json树状结构
-		JSONArray jsonArray = (JSONArray) JSON.toJSON(allMenuList);
-		List<JSONObject> allMenuRouteTree = new TreeDataBuilder(jsonArray,
-				"entId", "pid", "children", "entSort", true)
-				.buildTreeObject();
+		//2. 查询出用户所有菜单集合 (包含左侧显示菜单 和 其他类型菜单 ) 并转换为json树状结构
+		List<JSONObject> allMenuRouteTree = sysEntitlementService.queryMenuTree(CS.SYS_TYPE.MCH, entIdList);
 
 		//1. 所有权限ID集合
 		user.addExt("entIdList", entIdList);
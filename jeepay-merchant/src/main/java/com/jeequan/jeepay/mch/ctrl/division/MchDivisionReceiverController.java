@@ -19,6 +19,8 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.jeequan.jeepay.JeepayClient;
+import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.constants.CS;
@@ -67,6 +69,7 @@ public class MchDivisionReceiverController extends CommonCtrl {
 	@Autowired private MchDivisionReceiverGroupService mchDivisionReceiverGroupService;
 	@Autowired private MchAppService mchAppService;
 	@Autowired private SysConfigService sysConfigService;
+	@Autowired private IMQSender mqSender;
 
 
 	/** list */
@@ -234,6 +237,9 @@ public class MchDivisionReceiverController extends CommonCtrl {
 		updateWrapper.eq(MchDivisionReceiver::getReceiverId, recordId);
 		updateWrapper.eq(MchDivisionReceiver::getMchNo, getCurrentMchNo());
 		mchDivisionReceiverService.update(record, updateWrapper);
+
+		// 推送清除分账账号缓存消息
+		mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_DIVISION, null, getCurrentMchNo(), null));
 		return ApiRes.ok();
 	}
 
@@ -254,6 +260,9 @@ public class MchDivisionReceiverController extends CommonCtrl {
         }
 
 		mchDivisionReceiverService.removeById(recordId);
+
+		// 推送清除分账账号缓存消息
+		mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_DIVISION, null, getCurrentMchNo(), null));
 		return ApiRes.ok();
 	}
 
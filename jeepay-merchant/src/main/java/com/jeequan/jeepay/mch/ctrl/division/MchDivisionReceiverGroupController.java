@@ -18,6 +18,8 @@ package com.jeequan.jeepay.mch.ctrl.division;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.constants.CS;
@@ -55,6 +57,7 @@ public class MchDivisionReceiverGroupController extends CommonCtrl {
 
 	@Autowired private MchDivisionReceiverGroupService mchDivisionReceiverGroupService;
 	@Autowired private MchDivisionReceiverService mchDivisionReceiverService;
+	@Autowired private IMQSender mqSender;
 
 	/** list */
 	@ApiOperation("账号组列表")
@@ -134,6 +137,9 @@ public class MchDivisionReceiverGroupController extends CommonCtrl {
 				);
 			}
 		}
+
+		// 推送清除分账账号缓存消息
+		mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_DIVISION, null, getCurrentMchNo(), null));
 		return ApiRes.ok();
 	}
 
@@ -172,6 +178,8 @@ public class MchDivisionReceiverGroupController extends CommonCtrl {
 			}
 		}
 
+		// 推送清除分账账号缓存消息
+		mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_DIVISION, null, getCurrentMchNo(), null));
 		return ApiRes.ok();
 	}
 
@@ -196,6 +204,9 @@ public class MchDivisionReceiverGroupController extends CommonCtrl {
 		}
 
 		mchDivisionReceiverGroupService.removeById(recordId);
+
+		// 推送清除分账账号缓存消息
+		mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_DIVISION, null, getCurrentMchNo(), null));
 		return ApiRes.ok();
 	}
 
@@ -23,7 +23,6 @@ import com.jeequan.jeepay.core.aop.MethodLog;
 import com.jeequan.jeepay.core.constants.ApiCodeEnum;
 import com.jeequan.jeepay.core.entity.MchApp;
 import com.jeequan.jeepay.core.entity.PayOrder;
-import com.jeequan.jeepay.core.entity.PayWay;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.ApiPageRes;
 import com.jeequan.jeepay.core.model.ApiRes;
@@ -41,16 +40,10 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 /**
  * 支付订单管理类
  *
@@ -78,6 +71,7 @@ public class PayOrderController extends CommonCtrl {
             @ApiImplicitParam(name = "iToken", value = "用户身份凭证", required = true, paramType = "header"),
             @ApiImplicitParam(name = "pageNumber", value = "分页页码", dataType = "int", defaultValue = "1"),
             @ApiImplicitParam(name = "pageSize", value = "分页条数", dataType = "int", defaultValue = "20"),
+            @ApiImplicitParam(name = "cursor", value = "游标分页： 首页传空字符串， 后续传上一页返回的nextCursor（ 传入该参数时忽略pageNumber ）"),
             @ApiImplicitParam(name = "createdStart", value = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间，查询范围：大于等于此时间"),
             @ApiImplicitParam(name = "createdEnd", value = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间，查询范围：小于等于此时间"),
             @ApiImplicitParam(name = "unionOrderId", value = "支付/商户/渠道订单号"),
@@ -95,25 +89,13 @@ public class PayOrderController extends CommonCtrl {
         JSONObject paramJSON = getReqParamJSON();
 
         LambdaQueryWrapper<PayOrder> wrapper = PayOrder.gw();
-        wrapper.eq(PayOrder::getMchNo, getCurrentMchNo());
+        payOrder.setMchNo(getCurrentMchNo()); // 仅查询当前商户的订单 （ 同时限定三合一订单号查询的范围 ）
 
-        IPage<PayOrder> pages = payOrderService.listByPage(getIPage(), payOrder, paramJSON, wrapper);
+        IPage<PayOrder> pages = payOrderService.listByPage(getCursorIPage(), payOrder, paramJSON, wrapper);
 
-        // 得到所有支付方式
-        Map<String, String> payWayNameMap = new HashMap<>();
-        List<PayWay> payWayList = payWayService.list();
-        if (!CollectionUtils.isEmpty(payWayList)) {
-            for (PayWay payWay:payWayList) {
-                payWayNameMap.put(payWay.getWayCode(), payWay.getWayName());
-            }
-            for (PayOrder order:pages.getRecords()) {
-                // 存入支付方式名称
-                if (StringUtils.isNotEmpty(payWayNameMap.get(order.getWayCode()))) {
-                    order.addExt("wayName", payWayNameMap.get(order.getWayCode()));
-                }else {
-                    order.addExt("wayName", order.getWayCode());
-                }
-            }
+        // 存入支付方式名称
+        for (PayOrder order:pages.getRecords()) {
+            order.addExt("wayName", payWayService.getWayName(order.getWayCode()));
         }
 
         return ApiPageRes.pages(pages);
@@ -139,6 +121,7 @@ public class PayOrderController extends CommonCtrl {
         if (!payOrder.getMchNo().equals(getCurrentMchNo())) {
             return ApiRes.fail(ApiCodeEnum.SYS_PERMISSION_ERROR);
         }
+        payOrder.addExt("wayName", payWayService.getWayName(payOrder.getWayCode()));
         return ApiRes.ok(payOrder);
     }
 
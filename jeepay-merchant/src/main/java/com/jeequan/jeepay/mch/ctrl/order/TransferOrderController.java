@@ -56,6 +56,7 @@ public class TransferOrderController extends CommonCtrl {
             @ApiImplicitParam(name = "iToken", value = "用户身份凭证", required = true, paramType = "header"),
             @ApiImplicitParam(name = "pageNumber", value = "分页页码", dataType = "int", defaultValue = "1"),
             @ApiImplicitParam(name = "pageSize", value = "分页条数", dataType = "int", defaultValue = "20"),
+            @ApiImplicitParam(name = "cursor", value = "游标分页： 首页传空字符串， 后续传上一页返回的nextCursor（ 传入该参数时忽略pageNumber ）"),
             @ApiImplicitParam(name = "createdStart", value = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--开始时间，查询范围：大于等于此时间"),
             @ApiImplicitParam(name = "createdEnd", value = "日期格式字符串（yyyy-MM-dd HH:mm:ss），时间范围查询--结束时间，查询范围：小于等于此时间"),
             @ApiImplicitParam(name = "unionOrderId", value = "转账/商户/渠道订单号"),
@@ -69,8 +70,8 @@ public class TransferOrderController extends CommonCtrl {
         TransferOrder transferOrder = getObject(TransferOrder.class);
         JSONObject paramJSON = getReqParamJSON();
         LambdaQueryWrapper<TransferOrder> wrapper = TransferOrder.gw();
-        wrapper.eq(TransferOrder::getMchNo, getCurrentMchNo());
-        IPage<TransferOrder> pages = transferOrderService.pageList(getIPage(), wrapper, transferOrder, paramJSON);
+        transferOrder.setMchNo(getCurrentMchNo()); // 仅查询当前商户的订单 （ 同时限定三合一订单号查询的范围 ）
+        IPage<TransferOrder> pages = transferOrderService.pageList(getCursorIPage(), wrapper, transferOrder, paramJSON);
 
         return ApiPageRes.pages(pages);
     }
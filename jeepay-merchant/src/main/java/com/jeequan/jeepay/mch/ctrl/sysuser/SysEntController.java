@@ -15,12 +15,9 @@
  */
 package com.jeequan.jeepay.mch.ctrl.sysuser;
 
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.jeequan.jeepay.core.constants.CS;
-import com.jeequan.jeepay.core.entity.SysEntitlement;
 import com.jeequan.jeepay.core.model.ApiRes;
-import com.jeequan.jeepay.core.utils.TreeDataBuilder;
 import com.jeequan.jeepay.mch.ctrl.CommonCtrl;
 import com.jeequan.jeepay.service.impl.SysEntitlementService;
 import io.swagger.annotations.Api;
@@ -60,14 +57,8 @@ public class SysEntController extends CommonCtrl {
 	@RequestMapping(value="/showTree", method = RequestMethod.GET)
 	public ApiRes<List<JSONObject>> showTree() {
 
-		//查询全部数据
-		List<SysEntitlement> list = sysEntitlementService.list(SysEntitlement.gw().eq(SysEntitlement::getSysType, CS.SYS_TYPE.MCH));
-
-		//4. 转换为json树状结构
-		JSONArray jsonArray = (JSONArray) JSONArray.toJSON(list);
-		List<JSONObject> leftMenuTree = new TreeDataBuilder(jsonArray,
-				"entId", "pid", "children", "entSort", true)
-				.buildTreeObject();
+		//查询全部数据并转换为json树状结构
+		List<JSONObject> leftMenuTree = sysEntitlementService.queryAllTree(CS.SYS_TYPE.MCH);
 
 		return ApiRes.ok(leftMenuTree);
 	}
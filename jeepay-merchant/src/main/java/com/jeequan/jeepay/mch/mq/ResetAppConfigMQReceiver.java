@@ -16,6 +16,7 @@
 package com.jeequan.jeepay.mch.mq;
 
 import com.jeequan.jeepay.components.mq.model.ResetAppConfigMQ;
+import com.jeequan.jeepay.service.impl.PayWayService;
 import com.jeequan.jeepay.service.impl.SysConfigService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,11 +36,18 @@ public class ResetAppConfigMQReceiver implements ResetAppConfigMQ.IMQReceiver {
     @Autowired
     private SysConfigService sysConfigService;
 
+    @Autowired
+    private PayWayService payWayService;
+
     @Override
     public void receive(ResetAppConfigMQ.MsgPayload payload) {
 
         log.info("成功接收更新系统配置的订阅通知, msg={}", payload);
-        sysConfigService.initDBConfig(payload.getGroupKey());
+        if(PayWayService.CACHE_GROUP_KEY.equals(payload.getGroupKey())){
+            payWayService.resetCache();
+        }else{
+            sysConfigService.initDBConfig(payload.getGroupKey());
+        }
         log.info("系统配置静态属性已重置");
     }
 }
@@ -16,6 +16,7 @@
 package com.jeequan.jeepay.mch.secruity;
 
 import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.cache.ITokenService;
 import com.jeequan.jeepay.core.cache.RedisUtil;
 import com.jeequan.jeepay.core.jwt.JWTPayload;
 import com.jeequan.jeepay.core.jwt.JWTUtils;
@@ -77,7 +78,14 @@ public class JeeAuthenticationTokenFilter extends OncePerRequestFilter {
             return null; //放行,并交给UsernamePasswordAuthenticationFilter进行验证,返回公共错误信息.
         }
 
-        JWTPayload jwtPayload = JWTUtils.parseToken(authToken, SpringBeansUtil.getBean(SystemYmlConfig.class).getJwtSecret());  //反解析token信息
+        //优先查询本地缓存
+        JeeUserDetails localUser = ITokenService.getLocalTokenCache(authToken);
+        if(localUser != null){
+            return localUser;
+        }
+
+        SystemYmlConfig systemYmlConfig = SpringBeansUtil.getBean(SystemYmlConfig.class);
+        JWTPayload jwtPayload = JWTUtils.parseToken(authToken, systemYmlConfig.getJwtSecret());  //反解析token信息
         //token字符串解析失败
         if( jwtPayload == null || StringUtils.isEmpty(jwtPayload.getCacheKey())) {
             return null;
@@ -91,7 +99,10 @@ public class JeeAuthenticationTokenFilter extends OncePerRequestFilter {
         }
 
         //续签时间
-        RedisUtil.expire(jwtPayload.getCacheKey(), CS.TOKEN_TIME);
+        ITokenService.renewTokenCache(jwtPayload.getCacheKey(), jwtBaseUser.getSysUser().getSysUserId(), systemYmlConfig.getTokenRenewInterval());
+
+        //放置本地缓存
+        ITokenService.putLocalTokenCache(authToken, jwtBaseUser, systemYmlConfig.getTokenLocalCacheTime());
 
         return jwtBaseUser;
     }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.channel.mockpay;
+
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.RefundOrder;
+import com.jeequan.jeepay.core.exception.ResponseException;
+import com.jeequan.jeepay.pay.channel.AbstractChannelRefundNoticeService;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.servlet.http.HttpServletRequest;
+
+/*
+* 模拟支付通道： 退款回调接口
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 10:47
+*/
+@Service
+public class MockpayChannelRefundNoticeService extends AbstractChannelRefundNoticeService {
+
+    @Autowired private MockpayChannelSimulator mockpayChannelSimulator;
+
+    @Override
+    public String getIfCode() {
+        return CS.IF_CODE.MOCKPAY;
+    }
+
+    @Override
+    public MutablePair<String, Object> parseParams(HttpServletRequest request, String urlOrderId, NoticeTypeEnum noticeTypeEnum) {
+
+        mockpayChannelSimulator.checkEnabled();
+
+        JSONObject params = getReqParamJSON();
+        return MutablePair.of(params.getString("orderId"), params);
+    }
+
+    @Override
+    public ChannelRetMsg doNotice(HttpServletRequest request, Object params, RefundOrder refundOrder, MchAppConfigContext mchAppConfigContext, NoticeTypeEnum noticeTypeEnum) {
+
+        ChannelRetMsg result = mockpayChannelSimulator.parseNotice((JSONObject) params, mchAppConfigContext);
+        if(result == null){
+            throw ResponseException.buildText("ERROR");
+        }
+        result.setResponseEntity(textResp("success"));
+        return result;
+    }
+
+}
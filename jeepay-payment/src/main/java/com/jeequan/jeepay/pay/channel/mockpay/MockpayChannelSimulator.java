@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.channel.mockpay;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.http.HttpUtil;
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.core.model.params.mockpay.MockpayNormalMchParams;
+import com.jeequan.jeepay.core.utils.JeepayKit;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 模拟支付通道： 模拟上游渠道的接口耗时、 成功比例及异步回调。
+* 支付、退款、转账共用， 渠道处理结果写入Redis， 供查单接口及补单任务查询。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 10:20
+*/
+@Slf4j
+@Component
+public class MockpayChannelSimulator {
+
+    /** 模拟渠道订单结果缓存KEY **/
+    private static final String CACHE_KEY_ORDER = "MOCKPAY_ORDER_%s";
+
+    /** 模拟渠道订单结果保存时长（秒） **/
+    private static final long CACHE_TIME_ORDER = 2 * 60 * 60;
+
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_FAIL = "FAIL";
+
+    @Autowired private SystemYmlConfig systemYmlConfig;
+    @Autowired private ConfigContextQueryService configContextQueryService;
+
+    /** 异步回调线程池 **/
+    private ScheduledThreadPoolExecutor notifyExecutor;
+
+    @PostConstruct
+    public void init(){
+        notifyExecutor = new ScheduledThreadPoolExecutor(systemYmlConfig.getMockPay().getNotifyPoolSize(),
+                ThreadFactoryBuilder.create().setNamePrefix("mockpay-notify-").setDaemon(true).build());
+        notifyExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void destroy(){
+        notifyExecutor.shutdownNow();
+    }
+
+    /** 检查模拟通道是否开启 **/
+    public void checkEnabled(){
+        if(!systemYmlConfig.getMockPay().isEnabled()){
+            throw new BizException("模拟支付通道未开启");
+        }
+    }
+
+    /**
+     * 模拟调用渠道接口：
+     * 按配置休眠模拟耗时， 按成功比例确定最终结果；
+     * 未配置回调延迟时同步返回最终结果， 否则返回处理中并在延迟后回调notifyUrl。
+     **/
+    public ChannelRetMsg invoke(MchAppConfigContext mchAppConfigContext, String orderId, String notifyUrl){
+
+        checkEnabled();
+
+        MockpayNormalMchParams params = getParams(mchAppConfigContext);
+
+        int latencyMs = params.getLatencyMs() == null ? 0 : params.getLatencyMs();
+        if(latencyMs > 0){
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int successRatio = params.getSuccessRatio() == null ? 100 : params.getSuccessRatio();
+        String status = ThreadLocalRandom.current().nextInt(100) < successRatio ? STATUS_SUCCESS : STATUS_FAIL;
+        String channelOrderNo = "MOCK" + IdUtil.getSnowflake().nextIdStr();
+        int notifyDelaySeconds = params.getNotifyDelaySeconds() == null ? 0 : params.getNotifyDelaySeconds();
+
+        JSONObject result = new JSONObject();
+        result.put("orderId", orderId);
+        result.put("channelOrderNo", channelOrderNo);
+        result.put("status", status);
+        result.put("finishTime", System.currentTimeMillis() + notifyDelaySeconds * 1000L);
+        RedisUtil.setString(String.format(CACHE_KEY_ORDER, orderId), result.toJSONString(), CACHE_TIME_ORDER);
+
+        // 同步返回最终结果
+        if(notifyDelaySeconds <= 0){
+            return toChannelRetMsg(result);
+        }
+
+        sendNotify(notifyUrl, params.getKey(), result, notifyDelaySeconds);
+
+        ChannelRetMsg channelRetMsg = ChannelRetMsg.waiting();
+        channelRetMsg.setChannelOrderId(channelOrderNo);
+        return channelRetMsg;
+    }
+
+    /** 模拟查单： 回调时间未到时返回处理中 **/
+    public ChannelRetMsg query(String orderId){
+
+        checkEnabled();
+
+        JSONObject result = RedisUtil.getObject(String.format(CACHE_KEY_ORDER, orderId), JSONObject.class);
+        if(result == null){
+            return ChannelRetMsg.waiting();
+        }
+
+        if(System.currentTimeMillis() < result.getLongValue("finishTime")){
+            ChannelRetMsg channelRetMsg = ChannelRetMsg.waiting();
+            channelRetMsg.setChannelOrderId(result.getString("channelOrderNo"));
+            return channelRetMsg;
+        }
+
+        return toChannelRetMsg(result);
+    }
+
+    /** 解析回调参数并验签， 验签失败返回null **/
+    public ChannelRetMsg parseNotice(JSONObject params, MchAppConfigContext mchAppConfigContext){
+
+        checkEnabled();
+
+        String checkSign = params.getString("sign");
+        params.remove("sign");
+        if(checkSign == null || !checkSign.equals(JeepayKit.getSign(params, getParams(mchAppConfigContext).getKey()))){
+            return null;
+        }
+        return toChannelRetMsg(params);
+    }
+
+    private ChannelRetMsg toChannelRetMsg(JSONObject result){
+
+        String channelOrderNo = result.getString("channelOrderNo");
+        if(STATUS_SUCCESS.equals(result.getString("status"))){
+            return ChannelRetMsg.confirmSuccess(channelOrderNo);
+        }
+        return ChannelRetMsg.confirmFail(channelOrderNo, "MOCK_FAIL", "模拟渠道处理失败");
+    }
+
+    /** 延迟发送异步回调 **/
+    private void sendNotify(String notifyUrl, String key, JSONObject result, int delaySeconds){
+
+        Map<String, Object> paramMap = new TreeMap<>();
+        paramMap.put("orderId", result.getString("orderId"));
+        paramMap.put("channelOrderNo", result.getString("channelOrderNo"));
+        paramMap.put("status", result.getString("status"));
+        paramMap.put("sign", JeepayKit.getSign(paramMap, key));
+
+        notifyExecutor.schedule(() -> {
+            try {
+                String resStr = HttpUtil.post(notifyUrl, paramMap, 10 * 1000);
+                log.info("模拟通道回调完成，notifyUrl={}, 响应：{}", notifyUrl, resStr);
+            } catch (Exception e) {
+                log.error("模拟通道回调异常，notifyUrl={}", notifyUrl, e);
+            }
+        }, delaySeconds, TimeUnit.SECONDS);
+    }
+
+    private MockpayNormalMchParams getParams(MchAppConfigContext mchAppConfigContext){
+
+        MockpayNormalMchParams params = (MockpayNormalMchParams) configContextQueryService.queryNormalMchParams(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), CS.IF_CODE.MOCKPAY);
+        if(params == null || StringUtils.isEmpty(params.getKey())){
+            throw new BizException("模拟支付通道参数未配置");
+        }
+        return params;
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.channel.mockpay;
+
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.TransferOrder;
+import com.jeequan.jeepay.pay.channel.ITransferService;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.pay.rqrs.transfer.TransferOrderRQ;
+import com.jeequan.jeepay.service.impl.SysConfigService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/*
+* 模拟支付通道： 转账接口， 支持全部入账方式
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 10:40
+*/
+@Service
+public class MockpayTransferService implements ITransferService {
+
+    @Autowired private SysConfigService sysConfigService;
+    @Autowired private MockpayChannelSimulator mockpayChannelSimulator;
+
+    @Override
+    public String getIfCode() {
+        return CS.IF_CODE.MOCKPAY;
+    }
+
+    @Override
+    public boolean isSupport(String entryType) {
+        return true;
+    }
+
+    @Override
+    public String preCheck(TransferOrderRQ bizRQ, TransferOrder transferOrder) {
+        mockpayChannelSimulator.checkEnabled();
+        return null;
+    }
+
+    @Override
+    public ChannelRetMsg transfer(TransferOrderRQ bizRQ, TransferOrder transferOrder, MchAppConfigContext mchAppConfigContext) {
+
+        String notifyUrl = sysConfigService.getDBApplicationConfig().getPaySiteUrl() + "/api/transfer/notify/" + getIfCode() + "/" + transferOrder.getTransferId();
+        return mockpayChannelSimulator.invoke(mchAppConfigContext, transferOrder.getTransferId(), notifyUrl);
+    }
+
+    @Override
+    public ChannelRetMsg query(TransferOrder transferOrder, MchAppConfigContext mchAppConfigContext) {
+        return mockpayChannelSimulator.query(transferOrder.getTransferId());
+    }
+
+}
@@ -17,8 +17,14 @@ package com.jeequan.jeepay.pay.config;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 系统Yml配置参数定义Bean
  *
@@ -37,4 +43,157 @@ public class SystemYmlConfig {
 	/** 是否内存缓存配置信息: true表示开启如支付网关地址/商户应用配置/服务商配置等， 开启后需检查MQ的广播模式是否正常； false表示直接查询DB.  **/
 	private Boolean cacheConfig;
 
+	@NestedConfigurationProperty //指定该属性为嵌套值, 否则默认为简单值导致对象为空（外部类不存在该问题， 内部static需明确指定）
+	private Archive archive = new Archive();
+
+	/** 历史数据归档配置 **/
+	@Data
+	public static class Archive{
+
+		/** 是否开启归档任务 ( 开启前需创建对应的 [表名_archive] 归档表 ) **/
+		private boolean enabled = false;
+
+		/** 终态数据保留天数 ( 建议大于渠道允许的最长退款期限 ) **/
+		private int keepDays = 365;
+
+		/** 每批次迁移的数量 **/
+		private int batchSize = 500;
+
+	}
+
+	@NestedConfigurationProperty
+	private DivisionExec divisionExec = new DivisionExec();
+
+	/** 分账执行配置 **/
+	@Data
+	public static class DivisionExec{
+
+		/** 分账接口是否异步执行:  true-受理后立即返回, 在后台线程池中调用渠道接口;  false-同步等待渠道返回结果 **/
+		private boolean async = true;
+
+		/** 后台线程数 **/
+		private int poolSize = 8;
+
+		/** 等待队列大小 ( 队列满时由请求线程同步执行 ) **/
+		private int queueCapacity = 1000;
+
+		/** 待分账记录的恢复时间(分钟)： 超过该时间仍为待分账状态（ 节点宕机或重启导致后台任务丢失 ）， 由分账补单任务重新调用渠道接口 **/
+		private int waitRecoverMinutes = 10;
+
+	}
+
+	@NestedConfigurationProperty
+	private TransferBatch transferBatch = new TransferBatch();
+
+	/** 批量转账配置 **/
+	@Data
+	public static class TransferBatch{
+
+		/** 单次请求最大转账笔数 **/
+		private int maxSize = 1000;
+
+		/** 调用渠道接口的并发线程数 **/
+		private int poolSize = 8;
+
+		/** 等待队列大小 ( 队列满时由请求线程同步执行 ) **/
+		private int queueCapacity = 10000;
+
+		/** 批量转账订单的恢复时间(分钟)： 超过该时间仍未开始调用渠道接口（ 节点宕机或重启导致后台任务丢失 ）， 由转账补单任务重新调用渠道接口 **/
+		private int initRecoverMinutes = 10;
+
+	}
+
+	@NestedConfigurationProperty
+	private MchNotify mchNotify = new MchNotify();
+
+	/** 商户通知配置 **/
+	@Data
+	public static class MchNotify{
+
+		/** 通知中记录的恢复时间(分钟)： 超过该时间未再次通知（ MQ消息丢失或发送失败 ）， 由商户通知补发任务重新发送MQ消息， 需大于最大重试间隔(150秒) **/
+		private int ingRecoverMinutes = 10;
+
+	}
+
+	/** 批量查单接口（支付订单/退款单/转账订单）单次最大查询笔数 **/
+	private int queryBatchMaxSize = 200;
+
+	@NestedConfigurationProperty
+	private TaskLease taskLease = new TaskLease();
+
+	/** 定时任务租约配置 （集群部署时保证同一任务每个周期仅一个节点执行） **/
+	@Data
+	public static class TaskLease{
+
+		/** 是否开启 **/
+		private boolean enabled = true;
+
+		/** 租约时长（秒）， 需小于任务执行周期（1分钟） **/
+		private long leaseSeconds = 50;
+
+	}
+
+	@NestedConfigurationProperty
+	private MockPay mockPay = new MockPay();
+
+	/** 模拟支付通道配置 （压测、联调使用， 生产环境请勿开启） **/
+	@Data
+	public static class MockPay{
+
+		/** 是否开启， 关闭时模拟通道拒绝下单 **/
+		private boolean enabled = false;
+
+		/** 异步回调线程数 **/
+		private int notifyPoolSize = 4;
+
+	}
+
+	@NestedConfigurationProperty
+	private PayOrderReissue payOrderReissue = new PayOrderReissue();
+
+	/** 条码支付轮询查单配置 （按通道配置查单曲线， 未配置的通道使用默认曲线） **/
+	@Data
+	public static class PayOrderReissue{
+
+		/** 默认查单曲线 **/
+		private ReissueCurve defaultCurve = new ReissueCurve();
+
+		/** 按通道（ifCode）配置的查单曲线 **/
+		private Map<String, ReissueCurve> channels = new HashMap<>();
+
+		/** 获取通道的查单曲线 **/
+		public ReissueCurve getCurve(String ifCode){
+			ReissueCurve curve = channels.get(ifCode);
+			return curve == null ? defaultCurve : curve;
+		}
+
+	}
+
+	/** 查单曲线： 前期快速查单， 之后按指数退避（含随机抖动）， 直至用户确认等待时长结束 **/
+	@Data
+	public static class ReissueCurve{
+
+		/** 前期快速查单间隔（秒）， 依次使用 **/
+		private List<Integer> fastDelays = Arrays.asList(3, 3);
+
+		/** 指数退避起始间隔（秒） **/
+		private int backoffBase = 5;
+
+		/** 指数退避倍数 **/
+		private double backoffMultiplier = 2;
+
+		/** 指数退避最大间隔（秒） **/
+		private int backoffMax = 20;
+
+		/** 随机抖动比例（0-1）， 避免同一时刻下单的订单集中查单 **/
+		private double jitterRatio = 0.2;
+
+		/** 用户确认等待时长（秒）， 自下单时间起算 **/
+		private int confirmWindow = 60;
+
+		/** 等待时长结束仍未确认时， 是否调起渠道关闭订单 **/
+		private boolean autoClose = true;
+
+	}
+
 }
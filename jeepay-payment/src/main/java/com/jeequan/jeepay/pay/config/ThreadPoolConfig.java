@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/*
+* 业务线程池配置
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 10:15
+*/
+@Configuration
+public class ThreadPoolConfig {
+
+    @Autowired private SystemYmlConfig systemYmlConfig;
+
+    /** 分账执行线程池：  有界队列， 队列满时由调用线程直接执行（不丢弃已入库的分账任务） **/
+    @Bean("divisionExecutor")
+    public ThreadPoolTaskExecutor divisionExecutor(){
+
+        SystemYmlConfig.DivisionExec config = systemYmlConfig.getDivisionExec();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getPoolSize());
+        executor.setMaxPoolSize(config.getPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("division-exec-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true); // 停止时执行完已提交的分账任务
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /** 批量转账执行线程池： 限制调用渠道接口的并发数， 队列满时由调用线程直接执行（不丢弃已入库的转账订单） **/
+    @Bean("transferExecutor")
+    public ThreadPoolTaskExecutor transferExecutor(){
+
+        SystemYmlConfig.TransferBatch config = systemYmlConfig.getTransferBatch();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getPoolSize());
+        executor.setMaxPoolSize(config.getPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("transfer-exec-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true); // 停止时执行完已提交的转账任务
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+}
@@ -20,6 +20,7 @@ import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.ctrls.AbstractCtrl;
 import com.jeequan.jeepay.core.entity.MchApp;
 import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
 import com.jeequan.jeepay.core.utils.JeepayKit;
 import com.jeequan.jeepay.pay.model.MchAppConfigContext;
 import com.jeequan.jeepay.pay.rqrs.AbstractMchAppRQ;
@@ -94,9 +95,12 @@ public abstract class ApiController extends AbstractCtrl {
         String appSecret = mchApp.getAppSecret();
 
         // 转换为 JSON
+        long verifyStart = JeepayMetrics.start();
         JSONObject bizReqJSON = (JSONObject)JSONObject.toJSON(bizRQ);
         bizReqJSON.remove("sign");
-        if(!sign.equalsIgnoreCase(JeepayKit.getSign(bizReqJSON, appSecret))){
+        boolean verifyResult = sign.equalsIgnoreCase(JeepayKit.getSign(bizReqJSON, appSecret));
+        JeepayMetrics.record("jeepay.pay.sign.verify", verifyStart, "outcome", verifyResult ? "success" : "fail");
+        if(!verifyResult){
              throw new BizException("验签失败");
         }
 
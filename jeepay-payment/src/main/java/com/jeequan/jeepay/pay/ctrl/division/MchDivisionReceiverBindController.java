@@ -15,6 +15,8 @@
  */
 package com.jeequan.jeepay.pay.ctrl.division;
 
+import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.MchDivisionReceiver;
 import com.jeequan.jeepay.core.entity.MchDivisionReceiverGroup;
@@ -58,6 +60,7 @@ public class MchDivisionReceiverBindController extends ApiController {
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
     @Autowired private MchDivisionReceiverService mchDivisionReceiverService;
     @Autowired private MchDivisionReceiverGroupService mchDivisionReceiverGroupService;
+    @Autowired private IMQSender mqSender;
 
     /** 分账账号绑定 **/
     @PostMapping("/api/division/receiver/bind")
@@ -113,6 +116,9 @@ public class MchDivisionReceiverBindController extends ApiController {
                 receiver.setBindSuccessTime(new Date());
                 mchDivisionReceiverService.save(receiver);
 
+                // 推送清除分账账号缓存消息
+                mqSender.send(ResetIsvMchAppInfoConfigMQ.build(ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_DIVISION, null, receiver.getMchNo(), null));
+
             }else{
 
                 receiver.setState(CS.NO);
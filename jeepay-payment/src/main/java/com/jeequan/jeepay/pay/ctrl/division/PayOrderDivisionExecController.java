@@ -18,21 +18,19 @@ package com.jeequan.jeepay.pay.ctrl.division;
 import com.alibaba.fastjson.JSON;
 import com.jeequan.jeepay.components.mq.model.PayOrderDivisionMQ;
 import com.jeequan.jeepay.core.constants.CS;
-import com.jeequan.jeepay.core.entity.MchDivisionReceiver;
-import com.jeequan.jeepay.core.entity.MchDivisionReceiverGroup;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.core.entity.PayOrderDivisionRecord;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.ApiRes;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
 import com.jeequan.jeepay.pay.ctrl.ApiController;
 import com.jeequan.jeepay.pay.model.MchAppConfigContext;
 import com.jeequan.jeepay.pay.rqrs.division.PayOrderDivisionExecRQ;
 import com.jeequan.jeepay.pay.rqrs.division.PayOrderDivisionExecRS;
 import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
+import com.jeequan.jeepay.pay.service.MchDivisionReceiverCacheService;
 import com.jeequan.jeepay.pay.service.PayOrderDivisionProcessService;
-import com.jeequan.jeepay.service.impl.MchDivisionReceiverGroupService;
-import com.jeequan.jeepay.service.impl.MchDivisionReceiverService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -58,9 +56,9 @@ public class PayOrderDivisionExecController extends ApiController {
 
     @Autowired private ConfigContextQueryService configContextQueryService;
     @Autowired private PayOrderService payOrderService;
-    @Autowired private MchDivisionReceiverService mchDivisionReceiverService;
-    @Autowired private MchDivisionReceiverGroupService mchDivisionReceiverGroupService;
+    @Autowired private MchDivisionReceiverCacheService mchDivisionReceiverCacheService;
     @Autowired private PayOrderDivisionProcessService payOrderDivisionProcessService;
+    @Autowired private SystemYmlConfig systemYmlConfig;
 
     /** 分账执行 **/
     @PostMapping("/api/division/exec")
@@ -100,10 +98,21 @@ public class PayOrderDivisionExecController extends ApiController {
                 throw new BizException("获取商户应用信息失败");
             }
 
+            PayOrderDivisionExecRS bizRS = new PayOrderDivisionExecRS();
+
+            //异步分账： 分账记录入库后立即返回已受理， 分账结果通过分账记录查询
+            if(systemYmlConfig.getDivisionExec().isAsync()){
+
+                List<PayOrderDivisionRecord> recordList = payOrderDivisionProcessService.acceptPayOrderDivision(payOrder.getPayOrderId(), bizRQ.getUseSysAutoDivisionReceivers(), receiverList);
+
+                bizRS.setState(PayOrderDivisionRecord.STATE_ACCEPT);
+                bizRS.setBatchOrderId(recordList.isEmpty() ? null : recordList.get(0).getBatchOrderId());
+                return ApiRes.okWithSign(bizRS, mchAppConfigContext.getMchApp().getAppSecret());
+            }
+
             //处理分账请求
             ChannelRetMsg channelRetMsg = payOrderDivisionProcessService.processPayOrderDivision(payOrder.getPayOrderId(), bizRQ.getUseSysAutoDivisionReceivers(), receiverList, false);
 
-            PayOrderDivisionExecRS bizRS = new PayOrderDivisionExecRS();
             bizRS.setState(channelRetMsg.getChannelState() == ChannelRetMsg.ChannelState.CONFIRM_SUCCESS ? PayOrderDivisionRecord.STATE_SUCCESS : PayOrderDivisionRecord.STATE_FAIL);
             bizRS.setChannelBatchOrderId(channelRetMsg.getChannelOrderId());
             bizRS.setErrCode(channelRetMsg.getChannelErrCode());
@@ -161,13 +170,9 @@ public class PayOrderDivisionExecController extends ApiController {
 
         if(!receiverIdSet.isEmpty()){
 
-            int receiverCount = mchDivisionReceiverService.count(MchDivisionReceiver.gw()
-                    .in(MchDivisionReceiver::getReceiverId, receiverIdSet)
-                    .eq(MchDivisionReceiver::getMchNo, mchNo)
-                    .eq(MchDivisionReceiver::getAppId, appId)
-                    .eq(MchDivisionReceiver::getIfCode, ifCode)
-                    .eq(MchDivisionReceiver::getState, CS.YES)
-            );
+            long receiverCount = mchDivisionReceiverCacheService.queryUsableReceiverList(mchNo, appId, ifCode, null).stream()
+                    .filter(receiver -> receiverIdSet.contains(receiver.getReceiverId()))
+                    .count();
 
             if(receiverCount != receiverIdSet.size()){
                 throw new BizException("分账[用户]中包含不存在或渠道不可用账号，请更改");
@@ -176,10 +181,9 @@ public class PayOrderDivisionExecController extends ApiController {
 
         if(!receiverGroupIdSet.isEmpty()){
 
-            int receiverGroupCount = mchDivisionReceiverGroupService.count(MchDivisionReceiverGroup.gw()
-                    .in(MchDivisionReceiverGroup::getReceiverGroupId, receiverGroupIdSet)
-                    .eq(MchDivisionReceiverGroup::getMchNo, mchNo)
-            );
+            long receiverGroupCount = mchDivisionReceiverCacheService.queryReceiverGroupList(mchNo).stream()
+                    .filter(group -> receiverGroupIdSet.contains(group.getReceiverGroupId()))
+                    .count();
 
             if(receiverGroupCount != receiverGroupIdSet.size()){
                 throw new BizException("分账[账号组]中包含不存在或不可用组，请更改");
@@ -16,14 +16,13 @@
 package com.jeequan.jeepay.pay.ctrl.payorder;
 
 import cn.hutool.core.date.DateUtil;
-import com.jeequan.jeepay.components.mq.model.PayOrderReissueMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.MchApp;
 import com.jeequan.jeepay.core.entity.MchInfo;
 import com.jeequan.jeepay.core.entity.MchPayPassage;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
 import com.jeequan.jeepay.core.model.ApiRes;
 import com.jeequan.jeepay.core.model.DBApplicationConfig;
 import com.jeequan.jeepay.core.utils.*;
@@ -38,6 +37,7 @@ import com.jeequan.jeepay.pay.rqrs.payorder.payway.QrCashierOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.payorder.payway.QrCashierOrderRS;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
 import com.jeequan.jeepay.pay.service.PayOrderProcessService;
+import com.jeequan.jeepay.pay.service.PayOrderReissueScheduleService;
 import com.jeequan.jeepay.service.impl.MchPayPassageService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import com.jeequan.jeepay.service.impl.SysConfigService;
@@ -64,7 +64,7 @@ public abstract class AbstractPayOrderController extends ApiController {
     @Autowired private ConfigContextQueryService configContextQueryService;
     @Autowired private PayOrderProcessService payOrderProcessService;
     @Autowired private SysConfigService sysConfigService;
-    @Autowired private IMQSender mqSender;
+    @Autowired private PayOrderReissueScheduleService payOrderReissueScheduleService;
 
 
     /** 统一下单 (新建订单模式) **/
@@ -110,7 +110,7 @@ public abstract class AbstractPayOrderController extends ApiController {
             String appId = bizRQ.getAppId();
 
             // 只有新订单模式，进行校验
-            if(isNewOrder && payOrderService.count(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getMchOrderNo, bizRQ.getMchOrderNo())) > 0){
+            if(isNewOrder && payOrderService.existsMchOrderNo(mchNo, bizRQ.getMchOrderNo())){
                 throw new BizException("商户订单["+bizRQ.getMchOrderNo()+"]已存在");
             }
 
@@ -156,7 +156,9 @@ public abstract class AbstractPayOrderController extends ApiController {
             }
 
             // 根据支付方式， 查询出 该商户 可用的支付接口
+            long passageStart = JeepayMetrics.start();
             MchPayPassage mchPayPassage = mchPayPassageService.findMchPayPassage(mchAppConfigContext.getMchNo(), mchAppConfigContext.getAppId(), wayCode);
+            JeepayMetrics.record("jeepay.pay.passage.lookup", passageStart, "wayCode", wayCode, "outcome", mchPayPassage == null ? "none" : "found");
             if(mchPayPassage == null){
                 throw new BizException("商户应用不支持该支付方式");
             }
@@ -194,7 +196,17 @@ public abstract class AbstractPayOrderController extends ApiController {
             }
 
             //调起上游支付接口
-            bizRS = (UnifiedOrderRS) paymentService.pay(bizRQ, payOrder, mchAppConfigContext);
+            long payStart = JeepayMetrics.start();
+            String payOutcome = "exception";
+            try {
+                bizRS = (UnifiedOrderRS) paymentService.pay(bizRQ, payOrder, mchAppConfigContext);
+                payOutcome = getChannelOutcome(bizRS.getChannelRetMsg());
+            } catch (ChannelException e) {
+                payOutcome = getChannelOutcome(e.getChannelRetMsg());
+                throw e;
+            } finally {
+                JeepayMetrics.record("jeepay.pay.channel.pay", payStart, "ifCode", ifCode, "wayCode", wayCode, "outcome", payOutcome);
+            }
 
             //处理上游返回数据
             this.processChannelMsg(bizRS.getChannelRetMsg(), payOrder);
@@ -222,10 +234,15 @@ public abstract class AbstractPayOrderController extends ApiController {
         }
     }
 
+    /** 渠道返回结果 （用于统计） **/
+    private String getChannelOutcome(ChannelRetMsg channelRetMsg){
+        return channelRetMsg == null || channelRetMsg.getChannelState() == null ? "none" : channelRetMsg.getChannelState().name();
+    }
+
     private PayOrder genPayOrder(UnifiedOrderRQ rq, MchInfo mchInfo, MchApp mchApp, String ifCode, MchPayPassage mchPayPassage){
 
         PayOrder payOrder = new PayOrder();
-        payOrder.setPayOrderId(SeqKit.genPayOrderId()); //生成订单ID
+        payOrder.setPayOrderId(SeqKit.genPayOrderId(mchInfo.getMchNo())); //生成订单ID （按商户号分片）
         payOrder.setMchNo(mchInfo.getMchNo()); //商户号
         payOrder.setIsvNo(mchInfo.getIsvNo()); //服务商号
         payOrder.setMchName(mchInfo.getMchShortName()); //商户名称（简称）
@@ -246,6 +263,11 @@ public abstract class AbstractPayOrderController extends ApiController {
 
         payOrder.setCurrency(rq.getCurrency()); //币种
         payOrder.setState(PayOrder.STATE_INIT); //订单状态, 默认订单生成状态
+        payOrder.setNotifyState(CS.NO); //向下游回调状态, 默认未发送
+        payOrder.setRefundState(PayOrder.REFUND_STATE_NONE); //退款状态, 默认未发生实际退款
+        payOrder.setRefundTimes(0); //退款次数
+        payOrder.setRefundAmount(0L); //退款总金额
+        payOrder.setDivisionState(PayOrder.DIVISION_STATE_UNHAPPEN); //分账状态, 默认未发生分账
         payOrder.setClientIp(StringUtils.defaultIfEmpty(rq.getClientIp(), getClientIp())); //客户端IP
         payOrder.setSubject(rq.getSubject()); //商品标题
         payOrder.setBody(rq.getBody()); //商品描述信息
@@ -325,15 +347,15 @@ public abstract class AbstractPayOrderController extends ApiController {
         //明确成功
         if(ChannelRetMsg.ChannelState.CONFIRM_SUCCESS == channelRetMsg.getChannelState()) {
 
-            this.updateInitOrderStateThrowException(PayOrder.STATE_SUCCESS, payOrder, channelRetMsg);
+            PayOrder dbPayOrder = this.updateInit2SuccessOrFailThrowException(PayOrder.STATE_SUCCESS, payOrder, channelRetMsg);
 
             //订单支付成功，其他业务逻辑
-            payOrderProcessService.confirmSuccess(payOrder);
+            payOrderProcessService.confirmSuccessByDBOrder(dbPayOrder);
 
         //明确失败
         }else if(ChannelRetMsg.ChannelState.CONFIRM_FAIL == channelRetMsg.getChannelState()) {
 
-            this.updateInitOrderStateThrowException(PayOrder.STATE_FAIL, payOrder, channelRetMsg);
+            this.updateInit2SuccessOrFailThrowException(PayOrder.STATE_FAIL, payOrder, channelRetMsg);
 
         // 上游处理中 || 未知 || 上游接口返回异常  订单为支付中状态
         }else if( ChannelRetMsg.ChannelState.WAITING == channelRetMsg.getChannelState() ||
@@ -353,7 +375,7 @@ public abstract class AbstractPayOrderController extends ApiController {
 
         //判断是否需要轮询查单
         if(channelRetMsg.isNeedQuery()){
-            mqSender.send(PayOrderReissueMQ.build(payOrderId, 1), 5);
+            payOrderReissueScheduleService.scheduleNext(payOrder, 0);
         }
 
     }
@@ -387,6 +409,27 @@ public abstract class AbstractPayOrderController extends ApiController {
     }
 
 
+    /** 更新订单状态 --》 订单生成--》 支付成功/支付失败  (单条语句完成， 向外抛出异常)， 返回更新后的订单数据 **/
+    private PayOrder updateInit2SuccessOrFailThrowException(byte orderState, PayOrder payOrder, ChannelRetMsg channelRetMsg){
+
+        payOrder.setChannelOrderNo(channelRetMsg.getChannelOrderId());
+        payOrder.setErrCode(channelRetMsg.getChannelErrCode());
+        payOrder.setErrMsg(channelRetMsg.getChannelErrMsg());
+
+        // 聚合码场景 订单对象存在会员信息， 不可全部以上游为准。
+        if(StringUtils.isNotEmpty(channelRetMsg.getChannelUserId())){
+            payOrder.setChannelUser(channelRetMsg.getChannelUserId());
+        }
+
+        PayOrder dbPayOrder = payOrderService.updateInit2SuccessOrFail(payOrder, orderState,
+                channelRetMsg.getChannelOrderId(), channelRetMsg.getChannelErrCode(), channelRetMsg.getChannelErrMsg());
+        if(dbPayOrder == null){
+            throw new BizException("更新订单异常!");
+        }
+        return dbPayOrder;
+    }
+
+
     /** 统一封装订单数据  **/
     private ApiRes packageApiResByPayOrder(UnifiedOrderRQ bizRQ, UnifiedOrderRS bizRS, PayOrder payOrder){
 
@@ -114,6 +114,12 @@ public class ChannelNoticeController extends AbstractCtrl {
                 return this.toReturnPage("支付订单不存在");
             }
 
+            // 订单的支付接口与回调接口不一致
+            if(!payNotifyService.getIfCode().equals(payOrder.getIfCode())){
+                log.error("{}, 订单支付接口与回调接口不匹配. payOrderId={}, ifCode={} ", logPrefix, payOrderId, payOrder.getIfCode());
+                return this.toReturnPage("支付接口不匹配");
+            }
+
             //查询出商户应用的配置信息
             MchAppConfigContext mchAppConfigContext = configContextQueryService.queryMchInfoAndAppInfo(payOrder.getMchNo(), payOrder.getAppId());
 
@@ -211,6 +217,12 @@ public class ChannelNoticeController extends AbstractCtrl {
                 return payNotifyService.doNotifyOrderNotExists(request);
             }
 
+            // 订单的支付接口与回调接口不一致
+            if(!payNotifyService.getIfCode().equals(payOrder.getIfCode())){
+                log.error("{}, 订单支付接口与回调接口不匹配. payOrderId={}, ifCode={} ", logPrefix, payOrderId, payOrder.getIfCode());
+                throw new BizException("支付接口不匹配！");
+            }
+
             //查询出商户应用的配置信息
             MchAppConfigContext mchAppConfigContext = configContextQueryService.queryMchInfoAndAppInfo(payOrder.getMchNo(), payOrder.getAppId());
 
@@ -15,10 +15,14 @@
  */
 package com.jeequan.jeepay.pay.ctrl.payorder;
 
+import cn.hutool.core.util.StrUtil;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.ApiRes;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
 import com.jeequan.jeepay.pay.ctrl.ApiController;
+import com.jeequan.jeepay.pay.rqrs.payorder.QueryPayOrderBatchRQ;
+import com.jeequan.jeepay.pay.rqrs.payorder.QueryPayOrderBatchRS;
 import com.jeequan.jeepay.pay.rqrs.payorder.QueryPayOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.payorder.QueryPayOrderRS;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
@@ -30,6 +34,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /*
 * 商户查单controller
 *
@@ -43,6 +50,7 @@ public class QueryOrderController extends ApiController {
 
     @Autowired private PayOrderService payOrderService;
     @Autowired private ConfigContextQueryService configContextQueryService;
+    @Autowired private SystemYmlConfig systemYmlConfig;
 
     /**
      * 查单接口
@@ -57,7 +65,7 @@ public class QueryOrderController extends ApiController {
             throw new BizException("mchOrderNo 和 payOrderId不能同时为空");
         }
 
-        PayOrder payOrder = payOrderService.queryMchOrder(rq.getMchNo(), rq.getPayOrderId(), rq.getMchOrderNo());
+        PayOrder payOrder = payOrderService.queryMchOrderByCache(rq.getMchNo(), rq.getPayOrderId(), rq.getMchOrderNo());
         if(payOrder == null){
             throw new BizException("订单不存在");
         }
@@ -66,4 +74,31 @@ public class QueryOrderController extends ApiController {
         return ApiRes.okWithSign(bizRes, configContextQueryService.queryMchApp(rq.getMchNo(), rq.getAppId()).getAppSecret());
     }
 
+    /**
+     * 批量查单接口 （mchOrderNos / payOrderIds 多个使用英文逗号分隔）
+     * **/
+    @RequestMapping("/api/pay/batchQuery")
+    public ApiRes batchQueryOrder(){
+
+        //获取参数 & 验签
+        QueryPayOrderBatchRQ rq = getRQByWithMchSign(QueryPayOrderBatchRQ.class);
+
+        List<String> mchOrderNos = StrUtil.splitTrim(rq.getMchOrderNos(), ",");
+        List<String> payOrderIds = StrUtil.splitTrim(rq.getPayOrderIds(), ",");
+
+        if(mchOrderNos.isEmpty() && payOrderIds.isEmpty()){
+            throw new BizException("mchOrderNos 和 payOrderIds不能同时为空");
+        }
+
+        if(mchOrderNos.size() + payOrderIds.size() > systemYmlConfig.getQueryBatchMaxSize()){
+            throw new BizException("单次查询笔数不能超过" + systemYmlConfig.getQueryBatchMaxSize());
+        }
+
+        List<PayOrder> orderList = payOrderService.queryMchOrderList(rq.getMchNo(), payOrderIds, mchOrderNos);
+
+        QueryPayOrderBatchRS bizRes = new QueryPayOrderBatchRS();
+        bizRes.setPayOrderList(orderList.stream().map(QueryPayOrderRS::buildByPayOrder).collect(Collectors.toList()));
+        return ApiRes.okWithSign(bizRes, configContextQueryService.queryMchApp(rq.getMchNo(), rq.getAppId()).getAppSecret());
+    }
+
 }
@@ -17,7 +17,6 @@ package com.jeequan.jeepay.pay.ctrl.payorder;
 
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.PayOrder;
-import com.jeequan.jeepay.core.entity.PayWay;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.ApiRes;
 import com.jeequan.jeepay.core.utils.JeepayKit;
@@ -97,7 +96,7 @@ public class UnifiedOrderController extends AbstractPayOrderController {
             rq.setWayCode(wayCode.trim());
         }
 
-        if(payWayService.count(PayWay.gw().eq(PayWay::getWayCode, wayCode)) <= 0){
+        if(!payWayService.existsWayCode(wayCode)){
             throw new BizException("不支持的支付方式");
         }
 
@@ -104,6 +104,12 @@ public class ChannelRefundNoticeController extends AbstractCtrl {
                 return refundNotifyService.doNotifyOrderNotExists(request);
             }
 
+            // 退款单的退款接口与回调接口不一致
+            if(!refundNotifyService.getIfCode().equals(refundOrder.getIfCode())){
+                log.error("{}, 退款接口与回调接口不匹配. refundOrderId={}, ifCode={} ", logPrefix, refundOrder.getRefundOrderId(), refundOrder.getIfCode());
+                throw new BizException("退款接口不匹配！");
+            }
+
             //查询出商户应用的配置信息
             MchAppConfigContext mchAppConfigContext = configContextQueryService.queryMchInfoAndAppInfo(refundOrder.getMchNo(), refundOrder.getAppId());
 
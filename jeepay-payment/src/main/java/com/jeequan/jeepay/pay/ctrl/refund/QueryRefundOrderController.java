@@ -15,10 +15,14 @@
  */
 package com.jeequan.jeepay.pay.ctrl.refund;
 
+import cn.hutool.core.util.StrUtil;
 import com.jeequan.jeepay.core.entity.RefundOrder;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.ApiRes;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
 import com.jeequan.jeepay.pay.ctrl.ApiController;
+import com.jeequan.jeepay.pay.rqrs.refund.QueryRefundOrderBatchRQ;
+import com.jeequan.jeepay.pay.rqrs.refund.QueryRefundOrderBatchRS;
 import com.jeequan.jeepay.pay.rqrs.refund.QueryRefundOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.refund.QueryRefundOrderRS;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
@@ -30,6 +34,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
 * 商户退款单查询controller
 *
@@ -43,6 +50,7 @@ public class QueryRefundOrderController extends ApiController {
 
     @Autowired private RefundOrderService refundOrderService;
     @Autowired private ConfigContextQueryService configContextQueryService;
+    @Autowired private SystemYmlConfig systemYmlConfig;
 
     /**
      * 查单接口
@@ -65,4 +73,31 @@ public class QueryRefundOrderController extends ApiController {
         QueryRefundOrderRS bizRes = QueryRefundOrderRS.buildByRefundOrder(refundOrder);
         return ApiRes.okWithSign(bizRes, configContextQueryService.queryMchApp(rq.getMchNo(), rq.getAppId()).getAppSecret());
     }
+
+    /**
+     * 批量查单接口 （mchRefundNos / refundOrderIds 多个使用英文逗号分隔）
+     * **/
+    @RequestMapping("/api/refund/batchQuery")
+    public ApiRes batchQueryRefundOrder(){
+
+        //获取参数 & 验签
+        QueryRefundOrderBatchRQ rq = getRQByWithMchSign(QueryRefundOrderBatchRQ.class);
+
+        List<String> mchRefundNos = StrUtil.splitTrim(rq.getMchRefundNos(), ",");
+        List<String> refundOrderIds = StrUtil.splitTrim(rq.getRefundOrderIds(), ",");
+
+        if(mchRefundNos.isEmpty() && refundOrderIds.isEmpty()){
+            throw new BizException("mchRefundNos 和 refundOrderIds不能同时为空");
+        }
+
+        if(mchRefundNos.size() + refundOrderIds.size() > systemYmlConfig.getQueryBatchMaxSize()){
+            throw new BizException("单次查询笔数不能超过" + systemYmlConfig.getQueryBatchMaxSize());
+        }
+
+        List<RefundOrder> orderList = refundOrderService.queryMchOrderList(rq.getMchNo(), refundOrderIds, mchRefundNos);
+
+        QueryRefundOrderBatchRS bizRes = new QueryRefundOrderBatchRS();
+        bizRes.setRefundOrderList(orderList.stream().map(QueryRefundOrderRS::buildByRefundOrder).collect(Collectors.toList()));
+        return ApiRes.okWithSign(bizRes, configContextQueryService.queryMchApp(rq.getMchNo(), rq.getAppId()).getAppSecret());
+    }
 }
@@ -117,7 +117,7 @@ public class RefundOrderController extends ApiController {
             String appId = rq.getAppId();
 
             // 校验退款单号是否重复
-            if(refundOrderService.count(RefundOrder.gw().eq(RefundOrder::getMchNo, mchNo).eq(RefundOrder::getMchRefundNo, rq.getMchRefundNo())) > 0){
+            if(refundOrderService.existsMchRefundNo(mchNo, rq.getMchRefundNo())){
                 throw new BizException("商户退款订单号["+rq.getMchRefundNo()+"]已存在");
             }
 
@@ -179,7 +179,7 @@ public class RefundOrderController extends ApiController {
 
         Date nowTime = new Date();
         RefundOrder refundOrder = new RefundOrder();
-        refundOrder.setRefundOrderId(SeqKit.genRefundOrderId()); //退款订单号
+        refundOrder.setRefundOrderId(SeqKit.genRefundOrderId(mchInfo.getMchNo())); //退款订单号 （按商户号分片）
         refundOrder.setPayOrderId(payOrder.getPayOrderId()); //支付订单号
         refundOrder.setChannelPayOrderNo(payOrder.getChannelOrderNo()); //渠道支付单号
         refundOrder.setMchNo(mchInfo.getMchNo()); //商户号
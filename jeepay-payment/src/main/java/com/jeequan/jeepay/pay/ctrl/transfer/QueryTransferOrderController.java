@@ -15,10 +15,14 @@
  */
 package com.jeequan.jeepay.pay.ctrl.transfer;
 
+import cn.hutool.core.util.StrUtil;
 import com.jeequan.jeepay.core.entity.TransferOrder;
 import com.jeequan.jeepay.core.exception.BizException;
 import com.jeequan.jeepay.core.model.ApiRes;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
 import com.jeequan.jeepay.pay.ctrl.ApiController;
+import com.jeequan.jeepay.pay.rqrs.transfer.QueryTransferOrderBatchRQ;
+import com.jeequan.jeepay.pay.rqrs.transfer.QueryTransferOrderBatchRS;
 import com.jeequan.jeepay.pay.rqrs.transfer.QueryTransferOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.transfer.QueryTransferOrderRS;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
@@ -29,6 +33,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
 * 商户转账单查询controller
 *
@@ -42,6 +49,7 @@ public class QueryTransferOrderController extends ApiController {
 
     @Autowired private TransferOrderService transferOrderService;
     @Autowired private ConfigContextQueryService configContextQueryService;
+    @Autowired private SystemYmlConfig systemYmlConfig;
 
     /**
      * 查单接口
@@ -64,4 +72,31 @@ public class QueryTransferOrderController extends ApiController {
         QueryTransferOrderRS bizRes = QueryTransferOrderRS.buildByRecord(refundOrder);
         return ApiRes.okWithSign(bizRes, configContextQueryService.queryMchApp(rq.getMchNo(), rq.getAppId()).getAppSecret());
     }
+
+    /**
+     * 批量查单接口 （mchOrderNos / transferIds 多个使用英文逗号分隔）
+     * **/
+    @RequestMapping("/api/transfer/batchQuery")
+    public ApiRes batchQueryTransferOrder(){
+
+        //获取参数 & 验签
+        QueryTransferOrderBatchRQ rq = getRQByWithMchSign(QueryTransferOrderBatchRQ.class);
+
+        List<String> mchOrderNos = StrUtil.splitTrim(rq.getMchOrderNos(), ",");
+        List<String> transferIds = StrUtil.splitTrim(rq.getTransferIds(), ",");
+
+        if(mchOrderNos.isEmpty() && transferIds.isEmpty()){
+            throw new BizException("mchOrderNos 和 transferIds不能同时为空");
+        }
+
+        if(mchOrderNos.size() + transferIds.size() > systemYmlConfig.getQueryBatchMaxSize()){
+            throw new BizException("单次查询笔数不能超过" + systemYmlConfig.getQueryBatchMaxSize());
+        }
+
+        List<TransferOrder> orderList = transferOrderService.queryMchOrderList(rq.getMchNo(), transferIds, mchOrderNos);
+
+        QueryTransferOrderBatchRS bizRes = new QueryTransferOrderBatchRS();
+        bizRes.setTransferList(orderList.stream().map(QueryTransferOrderRS::buildByRecord).collect(Collectors.toList()));
+        return ApiRes.okWithSign(bizRes, configContextQueryService.queryMchApp(rq.getMchNo(), rq.getAppId()).getAppSecret());
+    }
 }
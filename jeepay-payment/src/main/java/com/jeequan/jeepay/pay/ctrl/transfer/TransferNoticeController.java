@@ -99,6 +99,12 @@ public class TransferNoticeController extends AbstractCtrl {
                 return transferNotifyService.doNotifyOrderNotExists(request);
             }
 
+            // 转账单的转账接口与回调接口不一致
+            if(!transferNotifyService.getIfCode().equals(transferOrder.getIfCode())){
+                log.error("{}, 转账接口与回调接口不匹配. transferId={}, ifCode={} ", logPrefix, transferId, transferOrder.getIfCode());
+                throw new BizException("转账接口不匹配！");
+            }
+
             //查询出商户应用的配置信息
             MchAppConfigContext mchAppConfigContext = configContextQueryService.queryMchInfoAndAppInfo(transferOrder.getMchNo(), transferOrder.getAppId());
 
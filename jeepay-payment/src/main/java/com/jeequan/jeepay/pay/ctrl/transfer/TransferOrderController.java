@@ -15,6 +15,7 @@
  */
 package com.jeequan.jeepay.pay.ctrl.transfer;
 
+import com.alibaba.fastjson.JSON;
 import com.jeequan.jeepay.core.entity.MchApp;
 import com.jeequan.jeepay.core.entity.MchInfo;
 import com.jeequan.jeepay.core.entity.TransferOrder;
@@ -24,15 +25,19 @@ import com.jeequan.jeepay.core.utils.SeqKit;
 import com.jeequan.jeepay.core.utils.SpringBeansUtil;
 import com.jeequan.jeepay.core.utils.StringKit;
 import com.jeequan.jeepay.pay.channel.ITransferService;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
 import com.jeequan.jeepay.pay.ctrl.ApiController;
 import com.jeequan.jeepay.pay.exception.ChannelException;
 import com.jeequan.jeepay.pay.model.MchAppConfigContext;
 import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.pay.rqrs.transfer.TransferOrderBatchRQ;
+import com.jeequan.jeepay.pay.rqrs.transfer.TransferOrderBatchRS;
 import com.jeequan.jeepay.pay.rqrs.transfer.TransferOrderRQ;
 import com.jeequan.jeepay.pay.rqrs.transfer.TransferOrderRS;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
 import com.jeequan.jeepay.pay.service.ConfigContextService;
-import com.jeequan.jeepay.pay.service.PayMchNotifyService;
+import com.jeequan.jeepay.pay.service.TransferOrderProcessService;
+import com.jeequan.jeepay.pay.service.ValidateService;
 import com.jeequan.jeepay.service.impl.PayInterfaceConfigService;
 import com.jeequan.jeepay.service.impl.TransferOrderService;
 import lombok.extern.slf4j.Slf4j;
@@ -41,7 +46,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Date;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
 * 转账接口
@@ -57,7 +63,9 @@ public class TransferOrderController extends ApiController {
     @Autowired private ConfigContextQueryService configContextQueryService;
     @Autowired private TransferOrderService transferOrderService;
     @Autowired private PayInterfaceConfigService payInterfaceConfigService;
-    @Autowired private PayMchNotifyService payMchNotifyService;
+    @Autowired private TransferOrderProcessService transferOrderProcessService;
+    @Autowired private ValidateService validateService;
+    @Autowired private SystemYmlConfig systemYmlConfig;
 
     /**
      * 转账
@@ -78,7 +86,7 @@ public class TransferOrderController extends ApiController {
             String ifCode = bizRQ.getIfCode();
 
             // 商户订单号是否重复
-            if(transferOrderService.count(TransferOrder.gw().eq(TransferOrder::getMchNo, mchNo).eq(TransferOrder::getMchOrderNo, bizRQ.getMchOrderNo())) > 0){
+            if(transferOrderService.existsMchOrderNo(mchNo, bizRQ.getMchOrderNo())){
                 throw new BizException("商户订单["+bizRQ.getMchOrderNo()+"]已存在");
             }
 
@@ -110,7 +118,7 @@ public class TransferOrderController extends ApiController {
                 throw new BizException("该接口不支持该入账方式");
             }
 
-            transferOrder = genTransferOrder(bizRQ, mchInfo, mchApp, ifCode);
+            transferOrder = genTransferOrder(bizRQ, mchInfo, mchApp, ifCode, SeqKit.genTransferId(mchNo));
 
             //预先校验
             String errMsg = transferService.preCheck(bizRQ, transferOrder);
@@ -125,7 +133,7 @@ public class TransferOrderController extends ApiController {
             ChannelRetMsg channelRetMsg = transferService.transfer(bizRQ, transferOrder, mchAppConfigContext);
 
             //处理退款单状态
-            this.processChannelMsg(channelRetMsg, transferOrder);
+            transferOrderProcessService.processChannelMsg(channelRetMsg, transferOrder);
 
             TransferOrderRS bizRes = TransferOrderRS.buildByRecord(transferOrder);
             return ApiRes.okWithSign(bizRes, mchApp.getAppSecret());
@@ -136,7 +144,7 @@ public class TransferOrderController extends ApiController {
         } catch (ChannelException e) {
 
             //处理上游返回数据
-            this.processChannelMsg(e.getChannelRetMsg(), transferOrder);
+            transferOrderProcessService.processChannelMsg(e.getChannelRetMsg(), transferOrder);
 
             if(e.getChannelRetMsg().getChannelState() == ChannelRetMsg.ChannelState.SYS_ERROR ){
                 return ApiRes.customFail(e.getMessage());
@@ -147,103 +155,178 @@ public class TransferOrderController extends ApiController {
 
         } catch (Exception e) {
             log.error("系统异常：{}", e);
+
+            // 已告知商户系统异常， 订单不再处理 （ 已入库时更新为订单关闭 ）
+            transferOrderProcessService.closeSysErrorOrder(transferOrder, "系统异常");
             return ApiRes.customFail("系统异常");
         }
     }
 
 
-    private TransferOrder genTransferOrder(TransferOrderRQ rq, MchInfo mchInfo, MchApp mchApp, String ifCode){
+    /**
+     * 批量转账
+     *  整批一次验签， 逐笔校验后批量入库， 渠道接口在后台线程池中调用（限制并发数）；
+     *  各笔结果通过 批量查单接口 或 异步通知 获取。
+     * **/
+    @PostMapping("/api/transferOrder/batch")
+    public ApiRes transferOrderBatch(){
 
-        TransferOrder transferOrder = new TransferOrder();
-        transferOrder.setTransferId(SeqKit.genTransferId()); //生成转账订单号
-        transferOrder.setMchNo(mchInfo.getMchNo()); //商户号
-        transferOrder.setIsvNo(mchInfo.getIsvNo()); //服务商号
-        transferOrder.setAppId(mchApp.getAppId()); //商户应用appId
-        transferOrder.setMchName(mchInfo.getMchShortName()); //商户名称（简称）
-        transferOrder.setMchType(mchInfo.getType()); //商户类型
-        transferOrder.setMchOrderNo(rq.getMchOrderNo()); //商户订单号
-        transferOrder.setIfCode(ifCode); //接口代码
-        transferOrder.setEntryType(rq.getEntryType()); //入账方式
-        transferOrder.setAmount(rq.getAmount()); //订单金额
-        transferOrder.setCurrency(rq.getCurrency()); //币种
-        transferOrder.setClientIp(StringUtils.defaultIfEmpty(rq.getClientIp(), getClientIp())); //客户端IP
-        transferOrder.setState(TransferOrder.STATE_INIT); //订单状态, 默认订单生成状态
-        transferOrder.setAccountNo(rq.getAccountNo()); //收款账号
-        transferOrder.setAccountName(rq.getAccountName()); //账户姓名
-        transferOrder.setBankName(rq.getBankName()); //银行名称
-        transferOrder.setTransferDesc(rq.getTransferDesc()); //转账备注
-        transferOrder.setExtParam(rq.getExtParam()); //商户扩展参数
-        transferOrder.setNotifyUrl(rq.getNotifyUrl()); //异步通知地址
-        transferOrder.setCreatedAt(new Date()); //订单创建时间
-        return transferOrder;
+        //获取参数 & 验签
+        TransferOrderBatchRQ bizRQ = getRQByWithMchSign(TransferOrderBatchRQ.class);
 
-    }
+        try {
+
+            String mchNo = bizRQ.getMchNo();
+            String appId = bizRQ.getAppId();
+            String ifCode = bizRQ.getIfCode();
 
+            List<TransferOrderRQ> itemList;
+            try {
+                itemList = JSON.parseArray(bizRQ.getTransfers(), TransferOrderRQ.class);
+            } catch (Exception e) {
+                throw new BizException("转账明细格式有误");
+            }
 
-    /**
-     * 处理返回的渠道信息，并更新订单状态
-     *  TransferOrder将对部分信息进行 赋值操作。
-     * **/
-    private void processChannelMsg(ChannelRetMsg channelRetMsg, TransferOrder transferOrder){
+            if(itemList == null || itemList.isEmpty()){
+                throw new BizException("转账明细不能为空");
+            }
 
-        //对象为空 || 上游返回状态为空， 则无需操作
-        if(channelRetMsg == null || channelRetMsg.getChannelState() == null){
-            return ;
-        }
+            if(itemList.size() > systemYmlConfig.getTransferBatch().getMaxSize()){
+                throw new BizException("单次转账笔数不能超过" + systemYmlConfig.getTransferBatch().getMaxSize());
+            }
+
+            // 商户配置信息
+            MchAppConfigContext mchAppConfigContext = configContextQueryService.queryMchInfoAndAppInfo(mchNo, appId);
+            if(mchAppConfigContext == null){
+                throw new BizException("获取商户应用信息失败");
+            }
+
+            MchInfo mchInfo = mchAppConfigContext.getMchInfo();
+            MchApp mchApp = mchAppConfigContext.getMchApp();
+
+            // 是否已正确配置
+            if(!payInterfaceConfigService.mchAppHasAvailableIfCode(appId, ifCode)){
+                throw new BizException("应用未开通此接口配置!");
+            }
+
+            ITransferService transferService = SpringBeansUtil.getBean(ifCode + "TransferService", ITransferService.class);
+            if(transferService == null){
+                throw new BizException("无此转账通道接口");
+            }
 
-        String transferId = transferOrder.getTransferId();
+            // 商户订单号是否重复 （整批一次查询）
+            Set<String> existMchOrderNos = transferOrderService.queryExistMchOrderNos(mchNo,
+                    itemList.stream().map(TransferOrderRQ::getMchOrderNo).filter(StringUtils::isNotEmpty).collect(Collectors.toSet()));
 
-        //明确成功
-        if(ChannelRetMsg.ChannelState.CONFIRM_SUCCESS == channelRetMsg.getChannelState()) {
+            List<String> transferIdList = SeqKit.genTransferIds(mchNo, itemList.size());
 
-            this.updateInitOrderStateThrowException(TransferOrder.STATE_SUCCESS, transferOrder, channelRetMsg);
-            payMchNotifyService.transferOrderNotify(transferOrder);
+            Set<String> batchMchOrderNos = new HashSet<>();
+            List<TransferOrderRS> resultList = new ArrayList<>(itemList.size());
+            List<TransferOrderRQ> acceptRQList = new ArrayList<>();
+            List<TransferOrder> acceptOrderList = new ArrayList<>();
 
-            //明确失败
-        }else if(ChannelRetMsg.ChannelState.CONFIRM_FAIL == channelRetMsg.getChannelState()) {
+            for (int i = 0; i < itemList.size(); i++) {
 
-            this.updateInitOrderStateThrowException(TransferOrder.STATE_FAIL, transferOrder, channelRetMsg);
-            payMchNotifyService.transferOrderNotify(transferOrder);
+                TransferOrderRQ item = itemList.get(i);
 
-            // 上游处理中 || 未知 || 上游接口返回异常  订单为支付中状态
-        }else if( ChannelRetMsg.ChannelState.WAITING == channelRetMsg.getChannelState() ||
-                ChannelRetMsg.ChannelState.UNKNOWN == channelRetMsg.getChannelState() ||
-                ChannelRetMsg.ChannelState.API_RET_ERROR == channelRetMsg.getChannelState()
+                // 公共参数以整批请求为准
+                item.setMchNo(mchNo);
+                item.setAppId(appId);
+                item.setIfCode(ifCode);
+                item.setVersion(bizRQ.getVersion());
+                item.setSignType(bizRQ.getSignType());
+                item.setSign(bizRQ.getSign());
+                item.setReqTime(bizRQ.getReqTime());
 
-        ){
-            this.updateInitOrderStateThrowException(TransferOrder.STATE_ING, transferOrder, channelRetMsg);
+                try {
 
-            // 系统异常：  订单不再处理。  为： 生成状态
-        }else if( ChannelRetMsg.ChannelState.SYS_ERROR == channelRetMsg.getChannelState()){
+                    validateService.validate(item);
 
-        }else{
+                    if(existMchOrderNos.contains(item.getMchOrderNo()) || !batchMchOrderNos.add(item.getMchOrderNo())){
+                        throw new BizException("商户订单["+item.getMchOrderNo()+"]已存在");
+                    }
 
-            throw new BizException("ChannelState 返回异常！");
-        }
+                    if(StringUtils.isNotEmpty(item.getNotifyUrl()) && !StringKit.isAvailableUrl(item.getNotifyUrl())){
+                        throw new BizException("异步通知地址协议仅支持http:// 或 https:// !");
+                    }
 
-    }
+                    if(!transferService.isSupport(item.getEntryType())){
+                        throw new BizException("该接口不支持该入账方式");
+                    }
 
+                    TransferOrder transferOrder = genTransferOrder(item, mchInfo, mchApp, ifCode, transferIdList.get(i));
+                    transferOrder.setDispatchState(TransferOrder.DISPATCH_STATE_QUEUED); //待后台调用渠道接口
 
-    /** 更新订单状态 --》 订单生成--》 其他状态  (向外抛出异常) **/
-    private void updateInitOrderStateThrowException(byte orderState, TransferOrder transferOrder, ChannelRetMsg channelRetMsg){
+                    //预先校验
+                    String errMsg = transferService.preCheck(item, transferOrder);
+                    if(StringUtils.isNotEmpty(errMsg)){
+                        throw new BizException(errMsg);
+                    }
 
-        transferOrder.setState(orderState);
-        transferOrder.setChannelOrderNo(channelRetMsg.getChannelOrderId());
-        transferOrder.setErrCode(channelRetMsg.getChannelErrCode());
-        transferOrder.setErrMsg(channelRetMsg.getChannelErrMsg());
+                    acceptRQList.add(item);
+                    acceptOrderList.add(transferOrder);
+                    resultList.add(TransferOrderRS.buildByRecord(transferOrder));
 
+                } catch (BizException e) {
 
-        boolean isSuccess = transferOrderService.updateInit2Ing(transferOrder.getTransferId());
-        if(!isSuccess){
-            throw new BizException("更新转账订单异常!");
-        }
+                    TransferOrderRS itemRes = new TransferOrderRS();
+                    itemRes.setMchOrderNo(item.getMchOrderNo());
+                    itemRes.setAmount(item.getAmount());
+                    itemRes.setAccountNo(item.getAccountNo());
+                    itemRes.setAccountName(item.getAccountName());
+                    itemRes.setBankName(item.getBankName());
+                    itemRes.setErrMsg(e.getMessage());
+                    resultList.add(itemRes);
+                }
+            }
 
-        isSuccess = transferOrderService.updateIng2SuccessOrFail(transferOrder.getTransferId(), transferOrder.getState(),
-                channelRetMsg.getChannelOrderId(), channelRetMsg.getChannelErrCode(), channelRetMsg.getChannelErrMsg());
-        if(!isSuccess){
-            throw new BizException("更新转账订单异常!");
+            // 批量入库
+            transferOrderService.saveBatchOrder(acceptOrderList);
+
+            // 调起上游接口 （异步）
+            transferOrderProcessService.asyncTransfer(acceptRQList, acceptOrderList, transferService, mchAppConfigContext);
+
+            TransferOrderBatchRS bizRes = new TransferOrderBatchRS();
+            bizRes.setAcceptCount(acceptOrderList.size());
+            bizRes.setTransferList(resultList);
+            return ApiRes.okWithSign(bizRes, mchApp.getAppSecret());
+
+        }  catch (BizException e) {
+            return ApiRes.customFail(e.getMessage());
+
+        } catch (Exception e) {
+            log.error("系统异常：{}", e);
+            return ApiRes.customFail("系统异常");
         }
     }
 
 
+    private TransferOrder genTransferOrder(TransferOrderRQ rq, MchInfo mchInfo, MchApp mchApp, String ifCode, String transferId){
+
+        TransferOrder transferOrder = new TransferOrder();
+        transferOrder.setTransferId(transferId); //转账订单号 （按商户号分片）
+        transferOrder.setMchNo(mchInfo.getMchNo()); //商户号
+        transferOrder.setIsvNo(mchInfo.getIsvNo()); //服务商号
+        transferOrder.setAppId(mchApp.getAppId()); //商户应用appId
+        transferOrder.setMchName(mchInfo.getMchShortName()); //商户名称（简称）
+        transferOrder.setMchType(mchInfo.getType()); //商户类型
+        transferOrder.setMchOrderNo(rq.getMchOrderNo()); //商户订单号
+        transferOrder.setIfCode(ifCode); //接口代码
+        transferOrder.setEntryType(rq.getEntryType()); //入账方式
+        transferOrder.setAmount(rq.getAmount()); //订单金额
+        transferOrder.setCurrency(rq.getCurrency()); //币种
+        transferOrder.setClientIp(StringUtils.defaultIfEmpty(rq.getClientIp(), getClientIp())); //客户端IP
+        transferOrder.setState(TransferOrder.STATE_INIT); //订单状态, 默认订单生成状态
+        transferOrder.setAccountNo(rq.getAccountNo()); //收款账号
+        transferOrder.setAccountName(rq.getAccountName()); //账户姓名
+        transferOrder.setBankName(rq.getBankName()); //银行名称
+        transferOrder.setTransferDesc(rq.getTransferDesc()); //转账备注
+        transferOrder.setExtParam(rq.getExtParam()); //商户扩展参数
+        transferOrder.setNotifyUrl(rq.getNotifyUrl()); //异步通知地址
+        transferOrder.setCreatedAt(new Date()); //订单创建时间
+        return transferOrder;
+
+    }
+
+
 }
@@ -19,15 +19,18 @@ import cn.hutool.core.net.url.UrlBuilder;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.http.HttpUtil;
 import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.MQBufferedSender;
 import com.jeequan.jeepay.core.entity.MchNotifyRecord;
 import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
 import com.jeequan.jeepay.service.impl.MchNotifyRecordService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * 接收MQ消息
  * 业务： 支付订单商户通知
@@ -44,7 +47,7 @@ public class PayOrderMchNotifyMQReceiver implements PayOrderMchNotifyMQ.IMQRecei
     @Autowired
     private MchNotifyRecordService mchNotifyRecordService;
     @Autowired
-    private IMQSender mqSender;
+    private MQBufferedSender mqBufferedSender;
 
     @Override
     public void receive(PayOrderMchNotifyMQ.MsgPayload payload) {
@@ -68,6 +71,8 @@ public class PayOrderMchNotifyMQReceiver implements PayOrderMchNotifyMQ.IMQRecei
 
             String notifyUrl = record.getNotifyUrl();
             String res = "";
+            String orderType = getOrderTypeTag(record.getOrderType());
+            long deliveryStart = JeepayMetrics.start();
             try {
                 // res = HttpUtil.createPost(notifyUrl).timeout(20000).execute().body();
 
@@ -82,6 +87,7 @@ public class PayOrderMchNotifyMQReceiver implements PayOrderMchNotifyMQ.IMQRecei
                 log.error("http error", e);
                 res = "连接["+ UrlBuilder.of(notifyUrl).getHost() +"]异常:【" + e.getMessage() + "】";
             }
+            JeepayMetrics.record("jeepay.pay.notify.delivery", deliveryStart, "orderType", orderType, "outcome", "SUCCESS".equalsIgnoreCase(res) ? "success" : "fail");
 
             //支付订单 & 第一次通知: 更新为已通知
             if(currentCount == 1 && MchNotifyRecord.TYPE_PAY_ORDER == record.getOrderType()){
@@ -91,6 +97,10 @@ public class PayOrderMchNotifyMQReceiver implements PayOrderMchNotifyMQ.IMQRecei
             //通知成功
             if("SUCCESS".equalsIgnoreCase(res)){
                 mchNotifyRecordService.updateNotifyResult(notifyId, MchNotifyRecord.STATE_SUCCESS, res);
+                if(record.getCreatedAt() != null){ // 从创建通知记录 至 商户确认成功 的耗时 （含重试）
+                    JeepayMetrics.record("jeepay.pay.notify.complete", System.currentTimeMillis() - record.getCreatedAt().getTime(), TimeUnit.MILLISECONDS,
+                            "orderType", orderType, "attempts", String.valueOf(currentCount));
+                }
                 return;
             }
 
@@ -105,7 +115,7 @@ public class PayOrderMchNotifyMQReceiver implements PayOrderMchNotifyMQ.IMQRecei
             // 通知延时次数
             //        1   2  3  4   5   6
             //        0  30 60 90 120 150
-            mqSender.send(PayOrderMchNotifyMQ.build(notifyId), currentCount * 30);
+            mqBufferedSender.send(PayOrderMchNotifyMQ.build(notifyId), currentCount * 30);
 
             return;
         }catch (Exception e) {
@@ -113,4 +123,17 @@ public class PayOrderMchNotifyMQReceiver implements PayOrderMchNotifyMQ.IMQRecei
             return;
         }
     }
+
+    /** 通知类型 （用于统计） **/
+    private String getOrderTypeTag(Byte orderType){
+        if(orderType == null){
+            return "none";
+        }
+        switch (orderType){
+            case MchNotifyRecord.TYPE_PAY_ORDER: return "pay";
+            case MchNotifyRecord.TYPE_REFUND_ORDER: return "refund";
+            case MchNotifyRecord.TYPE_TRANSFER_ORDER: return "transfer";
+            default: return String.valueOf(orderType);
+        }
+    }
 }
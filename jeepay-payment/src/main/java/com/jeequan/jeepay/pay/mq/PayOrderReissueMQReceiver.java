@@ -16,10 +16,10 @@
 package com.jeequan.jeepay.pay.mq;
 
 import com.jeequan.jeepay.components.mq.model.PayOrderReissueMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
 import com.jeequan.jeepay.pay.service.ChannelOrderReissueService;
+import com.jeequan.jeepay.pay.service.PayOrderReissueScheduleService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,12 +36,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class PayOrderReissueMQReceiver implements PayOrderReissueMQ.IMQReceiver {
 
-    @Autowired
-    private IMQSender mqSender;
     @Autowired
     private PayOrderService payOrderService;
     @Autowired
     private ChannelOrderReissueService channelOrderReissueService;
+    @Autowired
+    private PayOrderReissueScheduleService payOrderReissueScheduleService;
 
 
     @Override
@@ -50,7 +50,6 @@ public class PayOrderReissueMQReceiver implements PayOrderReissueMQ.IMQReceiver
             String payOrderId = payload.getPayOrderId();
             int currentCount = payload.getCount();
             log.info("接收轮询查单通知MQ, payOrderId={}, count={}", payOrderId, currentCount);
-            currentCount++ ;
 
             PayOrder payOrder = payOrderService.getById(payOrderId);
             if(payOrder == null) {
@@ -68,13 +67,12 @@ public class PayOrderReissueMQReceiver implements PayOrderReissueMQ.IMQReceiver
             //返回null 可能为接口报错等， 需要再次轮询
             if(channelRetMsg == null || channelRetMsg.getChannelState() == null || channelRetMsg.getChannelState().equals(ChannelRetMsg.ChannelState.WAITING)){
 
-                //最多查询6次
-                if(currentCount <= 6){
-                    mqSender.send(PayOrderReissueMQ.build(payOrderId, currentCount), 5); //延迟5s再次查询
-                }else{
-
-                    //TODO 调用【撤销订单】接口
+                // 按通道查单曲线计划下次查单， 用户确认等待时长结束后调起【关闭订单】接口
+                if(!payOrderReissueScheduleService.scheduleNext(payOrder, currentCount)
+                        && payOrderReissueScheduleService.isAutoClose(payOrder.getIfCode())){
 
+                    log.info("用户确认等待时长已结束, 关闭订单.payOrderId={}, count={}", payOrderId, currentCount);
+                    channelOrderReissueService.processPayOrderClose(payOrder);
                 }
 
             }else{ //其他状态， 不需要再次轮询。
@@ -17,6 +17,7 @@ package com.jeequan.jeepay.pay.mq;
 
 import com.jeequan.jeepay.components.mq.model.ResetIsvMchAppInfoConfigMQ;
 import com.jeequan.jeepay.pay.service.ConfigContextService;
+import com.jeequan.jeepay.pay.service.MchDivisionReceiverCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -34,6 +35,8 @@ public class ResetIsvMchAppInfoMQReceiver implements ResetIsvMchAppInfoConfigMQ.
 
     @Autowired
     private ConfigContextService configContextService;
+    @Autowired
+    private MchDivisionReceiverCacheService mchDivisionReceiverCacheService;
 
     @Override
     public void receive(ResetIsvMchAppInfoConfigMQ.MsgPayload payload) {
@@ -44,6 +47,8 @@ public class ResetIsvMchAppInfoMQReceiver implements ResetIsvMchAppInfoConfigMQ.
             this.modifyMchInfo(payload.getMchNo());
         }else if(payload.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_APP){
             this.modifyMchApp(payload.getMchNo(), payload.getAppId());
+        }else if(payload.getResetType() == ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_DIVISION){
+            this.modifyMchDivision(payload.getMchNo());
         }
 
     }
@@ -62,6 +67,13 @@ public class ResetIsvMchAppInfoMQReceiver implements ResetIsvMchAppInfoConfigMQ.
         log.info(" [商户应用支付参数配置信息] 已重置");
     }
 
+    /** 接收 [商户分账账号及账号组] 的消息 **/
+    private void modifyMchDivision(String mchNo) {
+        log.info("成功接收 [商户分账账号及账号组] 的消息, mchNo={}", mchNo);
+        mchDivisionReceiverCacheService.removeCache(mchNo);
+        log.info(" [商户分账账号及账号组] 缓存已清除");
+    }
+
     /** 重置ISV信息 **/
     private void modifyIsvInfo(String isvNo) {
         log.info("成功接收 [ISV信息] 重置, msg={}", isvNo);
@@ -29,10 +29,15 @@ import lombok.Data;
 public class PayOrderDivisionExecRS extends AbstractRS {
 
     /**
-     * 分账状态 1-分账成功, 2-分账失败
+     * 分账状态 1-分账成功, 2-分账失败, 3-已受理 ( 异步分账, 结果以分账记录为准 )
      */
     private Byte state;
 
+    /**
+     * 系统分账批次号
+     */
+    private String batchOrderId;
+
     /**
      * 上游分账批次号
      */
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.rqrs.payorder;
+
+import com.jeequan.jeepay.pay.rqrs.AbstractMchAppRQ;
+import lombok.Data;
+
+/*
+* 批量查询支付订单请求参数对象
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 15:50
+*/
+@Data
+public class QueryPayOrderBatchRQ extends AbstractMchAppRQ {
+
+    /** 商户订单号列表（多个使用英文逗号分隔） **/
+    private String mchOrderNos;
+
+    /** 支付系统订单号列表（多个使用英文逗号分隔） **/
+    private String payOrderIds;
+
+}
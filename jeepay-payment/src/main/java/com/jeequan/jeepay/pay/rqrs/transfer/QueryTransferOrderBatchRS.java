@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.rqrs.transfer;
+
+import com.jeequan.jeepay.pay.rqrs.AbstractRS;
+import lombok.Data;
+
+import java.util.List;
+
+/*
+* 批量查询转账单 响应参数
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 16:05
+*/
+@Data
+public class QueryTransferOrderBatchRS extends AbstractRS {
+
+    /** 转账单列表 **/
+    private List<QueryTransferOrderRS> transferList;
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.rqrs.transfer;
+
+import com.jeequan.jeepay.pay.rqrs.AbstractMchAppRQ;
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+/*
+* 批量申请转账 请求参数
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 16:05
+*/
+@Data
+public class TransferOrderBatchRQ extends AbstractMchAppRQ {
+
+    /** 支付接口代码 （整批使用同一接口） **/
+    @NotBlank(message="支付接口代码不能为空")
+    private String ifCode;
+
+    /** 转账明细列表（JSONArray 转换为字符串类型）
+     *
+     * 参考：
+     * [{
+     *     mchOrderNo: "M001", entryType: "WX_CASH", amount: 100, currency: "cny",
+     *     accountNo: "xxx", accountName: "xxx", bankName: "", clientIp: "",
+     *     transferDesc: "xxx", notifyUrl: "", channelExtra: "", extParam: ""
+     * }]
+     *
+     * **/
+    @NotBlank(message="转账明细不能为空")
+    private String transfers;
+
+}
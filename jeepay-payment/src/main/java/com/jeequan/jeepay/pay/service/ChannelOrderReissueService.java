@@ -18,6 +18,7 @@ package com.jeequan.jeepay.pay.service;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.core.entity.RefundOrder;
 import com.jeequan.jeepay.core.utils.SpringBeansUtil;
+import com.jeequan.jeepay.pay.channel.IPayOrderCloseService;
 import com.jeequan.jeepay.pay.channel.IPayOrderQueryService;
 import com.jeequan.jeepay.pay.channel.IRefundService;
 import com.jeequan.jeepay.pay.model.MchAppConfigContext;
@@ -95,6 +96,47 @@ public class ChannelOrderReissueService {
 
     }
 
+    /** 调起渠道关闭订单 （条码支付等待用户确认超时） **/
+    public ChannelRetMsg processPayOrderClose(PayOrder payOrder){
+
+        try {
+
+            String payOrderId = payOrder.getPayOrderId();
+
+            //查询关闭订单接口是否存在
+            IPayOrderCloseService closeService = SpringBeansUtil.getBean(payOrder.getIfCode() + "PayOrderCloseService", IPayOrderCloseService.class);
+
+            // 支付通道接口实现不存在， 由订单过期任务处理
+            if(closeService == null){
+                log.error("{} close interface not exists!", payOrder.getIfCode());
+                return null;
+            }
+
+            //查询出商户应用的配置信息
+            MchAppConfigContext mchAppConfigContext = configContextQueryService.queryMchInfoAndAppInfo(payOrder.getMchNo(), payOrder.getAppId());
+
+            ChannelRetMsg channelRetMsg = closeService.close(payOrder, mchAppConfigContext);
+            if(channelRetMsg == null){
+                log.error("channelRetMsg is null");
+                return null;
+            }
+
+            log.info("关闭订单[{}]结果为：{}", payOrderId, channelRetMsg);
+
+            // 关闭订单 成功
+            if(channelRetMsg.getChannelState() == ChannelRetMsg.ChannelState.CONFIRM_SUCCESS) {
+                payOrderService.updateIng2Close(payOrderId);
+            }
+
+            return channelRetMsg;
+
+        } catch (Exception e) {  // 关闭订单异常， 由订单过期任务处理
+            log.error("error payOrderId = {}", payOrder.getPayOrderId(), e);
+            return null;
+        }
+
+    }
+
     /** 处理退款订单 **/
     public ChannelRetMsg processRefundOrder(RefundOrder refundOrder){
 
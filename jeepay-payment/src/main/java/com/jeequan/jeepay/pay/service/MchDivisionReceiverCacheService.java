@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import cn.hutool.core.bean.BeanUtil;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.MchDivisionReceiver;
+import com.jeequan.jeepay.core.entity.MchDivisionReceiverGroup;
+import com.jeequan.jeepay.service.impl.MchDivisionReceiverGroupService;
+import com.jeequan.jeepay.service.impl.MchDivisionReceiverService;
+import com.jeequan.jeepay.service.impl.SysConfigService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/*
+* 商户分账账号及账号组 缓存服务
+* 数据变更时通过MQ广播 [ResetIsvMchAppInfoConfigMQ.RESET_TYPE_MCH_DIVISION] 按商户号清除缓存
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 14:21
+*/
+@Slf4j
+@Service
+public class MchDivisionReceiverCacheService {
+
+    /** <商户号, <应用ID, 分账账号集合>>  **/
+    private static final Map<String, Map<String, List<MchDivisionReceiver>>> receiverMap = new ConcurrentHashMap<>();
+
+    /** <商户号, 分账账号组集合>  **/
+    private static final Map<String, List<MchDivisionReceiverGroup>> receiverGroupMap = new ConcurrentHashMap<>();
+
+    @Autowired private MchDivisionReceiverService mchDivisionReceiverService;
+    @Autowired private MchDivisionReceiverGroupService mchDivisionReceiverGroupService;
+
+    /**
+     * 查询商户应用下可用的分账账号 （ 返回对象为副本，可修改 ）
+     * @param receiverGroupId 账号组ID， 为空表示全部
+     */
+    public List<MchDivisionReceiver> queryUsableReceiverList(String mchNo, String appId, String ifCode, Long receiverGroupId){
+
+        return getReceiverList(mchNo, appId).stream()
+                .filter(r -> ifCode.equals(r.getIfCode()))
+                .filter(r -> r.getState() != null && r.getState() == CS.PUB_USABLE)
+                .filter(r -> receiverGroupId == null || receiverGroupId.equals(r.getReceiverGroupId()))
+                .map(r -> BeanUtil.copyProperties(r, MchDivisionReceiver.class))
+                .collect(Collectors.toList());
+    }
+
+    /** 查询商户的全部分账账号组 **/
+    public List<MchDivisionReceiverGroup> queryReceiverGroupList(String mchNo){
+
+        if(!isCache()){
+            return mchDivisionReceiverGroupService.list(MchDivisionReceiverGroup.gw().eq(MchDivisionReceiverGroup::getMchNo, mchNo));
+        }
+
+        return receiverGroupMap.computeIfAbsent(mchNo,
+                k -> mchDivisionReceiverGroupService.list(MchDivisionReceiverGroup.gw().eq(MchDivisionReceiverGroup::getMchNo, k)));
+    }
+
+    /** 清除商户的分账账号及账号组缓存 **/
+    public void removeCache(String mchNo){
+
+        if(mchNo == null){
+            return ;
+        }
+        receiverMap.remove(mchNo);
+        receiverGroupMap.remove(mchNo);
+    }
+
+    /** 查询商户应用下全部的分账账号 **/
+    private List<MchDivisionReceiver> getReceiverList(String mchNo, String appId){
+
+        if(!isCache()){
+            return mchDivisionReceiverService.list(MchDivisionReceiver.gw().eq(MchDivisionReceiver::getMchNo, mchNo).eq(MchDivisionReceiver::getAppId, appId));
+        }
+
+        return receiverMap.computeIfAbsent(mchNo, k -> new ConcurrentHashMap<>()).computeIfAbsent(appId,
+                k -> mchDivisionReceiverService.list(MchDivisionReceiver.gw().eq(MchDivisionReceiver::getMchNo, mchNo).eq(MchDivisionReceiver::getAppId, k)));
+    }
+
+    private boolean isCache(){
+        return SysConfigService.IS_USE_CACHE;
+    }
+
+}
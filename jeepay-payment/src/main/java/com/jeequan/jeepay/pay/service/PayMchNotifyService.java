@@ -15,18 +15,13 @@
  */
 package com.jeequan.jeepay.pay.service;
 
-import com.alibaba.fastjson.JSONObject;
 import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.MQBufferedSender;
 import com.jeequan.jeepay.core.entity.MchNotifyRecord;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.core.entity.RefundOrder;
 import com.jeequan.jeepay.core.entity.TransferOrder;
-import com.jeequan.jeepay.core.utils.JeepayKit;
-import com.jeequan.jeepay.core.utils.StringKit;
-import com.jeequan.jeepay.pay.rqrs.payorder.QueryPayOrderRS;
-import com.jeequan.jeepay.pay.rqrs.refund.QueryRefundOrderRS;
-import com.jeequan.jeepay.pay.rqrs.transfer.QueryTransferOrderRS;
+import com.jeequan.jeepay.pay.util.MchNotifyUrlBuilder;
 import com.jeequan.jeepay.service.impl.MchNotifyRecordService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -46,7 +41,7 @@ public class PayMchNotifyService {
 
     @Autowired private MchNotifyRecordService mchNotifyRecordService;
     @Autowired private ConfigContextQueryService configContextQueryService;
-    @Autowired private IMQSender mqSender;
+    @Autowired private MQBufferedSender mqBufferedSender;
 
 
     /** 商户通知信息， 只有订单是终态，才会发送通知， 如明确成功和明确失败 **/
@@ -93,7 +88,7 @@ public class PayMchNotifyService {
 
             //推送到MQ
             Long notifyId = mchNotifyRecord.getNotifyId();
-            mqSender.send(PayOrderMchNotifyMQ.build(notifyId));
+            mqBufferedSender.send(PayOrderMchNotifyMQ.build(notifyId));
 
         } catch (Exception e) {
             log.error("推送失败！", e);
@@ -144,7 +139,7 @@ public class PayMchNotifyService {
 
             //推送到MQ
             Long notifyId = mchNotifyRecord.getNotifyId();
-            mqSender.send(PayOrderMchNotifyMQ.build(notifyId));
+            mqBufferedSender.send(PayOrderMchNotifyMQ.build(notifyId));
 
         } catch (Exception e) {
             log.error("推送失败！", e);
@@ -195,7 +190,7 @@ public class PayMchNotifyService {
 
             //推送到MQ
             Long notifyId = mchNotifyRecord.getNotifyId();
-            mqSender.send(PayOrderMchNotifyMQ.build(notifyId));
+            mqBufferedSender.send(PayOrderMchNotifyMQ.build(notifyId));
 
         } catch (Exception e) {
             log.error("推送失败！", e);
@@ -207,16 +202,7 @@ public class PayMchNotifyService {
      * 创建响应URL
      */
     public String createNotifyUrl(PayOrder payOrder, String appSecret) {
-
-        QueryPayOrderRS queryPayOrderRS = QueryPayOrderRS.buildByPayOrder(payOrder);
-        JSONObject jsonObject = (JSONObject)JSONObject.toJSON(queryPayOrderRS);
-        jsonObject.put("reqTime", System.currentTimeMillis()); //添加请求时间
-
-        // 报文签名
-        jsonObject.put("sign", JeepayKit.getSign(jsonObject, appSecret));
-
-        // 生成通知
-        return StringKit.appendUrlQuery(payOrder.getNotifyUrl(), jsonObject);
+        return MchNotifyUrlBuilder.PAY_ORDER.build(payOrder, payOrder.getNotifyUrl(), appSecret);
     }
 
 
@@ -224,16 +210,7 @@ public class PayMchNotifyService {
      * 创建响应URL
      */
     public String createNotifyUrl(RefundOrder refundOrder, String appSecret) {
-
-        QueryRefundOrderRS queryRefundOrderRS = QueryRefundOrderRS.buildByRefundOrder(refundOrder);
-        JSONObject jsonObject = (JSONObject)JSONObject.toJSON(queryRefundOrderRS);
-        jsonObject.put("reqTime", System.currentTimeMillis()); //添加请求时间
-
-        // 报文签名
-        jsonObject.put("sign", JeepayKit.getSign(jsonObject, appSecret));
-
-        // 生成通知
-        return StringKit.appendUrlQuery(refundOrder.getNotifyUrl(), jsonObject);
+        return MchNotifyUrlBuilder.REFUND_ORDER.build(refundOrder, refundOrder.getNotifyUrl(), appSecret);
     }
 
 
@@ -241,16 +218,7 @@ public class PayMchNotifyService {
      * 创建响应URL
      */
     public String createNotifyUrl(TransferOrder transferOrder, String appSecret) {
-
-        QueryTransferOrderRS rs = QueryTransferOrderRS.buildByRecord(transferOrder);
-        JSONObject jsonObject = (JSONObject)JSONObject.toJSON(rs);
-        jsonObject.put("reqTime", System.currentTimeMillis()); //添加请求时间
-
-        // 报文签名
-        jsonObject.put("sign", JeepayKit.getSign(jsonObject, appSecret));
-
-        // 生成通知
-        return StringKit.appendUrlQuery(transferOrder.getNotifyUrl(), jsonObject);
+        return MchNotifyUrlBuilder.TRANSFER_ORDER.build(transferOrder, transferOrder.getNotifyUrl(), appSecret);
     }
 
 
@@ -263,16 +231,8 @@ public class PayMchNotifyService {
             return "";
         }
 
-        QueryPayOrderRS queryPayOrderRS = QueryPayOrderRS.buildByPayOrder(payOrder);
-        JSONObject jsonObject = (JSONObject)JSONObject.toJSON(queryPayOrderRS);
-        jsonObject.put("reqTime", System.currentTimeMillis()); //添加请求时间
-
-        // 报文签名
-        jsonObject.put("sign", JeepayKit.getSign(jsonObject, appSecret));   // 签名
-
         // 生成跳转地址
-        return StringKit.appendUrlQuery(payOrder.getReturnUrl(), jsonObject);
-
+        return MchNotifyUrlBuilder.PAY_ORDER.build(payOrder, payOrder.getReturnUrl(), appSecret);
     }
 
 }
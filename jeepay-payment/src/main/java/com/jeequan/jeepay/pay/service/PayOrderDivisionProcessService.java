@@ -15,7 +15,6 @@
  */
 package com.jeequan.jeepay.pay.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.jeequan.jeepay.components.mq.model.PayOrderDivisionMQ;
 import com.jeequan.jeepay.core.constants.CS;
@@ -29,18 +28,20 @@ import com.jeequan.jeepay.core.utils.SeqKit;
 import com.jeequan.jeepay.core.utils.SpringBeansUtil;
 import com.jeequan.jeepay.pay.channel.IDivisionService;
 import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
-import com.jeequan.jeepay.service.impl.MchDivisionReceiverGroupService;
-import com.jeequan.jeepay.service.impl.MchDivisionReceiverService;
 import com.jeequan.jeepay.service.impl.PayOrderDivisionRecordService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Resource;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * 业务： 支付订单分账处理逻辑
@@ -55,13 +56,13 @@ public class PayOrderDivisionProcessService {
     @Autowired
     private PayOrderService payOrderService;
     @Autowired
-    private MchDivisionReceiverService mchDivisionReceiverService;
-    @Autowired
-    private MchDivisionReceiverGroupService mchDivisionReceiverGroupService;
+    private MchDivisionReceiverCacheService mchDivisionReceiverCacheService;
     @Autowired
     private PayOrderDivisionRecordService payOrderDivisionRecordService;
     @Autowired
     private ConfigContextQueryService configContextQueryService;
+    @Resource(name = "divisionExecutor")
+    private Executor divisionExecutor;
 
     /***
     * 处理分账，
@@ -79,6 +80,55 @@ public class PayOrderDivisionProcessService {
             isResend = false;
         }
 
+        // 更新订单为分账处理中
+        PayOrder payOrder = this.updatePayOrderDivisionIng(payOrderId);
+
+        // 所有的分账列表
+        List<PayOrderDivisionRecord> recordList = this.genRecordList(payOrder, useSysAutoDivisionReceivers, receiverList, isResend);
+
+        // 调用渠道侧分账接口
+        return this.execDivision(payOrder, recordList);
+    }
+
+    /***
+    * 受理分账：  同步完成订单状态检查及分账记录入库后立即返回， 渠道侧分账接口在后台线程池中调用。
+     * 分账结果通过分账记录（查询、渠道通知及补单任务）获取。
+     *
+     * @return 分账记录列表（ 待分账状态 ）
+    */
+    public List<PayOrderDivisionRecord> acceptPayOrderDivision(String payOrderId, Byte useSysAutoDivisionReceivers, List<PayOrderDivisionMQ.CustomerDivisionReceiver> receiverList) {
+
+        // 更新订单为分账处理中
+        PayOrder payOrder = this.updatePayOrderDivisionIng(payOrderId);
+
+        // 所有的分账列表
+        List<PayOrderDivisionRecord> recordList = this.genRecordList(payOrder, useSysAutoDivisionReceivers, receiverList, false);
+
+        divisionExecutor.execute(() -> {
+            try {
+                this.execDivision(payOrder, recordList);
+            } catch (Exception e) {
+                log.error("订单[{}]执行分账异常", payOrderId, e);
+            }
+        });
+
+        return recordList;
+    }
+
+    /***
+    * 恢复分账： 受理后因节点宕机、重启等原因未调用渠道接口（ 订单仍为分账处理中， 分账记录仍为待分账 ）， 由补单任务重新调用。
+     * 渠道侧使用系统分账批次号（batchOrderId）作为请求单号， 重复请求由渠道侧保证幂等。
+    */
+    public ChannelRetMsg resumePayOrderDivision(PayOrder payOrder, List<PayOrderDivisionRecord> recordList) {
+
+        if(payOrder.getDivisionState() == null || payOrder.getDivisionState() != PayOrder.DIVISION_STATE_ING){
+            throw new BizException("分账状态不正确");
+        }
+        return this.execDivision(payOrder, recordList);
+    }
+
+    /** 查询订单并更新为： 分账任务处理中 **/
+    private PayOrder updatePayOrderDivisionIng(String payOrderId){
 
         String logPrefix = "订单["+payOrderId+"]执行分账";
 
@@ -106,6 +156,14 @@ public class PayOrderDivisionProcessService {
             throw new BizException("更新支付订单为分账处理中异常");
         }
 
+        return payOrder;
+    }
+
+    /** 生成分账记录（ 重发时查询待分账的记录 ） **/
+    private List<PayOrderDivisionRecord> genRecordList(PayOrder payOrder, Byte useSysAutoDivisionReceivers,
+                                                       List<PayOrderDivisionMQ.CustomerDivisionReceiver> receiverList, boolean isResend){
+
+        String payOrderId = payOrder.getPayOrderId();
 
         // 所有的分账列表
         List<PayOrderDivisionRecord> recordList = null;
@@ -145,12 +203,21 @@ public class PayOrderDivisionProcessService {
                 //剩余金额
                 subDivisionAmount = subDivisionAmount - record.getCalDivisionAmount();
 
-                //入库保存
-                payOrderDivisionRecordService.save(record);
                 recordList.add(record);
             }
+
+            //批量入库保存
+            payOrderDivisionRecordService.saveRecordBatch(recordList);
         }
 
+        return recordList;
+    }
+
+    /** 调用渠道侧分账接口， 并更新分账记录及订单分账状态 **/
+    private ChannelRetMsg execDivision(PayOrder payOrder, List<PayOrderDivisionRecord> recordList){
+
+        String payOrderId = payOrder.getPayOrderId();
+        String logPrefix = "订单["+payOrderId+"]执行分账";
 
         ChannelRetMsg channelRetMsg = null;
 
@@ -249,30 +316,25 @@ public class PayOrderDivisionProcessService {
 
     private List<MchDivisionReceiver> queryReceiver(Byte useSysAutoDivisionReceivers, PayOrder payOrder, List<PayOrderDivisionMQ.CustomerDivisionReceiver> customerDivisionReceiverList){
 
-        // 查询全部分账列表
-        LambdaQueryWrapper<MchDivisionReceiver> queryWrapper = MchDivisionReceiver.gw();
-
-        queryWrapper.eq(MchDivisionReceiver::getMchNo, payOrder.getMchNo()); //mchNo
-        queryWrapper.eq(MchDivisionReceiver::getAppId, payOrder.getAppId()); //appId
-        queryWrapper.eq(MchDivisionReceiver::getIfCode, payOrder.getIfCode()); //ifCode
-        queryWrapper.eq(MchDivisionReceiver::getState, CS.PUB_USABLE); // 可用状态的账号
+        // 查询指定的分账组
+        Long receiverGroupId = null;
 
         // 自动分账组的账号
         if(useSysAutoDivisionReceivers == CS.YES) {
 
-            List<MchDivisionReceiverGroup> groups = mchDivisionReceiverGroupService.list(
-                    MchDivisionReceiverGroup.gw().eq(MchDivisionReceiverGroup::getMchNo, payOrder.getMchNo())
-                            .eq(MchDivisionReceiverGroup::getAutoDivisionFlag, CS.YES));
+            MchDivisionReceiverGroup autoGroup = mchDivisionReceiverCacheService.queryReceiverGroupList(payOrder.getMchNo()).stream()
+                    .filter(group -> group.getAutoDivisionFlag() != null && group.getAutoDivisionFlag() == CS.YES)
+                    .findFirst().orElse(null);
 
-            if(groups.isEmpty()){
+            if(autoGroup == null){
                 return new ArrayList<>();
             }
 
-            queryWrapper.eq(MchDivisionReceiver::getReceiverGroupId, groups.get(0).getReceiverGroupId());
+            receiverGroupId = autoGroup.getReceiverGroupId();
         }
 
-        //全部分账账号
-        List<MchDivisionReceiver> allMchReceiver = mchDivisionReceiverService.list(queryWrapper);
+        //全部分账账号 ( mchNo + appId + ifCode + 可用状态的账号 )
+        List<MchDivisionReceiver> allMchReceiver = mchDivisionReceiverCacheService.queryUsableReceiverList(payOrder.getMchNo(), payOrder.getAppId(), payOrder.getIfCode(), receiverGroupId);
         if(allMchReceiver.isEmpty()){
             return allMchReceiver;
         }
@@ -289,24 +351,36 @@ public class PayOrderDivisionProcessService {
             return new ArrayList<>();
         }
 
-        // 过滤账号
+        // 自定义列表： 按receiverId 和 receiverGroupId 建立索引 （ 同一个key出现多次时， 以最后一项为准 ）
+        Map<Long, PayOrderDivisionMQ.CustomerDivisionReceiver> customerReceiverMap = new HashMap<>();
+        Map<Long, PayOrderDivisionMQ.CustomerDivisionReceiver> customerGroupMap = new HashMap<>();
+        for (PayOrderDivisionMQ.CustomerDivisionReceiver customerDivisionReceiver : customerDivisionReceiverList) {
+            if(customerDivisionReceiver.getReceiverId() != null){
+                customerReceiverMap.put(customerDivisionReceiver.getReceiverId(), customerDivisionReceiver);
+            }
+            if(customerDivisionReceiver.getReceiverGroupId() != null){
+                customerGroupMap.put(customerDivisionReceiver.getReceiverGroupId(), customerDivisionReceiver);
+            }
+        }
+
+        // 过滤账号 （ 每个账号仅匹配一次， 指定receiverId的配置优先于账号组的配置 ）
         List<MchDivisionReceiver> filterMchReceiver = new ArrayList<>();
 
         for (MchDivisionReceiver mchDivisionReceiver : allMchReceiver) {
-            for (PayOrderDivisionMQ.CustomerDivisionReceiver customerDivisionReceiver : customerDivisionReceiverList) {
-
-                // 查询匹配相同的项目
-                if( mchDivisionReceiver.getReceiverId().equals(customerDivisionReceiver.getReceiverId()) ||
-                    mchDivisionReceiver.getReceiverGroupId().equals(customerDivisionReceiver.getReceiverGroupId())
-                ){
-
-                    // 重新对分账比例赋值
-                    if(customerDivisionReceiver.getDivisionProfit() != null){
-                        mchDivisionReceiver.setDivisionProfit(customerDivisionReceiver.getDivisionProfit());
-                    }
-                    filterMchReceiver.add(mchDivisionReceiver);
-                }
+
+            PayOrderDivisionMQ.CustomerDivisionReceiver customerDivisionReceiver = customerReceiverMap.get(mchDivisionReceiver.getReceiverId());
+            if(customerDivisionReceiver == null){
+                customerDivisionReceiver = customerGroupMap.get(mchDivisionReceiver.getReceiverGroupId());
+            }
+            if(customerDivisionReceiver == null){
+                continue;
+            }
+
+            // 重新对分账比例赋值
+            if(customerDivisionReceiver.getDivisionProfit() != null){
+                mchDivisionReceiver.setDivisionProfit(customerDivisionReceiver.getDivisionProfit());
             }
+            filterMchReceiver.add(mchDivisionReceiver);
         }
 
         return filterMchReceiver;
@@ -17,7 +17,7 @@ package com.jeequan.jeepay.pay.service;
 
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.jeequan.jeepay.components.mq.model.PayOrderDivisionMQ;
-import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.components.mq.vender.MQBufferedSender;
 import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.service.impl.PayOrderService;
@@ -39,13 +39,17 @@ public class PayOrderProcessService {
 
     @Autowired private PayOrderService payOrderService;
     @Autowired private PayMchNotifyService payMchNotifyService;
-    @Autowired private IMQSender mqSender;
+    @Autowired private MQBufferedSender mqBufferedSender;
 
     /** 明确成功的处理逻辑（除更新订单其他业务） **/
     public void confirmSuccess(PayOrder payOrder){
 
         // 查询查询订单详情
-        payOrder = payOrderService.getById(payOrder.getPayOrderId());
+        this.confirmSuccessByDBOrder(payOrderService.getById(payOrder.getPayOrderId()));
+    }
+
+    /** 明确成功的处理逻辑 （ 入参为已更新完成的完整订单数据， 无需再次查询 ） **/
+    public void confirmSuccessByDBOrder(PayOrder payOrder){
 
         //设置订单状态
         payOrder.setState(PayOrder.STATE_SUCCESS);
@@ -79,7 +83,7 @@ public class PayOrderProcessService {
 
             if(updDivisionState){
                 //推送到分账MQ
-                mqSender.send(PayOrderDivisionMQ.build(payOrder.getPayOrderId(), CS.YES,null), 80); //80s 后执行
+                mqBufferedSender.send(PayOrderDivisionMQ.build(payOrder.getPayOrderId(), CS.YES,null), 80); //80s 后执行
             }
 
         } catch (Exception e) {
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.jeequan.jeepay.components.mq.model.PayOrderReissueMQ;
+import com.jeequan.jeepay.components.mq.vender.MQBufferedSender;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+* 条码支付轮询查单计划：
+* 按通道查单曲线计算下次查单的延迟时间， 最后一次查单对齐到用户确认等待时长的结束时间。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 11:20
+*/
+@Slf4j
+@Service
+public class PayOrderReissueScheduleService {
+
+    @Autowired private MQBufferedSender mqBufferedSender;
+    @Autowired private SystemYmlConfig systemYmlConfig;
+
+    /**
+     * 计划下一次查单
+     * @param queriedCount 已查单次数
+     * @return false: 用户确认等待时长已结束， 不再查单
+     */
+    public boolean scheduleNext(PayOrder payOrder, int queriedCount){
+
+        SystemYmlConfig.ReissueCurve curve = systemYmlConfig.getPayOrderReissue().getCurve(payOrder.getIfCode());
+
+        long elapsedSeconds = (System.currentTimeMillis() - payOrder.getCreatedAt().getTime()) / 1000;
+        long remainSeconds = curve.getConfirmWindow() - elapsedSeconds;
+        if(remainSeconds <= 0){
+            return false;
+        }
+
+        int delay = (int) Math.min(getDelay(curve, queriedCount), remainSeconds);
+        mqBufferedSender.send(PayOrderReissueMQ.build(payOrder.getPayOrderId(), queriedCount + 1), delay);
+
+        log.info("计划轮询查单, payOrderId={}, count={}, delay={}s", payOrder.getPayOrderId(), queriedCount + 1, delay);
+        return true;
+    }
+
+    /** 是否调起渠道关闭订单 **/
+    public boolean isAutoClose(String ifCode){
+        return systemYmlConfig.getPayOrderReissue().getCurve(ifCode).isAutoClose();
+    }
+
+    /** 第N次（从0开始）查单间隔： 快速查单 --> 指数退避 + 随机抖动 **/
+    private long getDelay(SystemYmlConfig.ReissueCurve curve, int index){
+
+        List<Integer> fastDelays = curve.getFastDelays();
+        if(fastDelays != null && index < fastDelays.size()){
+            return Math.max(fastDelays.get(index), 1);
+        }
+
+        int backoffIndex = index - (fastDelays == null ? 0 : fastDelays.size());
+        double delay = Math.min(curve.getBackoffBase() * Math.pow(curve.getBackoffMultiplier(), backoffIndex), curve.getBackoffMax());
+
+        if(curve.getJitterRatio() > 0){
+            delay = delay * (1 + ThreadLocalRandom.current().nextDouble(-curve.getJitterRatio(), curve.getJitterRatio()));
+        }
+
+        return Math.max(Math.round(delay), 1);
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import cn.hutool.core.util.IdUtil;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+* 定时任务租约： 集群部署时保证同一任务在每个周期内仅有一个节点执行
+*
+*  1. 执行前通过 Redis SET NX 抢占租约（租约时长略小于执行周期）， 租约值为当前节点标识 + 随机数；
+*  2. 执行期间后台按 1/3 租约时长续期（比较后续期）， 执行结束后不主动释放， 租约到期前其他节点（时钟偏差）不会重复执行同一周期；
+*  3. 节点宕机时停止续期， 租约到期后由下一周期的其他节点接管；
+*  4. 任务在处理每批数据前调用 isLeaseHeld() 判断， 续期失败或超过租约时长未续期成功（如长时间GC、Redis不可用）时立即停止；
+*  5. 租约仅用于减少重复执行， 不保证互斥： 任务中的订单状态变更均为带原状态条件的UPDATE（ 如： 支付中 → 支付成功 ）， 两个节点同时执行时也仅有一个节点更新成功。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 16:40
+*/
+@Slf4j
+@Service
+public class TaskLeaseService {
+
+    /** 租约缓存key **/
+    private static final String CACHE_KEY_TASK_LEASE = "TASK_LEASE_%s";
+
+    /** 当前线程持有的租约 **/
+    private static final ThreadLocal<Lease> CURRENT_LEASE = new ThreadLocal<>();
+
+    @Autowired private SystemYmlConfig systemYmlConfig;
+
+    /** 当前节点标识 **/
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    /** 续期线程 **/
+    private final ScheduledExecutorService renewExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "task-lease-renew");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** 使用默认租约时长执行任务 **/
+    public void execute(String taskName, Runnable task){
+        execute(taskName, systemYmlConfig.getTaskLease().getLeaseSeconds(), task);
+    }
+
+    /**
+     * 持有租约时执行任务， 未抢占到租约时直接返回
+     * @param leaseSeconds 租约时长（秒）， 应小于任务执行周期
+     * **/
+    public void execute(String taskName, long leaseSeconds, Runnable task){
+
+        if(!systemYmlConfig.getTaskLease().isEnabled()){
+            task.run();
+            return ;
+        }
+
+        Lease lease;
+        try {
+            lease = tryAcquire(taskName, leaseSeconds);
+        } catch (Exception e) {
+            log.error("任务[{}]抢占租约异常， 本周期不执行", taskName, e);
+            return ;
+        }
+
+        if(lease == null){
+            log.debug("任务[{}]租约由其他节点持有， 本周期不执行", taskName);
+            return ;
+        }
+
+        ScheduledFuture<?> renewFuture = renewExecutor.scheduleAtFixedRate(() -> renew(lease),
+                Math.max(leaseSeconds / 3, 1), Math.max(leaseSeconds / 3, 1), TimeUnit.SECONDS);
+
+        CURRENT_LEASE.set(lease);
+        try {
+            log.info("任务[{}]获取租约成功, leaseValue={}", taskName, lease.leaseValue);
+            task.run();
+        } finally {
+            CURRENT_LEASE.remove();
+            renewFuture.cancel(false);
+        }
+    }
+
+    /** 当前线程是否仍持有租约 （未通过 execute 执行时返回true） **/
+    public static boolean isLeaseHeld(){
+
+        Lease lease = CURRENT_LEASE.get();
+        if(lease == null){
+            return true;
+        }
+
+        boolean held = !lease.lost && System.currentTimeMillis() < lease.expireAt;
+        if(!held){
+            log.warn("任务[{}]租约已失效， 停止执行", lease.taskName);
+        }
+        return held;
+    }
+
+    private Lease tryAcquire(String taskName, long leaseSeconds){
+
+        String leaseKey = String.format(CACHE_KEY_TASK_LEASE, taskName);
+        long startTime = System.currentTimeMillis();
+
+        String leaseValue = nodeId + ":" + IdUtil.fastSimpleUUID();
+        if(!RedisUtil.setIfAbsent(leaseKey, leaseValue, leaseSeconds)){
+            return null;
+        }
+
+        return new Lease(taskName, leaseKey, leaseValue, leaseSeconds, startTime + leaseSeconds * 1000);
+    }
+
+    /** 续期 **/
+    private void renew(Lease lease){
+
+        if(lease.lost){
+            return ;
+        }
+
+        try {
+            long startTime = System.currentTimeMillis();
+            if(RedisUtil.expireIfEquals(lease.leaseKey, lease.leaseValue, lease.leaseSeconds)){
+                lease.expireAt = startTime + lease.leaseSeconds * 1000;
+            }else{
+                lease.lost = true;
+                log.warn("任务[{}]租约已被其他节点持有", lease.taskName);
+            }
+        } catch (Exception e) {
+            log.error("任务[{}]租约续期异常", lease.taskName, e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+        renewExecutor.shutdownNow();
+    }
+
+    /** 租约信息 **/
+    private static class Lease {
+
+        private final String taskName;
+        private final String leaseKey;
+        private final String leaseValue;
+        private final long leaseSeconds;
+
+        /** 本地判断的租约到期时间（以发起请求的时间计算， 早于Redis的实际到期时间） **/
+        private volatile long expireAt;
+
+        /** 租约是否已丢失 **/
+        private volatile boolean lost = false;
+
+        Lease(String taskName, String leaseKey, String leaseValue, long leaseSeconds, long expireAt) {
+            this.taskName = taskName;
+            this.leaseKey = leaseKey;
+            this.leaseValue = leaseValue;
+            this.leaseSeconds = leaseSeconds;
+            this.expireAt = expireAt;
+        }
+    }
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.jeequan.jeepay.core.entity.TransferOrder;
+import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.core.utils.SpringBeansUtil;
+import com.jeequan.jeepay.pay.channel.ITransferService;
+import com.jeequan.jeepay.pay.exception.ChannelException;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.pay.rqrs.transfer.TransferOrderRQ;
+import com.jeequan.jeepay.service.impl.TransferOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/***
+* 转账处理通用逻辑
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 16:12
+*/
+@Service
+@Slf4j
+public class TransferOrderProcessService {
+
+    @Autowired private TransferOrderService transferOrderService;
+    @Autowired private PayMchNotifyService payMchNotifyService;
+    @Autowired private ConfigContextQueryService configContextQueryService;
+    @Resource(name = "transferExecutor")
+    private Executor transferExecutor;
+
+    /**
+     * 批量转账： 订单已入库（ 待后台调用 ）， 在后台线程池中调用渠道接口（限制并发数）， 结果通过查单接口及异步通知获取。
+     * rqList 与 transferOrderList 一一对应
+     */
+    public void asyncTransfer(List<TransferOrderRQ> rqList, List<TransferOrder> transferOrderList,
+                              ITransferService transferService, MchAppConfigContext mchAppConfigContext){
+
+        for (int i = 0; i < transferOrderList.size(); i++) {
+
+            TransferOrderRQ bizRQ = rqList.get(i);
+            TransferOrder transferOrder = transferOrderList.get(i);
+
+            transferExecutor.execute(() -> this.dispatchTransfer(bizRQ, transferOrder, transferService, mchAppConfigContext));
+        }
+    }
+
+    /**
+     * 重新调用渠道接口： 批量转账订单已入库但后台任务丢失（ 节点宕机或重启 ）， 订单仍为待后台调用时由补单任务调用。
+     * 渠道侧使用系统转账订单号（transferId）作为请求单号， 重复请求由渠道侧保证幂等。
+     * @return 是否已调用渠道接口 （ false: 订单已由其他线程调用 ）
+     */
+    public boolean redispatchInitOrder(TransferOrder transferOrder){
+
+        ITransferService transferService = SpringBeansUtil.getBean(transferOrder.getIfCode() + "TransferService", ITransferService.class);
+        if(transferService == null){
+            log.error("转账订单[{}]的接口[{}]不存在", transferOrder.getTransferId(), transferOrder.getIfCode());
+            return false;
+        }
+
+        MchAppConfigContext mchAppConfigContext = configContextQueryService.queryMchInfoAndAppInfo(transferOrder.getMchNo(), transferOrder.getAppId());
+
+        return this.dispatchTransfer(genTransferOrderRQ(transferOrder), transferOrder, transferService, mchAppConfigContext);
+    }
+
+    /** 后台调用渠道接口： 先清除待后台调用标记， 更新成功后再调用， 保证同一订单仅调用一次 **/
+    private boolean dispatchTransfer(TransferOrderRQ bizRQ, TransferOrder transferOrder,
+                                     ITransferService transferService, MchAppConfigContext mchAppConfigContext){
+
+        try {
+            if(!transferOrderService.updateDispatchStart(transferOrder.getTransferId())){
+                log.info("转账订单[{}]已开始调用渠道接口， 忽略", transferOrder.getTransferId());
+                return false;
+            }
+            transferOrder.setDispatchState(TransferOrder.DISPATCH_STATE_NONE);
+
+            ChannelRetMsg channelRetMsg = transferService.transfer(bizRQ, transferOrder, mchAppConfigContext);
+            this.processChannelMsg(channelRetMsg, transferOrder);
+
+        } catch (ChannelException e) {
+            this.processChannelMsg(e.getChannelRetMsg(), transferOrder);
+
+        } catch (Exception e) {
+            log.error("转账订单[{}]调用渠道接口异常", transferOrder.getTransferId(), e);
+            this.closeSysErrorOrder(transferOrder, "系统异常");
+        }
+        return true;
+    }
+
+    /** 根据已入库的订单还原请求参数 **/
+    private TransferOrderRQ genTransferOrderRQ(TransferOrder transferOrder){
+
+        TransferOrderRQ bizRQ = new TransferOrderRQ();
+        bizRQ.setMchNo(transferOrder.getMchNo());
+        bizRQ.setAppId(transferOrder.getAppId());
+        bizRQ.setMchOrderNo(transferOrder.getMchOrderNo());
+        bizRQ.setIfCode(transferOrder.getIfCode());
+        bizRQ.setEntryType(transferOrder.getEntryType());
+        bizRQ.setAmount(transferOrder.getAmount());
+        bizRQ.setCurrency(transferOrder.getCurrency());
+        bizRQ.setAccountNo(transferOrder.getAccountNo());
+        bizRQ.setAccountName(transferOrder.getAccountName());
+        bizRQ.setBankName(transferOrder.getBankName());
+        bizRQ.setClientIp(transferOrder.getClientIp());
+        bizRQ.setTransferDesc(transferOrder.getTransferDesc());
+        bizRQ.setNotifyUrl(transferOrder.getNotifyUrl());
+        bizRQ.setChannelExtra(transferOrder.getChannelExtra());
+        bizRQ.setExtParam(transferOrder.getExtParam());
+        return bizRQ;
+    }
+
+    /**
+     * 处理返回的渠道信息，并更新订单状态
+     *  TransferOrder将对部分信息进行 赋值操作。
+     * **/
+    public void processChannelMsg(ChannelRetMsg channelRetMsg, TransferOrder transferOrder){
+
+        //对象为空 || 上游返回状态为空， 则无需操作
+        if(channelRetMsg == null || channelRetMsg.getChannelState() == null){
+            return ;
+        }
+
+        //明确成功
+        if(ChannelRetMsg.ChannelState.CONFIRM_SUCCESS == channelRetMsg.getChannelState()) {
+
+            this.updateInitOrderStateThrowException(TransferOrder.STATE_SUCCESS, transferOrder, channelRetMsg);
+            payMchNotifyService.transferOrderNotify(transferOrder);
+
+            //明确失败
+        }else if(ChannelRetMsg.ChannelState.CONFIRM_FAIL == channelRetMsg.getChannelState()) {
+
+            this.updateInitOrderStateThrowException(TransferOrder.STATE_FAIL, transferOrder, channelRetMsg);
+            payMchNotifyService.transferOrderNotify(transferOrder);
+
+            // 上游处理中 || 未知 || 上游接口返回异常  订单为支付中状态
+        }else if( ChannelRetMsg.ChannelState.WAITING == channelRetMsg.getChannelState() ||
+                ChannelRetMsg.ChannelState.UNKNOWN == channelRetMsg.getChannelState() ||
+                ChannelRetMsg.ChannelState.API_RET_ERROR == channelRetMsg.getChannelState()
+
+        ){
+            this.updateInitOrderStateThrowException(TransferOrder.STATE_ING, transferOrder, channelRetMsg);
+
+            // 系统异常：  订单不再处理。  更新为： 订单关闭
+        }else if( ChannelRetMsg.ChannelState.SYS_ERROR == channelRetMsg.getChannelState()){
+
+            this.closeSysErrorOrder(transferOrder, channelRetMsg.getChannelErrMsg());
+
+        }else{
+
+            throw new BizException("ChannelState 返回异常！");
+        }
+
+    }
+
+
+    /**
+     * 系统异常： 订单生成状态的订单更新为订单关闭 （ 不再调用渠道接口， 补单任务也不会恢复 ）， 并通知商户。
+     * 订单已不是生成状态（ 渠道结果已更新 ）时忽略。
+     */
+    public void closeSysErrorOrder(TransferOrder transferOrder, String errMsg){
+
+        if(transferOrder == null){
+            return ;
+        }
+
+        try {
+            if(!transferOrderService.updateInit2Close(transferOrder.getTransferId(), null, errMsg)){
+                return ;
+            }
+            transferOrder.setState(TransferOrder.STATE_CLOSED);
+            transferOrder.setDispatchState(TransferOrder.DISPATCH_STATE_NONE);
+            transferOrder.setErrMsg(errMsg);
+            payMchNotifyService.transferOrderNotify(transferOrder);
+
+        } catch (Exception e) {
+            log.error("转账订单[{}]关闭异常", transferOrder.getTransferId(), e);
+        }
+    }
+
+    /** 更新订单状态 --》 订单生成--》 其他状态  (向外抛出异常) **/
+    private void updateInitOrderStateThrowException(byte orderState, TransferOrder transferOrder, ChannelRetMsg channelRetMsg){
+
+        transferOrder.setState(orderState);
+        transferOrder.setChannelOrderNo(channelRetMsg.getChannelOrderId());
+        transferOrder.setErrCode(channelRetMsg.getChannelErrCode());
+        transferOrder.setErrMsg(channelRetMsg.getChannelErrMsg());
+
+
+        boolean isSuccess = transferOrderService.updateInit2Ing(transferOrder.getTransferId());
+        if(!isSuccess){
+            throw new BizException("更新转账订单异常!");
+        }
+
+        isSuccess = transferOrderService.updateIng2SuccessOrFail(transferOrder.getTransferId(), transferOrder.getState(),
+                channelRetMsg.getChannelOrderId(), channelRetMsg.getChannelErrCode(), channelRetMsg.getChannelErrMsg());
+        if(!isSuccess){
+            throw new BizException("更新转账订单异常!");
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.task;
+
+import cn.hutool.core.date.DateUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.jeequan.jeepay.components.mq.model.PayOrderMchNotifyMQ;
+import com.jeequan.jeepay.components.mq.vender.IMQSender;
+import com.jeequan.jeepay.core.entity.MchNotifyRecord;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
+import com.jeequan.jeepay.pay.service.TaskLeaseService;
+import com.jeequan.jeepay.service.impl.MchNotifyRecordService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/*
+* 商户通知补发定时任务：
+*   商户通知MQ消息经本地缓冲发送（ MQBufferedSender ）， 节点宕机、 重启或超过最大重试次数时消息可能丢失，
+*   通知记录将一直处于通知中状态。 本任务按DB中的通知记录重新发送MQ消息（ 同步发送 ）， 通知结果仍由商户通知MQ接收者处理。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 11:55
+*/
+@Slf4j
+@Component
+public class MchNotifyRecordReissueTask {
+
+    private static final int QUERY_PAGE_SIZE = 100; //每次查询数量
+
+    @Autowired private MchNotifyRecordService mchNotifyRecordService;
+    @Autowired private IMQSender mqSender;
+    @Autowired private TaskLeaseService taskLeaseService;
+    @Autowired private SystemYmlConfig systemYmlConfig;
+
+    @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
+    public void start() {
+        taskLeaseService.execute("mchNotifyRecordReissue", this::process);
+    }
+
+    private void process() {
+
+        //当前时间 减去恢复时间 ( 需大于最大重试间隔， 避免与正常的延迟消息重复通知 )
+        Date offsetDate = DateUtil.offsetMinute(new Date(), -systemYmlConfig.getMchNotify().getIngRecoverMinutes());
+
+        //查询条件： 通知中的记录 & 未达到最大通知次数 & 最后更新时间已超过恢复时间 & 一天内创建的记录
+        LambdaQueryWrapper<MchNotifyRecord> lambdaQueryWrapper = MchNotifyRecord.gw()
+                .eq(MchNotifyRecord::getState, MchNotifyRecord.STATE_ING)
+                .apply("notify_count < notify_count_limit")
+                .le(MchNotifyRecord::getUpdatedAt, offsetDate)
+                .ge(MchNotifyRecord::getCreatedAt, DateUtil.offsetDay(new Date(), -1));
+
+        while(TaskLeaseService.isLeaseHeld()){ //租约已失效， 停止执行
+
+            // 补发前刷新更新时间， 已处理的记录不再被查出， 每次查询第一页
+            IPage<MchNotifyRecord> iPage = mchNotifyRecordService.page(new Page(1, QUERY_PAGE_SIZE, false), lambdaQueryWrapper);
+            if(iPage == null || iPage.getRecords().isEmpty()){ //本次查询无结果, 不再继续查询;
+                break;
+            }
+
+            for(MchNotifyRecord record: iPage.getRecords()){
+
+                if(!TaskLeaseService.isLeaseHeld()){
+                    return;
+                }
+
+                // 其他节点或接收者已处理
+                if(!mchNotifyRecordService.updateIngRecoverTime(record.getNotifyId(), offsetDate)){
+                    continue;
+                }
+
+                try {
+                    log.info("商户通知记录[{}]超时未再次通知， 重新发送MQ消息", record.getNotifyId());
+                    mqSender.send(PayOrderMchNotifyMQ.build(record.getNotifyId()));
+                    JeepayMetrics.increment("jeepay.pay.notify.reissue");
+                } catch (Exception e) { // 已刷新更新时间， 下一个恢复周期再次补发
+                    log.error("商户通知记录[{}]补发MQ消息异常", record.getNotifyId(), e);
+                }
+            }
+
+            //已经是最后一页，无需再次查询
+            if(iPage.getRecords().size() < QUERY_PAGE_SIZE){
+                break;
+            }
+        }
+    }
+
+}
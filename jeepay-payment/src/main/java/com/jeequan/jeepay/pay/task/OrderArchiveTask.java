@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.task;
+
+import cn.hutool.core.date.DateUtil;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
+import com.jeequan.jeepay.pay.service.TaskLeaseService;
+import com.jeequan.jeepay.service.impl.OrderArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/*
+* 历史数据归档定时任务
+*  将终态的支付订单、退款订单、转账订单、商户通知记录、分账记录 迁移至归档表，
+*  归档后的数据仍可通过 getById / queryMchOrder 查询。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 10:12
+*/
+@Slf4j
+@Component
+public class OrderArchiveTask {
+
+    @Autowired private SystemYmlConfig systemYmlConfig;
+    @Autowired private OrderArchiveService orderArchiveService;
+    @Autowired private TaskLeaseService taskLeaseService;
+
+    @Scheduled(cron="0 30 2 * * ?") // 每天凌晨2:30执行一次
+    public void start() {
+        taskLeaseService.execute("orderArchive", this::process);
+    }
+
+    /** 执行归档 **/
+    private void process() {
+
+        SystemYmlConfig.Archive archiveConfig = systemYmlConfig.getArchive();
+        if(!archiveConfig.isEnabled()){
+            return ;
+        }
+
+        //仅处理创建时间早于 [当前时间 - 保留天数] 的数据
+        Date beforeTime = DateUtil.offsetDay(new Date(), -archiveConfig.getKeepDays());
+
+        for (OrderArchiveService.ArchiveTable archiveTable : OrderArchiveService.ArchiveTable.values()) {
+
+            int totalCount = 0;
+            while(true){
+
+                if(!TaskLeaseService.isLeaseHeld()){ //租约已失效， 停止执行
+                    break;
+                }
+
+                try {
+                    int count = orderArchiveService.archiveBatch(archiveTable, beforeTime, archiveConfig.getBatchSize());
+                    totalCount += count;
+
+                    //本批次未满， 不再继续查询
+                    if(count < archiveConfig.getBatchSize()){
+                        break;
+                    }
+
+                } catch (Exception e) { //出现异常，直接退出，避免死循环。
+                    log.error("归档[{}]异常", archiveTable.getTableName(), e);
+                    break;
+                }
+            }
+
+            log.info("归档[{}]完成, 共{}条.", archiveTable.getTableName(), totalCount);
+        }
+    }
+
+}
@@ -23,9 +23,12 @@ import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.core.entity.PayOrderDivisionRecord;
 import com.jeequan.jeepay.core.utils.SpringBeansUtil;
 import com.jeequan.jeepay.pay.channel.IDivisionService;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
 import com.jeequan.jeepay.pay.model.MchAppConfigContext;
 import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
 import com.jeequan.jeepay.pay.service.ConfigContextQueryService;
+import com.jeequan.jeepay.pay.service.PayOrderDivisionProcessService;
+import com.jeequan.jeepay.pay.service.TaskLeaseService;
 import com.jeequan.jeepay.service.impl.PayOrderDivisionRecordService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
@@ -53,9 +56,83 @@ public class PayOrderDivisionRecordReissueTask {
     @Autowired private PayOrderDivisionRecordService payOrderDivisionRecordService;
     @Autowired private ConfigContextQueryService configContextQueryService;
     @Autowired private PayOrderService payOrderService;
+    @Autowired private TaskLeaseService taskLeaseService;
+    @Autowired private PayOrderDivisionProcessService payOrderDivisionProcessService;
+    @Autowired private SystemYmlConfig systemYmlConfig;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
+        taskLeaseService.execute("payOrderDivisionRecordReissue", () -> {
+            this.processWaitRecord();
+            this.process();
+        });
+    }
+
+    /** 恢复待分账记录： 受理后后台任务丢失（ 节点宕机或重启 ）， 订单仍为分账处理中时， 重新调用渠道分账接口 **/
+    private void processWaitRecord() {
+
+        //当前时间 减去恢复时间 ( 需大于后台线程池的最大等待时间， 避免与正在执行的任务重复调用 )
+        Date offsetDate = DateUtil.offsetMinute(new Date(), -systemYmlConfig.getDivisionExec().getWaitRecoverMinutes());
+
+        //查询条件： 待分账的记录 & 最后更新时间已超过恢复时间
+        LambdaQueryWrapper<PayOrderDivisionRecord> lambdaQueryWrapper = PayOrderDivisionRecord.gw().
+                eq(PayOrderDivisionRecord::getState, PayOrderDivisionRecord.STATE_WAIT).le(PayOrderDivisionRecord::getUpdatedAt, offsetDate);
+
+        int currentPageIndex = 1; //当前页码
+
+        while(TaskLeaseService.isLeaseHeld()){ //租约已失效， 停止执行
+
+            // 不查询总数， 按批次号去重
+            IPage<PayOrderDivisionRecord> pageRecordList = payOrderDivisionRecordService.getBaseMapper().distinctBatchOrderIdList(new Page(currentPageIndex, QUERY_PAGE_SIZE, false), lambdaQueryWrapper);
+
+            //本次查询无结果, 不再继续查询;
+            if(pageRecordList == null || pageRecordList.getRecords() == null || pageRecordList.getRecords().isEmpty()){
+                break;
+            }
+
+            log.info("处理待分账记录恢复任务, 第{}页共计{}批", currentPageIndex, pageRecordList.getRecords().size());
+
+            for(PayOrderDivisionRecord batchRecord: pageRecordList.getRecords()){
+
+                if(!TaskLeaseService.isLeaseHeld()){
+                    break;
+                }
+
+                try {
+
+                    // 订单需为分账处理中 （ 重发的分账记录由重发流程处理 ）
+                    PayOrder payOrder = payOrderService.getById(batchRecord.getPayOrderId());
+                    if (payOrder == null || payOrder.getDivisionState() == null || payOrder.getDivisionState() != PayOrder.DIVISION_STATE_ING) {
+                        continue;
+                    }
+
+                    List<PayOrderDivisionRecord> recordList = payOrderDivisionRecordService.list(PayOrderDivisionRecord.gw()
+                            .eq(PayOrderDivisionRecord::getState, PayOrderDivisionRecord.STATE_WAIT)
+                            .eq(PayOrderDivisionRecord::getBatchOrderId, batchRecord.getBatchOrderId())
+                            .orderByAsc(PayOrderDivisionRecord::getRecordId)
+                    );
+                    if(recordList == null || recordList.isEmpty()){
+                        continue;
+                    }
+
+                    log.info("分账批次[{}]超时未执行， 重新调用渠道分账接口", batchRecord.getBatchOrderId());
+                    payOrderDivisionProcessService.resumePayOrderDivision(payOrder, recordList);
+
+                } catch (Exception e) {
+                    log.error("处理待分账记录恢复单条[{}]异常",  batchRecord.getBatchOrderId(), e);
+                }
+            }
+
+            //已经是最后一页，无需再次查询 ( 已处理的批次状态变更后不再被查出， 个别批次顺延至下一周期处理 )
+            if(pageRecordList.getRecords().size() < QUERY_PAGE_SIZE){
+                break;
+            }
+            currentPageIndex++;
+        }
+    }
+
+    /** 执行分账补单 **/
+    private void process() {
 
         log.info("处理分账补单任务 开始");
 
@@ -70,6 +147,13 @@ public class PayOrderDivisionRecordReissueTask {
 
         while(true){
 
+
+            if(!TaskLeaseService.isLeaseHeld()){ //租约已失效， 停止执行
+
+                break;
+
+            }
+
             try {
                 IPage<PayOrderDivisionRecord> pageRecordList = payOrderDivisionRecordService.getBaseMapper().distinctBatchOrderIdList(new Page(currentPageIndex, QUERY_PAGE_SIZE), lambdaQueryWrapper);
 
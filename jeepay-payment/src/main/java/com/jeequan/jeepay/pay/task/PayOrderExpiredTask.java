@@ -15,6 +15,7 @@
  */
 package com.jeequan.jeepay.pay.task;
 
+import com.jeequan.jeepay.pay.service.TaskLeaseService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,9 +34,15 @@ import org.springframework.stereotype.Component;
 public class PayOrderExpiredTask {
 
     @Autowired private PayOrderService payOrderService;
+    @Autowired private TaskLeaseService taskLeaseService;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
+        taskLeaseService.execute("payOrderExpired", this::process);
+    }
+
+    /** 执行订单过期 **/
+    private void process() {
 
         int updateCount = payOrderService.updateOrderExpired();
         log.info("处理订单超时{}条.", updateCount);
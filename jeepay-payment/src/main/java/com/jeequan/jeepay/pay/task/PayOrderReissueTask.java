@@ -21,6 +21,8 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.pay.service.ChannelOrderReissueService;
+import com.jeequan.jeepay.pay.service.TaskLeaseService;
+import com.jeequan.jeepay.service.datasource.ReadReplicaContext;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,9 +46,15 @@ public class PayOrderReissueTask {
 
     @Autowired private PayOrderService payOrderService;
     @Autowired private ChannelOrderReissueService channelOrderReissueService;
+    @Autowired private TaskLeaseService taskLeaseService;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
+        taskLeaseService.execute("payOrderReissue", this::process);
+    }
+
+    /** 执行支付订单补单 **/
+    private void process() {
 
         //当前时间 减去10分钟。
         Date offsetDate = DateUtil.offsetMinute(new Date(), -10);
@@ -57,8 +65,13 @@ public class PayOrderReissueTask {
         int currentPageIndex = 1; //当前页码
         while(true){
 
+            if(!TaskLeaseService.isLeaseHeld()){ //租约已失效， 停止执行
+                break;
+            }
+
             try {
-                IPage<PayOrder> payOrderIPage = payOrderService.page(new Page(currentPageIndex, QUERY_PAGE_SIZE), lambdaQueryWrapper);
+                Page queryPage = new Page(currentPageIndex, QUERY_PAGE_SIZE);
+                IPage<PayOrder> payOrderIPage = ReadReplicaContext.call(() -> payOrderService.page(queryPage, lambdaQueryWrapper)); //分页扫描使用从库
 
                 if(payOrderIPage == null || payOrderIPage.getRecords().isEmpty()){ //本次查询无结果, 不再继续查询;
                     break;
@@ -15,6 +15,7 @@
  */
 package com.jeequan.jeepay.pay.task;
 
+import com.jeequan.jeepay.pay.service.TaskLeaseService;
 import com.jeequan.jeepay.service.impl.PayOrderService;
 import com.jeequan.jeepay.service.impl.RefundOrderService;
 import lombok.extern.slf4j.Slf4j;
@@ -34,9 +35,15 @@ import org.springframework.stereotype.Component;
 public class RefundOrderExpiredTask {
 
     @Autowired private RefundOrderService refundOrderService;
+    @Autowired private TaskLeaseService taskLeaseService;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
+        taskLeaseService.execute("refundOrderExpired", this::process);
+    }
+
+    /** 执行退款订单过期 **/
+    private void process() {
 
         int updateCount = refundOrderService.updateOrderExpired();
         log.info("处理退款订单超时{}条.", updateCount);
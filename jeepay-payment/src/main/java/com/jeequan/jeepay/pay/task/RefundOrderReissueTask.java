@@ -21,6 +21,8 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.jeequan.jeepay.core.entity.RefundOrder;
 import com.jeequan.jeepay.pay.service.ChannelOrderReissueService;
+import com.jeequan.jeepay.pay.service.TaskLeaseService;
+import com.jeequan.jeepay.service.datasource.ReadReplicaContext;
 import com.jeequan.jeepay.service.impl.RefundOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,9 +46,15 @@ public class RefundOrderReissueTask {
 
     @Autowired private RefundOrderService refundOrderService;
     @Autowired private ChannelOrderReissueService channelOrderReissueService;
+    @Autowired private TaskLeaseService taskLeaseService;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
+        taskLeaseService.execute("refundOrderReissue", this::process);
+    }
+
+    /** 执行退款订单补单 **/
+    private void process() {
 
         //查询条件： 退款中的订单
         LambdaQueryWrapper<RefundOrder> lambdaQueryWrapper = RefundOrder.gw().eq(RefundOrder::getState, RefundOrder.STATE_ING);
@@ -54,8 +62,13 @@ public class RefundOrderReissueTask {
         int currentPageIndex = 1; //当前页码
         while(true){
 
+            if(!TaskLeaseService.isLeaseHeld()){ //租约已失效， 停止执行
+                break;
+            }
+
             try {
-                IPage<RefundOrder> refundOrderIPage = refundOrderService.page(new Page(currentPageIndex, QUERY_PAGE_SIZE), lambdaQueryWrapper);
+                Page queryPage = new Page(currentPageIndex, QUERY_PAGE_SIZE);
+                IPage<RefundOrder> refundOrderIPage = ReadReplicaContext.call(() -> refundOrderService.page(queryPage, lambdaQueryWrapper)); //分页扫描使用从库
 
                 if(refundOrderIPage == null || refundOrderIPage.getRecords().isEmpty()){ //本次查询无结果, 不再继续查询;
                     break;
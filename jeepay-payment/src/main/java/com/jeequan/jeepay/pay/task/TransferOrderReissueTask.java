@@ -20,7 +20,11 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.jeequan.jeepay.core.entity.TransferOrder;
+import com.jeequan.jeepay.pay.config.SystemYmlConfig;
+import com.jeequan.jeepay.pay.service.TaskLeaseService;
+import com.jeequan.jeepay.pay.service.TransferOrderProcessService;
 import com.jeequan.jeepay.pay.service.TransferOrderReissueService;
+import com.jeequan.jeepay.service.datasource.ReadReplicaContext;
 import com.jeequan.jeepay.service.impl.TransferOrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +32,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 
 /*
 * 转账补单定时任务
@@ -44,9 +50,64 @@ public class TransferOrderReissueTask {
 
     @Autowired private TransferOrderService transferOrderService;
     @Autowired private TransferOrderReissueService transferOrderReissueService;
+    @Autowired private TaskLeaseService taskLeaseService;
+    @Autowired private TransferOrderProcessService transferOrderProcessService;
+    @Autowired private SystemYmlConfig systemYmlConfig;
 
     @Scheduled(cron="0 0/1 * * * ?") // 每分钟执行一次
     public void start() {
+        taskLeaseService.execute("transferOrderReissue", () -> {
+            this.processInitOrder();
+            this.process();
+        });
+    }
+
+    /** 恢复待后台调用的批量转账订单： 后台任务丢失（ 节点宕机或重启 ）， 重新调用渠道接口 **/
+    private void processInitOrder() {
+
+        //查询条件： 订单生成状态 & 待后台调用 （ 仅批量转账， 开始调用渠道接口前清除 ） & 创建时间超过恢复时间 ( 需大于后台线程池的最大等待时间 ) & 一天内的转账单
+        LambdaQueryWrapper<TransferOrder> lambdaQueryWrapper = TransferOrder.gw()
+                .eq(TransferOrder::getState, TransferOrder.STATE_INIT)
+                .eq(TransferOrder::getDispatchState, TransferOrder.DISPATCH_STATE_QUEUED)
+                .le(TransferOrder::getCreatedAt, DateUtil.offsetMinute(new Date(), -systemYmlConfig.getTransferBatch().getInitRecoverMinutes()))
+                .ge(TransferOrder::getCreatedAt, DateUtil.offsetDay(new Date(), -1));
+
+        // 本次执行已处理的订单， 不再重复调用
+        Set<String> processedIds = new HashSet<>();
+
+        while(TaskLeaseService.isLeaseHeld()){ //租约已失效， 停止执行
+
+            // 调用前已清除待后台调用标记， 处理后的订单不再被查出， 每次查询第一页
+            IPage<TransferOrder> iPage = transferOrderService.page(new Page(1, QUERY_PAGE_SIZE, false), lambdaQueryWrapper);
+            if(iPage == null || iPage.getRecords().isEmpty()){ //本次查询无结果, 不再继续查询;
+                break;
+            }
+
+            int newCount = 0;
+            for(TransferOrder transferOrder: iPage.getRecords()){
+
+                if(!TaskLeaseService.isLeaseHeld()){
+                    return;
+                }
+
+                if(!processedIds.add(transferOrder.getTransferId())){
+                    continue;
+                }
+                newCount++;
+
+                log.info("转账订单[{}]超时未调用渠道接口， 重新调用", transferOrder.getTransferId());
+                transferOrderProcessService.redispatchInitOrder(transferOrder);
+            }
+
+            // 本页订单均已处理过 ( 标记清除失败 )， 下一周期再处理， 避免死循环
+            if(newCount == 0 || iPage.getRecords().size() < QUERY_PAGE_SIZE){
+                break;
+            }
+        }
+    }
+
+    /** 执行转账订单补单 **/
+    private void process() {
 
         //查询条件：
         LambdaQueryWrapper<TransferOrder> lambdaQueryWrapper = TransferOrder.gw()
@@ -56,8 +117,13 @@ public class TransferOrderReissueTask {
         int currentPageIndex = 1; //当前页码
         while(true){
 
+            if(!TaskLeaseService.isLeaseHeld()){ //租约已失效， 停止执行
+                break;
+            }
+
             try {
-                IPage<TransferOrder> iPage = transferOrderService.page(new Page(currentPageIndex, QUERY_PAGE_SIZE), lambdaQueryWrapper);
+                Page queryPage = new Page(currentPageIndex, QUERY_PAGE_SIZE);
+                IPage<TransferOrder> iPage = ReadReplicaContext.call(() -> transferOrderService.page(queryPage, lambdaQueryWrapper)); //分页扫描使用从库
 
                 if(iPage == null || iPage.getRecords().isEmpty()){ //本次查询无结果, 不再继续查询;
                     break;
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.util;
+
+import cn.hutool.core.util.URLUtil;
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.entity.RefundOrder;
+import com.jeequan.jeepay.core.entity.TransferOrder;
+import com.jeequan.jeepay.core.utils.JeepayKit;
+import com.jeequan.jeepay.pay.rqrs.payorder.QueryPayOrderRS;
+import com.jeequan.jeepay.pay.rqrs.refund.QueryRefundOrderRS;
+import com.jeequan.jeepay.pay.rqrs.transfer.QueryTransferOrderRS;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+* 商户通知/跳转地址 生成器
+* 直接从订单实体取值完成签名和url拼接， 不再经过 QueryXxxRS -> JSONObject 的中间对象。
+* 输出与原方式 （JSONObject + JeepayKit.getSign + StringKit.appendUrlQuery） 逐字节一致：
+*   参数顺序：与原JSONObject(HashMap)的遍历顺序一致， 初始化时由fastjson生成一次；
+*   签名顺序：与getSign一致， 按 "key=" 忽略大小写排序， 跳过null和空串；
+*   url编码：无需编码的字符直接追加， 其他情况仍使用 URLUtil.encodeQuery。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 15:20
+*/
+public class MchNotifyUrlBuilder<T> {
+
+    private static final String KEY_REQ_TIME = "reqTime";
+    private static final String KEY_SIGN = "sign";
+
+    /** URLUtil.encodeQuery 不做编码的ASCII字符 **/
+    private static final boolean[] QUERY_SAFE_CHARS = new boolean[128];
+    static {
+        for (char c = 0; c < 128; c++) {
+            String str = String.valueOf(c);
+            QUERY_SAFE_CHARS[c] = str.equals(URLUtil.encodeQuery(str));
+        }
+    }
+
+    /** 线程内复用StringBuilder **/
+    private static final ThreadLocal<StringBuilder> STRING_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    public static final MchNotifyUrlBuilder<PayOrder> PAY_ORDER;
+    public static final MchNotifyUrlBuilder<RefundOrder> REFUND_ORDER;
+    public static final MchNotifyUrlBuilder<TransferOrder> TRANSFER_ORDER;
+
+    static {
+        Map<String, Function<PayOrder, Object>> payOrderFields = new LinkedHashMap<>();
+        payOrderFields.put("payOrderId", PayOrder::getPayOrderId);
+        payOrderFields.put("mchNo", PayOrder::getMchNo);
+        payOrderFields.put("appId", PayOrder::getAppId);
+        payOrderFields.put("mchOrderNo", PayOrder::getMchOrderNo);
+        payOrderFields.put("ifCode", PayOrder::getIfCode);
+        payOrderFields.put("wayCode", PayOrder::getWayCode);
+        payOrderFields.put("amount", PayOrder::getAmount);
+        payOrderFields.put("currency", PayOrder::getCurrency);
+        payOrderFields.put("state", PayOrder::getState);
+        payOrderFields.put("clientIp", PayOrder::getClientIp);
+        payOrderFields.put("subject", PayOrder::getSubject);
+        payOrderFields.put("body", PayOrder::getBody);
+        payOrderFields.put("channelOrderNo", PayOrder::getChannelOrderNo);
+        payOrderFields.put("errCode", PayOrder::getErrCode);
+        payOrderFields.put("errMsg", PayOrder::getErrMsg);
+        payOrderFields.put("extParam", PayOrder::getExtParam);
+        payOrderFields.put("successTime", e -> time(e.getSuccessTime()));
+        payOrderFields.put("createdAt", e -> time(e.getCreatedAt()));
+        PAY_ORDER = new MchNotifyUrlBuilder<>(QueryPayOrderRS.class, payOrderFields);
+
+        Map<String, Function<RefundOrder, Object>> refundOrderFields = new LinkedHashMap<>();
+        refundOrderFields.put("refundOrderId", RefundOrder::getRefundOrderId);
+        refundOrderFields.put("payOrderId", RefundOrder::getPayOrderId);
+        refundOrderFields.put("mchNo", RefundOrder::getMchNo);
+        refundOrderFields.put("appId", RefundOrder::getAppId);
+        refundOrderFields.put("mchRefundNo", RefundOrder::getMchRefundNo);
+        refundOrderFields.put("payAmount", RefundOrder::getPayAmount);
+        refundOrderFields.put("refundAmount", RefundOrder::getRefundAmount);
+        refundOrderFields.put("currency", RefundOrder::getCurrency);
+        refundOrderFields.put("state", RefundOrder::getState);
+        refundOrderFields.put("channelOrderNo", RefundOrder::getChannelOrderNo);
+        refundOrderFields.put("errCode", RefundOrder::getErrCode);
+        refundOrderFields.put("errMsg", RefundOrder::getErrMsg);
+        refundOrderFields.put("extParam", RefundOrder::getExtParam);
+        refundOrderFields.put("successTime", e -> time(e.getSuccessTime()));
+        refundOrderFields.put("createdAt", e -> time(e.getCreatedAt()));
+        REFUND_ORDER = new MchNotifyUrlBuilder<>(QueryRefundOrderRS.class, refundOrderFields);
+
+        Map<String, Function<TransferOrder, Object>> transferOrderFields = new LinkedHashMap<>();
+        transferOrderFields.put("transferId", TransferOrder::getTransferId);
+        transferOrderFields.put("mchNo", TransferOrder::getMchNo);
+        transferOrderFields.put("appId", TransferOrder::getAppId);
+        transferOrderFields.put("mchOrderNo", TransferOrder::getMchOrderNo);
+        transferOrderFields.put("ifCode", TransferOrder::getIfCode);
+        transferOrderFields.put("entryType", TransferOrder::getEntryType);
+        transferOrderFields.put("amount", TransferOrder::getAmount);
+        transferOrderFields.put("currency", TransferOrder::getCurrency);
+        transferOrderFields.put("accountNo", TransferOrder::getAccountNo);
+        transferOrderFields.put("accountName", TransferOrder::getAccountName);
+        transferOrderFields.put("bankName", TransferOrder::getBankName);
+        transferOrderFields.put("transferDesc", TransferOrder::getTransferDesc);
+        transferOrderFields.put("state", TransferOrder::getState);
+        transferOrderFields.put("channelExtra", TransferOrder::getChannelExtra);
+        transferOrderFields.put("channelOrderNo", TransferOrder::getChannelOrderNo);
+        transferOrderFields.put("errCode", TransferOrder::getErrCode);
+        transferOrderFields.put("errMsg", TransferOrder::getErrMsg);
+        transferOrderFields.put("extParam", TransferOrder::getExtParam);
+        transferOrderFields.put("successTime", e -> time(e.getSuccessTime()));
+        transferOrderFields.put("createdAt", e -> time(e.getCreatedAt()));
+        TRANSFER_ORDER = new MchNotifyUrlBuilder<>(QueryTransferOrderRS.class, transferOrderFields);
+    }
+
+    /** 参数名称 （url拼接顺序） **/
+    private final String[] keys;
+
+    /** 取值方法， 与keys对应 （reqTime 和 sign 为null） **/
+    private final List<Function<T, Object>> getters;
+
+    /** 签名顺序 （keys的下标） **/
+    private final int[] signOrder;
+
+    private final int reqTimeIndex;
+    private final int signIndex;
+
+    private MchNotifyUrlBuilder(Class<?> rsClass, Map<String, Function<T, Object>> fields) {
+
+        // 按原方式生成一次空对象， 获取JSONObject的遍历顺序
+        JSONObject sample = (JSONObject) JSONObject.toJSON(BeanUtils.instantiateClass(rsClass));
+        sample.put(KEY_REQ_TIME, 0L);
+        sample.put(KEY_SIGN, "");
+
+        if(sample.size() != fields.size() + 2 || !sample.keySet().containsAll(fields.keySet())){
+            throw new IllegalStateException("通知参数与" + rsClass.getSimpleName() + "字段不一致: " + sample.keySet());
+        }
+
+        this.keys = sample.keySet().toArray(new String[0]);
+        this.getters = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            getters.add(fields.get(key));
+        }
+
+        List<String> signKeys = new ArrayList<>(sample.keySet());
+        signKeys.sort((k1, k2) -> String.CASE_INSENSITIVE_ORDER.compare(k1 + "=", k2 + "="));
+        this.signOrder = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            signOrder[i] = indexOf(signKeys.get(i));
+        }
+
+        this.reqTimeIndex = indexOf(KEY_REQ_TIME);
+        this.signIndex = indexOf(KEY_SIGN);
+    }
+
+    /** 生成签名后的通知地址 **/
+    public String build(T entity, String url, String appSecret){
+
+        if(StringUtils.isEmpty(url)){
+            return url;
+        }
+
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Function<T, Object> getter = getters.get(i);
+            values[i] = getter == null ? null : getter.apply(entity);
+        }
+        values[reqTimeIndex] = System.currentTimeMillis(); //添加请求时间
+
+        // 报文签名
+        StringBuilder sb = STRING_BUILDER.get();
+        sb.setLength(0);
+        for (int index : signOrder) {
+            Object value = values[index];
+            if(value != null && !"".equals(value)){
+                sb.append(keys[index]).append('=').append(value).append('&');
+            }
+        }
+        sb.append("key=").append(appSecret);
+        values[signIndex] = JeepayKit.md5(sb.toString(), "UTF-8").toUpperCase();
+
+        // 拼接url参数
+        sb.setLength(0);
+        sb.append(url);
+        if(url.indexOf("?") < 0){
+            sb.append("?");
+        }
+
+        //是否包含query条件
+        boolean isHasCondition = url.indexOf("=") >= 0;
+        for (int i = 0; i < keys.length; i++) {
+            if(values[i] == null){
+                continue;
+            }
+            if(isHasCondition){
+                sb.append("&");
+            }else{
+                isHasCondition = true;
+            }
+            sb.append(keys[i]).append("=");
+            appendEncoded(sb, values[i].toString());
+        }
+
+        String result = sb.toString();
+        if(sb.capacity() > 8192){ // 避免超长参数使线程内缓存持续占用内存
+            STRING_BUILDER.remove();
+        }
+        return result;
+    }
+
+    private int indexOf(String key){
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i].equals(key)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendEncoded(StringBuilder sb, String value){
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c >= 128 || !QUERY_SAFE_CHARS[c]){
+                sb.append(URLUtil.encodeQuery(value));
+                return;
+            }
+        }
+        sb.append(value);
+    }
+
+    private static Long time(Date date){
+        return date == null ? null : date.getTime();
+    }
+
+}
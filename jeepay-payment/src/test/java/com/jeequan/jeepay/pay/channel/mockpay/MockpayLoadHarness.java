@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.channel.mockpay;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpUtil;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.utils.JeepayKit;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+* 模拟支付通道压测工具： 按目标TPS驱动 统一下单 → 渠道回调 → 商户通知 → 查单， 输出各阶段吞吐量及 p50/p99 耗时。
+*
+* 使用方式：
+*  1. 启动支付网关（ isys.mock-pay.enabled=true ）， 在运营平台启用“模拟支付”接口， 并为测试商户应用配置 mockpay 参数及支付方式；
+*  2. 运行本类main方法（ 不属于单元测试， 不会在 mvn test 中执行 ）， 参数通过系统属性传入：
+*     -Dgateway=http://127.0.0.1:9216 -DmchNo=M1 -DappId=xx -DappSecret=xx -DwayCode=ALI_QR -Dtps=100 -Dduration=60
+*     -DnotifyHost=127.0.0.1 -DnotifyPort=19216 -Dthreads=200 -Ddrain=30
+*  3. 商户通知由本工具内置的HTTP服务接收； 服务端各阶段耗时（验签、渠道下单、订单状态变更、MQ发送、商户通知等）从 /actuator/metrics 读取。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 11:40
+*/
+public class MockpayLoadHarness {
+
+    /** 统一下单 **/
+    private static final Stage STAGE_ORDER = new Stage("unifiedOrder");
+
+    /** 下单返回 → 收到商户通知 （ 包含渠道回调及商户通知 ） **/
+    private static final Stage STAGE_NOTIFY = new Stage("channelNotice+mchNotify");
+
+    /** 查单 **/
+    private static final Stage STAGE_QUERY = new Stage("query");
+
+    /** 支付订单号 → [下单返回时间, 收到通知时间] **/
+    private static final Map<String, long[]> PENDING_MAP = new ConcurrentHashMap<>();
+
+    private static String gateway;
+    private static String mchNo;
+    private static String appId;
+    private static String appSecret;
+
+    private static ExecutorService workerExecutor;
+
+    public static void main(String[] args) throws Exception {
+
+        gateway = System.getProperty("gateway", "http://127.0.0.1:9216");
+        mchNo = requiredProperty("mchNo");
+        appId = requiredProperty("appId");
+        appSecret = requiredProperty("appSecret");
+        String wayCode = System.getProperty("wayCode", "ALI_QR");
+        int tps = Integer.getInteger("tps", 100);
+        int durationSeconds = Integer.getInteger("duration", 60);
+        int drainSeconds = Integer.getInteger("drain", 30);
+        String notifyUrl = "http://" + System.getProperty("notifyHost", "127.0.0.1") + ":" + Integer.getInteger("notifyPort", 19216) + "/notify";
+
+        workerExecutor = Executors.newFixedThreadPool(Integer.getInteger("threads", 200));
+        HttpServer notifyServer = startNotifyServer(Integer.getInteger("notifyPort", 19216));
+
+        System.out.printf("开始压测: gateway=%s, wayCode=%s, tps=%d, duration=%ds%n", gateway, wayCode, tps, durationSeconds);
+
+        // 按固定间隔提交下单请求
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / tps;
+        long totalCount = (long) tps * durationSeconds;
+        long startNanos = System.nanoTime();
+        for (long i = 0; i < totalCount; i++) {
+            long waitNanos = startNanos + i * intervalNanos - System.nanoTime();
+            if(waitNanos > 0){
+                LockSupport.parkNanos(waitNanos);
+            }
+            workerExecutor.execute(() -> unifiedOrder(wayCode, notifyUrl));
+        }
+
+        // 等待剩余的商户通知
+        long drainDeadline = System.currentTimeMillis() + drainSeconds * 1000L;
+        while (System.currentTimeMillis() < drainDeadline && STAGE_NOTIFY.count() + STAGE_NOTIFY.errorCount.get() < STAGE_ORDER.count()){
+            Thread.sleep(200);
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        long notifyMissing = STAGE_ORDER.count() - STAGE_NOTIFY.count();
+        STAGE_NOTIFY.errorCount.addAndGet(Math.max(notifyMissing, 0));
+
+        workerExecutor.shutdown();
+        workerExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        notifyServer.stop(0);
+
+        System.out.printf("%n===== 客户端各阶段统计 （总耗时 %.1fs） =====%n", elapsedSeconds);
+        System.out.printf("%-26s %8s %8s %10s %10s %10s %10s%n", "stage", "count", "errors", "tps", "p50(ms)", "p99(ms)", "max(ms)");
+        for (Stage stage : new Stage[]{STAGE_ORDER, STAGE_NOTIFY, STAGE_QUERY}) {
+            stage.print(elapsedSeconds);
+        }
+
+        printServerMetrics();
+    }
+
+    /** 统一下单 **/
+    private static void unifiedOrder(String wayCode, String notifyUrl){
+
+        Map<String, Object> params = new TreeMap<>();
+        params.put("mchOrderNo", "MOCK" + IdUtil.getSnowflake().nextIdStr());
+        params.put("wayCode", wayCode);
+        params.put("amount", 1);
+        params.put("currency", "cny");
+        params.put("subject", "模拟支付压测");
+        params.put("body", "模拟支付压测");
+        params.put("notifyUrl", notifyUrl);
+
+        long start = System.nanoTime();
+        try {
+            JSONObject res = post("/api/pay/unifiedOrder", params);
+            long end = System.nanoTime();
+
+            JSONObject data = res.getJSONObject("data");
+            if(res.getIntValue("code") != 0 || data == null || data.getString("payOrderId") == null){
+                STAGE_ORDER.error();
+                return ;
+            }
+            STAGE_ORDER.record(end - start);
+
+            // 商户通知可能早于下单返回到达
+            long[] times = PENDING_MAP.compute(data.getString("payOrderId"), (k, v) -> {
+                long[] result = v == null ? new long[2] : v;
+                result[0] = end;
+                return result;
+            });
+            if(times[1] > 0){
+                onNotified(data.getString("payOrderId"), times);
+            }
+
+        } catch (Exception e) {
+            STAGE_ORDER.error();
+        }
+    }
+
+    /** 收到商户通知 **/
+    private static void onNotify(String payOrderId, Byte state){
+
+        long now = System.nanoTime();
+        if(state == null || state != PayOrder.STATE_SUCCESS && state != PayOrder.STATE_FAIL){
+            return ;
+        }
+
+        long[] times = PENDING_MAP.compute(payOrderId, (k, v) -> {
+            long[] result = v == null ? new long[2] : v;
+            result[1] = now;
+            return result;
+        });
+        if(times[0] > 0){
+            onNotified(payOrderId, times);
+        }
+    }
+
+    /** 下单返回及商户通知均已完成： 记录通知耗时并查单 **/
+    private static void onNotified(String payOrderId, long[] times){
+
+        if(PENDING_MAP.remove(payOrderId) == null){ // 重复通知
+            return ;
+        }
+        STAGE_NOTIFY.record(Math.max(times[1] - times[0], 0));
+
+        workerExecutor.execute(() -> {
+            Map<String, Object> params = new TreeMap<>();
+            params.put("payOrderId", payOrderId);
+
+            long start = System.nanoTime();
+            try {
+                JSONObject res = post("/api/pay/query", params);
+                JSONObject data = res.getJSONObject("data");
+                if(res.getIntValue("code") != 0 || data == null || data.getByte("state") == null || data.getByte("state") < PayOrder.STATE_SUCCESS){
+                    STAGE_QUERY.error();
+                    return ;
+                }
+                STAGE_QUERY.record(System.nanoTime() - start);
+            } catch (Exception e) {
+                STAGE_QUERY.error();
+            }
+        });
+    }
+
+    /** 签名并发送请求 **/
+    private static JSONObject post(String path, Map<String, Object> params){
+
+        params.put("mchNo", mchNo);
+        params.put("appId", appId);
+        params.put("reqTime", String.valueOf(System.currentTimeMillis()));
+        params.put("version", "1.0");
+        params.put("signType", "MD5");
+        params.put("sign", JeepayKit.getSign(params, appSecret));
+
+        String body = HttpRequest.post(gateway + path).body(new JSONObject(params).toJSONString()).timeout(30 * 1000).execute().body();
+        return JSONObject.parseObject(body);
+    }
+
+    /** 启动商户通知接收服务 **/
+    private static HttpServer startNotifyServer(int port) throws Exception {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newFixedThreadPool(32));
+        server.createContext("/notify", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+
+                String reqBody = IoUtil.read(in, StandardCharsets.UTF_8);
+                Map<String, String> paramMap = HttpUtil.decodeParamMap(reqBody, StandardCharsets.UTF_8);
+                String state = paramMap.get("state");
+                onNotify(paramMap.get("payOrderId"), state == null ? null : Byte.valueOf(state));
+
+                byte[] resp = "SUCCESS".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, resp.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(resp);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    /** 输出服务端指标 （ 需将压测机IP加入 isys.metrics.allow-ips ） **/
+    private static void printServerMetrics(){
+
+        try {
+            JSONObject res = JSONObject.parseObject(HttpUtil.get(gateway + "/actuator/metrics", 10 * 1000));
+            if(res.getIntValue("code") != 0){
+                System.out.println("查询服务端指标失败： " + res.getString("msg"));
+                return ;
+            }
+
+            System.out.printf("%n===== 服务端各阶段统计 (/actuator/metrics) =====%n");
+            JSONArray meters = res.getJSONObject("data").getJSONArray("meters");
+            for (int i = 0; i < meters.size(); i++) {
+                JSONObject meter = meters.getJSONObject(i);
+                if(meter.getString("name").startsWith("jeepay.pay.") || meter.getString("name").startsWith("jeepay.mq.")){
+                    meter.remove("type");
+                    System.out.println(meter.toJSONString());
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("查询服务端指标失败： " + e.getMessage());
+        }
+    }
+
+    private static String requiredProperty(String name){
+        String value = System.getProperty(name);
+        if(value == null || value.isEmpty()){
+            throw new IllegalArgumentException("缺少参数: -D" + name);
+        }
+        return value;
+    }
+
+    /** 单个阶段的耗时统计 **/
+    private static class Stage {
+
+        private final String name;
+        private final ConcurrentLinkedQueue<Long> latencyList = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errorCount = new AtomicLong();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos){
+            latencyList.add(nanos);
+        }
+
+        void error(){
+            errorCount.incrementAndGet();
+        }
+
+        long count(){
+            return latencyList.size();
+        }
+
+        void print(double elapsedSeconds){
+
+            List<Long> sorted = new ArrayList<>(latencyList);
+            Collections.sort(sorted);
+            System.out.printf("%-26s %8d %8d %10.1f %10.1f %10.1f %10.1f%n", name, sorted.size(), errorCount.get(), sorted.size() / elapsedSeconds,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.99), sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1) / 1e6);
+        }
+
+        private static double percentileMs(List<Long> sorted, double percentile){
+            if(sorted.isEmpty()){
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)) / 1e6;
+        }
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.MchDivisionReceiver;
+import com.jeequan.jeepay.core.entity.MchDivisionReceiverGroup;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.entity.PayOrderDivisionRecord;
+import com.jeequan.jeepay.core.utils.SpringBeansUtil;
+import com.jeequan.jeepay.pay.channel.IDivisionService;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.service.impl.PayOrderDivisionRecordService;
+import com.jeequan.jeepay.service.impl.PayOrderService;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+* 分账受理接口压测： 使用模拟渠道（ 每个接收方固定耗时 ）， 验证受理接口耗时不随分账接收方数量增长。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 10:20
+*/
+public class PayOrderDivisionAcceptLoadTest {
+
+    /** 模拟渠道： 每个分账接收方的耗时(毫秒) **/
+    private static final long CHANNEL_MILLIS_PER_RECEIVER = 2;
+
+    /** 每种接收方数量的受理请求次数 **/
+    private static final int REQUEST_COUNT = 20;
+
+    private static final AtomicLong PAY_ORDER_SEQ = new AtomicLong();
+
+    /** 模拟渠道已完成的分账批次数 **/
+    private static final AtomicInteger FINISHED_BATCH = new AtomicInteger();
+
+    private static ThreadPoolExecutor divisionExecutor;
+
+    private static PayOrderDivisionProcessService processService;
+
+    private static int receiverCount;
+
+    @BeforeClass
+    public static void init(){
+
+        // 初始化实体表信息 （ 构造 lambda 条件时需要 ）
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, PayOrder.class);
+        TableInfoHelper.initTableInfo(assistant, PayOrderDivisionRecord.class);
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.getBeanFactory().registerSingleton("stubDivisionService", new StubDivisionService());
+        context.refresh();
+        new SpringBeansUtil().setApplicationContext(context);
+
+        // 与 ThreadPoolConfig.divisionExecutor 一致： 有界队列， 队列满时由调用线程执行
+        divisionExecutor = new ThreadPoolExecutor(8, 8, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        processService = new PayOrderDivisionProcessService();
+        setField(processService, "payOrderService", new StubPayOrderService());
+        setField(processService, "mchDivisionReceiverCacheService", new StubReceiverCacheService());
+        setField(processService, "payOrderDivisionRecordService", new StubRecordService());
+        setField(processService, "configContextQueryService", new ConfigContextQueryService(){
+            @Override
+            public MchAppConfigContext queryMchInfoAndAppInfo(String mchNo, String mchAppId) {
+                return new MchAppConfigContext();
+            }
+        });
+        setField(processService, "divisionExecutor", divisionExecutor);
+    }
+
+    @AfterClass
+    public static void destroy(){
+        divisionExecutor.shutdownNow();
+    }
+
+    @Test
+    public void acceptLatencyIndependentOfReceiverCount() throws Exception {
+
+        int[] receiverCounts = {1, 50, 200};
+        long[] acceptAvgMillis = new long[receiverCounts.length];
+
+        acceptAvgMillis(1); // 预热
+
+        for (int i = 0; i < receiverCounts.length; i++) {
+            acceptAvgMillis[i] = acceptAvgMillis(receiverCounts[i]);
+        }
+
+        // 同步执行作为对照： 耗时随接收方数量线性增长
+        long syncMillis = syncMillis(200);
+
+        System.out.printf("分账受理平均耗时(ms): 1个接收方=%d, 50个接收方=%d, 200个接收方=%d;  同步执行200个接收方=%d%n",
+                acceptAvgMillis[0], acceptAvgMillis[1], acceptAvgMillis[2], syncMillis);
+
+        assertTrue("同步执行应包含渠道耗时", syncMillis >= 200 * CHANNEL_MILLIS_PER_RECEIVER);
+        assertTrue("受理耗时不应包含渠道耗时", acceptAvgMillis[2] < 200 * CHANNEL_MILLIS_PER_RECEIVER / 4);
+
+        // 后台线程池执行完全部已受理的批次
+        divisionExecutor.shutdown();
+        assertTrue(divisionExecutor.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(REQUEST_COUNT * (receiverCounts.length + 1) + 1, FINISHED_BATCH.get());
+    }
+
+    /** 受理分账的平均耗时 **/
+    private static long acceptAvgMillis(int count){
+
+        receiverCount = count;
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            List<PayOrderDivisionRecord> recordList = processService.acceptPayOrderDivision("P" + PAY_ORDER_SEQ.incrementAndGet(), CS.YES, null);
+            assertEquals(count, recordList.size());
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / REQUEST_COUNT;
+    }
+
+    /** 同步执行分账的耗时 **/
+    private static long syncMillis(int count){
+
+        receiverCount = count;
+        long start = System.nanoTime();
+        ChannelRetMsg channelRetMsg = processService.processPayOrderDivision("P" + PAY_ORDER_SEQ.incrementAndGet(), CS.YES, null, false);
+        assertEquals(ChannelRetMsg.ChannelState.CONFIRM_SUCCESS, channelRetMsg.getChannelState());
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static void setField(Object target, String name, Object value){
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /** 模拟渠道： 按接收方数量耗时， 返回分账成功 **/
+    static class StubDivisionService implements IDivisionService {
+
+        @Override
+        public String getIfCode() {
+            return "stub";
+        }
+
+        @Override
+        public boolean isSupport() {
+            return true;
+        }
+
+        @Override
+        public ChannelRetMsg bind(MchDivisionReceiver mchDivisionReceiver, MchAppConfigContext mchAppConfigContext) {
+            return ChannelRetMsg.confirmSuccess(null);
+        }
+
+        @Override
+        public ChannelRetMsg singleDivision(PayOrder payOrder, List<PayOrderDivisionRecord> recordList, MchAppConfigContext mchAppConfigContext) {
+            try {
+                Thread.sleep(CHANNEL_MILLIS_PER_RECEIVER * recordList.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            FINISHED_BATCH.incrementAndGet();
+            return ChannelRetMsg.confirmSuccess(recordList.get(0).getBatchOrderId());
+        }
+
+        @Override
+        public HashMap<Long, ChannelRetMsg> queryDivision(PayOrder payOrder, List<PayOrderDivisionRecord> recordList, MchAppConfigContext mchAppConfigContext) {
+            return new HashMap<>();
+        }
+    }
+
+    /** 订单： 每次查询返回新的未分账订单 **/
+    static class StubPayOrderService extends PayOrderService {
+
+        @Override
+        public PayOrder getById(Serializable payOrderId) {
+            PayOrder payOrder = new PayOrder();
+            payOrder.setPayOrderId(payOrderId.toString());
+            payOrder.setMchNo("M0001");
+            payOrder.setAppId("A0001");
+            payOrder.setIfCode("stub");
+            payOrder.setAmount(100000L);
+            payOrder.setDivisionState(PayOrder.DIVISION_STATE_UNHAPPEN);
+            return payOrder;
+        }
+
+        @Override
+        public boolean update(Wrapper<PayOrder> updateWrapper) {
+            return true;
+        }
+
+        @Override
+        public Long calMchIncomeAmount(PayOrder dbPayOrder) {
+            return dbPayOrder.getAmount();
+        }
+    }
+
+    /** 分账接收方： 自动分账组下的N个账号 **/
+    static class StubReceiverCacheService extends MchDivisionReceiverCacheService {
+
+        @Override
+        public List<MchDivisionReceiverGroup> queryReceiverGroupList(String mchNo) {
+            MchDivisionReceiverGroup group = new MchDivisionReceiverGroup();
+            group.setReceiverGroupId(1L);
+            group.setAutoDivisionFlag(CS.YES);
+            return Collections.singletonList(group);
+        }
+
+        @Override
+        public List<MchDivisionReceiver> queryUsableReceiverList(String mchNo, String appId, String ifCode, Long receiverGroupId) {
+            List<MchDivisionReceiver> result = new ArrayList<>();
+            for (int i = 1; i <= receiverCount; i++) {
+                MchDivisionReceiver receiver = new MchDivisionReceiver();
+                receiver.setReceiverId((long) i);
+                receiver.setReceiverGroupId(receiverGroupId);
+                receiver.setAccNo("acc" + i);
+                receiver.setDivisionProfit(new BigDecimal("0.001"));
+                result.add(receiver);
+            }
+            return result;
+        }
+    }
+
+    /** 分账记录： 不入库， 仅分配记录ID **/
+    static class StubRecordService extends PayOrderDivisionRecordService {
+
+        private final AtomicLong recordIdSeq = new AtomicLong();
+
+        @Override
+        public void saveRecordBatch(List<PayOrderDivisionRecord> records) {
+            records.forEach(r -> r.setRecordId(recordIdSeq.incrementAndGet()));
+        }
+
+        @Override
+        public void updateRecordSuccessOrFail(List<PayOrderDivisionRecord> records, Byte state, String channelBatchOrderId, String channelRespResult) {
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.MchDivisionReceiver;
+import com.jeequan.jeepay.core.entity.MchDivisionReceiverGroup;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.entity.PayOrderDivisionRecord;
+import com.jeequan.jeepay.core.utils.SpringBeansUtil;
+import com.jeequan.jeepay.pay.channel.IDivisionService;
+import com.jeequan.jeepay.pay.model.MchAppConfigContext;
+import com.jeequan.jeepay.pay.rqrs.msg.ChannelRetMsg;
+import com.jeequan.jeepay.service.impl.PayOrderDivisionRecordService;
+import com.jeequan.jeepay.service.impl.PayOrderService;
+import com.jeequan.jeepay.service.mapper.PayOrderDivisionRecordMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+* 分账数据库往返次数： 统计一次分账中分账记录表及订单表的Mapper调用次数， 验证其不随分账接收方数量增长（ 每500条记录一次批量插入 ）。
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 15:30
+*/
+public class PayOrderDivisionRoundTripTest {
+
+    /** 分账记录表 Mapper调用次数  method -> count **/
+    private static final Map<String, AtomicInteger> RECORD_MAPPER_CALLS = new ConcurrentHashMap<>();
+
+    /** 订单表 调用次数 （ 查询 + 更新 ） **/
+    private static final AtomicInteger PAY_ORDER_CALLS = new AtomicInteger();
+
+    private static final AtomicLong PAY_ORDER_SEQ = new AtomicLong();
+
+    private static PayOrderDivisionProcessService processService;
+
+    private static int receiverCount;
+
+    @BeforeClass
+    public static void init(){
+
+        // 初始化实体表信息 （ 构造 lambda 条件时需要 ）
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, PayOrder.class);
+        TableInfoHelper.initTableInfo(assistant, PayOrderDivisionRecord.class);
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.getBeanFactory().registerSingleton("stubDivisionService", new StubDivisionService());
+        context.refresh();
+        new SpringBeansUtil().setApplicationContext(context);
+
+        // 分账记录服务使用真实实现， 仅替换Mapper以统计调用次数
+        PayOrderDivisionRecordService recordService = new PayOrderDivisionRecordService();
+        setField(recordService, "baseMapper", countingRecordMapper());
+
+        processService = new PayOrderDivisionProcessService();
+        setField(processService, "payOrderService", new CountingPayOrderService());
+        setField(processService, "mchDivisionReceiverCacheService", new StubReceiverCacheService());
+        setField(processService, "payOrderDivisionRecordService", recordService);
+        setField(processService, "configContextQueryService", new ConfigContextQueryService(){
+            @Override
+            public MchAppConfigContext queryMchInfoAndAppInfo(String mchNo, String mchAppId) {
+                return new MchAppConfigContext();
+            }
+        });
+    }
+
+    @Test
+    public void roundTripsIndependentOfReceiverCount(){
+
+        int[] receiverCounts = {1, 50, 200, 500, 1000};
+
+        for (int count : receiverCounts) {
+
+            RECORD_MAPPER_CALLS.clear();
+            PAY_ORDER_CALLS.set(0);
+
+            receiverCount = count;
+            ChannelRetMsg channelRetMsg = processService.processPayOrderDivision("P" + PAY_ORDER_SEQ.incrementAndGet(), CS.YES, null, false);
+            assertEquals(ChannelRetMsg.ChannelState.CONFIRM_SUCCESS, channelRetMsg.getChannelState());
+
+            int batchInsertCalls = recordMapperCalls("batchInsert");
+            int updateCalls = recordMapperCalls("update");
+            int totalCalls = RECORD_MAPPER_CALLS.values().stream().mapToInt(AtomicInteger::get).sum() + PAY_ORDER_CALLS.get();
+
+            System.out.printf("分账接收方=%d: 分账记录批量插入=%d, 分账记录更新=%d, 订单表=%d, 合计数据库往返=%d (逐条保存时=%d)%n",
+                    count, batchInsertCalls, updateCalls, PAY_ORDER_CALLS.get(), totalCalls, count + updateCalls + PAY_ORDER_CALLS.get());
+
+            // 每500条记录一次批量插入， 结果更新为一条in语句； 订单表： 查询 + 更新为分账中 + 更新为分账完成
+            assertEquals((count + 499) / 500, batchInsertCalls);
+            assertEquals(1, updateCalls);
+            assertEquals(3, PAY_ORDER_CALLS.get());
+            assertEquals(batchInsertCalls + updateCalls, RECORD_MAPPER_CALLS.values().stream().mapToInt(AtomicInteger::get).sum());
+        }
+    }
+
+    private static int recordMapperCalls(String method){
+        AtomicInteger count = RECORD_MAPPER_CALLS.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    /** 分账记录表Mapper： 统计调用次数， 批量插入时回填记录ID **/
+    @SuppressWarnings("unchecked")
+    private static PayOrderDivisionRecordMapper countingRecordMapper(){
+
+        AtomicLong recordIdSeq = new AtomicLong();
+        return (PayOrderDivisionRecordMapper) Proxy.newProxyInstance(PayOrderDivisionRecordMapper.class.getClassLoader(),
+                new Class[]{PayOrderDivisionRecordMapper.class}, (proxy, method, args) -> {
+
+            if(method.getDeclaringClass() == Object.class){
+                return "hashCode".equals(method.getName()) ? System.identityHashCode(proxy) : "equals".equals(method.getName()) ? proxy == args[0] : "countingRecordMapper";
+            }
+
+            RECORD_MAPPER_CALLS.computeIfAbsent(method.getName(), k -> new AtomicInteger()).incrementAndGet();
+
+            if("batchInsert".equals(method.getName())){
+                List<PayOrderDivisionRecord> list = (List<PayOrderDivisionRecord>) args[0];
+                list.forEach(r -> r.setRecordId(recordIdSeq.incrementAndGet()));
+                return list.size();
+            }
+            return 1;
+        });
+    }
+
+    /** 模拟渠道： 直接返回分账成功 **/
+    static class StubDivisionService implements IDivisionService {
+
+        @Override
+        public String getIfCode() {
+            return "stub";
+        }
+
+        @Override
+        public boolean isSupport() {
+            return true;
+        }
+
+        @Override
+        public ChannelRetMsg bind(MchDivisionReceiver mchDivisionReceiver, MchAppConfigContext mchAppConfigContext) {
+            return ChannelRetMsg.confirmSuccess(null);
+        }
+
+        @Override
+        public ChannelRetMsg singleDivision(PayOrder payOrder, List<PayOrderDivisionRecord> recordList, MchAppConfigContext mchAppConfigContext) {
+            return ChannelRetMsg.confirmSuccess(recordList.get(0).getBatchOrderId());
+        }
+
+        @Override
+        public HashMap<Long, ChannelRetMsg> queryDivision(PayOrder payOrder, List<PayOrderDivisionRecord> recordList, MchAppConfigContext mchAppConfigContext) {
+            return new HashMap<>();
+        }
+    }
+
+    /** 分账接收方： 自动分账组下的N个账号 **/
+    static class StubReceiverCacheService extends MchDivisionReceiverCacheService {
+
+        @Override
+        public List<MchDivisionReceiverGroup> queryReceiverGroupList(String mchNo) {
+            MchDivisionReceiverGroup group = new MchDivisionReceiverGroup();
+            group.setReceiverGroupId(1L);
+            group.setAutoDivisionFlag(CS.YES);
+            return Collections.singletonList(group);
+        }
+
+        @Override
+        public List<MchDivisionReceiver> queryUsableReceiverList(String mchNo, String appId, String ifCode, Long receiverGroupId) {
+            List<MchDivisionReceiver> result = new ArrayList<>();
+            for (int i = 1; i <= receiverCount; i++) {
+                MchDivisionReceiver receiver = new MchDivisionReceiver();
+                receiver.setReceiverId((long) i);
+                receiver.setReceiverGroupId(receiverGroupId);
+                receiver.setAccNo("acc" + i);
+                receiver.setDivisionProfit(new BigDecimal("0.0001"));
+                result.add(receiver);
+            }
+            return result;
+        }
+    }
+
+    /** 订单： 统计查询及更新次数 **/
+    static class CountingPayOrderService extends PayOrderService {
+
+        @Override
+        public PayOrder getById(Serializable payOrderId) {
+            PAY_ORDER_CALLS.incrementAndGet();
+            PayOrder payOrder = new PayOrder();
+            payOrder.setPayOrderId(payOrderId.toString());
+            payOrder.setMchNo("M0001");
+            payOrder.setAppId("A0001");
+            payOrder.setIfCode("stub");
+            payOrder.setAmount(1000000L);
+            payOrder.setDivisionState(PayOrder.DIVISION_STATE_UNHAPPEN);
+            return payOrder;
+        }
+
+        @Override
+        public boolean update(Wrapper<PayOrder> updateWrapper) {
+            PAY_ORDER_CALLS.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public Long calMchIncomeAmount(PayOrder dbPayOrder) {
+            return dbPayOrder.getAmount();
+        }
+    }
+
+    private static void setField(Object target, String name, Object value){
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+}
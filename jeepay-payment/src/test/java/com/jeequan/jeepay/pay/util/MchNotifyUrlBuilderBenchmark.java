@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.pay.util;
+
+import com.alibaba.fastjson.JSONObject;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import com.jeequan.jeepay.core.utils.JeepayKit;
+import com.jeequan.jeepay.core.utils.StringKit;
+import com.jeequan.jeepay.pay.rqrs.payorder.QueryPayOrderRS;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 商户通知地址生成 基准测试 （ 每次生成100万个通知地址的耗时 ）
+*   对比： MchNotifyUrlBuilder 与 原实现 [QueryPayOrderRS -> JSONObject + JeepayKit.getSign + StringKit.appendUrlQuery]
+*   初始化时校验两种方式的输出逐字节一致 （ 同一毫秒内生成， reqTime相同 ）
+*   运行： 执行main方法， 或 java -cp <test-classpath> org.openjdk.jmh.Main MchNotifyUrlBuilderBenchmark
+*
+* @author terrfly
+* @site https://www.jeequan.com
+* @date 2026/10/19 12:45
+*/
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MchNotifyUrlBuilderBenchmark {
+
+    private static final int URL_COUNT = 1000000;
+
+    private static final String APP_SECRET = "EJlnNwrDD6nQbXNvF0dyQUCR3BAixWxvyC0YN0Rd2sgmtQWiBxc0eGUx6L9lHTtwVyS2gbpiUfGl0W5pEeVPUr3W86MHv2NehQWdP2kcl6hG8tFbxXtbzVW8J8eupdKA";
+
+    private PayOrder payOrder;
+
+    @Setup(Level.Trial)
+    public void setup(){
+
+        payOrder = new PayOrder();
+        payOrder.setPayOrderId("P1623984572371673089");
+        payOrder.setMchNo("M1623984572");
+        payOrder.setAppId("60cc09bce4b0f1c0b83761c9");
+        payOrder.setMchOrderNo("M20261019124500123456");
+        payOrder.setIfCode("alipay");
+        payOrder.setWayCode("ALI_QR");
+        payOrder.setAmount(1999L);
+        payOrder.setCurrency("cny");
+        payOrder.setState(PayOrder.STATE_SUCCESS);
+        payOrder.setClientIp("192.168.1.100");
+        payOrder.setSubject("商品标题测试");
+        payOrder.setBody("商品描述测试");
+        payOrder.setChannelOrderNo("2026101922001400000000000001");
+        payOrder.setExtParam("{\"orderSource\":\"app\"}");
+        payOrder.setSuccessTime(new Date());
+        payOrder.setCreatedAt(new Date());
+        payOrder.setNotifyUrl("https://www.example.com/api/notify/pay?from=jeepay");
+
+        // 校验输出一致 （ reqTime 为当前毫秒， 不同时重试 ）
+        for (int i = 0; i < 100; i++) {
+            String legacyUrl = legacyBuild(payOrder);
+            String builderUrl = MchNotifyUrlBuilder.PAY_ORDER.build(payOrder, payOrder.getNotifyUrl(), APP_SECRET);
+            if(legacyUrl.equals(builderUrl)){
+                return;
+            }
+        }
+        throw new IllegalStateException("MchNotifyUrlBuilder 输出与原实现不一致");
+    }
+
+    /** 当前实现 **/
+    @Benchmark
+    public void mchNotifyUrlBuilder(Blackhole blackhole) {
+        for (int i = 0; i < URL_COUNT; i++) {
+            blackhole.consume(MchNotifyUrlBuilder.PAY_ORDER.build(payOrder, payOrder.getNotifyUrl(), APP_SECRET));
+        }
+    }
+
+    /** 原实现 **/
+    @Benchmark
+    public void legacyJsonObject(Blackhole blackhole) {
+        for (int i = 0; i < URL_COUNT; i++) {
+            blackhole.consume(legacyBuild(payOrder));
+        }
+    }
+
+    /** 原实现 （ PayMchNotifyService.createNotifyUrl ） **/
+    private static String legacyBuild(PayOrder payOrder){
+
+        QueryPayOrderRS queryPayOrderRS = QueryPayOrderRS.buildByPayOrder(payOrder);
+        JSONObject jsonObject = (JSONObject)JSONObject.toJSON(queryPayOrderRS);
+        jsonObject.put("reqTime", System.currentTimeMillis()); //添加请求时间
+
+        // 报文签名
+        jsonObject.put("sign", JeepayKit.getSign(jsonObject, APP_SECRET));
+
+        // 生成通知
+        return StringKit.appendUrlQuery(payOrder.getNotifyUrl(), jsonObject);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MchNotifyUrlBuilderBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * 标注的方法（或类的所有方法）使用只读从库查询。
+ * 仅适用于纯查询方法； 当前存在读写事务时， 仍使用主库。 未开启从库配置时不生效。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:05
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadReplica {
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置 （isys.read-replica.enabled=true 时生效）
+ * 主库使用 spring.datasource 配置， 从库使用 isys.read-replica.nodes 配置， 连接池参数均使用 spring.datasource.druid。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:05
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "isys.read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /** 连接池配置前缀 **/
+    private static final String DRUID_PREFIX = "spring.datasource.druid";
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaProperties readReplicaProperties, Environment environment){
+
+        DataSource primary = createDruidDataSource(environment, dataSourceProperties.determineDriverClassName(), dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(), "primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < readReplicaProperties.getNodes().size(); i++) {
+            ReadReplicaProperties.Node node = readReplicaProperties.getNodes().get(i);
+            replicas.add(createDruidDataSource(environment, dataSourceProperties.determineDriverClassName(), node.getUrl(),
+                    node.getUsername(), node.getPassword(), ReplicaRoutingDataSource.REPLICA_PREFIX + i));
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, readReplicaProperties);
+    }
+
+    /** 懒加载连接： 执行第一条语句时才获取连接， 此时事务的只读标识已确定 **/
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource){
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /** @ReadReplica 切面 **/
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readReplicaAdvisor(){
+
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(ReadReplica.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(ReadReplica.class));
+
+        MethodInterceptor interceptor = invocation -> {
+            Boolean before = ReadReplicaContext.enter();
+            try {
+                return invocation.proceed();
+            } finally {
+                ReadReplicaContext.exit(before);
+            }
+        };
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private DataSource createDruidDataSource(Environment environment, String driverClassName, String url, String username, String password, String name){
+
+        DruidDataSource dataSource = new DruidDataSource();
+        Binder.get(environment).bind(DRUID_PREFIX, Bindable.ofInstance(dataSource));
+        dataSource.setName(name);
+        dataSource.setUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        if(driverClassName != null){
+            dataSource.setDriverClassName(driverClassName);
+        }
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 从库路由上下文 （当前线程）
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:05
+ */
+public class ReadReplicaContext {
+
+    private static final ThreadLocal<Boolean> USE_REPLICA = new ThreadLocal<>();
+
+    /** 当前线程是否要求使用从库 **/
+    public static boolean isUseReplica(){
+        return Boolean.TRUE.equals(USE_REPLICA.get());
+    }
+
+    /** 在从库上执行查询 （ 用于只需部分语句走从库的场景， 如： 补单任务的分页扫描 ） **/
+    public static <T> T call(Supplier<T> supplier){
+
+        Boolean before = enter();
+        try {
+            return supplier.get();
+        } finally {
+            exit(before);
+        }
+    }
+
+    /** 标记使用从库， 返回之前的标记 **/
+    static Boolean enter(){
+        Boolean before = USE_REPLICA.get();
+        USE_REPLICA.set(true);
+        return before;
+    }
+
+    /** 恢复之前的标记 **/
+    static void exit(Boolean before){
+        if(before == null){
+            USE_REPLICA.remove();
+        }else{
+            USE_REPLICA.set(before);
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读从库配置
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:05
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix="isys.read-replica")
+public class ReadReplicaProperties {
+
+    /** 是否开启读写分离 **/
+    private boolean enabled = false;
+
+    /** 最大允许的复制延迟（秒）， 超过时该从库暂停使用， 查询回退至主库 **/
+    private long maxLagSeconds = 5;
+
+    /** 复制延迟检测间隔（秒） **/
+    private long checkInterval = 5;
+
+    /** 复制延迟检测语句， 读取结果中的 lagColumn 列； 为空表示不检测（如本地测试库） **/
+    private String lagSql = "SHOW SLAVE STATUS";
+
+    /** 复制延迟列名 （该列为空表示复制已中断） **/
+    private String lagColumn = "Seconds_Behind_Master";
+
+    /** 从库列表 （连接池参数与主库 spring.datasource.druid 一致） **/
+    private List<Node> nodes = new ArrayList<>();
+
+    @Data
+    public static class Node{
+
+        /** 连接串 **/
+        private String url;
+
+        /** 用户名 **/
+        private String username;
+
+        /** 密码 **/
+        private String password;
+
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离路由数据源
+ *
+ * 使用从库的条件（满足其一）： 只读事务(@Transactional(readOnly = true))、 @ReadReplica 标注的方法、 ReadReplicaContext.call()；
+ * 且当前不存在读写事务。 多个从库轮询使用， 复制延迟超过阈值或检测失败的从库暂停使用， 无可用从库时回退至主库。
+ *
+ * 注意： 需配合 LazyConnectionDataSourceProxy 使用， 保证开启事务时已确定只读标识。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:05
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    /** 主库key **/
+    public static final String PRIMARY = "primary";
+
+    /** 从库key前缀 **/
+    public static final String REPLICA_PREFIX = "replica_";
+
+    private final DataSource primary;
+
+    /** 从库： key --> 数据源 **/
+    private final Map<String, DataSource> replicaMap = new LinkedHashMap<>();
+
+    /** 当前可用的从库 **/
+    private volatile List<String> availableReplicas;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private final ReadReplicaProperties properties;
+
+    private ScheduledExecutorService lagCheckExecutor;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadReplicaProperties properties){
+
+        this.primary = primary;
+        this.properties = properties;
+
+        Map<Object, Object> targetMap = new HashMap<>();
+        targetMap.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaMap.put(REPLICA_PREFIX + i, replicas.get(i));
+            targetMap.put(REPLICA_PREFIX + i, replicas.get(i));
+        }
+
+        this.availableReplicas = new ArrayList<>(replicaMap.keySet());
+        setTargetDataSources(targetMap);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+
+        super.afterPropertiesSet();
+
+        if(replicaMap.isEmpty() || StringUtils.isEmpty(properties.getLagSql())){
+            return ;
+        }
+
+        lagCheckExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagCheckExecutor.scheduleWithFixedDelay(this::checkReplicaLag, 0, properties.getCheckInterval(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if(!isReadOnlyRoute()){
+            return PRIMARY;
+        }
+
+        List<String> replicas = availableReplicas;
+        if(replicas.isEmpty()){
+            return PRIMARY;
+        }
+
+        return replicas.get(Math.abs(counter.getAndIncrement() % replicas.size()));
+    }
+
+    /** 当前是否可以使用从库 **/
+    private boolean isReadOnlyRoute(){
+
+        if(TransactionSynchronizationManager.isActualTransactionActive()){
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return ReadReplicaContext.isUseReplica();
+    }
+
+    /** 当前路由结果 （主库 or 从库key） **/
+    public String currentRoute(){
+        return (String) determineCurrentLookupKey();
+    }
+
+    /** 检测各从库的复制延迟， 更新可用从库列表 **/
+    public void checkReplicaLag(){
+
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<String, DataSource> entry : replicaMap.entrySet()) {
+
+            Long lag = queryLagSeconds(entry.getValue());
+            if(lag != null && lag <= properties.getMaxLagSeconds()){
+                result.add(entry.getKey());
+            }else{
+                log.warn("从库[{}]复制延迟[{}]超过阈值或检测失败， 暂停使用", entry.getKey(), lag);
+            }
+        }
+        this.availableReplicas = result;
+    }
+
+    /** 查询复制延迟（秒）， 检测失败或复制中断返回null **/
+    private Long queryLagSeconds(DataSource dataSource){
+
+        try (Connection conn = dataSource.getConnection();
+             Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery(properties.getLagSql())) {
+
+            if(!rs.next()){
+                return null; //非从库
+            }
+
+            Object lag = rs.getObject(properties.getLagColumn());
+            return lag == null ? null : Long.parseLong(lag.toString());
+
+        } catch (Exception e) {
+            log.error("检测从库复制延迟异常", e);
+            return null;
+        }
+    }
+
+    /** 当前可用的从库 **/
+    public List<String> getAvailableReplicas() {
+        return Collections.unmodifiableList(availableReplicas);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+
+        if(lagCheckExecutor != null){
+            lagCheckExecutor.shutdownNow();
+        }
+
+        for (DataSource dataSource : replicaMap.values()) {
+            if(dataSource instanceof AutoCloseable){
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+        if(primary instanceof AutoCloseable){
+            ((AutoCloseable) primary).close();
+        }
+    }
+
+}
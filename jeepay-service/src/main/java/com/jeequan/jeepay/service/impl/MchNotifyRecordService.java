@@ -15,12 +15,16 @@
  */
 package com.jeequan.jeepay.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jeequan.jeepay.core.entity.MchNotifyRecord;
 import com.jeequan.jeepay.service.mapper.MchNotifyRecordMapper;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
+import java.util.Date;
+
 /**
  * <p>
  * 商户通知表 服务实现类
@@ -54,10 +58,31 @@ public class MchNotifyRecordService extends ServiceImpl<MchNotifyRecordMapper, M
         return findByOrderAndType(transferId, MchNotifyRecord.TYPE_TRANSFER_ORDER);
     }
 
+    /** 根据通知ID查询， 活跃表不存在时查询归档表 **/
+    @Override
+    public MchNotifyRecord getById(Serializable notifyId){
+
+        MchNotifyRecord record = super.getById(notifyId);
+        if(record != null || notifyId == null){
+            return record;
+        }
+        return baseMapper.selectArchiveById(Long.valueOf(notifyId.toString()));
+    }
+
     public Integer updateNotifyResult(Long notifyId, Byte state, String resResult){
         return baseMapper.updateNotifyResult(notifyId, state, resResult);
     }
 
+    /** 通知中的记录： 更新时间早于 offsetDate 时刷新更新时间 （ 补发任务使用， 更新成功的节点负责补发， 同一记录在恢复时间内仅补发一次 ） **/
+    public boolean updateIngRecoverTime(Long notifyId, Date offsetDate){
+        return update(new LambdaUpdateWrapper<MchNotifyRecord>()
+                .set(MchNotifyRecord::getUpdatedAt, new Date())
+                .eq(MchNotifyRecord::getNotifyId, notifyId)
+                .eq(MchNotifyRecord::getState, MchNotifyRecord.STATE_ING)
+                .le(MchNotifyRecord::getUpdatedAt, offsetDate)
+        );
+    }
+
 
 
 }
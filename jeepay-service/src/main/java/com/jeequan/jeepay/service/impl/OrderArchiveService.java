@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl;
+
+import com.jeequan.jeepay.core.entity.*;
+import com.jeequan.jeepay.service.mapper.OrderArchiveMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 历史数据归档 服务实现类
+ *  将已到达终态且超出保留期限的数据， 分批迁移至对应的 [表名_archive] 归档表中。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:12
+ */
+@Service
+public class OrderArchiveService {
+
+    @Autowired private OrderArchiveMapper orderArchiveMapper;
+
+    /** 支持归档的数据表 & 对应的终态 **/
+    @Getter
+    @AllArgsConstructor
+    public enum ArchiveTable {
+
+        PAY_ORDER("t_pay_order", "pay_order_id",
+                Arrays.asList(PayOrder.STATE_SUCCESS, PayOrder.STATE_FAIL, PayOrder.STATE_CANCEL, PayOrder.STATE_REFUND, PayOrder.STATE_CLOSED)),
+
+        REFUND_ORDER("t_refund_order", "refund_order_id",
+                Arrays.asList(RefundOrder.STATE_SUCCESS, RefundOrder.STATE_FAIL, RefundOrder.STATE_CLOSED)),
+
+        TRANSFER_ORDER("t_transfer_order", "transfer_id",
+                Arrays.asList(TransferOrder.STATE_SUCCESS, TransferOrder.STATE_FAIL, TransferOrder.STATE_CLOSED)),
+
+        MCH_NOTIFY_RECORD("t_mch_notify_record", "notify_id",
+                Arrays.asList(MchNotifyRecord.STATE_SUCCESS, MchNotifyRecord.STATE_FAIL)),
+
+        PAY_ORDER_DIVISION_RECORD("t_pay_order_division_record", "record_id",
+                Arrays.asList(PayOrderDivisionRecord.STATE_SUCCESS, PayOrderDivisionRecord.STATE_FAIL));
+
+        /** 活跃表名称 **/
+        private final String tableName;
+
+        /** 主键列名 **/
+        private final String idColumn;
+
+        /** 允许归档的状态（终态） **/
+        private final List<Byte> states;
+    }
+
+    /**
+     * 归档一批数据 （ 复制 & 删除 在同一事务内完成 ）
+     * @param archiveTable 归档表
+     * @param beforeTime 仅处理创建时间早于该时间的数据
+     * @param batchSize 每批最大数量
+     * @return 本批次实际迁移的数量
+     */
+    @Transactional
+    public int archiveBatch(ArchiveTable archiveTable, Date beforeTime, int batchSize){
+
+        List<String> ids = orderArchiveMapper.selectArchiveIds(archiveTable.getTableName(), archiveTable.getIdColumn(),
+                archiveTable.getStates(), beforeTime, batchSize);
+
+        if(ids == null || ids.isEmpty()){
+            return 0;
+        }
+
+        orderArchiveMapper.copyToArchive(archiveTable.getTableName(), archiveTable.getIdColumn(), archiveTable.getStates(), ids);
+        return orderArchiveMapper.deleteByIds(archiveTable.getTableName(), archiveTable.getIdColumn(), archiveTable.getStates(), ids);
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.jeequan.jeepay.core.model.CursorPage;
+import com.jeequan.jeepay.service.mapper.OrderPageMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 订单列表分页 服务实现类
+ *  1. 游标模式： 按 (created_at, id) 倒序定位下一页， 不使用OFFSET；
+ *  2. 总条数： 页码模式精确计数（ 保证可翻页至最后一页 ）； 游标模式封顶计数， 超出上限时返回上限值（无查询条件时返回统计信息中的估算行数）， 避免大表 COUNT(*) 全量扫描。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 14:20
+ */
+@Service
+public class OrderListPageService {
+
+    /** 订单列表总条数的计数上限 （ 仅游标模式 ）， 0表示精确计数 **/
+    @Value("${isys.order-list-count-cap:10000}")
+    private long countCap;
+
+    /**
+     * 订单列表分页查询
+     * @param mapper 订单mapper
+     * @param iPage 分页信息， CursorPage时支持游标模式
+     * @param wrapper 已拼接好的查询条件 （ 无需排序 ）
+     * @param createdAtColumn 创建时间列
+     * @param idColumn 订单号列 （ 主键 ）
+     */
+    public <T> CursorPage<T> page(OrderPageMapper<T> mapper, IPage iPage, LambdaQueryWrapper<T> wrapper,
+                                  SFunction<T, Date> createdAtColumn, SFunction<T, String> idColumn) {
+
+        CursorPage<T> page = iPage instanceof CursorPage ? (CursorPage<T>) iPage : new CursorPage<>(iPage.getCurrent(), iPage.getSize());
+
+        // 游标模式仅首页计数， 后续翻页由前端沿用首页的总条数
+        if(!page.isCursorMode() || page.getCursorId() == null){
+            countTotal(mapper, page, wrapper);
+        }
+
+        if(page.getCursorId() != null){
+            Date cursorCreatedAt = page.getCursorCreatedAt();
+            String cursorId = page.getCursorId();
+            wrapper.and(wr -> wr.lt(createdAtColumn, cursorCreatedAt)
+                    .or(w -> w.eq(createdAtColumn, cursorCreatedAt).lt(idColumn, cursorId)));
+        }
+        wrapper.orderByDesc(createdAtColumn).orderByDesc(idColumn);
+
+        if(!page.isCursorMode()){
+            page.setSearchCount(false);
+            mapper.selectPage(page, wrapper);
+            page.setHasMore(page.getCurrent() * page.getSize() < page.getTotal());
+            return page;
+        }
+
+        // 多查询一条， 用于判断是否有下一页
+        wrapper.last("limit " + (page.getSize() + 1));
+        List<T> records = mapper.selectList(wrapper);
+
+        boolean hasMore = records.size() > page.getSize();
+        if(hasMore){
+            records = records.subList(0, (int) page.getSize());
+            T last = records.get(records.size() - 1);
+            page.setNextCursor(CursorPage.buildCursor(createdAtColumn.apply(last), idColumn.apply(last)));
+        }
+        page.setRecords(records);
+        page.setHasMore(hasMore);
+        return page;
+    }
+
+    /** 空结果 （ 查询条件已确定无匹配数据 ） **/
+    public <T> CursorPage<T> emptyPage(IPage iPage) {
+        CursorPage<T> page = iPage instanceof CursorPage ? (CursorPage<T>) iPage : new CursorPage<>(iPage.getCurrent(), iPage.getSize());
+        page.setRecords(new ArrayList<>());
+        page.setTotal(0);
+        page.setHasMore(false);
+        return page;
+    }
+
+    /** 计算总条数 （ 页码模式按总条数计算页数， 需精确计数 ） **/
+    private <T> void countTotal(OrderPageMapper<T> mapper, CursorPage<T> page, LambdaQueryWrapper<T> wrapper){
+
+        if(!page.isCursorMode() || countCap <= 0){
+            page.setTotal(mapper.selectCount(wrapper));
+            return;
+        }
+
+        Long count = mapper.selectCappedCount(wrapper, countCap + 1);
+        if(count == null || count <= countCap){
+            page.setTotal(count == null ? 0 : count);
+            return;
+        }
+
+        // 超出上限： 无查询条件时使用统计信息中的估算行数
+        long total = countCap;
+        if(wrapper.isEmptyOfWhere()){
+            Long approxCount = mapper.selectApproxCount();
+            if(approxCount != null && approxCount > total){
+                total = approxCount;
+            }
+        }
+        page.setTotal(total);
+        page.setTotalApprox(true);
+    }
+
+}
@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +29,30 @@ public class PayOrderDivisionRecordService extends ServiceImpl<PayOrderDivisionR
     @Autowired private PayOrderMapper payOrderMapper;
 
 
+    /** 根据分账记录ID查询， 活跃表不存在时查询归档表 **/
+    @Override
+    public PayOrderDivisionRecord getById(Serializable recordId){
+
+        PayOrderDivisionRecord record = super.getById(recordId);
+        if(record != null || recordId == null){
+            return record;
+        }
+        return baseMapper.selectArchiveById(Long.valueOf(recordId.toString()));
+    }
+
+    /** 批量插入分账记录 ( 多值insert， 每批最多500条 )， 并回填recordId **/
+    @Transactional
+    public void saveRecordBatch(List<PayOrderDivisionRecord> records){
+
+        if(records == null || records.isEmpty()){
+            return ;
+        }
+
+        for (int i = 0; i < records.size(); i += 500) {
+            baseMapper.batchInsert(records.subList(i, Math.min(i + 500, records.size())));
+        }
+    }
+
     /** 更新分账记录为分账成功  ( 单条 )  将：  已受理 更新为： 其他状态    **/
     public void updateRecordSuccessOrFailBySingleItem(Long recordId, Byte state, String channelRespResult){
 
@@ -29,11 +29,14 @@ import com.jeequan.jeepay.core.entity.IsvInfo;
 import com.jeequan.jeepay.core.entity.MchInfo;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import com.jeequan.jeepay.core.entity.PayWay;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
+import com.jeequan.jeepay.service.datasource.ReadReplica;
 import com.jeequan.jeepay.service.mapper.*;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.*;
 
@@ -53,10 +56,13 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
     @Autowired private IsvInfoMapper isvInfoMapper;
     @Autowired private PayWayMapper payWayMapper;
     @Autowired private PayOrderDivisionRecordMapper payOrderDivisionRecordMapper;
+    @Autowired private PayOrderStateCacheService payOrderStateCacheService;
+    @Autowired private OrderListPageService orderListPageService;
 
     /** 更新订单状态  【订单生成】 --》 【支付中】 **/
     public boolean updateInit2Ing(String payOrderId, PayOrder payOrder){
 
+        long startNanos = JeepayMetrics.start();
         PayOrder updateRecord = new PayOrder();
         updateRecord.setState(PayOrder.STATE_ING);
 
@@ -68,47 +74,59 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
         updateRecord.setChannelUser(payOrder.getChannelUser());
         updateRecord.setChannelOrderNo(payOrder.getChannelOrderNo());
 
-        return update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
+        boolean isSuccess = update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
                 .eq(PayOrder::getPayOrderId, payOrderId).eq(PayOrder::getState, PayOrder.STATE_INIT));
+
+        return afterTransition("init2ing", payOrderId, startNanos, isSuccess);
     }
 
     /** 更新订单状态  【支付中】 --》 【支付成功】 **/
     public boolean updateIng2Success(String payOrderId, String channelOrderNo, String channelUserId){
 
+        long startNanos = JeepayMetrics.start();
         PayOrder updateRecord = new PayOrder();
         updateRecord.setState(PayOrder.STATE_SUCCESS);
         updateRecord.setChannelOrderNo(channelOrderNo);
         updateRecord.setChannelUser(channelUserId);
         updateRecord.setSuccessTime(new Date());
 
-        return update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
+        boolean isSuccess = update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
                 .eq(PayOrder::getPayOrderId, payOrderId).eq(PayOrder::getState, PayOrder.STATE_ING));
+
+        return afterTransition("ing2success", payOrderId, startNanos, isSuccess);
     }
 
     /** 更新订单状态  【支付中】 --》 【订单关闭】 **/
     public boolean updateIng2Close(String payOrderId){
 
+        long startNanos = JeepayMetrics.start();
         PayOrder updateRecord = new PayOrder();
         updateRecord.setState(PayOrder.STATE_CLOSED);
 
-        return update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
+        boolean isSuccess = update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
                 .eq(PayOrder::getPayOrderId, payOrderId).eq(PayOrder::getState, PayOrder.STATE_ING));
+
+        return afterTransition("ing2close", payOrderId, startNanos, isSuccess);
     }
 
     /** 更新订单状态  【订单生成】 --》 【订单关闭】 **/
     public boolean updateInit2Close(String payOrderId){
 
+        long startNanos = JeepayMetrics.start();
         PayOrder updateRecord = new PayOrder();
         updateRecord.setState(PayOrder.STATE_CLOSED);
 
-        return update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
+        boolean isSuccess = update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
                 .eq(PayOrder::getPayOrderId, payOrderId).eq(PayOrder::getState, PayOrder.STATE_INIT));
+
+        return afterTransition("init2close", payOrderId, startNanos, isSuccess);
     }
 
 
     /** 更新订单状态  【支付中】 --》 【支付失败】 **/
     public boolean updateIng2Fail(String payOrderId, String channelOrderNo, String channelUserId, String channelErrCode, String channelErrMsg){
 
+        long startNanos = JeepayMetrics.start();
         PayOrder updateRecord = new PayOrder();
         updateRecord.setState(PayOrder.STATE_FAIL);
         updateRecord.setErrCode(channelErrCode);
@@ -116,8 +134,10 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
         updateRecord.setChannelOrderNo(channelOrderNo);
         updateRecord.setChannelUser(channelUserId);
 
-        return update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
+        boolean isSuccess = update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
                 .eq(PayOrder::getPayOrderId, payOrderId).eq(PayOrder::getState, PayOrder.STATE_ING));
+
+        return afterTransition("ing2fail", payOrderId, startNanos, isSuccess);
     }
 
 
@@ -134,19 +154,161 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
         return false;
     }
 
-    /** 查询商户订单 **/
+    /**
+     * 更新订单状态  【订单生成】 --》 【支付成功/支付失败】
+     *  渠道同步返回明确结果时使用， 单条语句完成状态变更（ 同 updateInit2Ing + updateIng2SuccessOrFail ）。
+     * @param payOrder 当前完整的订单数据 （ 已设置本次确定的接口、费率、渠道用户等信息 ）
+     * @return 更新成功： 返回更新后的订单数据 （ 即入参对象， 无需再次查询 ）；  订单状态已变更： 返回null
+     */
+    public PayOrder updateInit2SuccessOrFail(PayOrder payOrder, Byte updateState, String channelOrderNo, String channelErrCode, String channelErrMsg){
+
+        if(updateState == null || (updateState != PayOrder.STATE_SUCCESS && updateState != PayOrder.STATE_FAIL)){
+            return null;
+        }
+
+        long startNanos = JeepayMetrics.start();
+        PayOrder updateRecord = new PayOrder();
+        updateRecord.setState(updateState);
+
+        //同时更新， 未确定 --》 已确定的其他信息。  如支付接口的确认、 费率的计算。
+        updateRecord.setIfCode(payOrder.getIfCode());
+        updateRecord.setWayCode(payOrder.getWayCode());
+        updateRecord.setMchFeeRate(payOrder.getMchFeeRate());
+        updateRecord.setMchFeeAmount(payOrder.getMchFeeAmount());
+        updateRecord.setChannelUser(payOrder.getChannelUser());
+        updateRecord.setChannelOrderNo(channelOrderNo);
+
+        if(updateState == PayOrder.STATE_SUCCESS){
+            updateRecord.setSuccessTime(DateUtil.beginOfSecond(new Date())); // 与数据库精度（秒）保持一致
+        }else{
+            updateRecord.setErrCode(channelErrCode);
+            updateRecord.setErrMsg(channelErrMsg);
+        }
+
+        boolean isSuccess = update(updateRecord, new LambdaUpdateWrapper<PayOrder>()
+                .eq(PayOrder::getPayOrderId, payOrder.getPayOrderId()).eq(PayOrder::getState, PayOrder.STATE_INIT));
+
+        JeepayMetrics.record("jeepay.pay.order.transition", startNanos, "transition", updateState == PayOrder.STATE_SUCCESS ? "init2success" : "init2fail",
+                "outcome", isSuccess ? "updated" : "skipped");
+        if(!isSuccess){
+            return null;
+        }
+
+        // 将本次更新的字段同步至订单对象 （ 为空的字段未更新 ）
+        payOrder.setState(updateState);
+        if(channelOrderNo != null){
+            payOrder.setChannelOrderNo(channelOrderNo);
+        }
+        if(updateRecord.getSuccessTime() != null){
+            payOrder.setSuccessTime(updateRecord.getSuccessTime());
+        }
+        if(updateRecord.getErrCode() != null){
+            payOrder.setErrCode(updateRecord.getErrCode());
+        }
+        if(updateRecord.getErrMsg() != null){
+            payOrder.setErrMsg(updateRecord.getErrMsg());
+        }
+
+        payOrderStateCacheService.refresh(payOrder.getPayOrderId(), () -> payOrder);
+        return payOrder;
+    }
+
+    /** 状态变更后处理： 记录耗时， 更新成功时刷新订单状态缓存 **/
+    private boolean afterTransition(String transition, String payOrderId, long startNanos, boolean isSuccess){
+
+        JeepayMetrics.record("jeepay.pay.order.transition", startNanos, "transition", transition, "outcome", isSuccess ? "updated" : "skipped");
+        if(isSuccess){
+            refreshStateCache(payOrderId);
+        }
+        return isSuccess;
+    }
+
+    /** 订单状态已变更， 刷新订单状态缓存 （存在事务时在提交后执行） **/
+    public void refreshStateCache(String payOrderId){
+        payOrderStateCacheService.refresh(payOrderId, () -> super.getById(payOrderId));
+    }
+
+    /** 查询商户订单 （优先使用订单状态缓存， 用于商户查单） **/
+    public PayOrder queryMchOrderByCache(String mchNo, String payOrderId, String mchOrderNo){
+        return payOrderStateCacheService.queryMchOrder(mchNo, payOrderId, mchOrderNo, () -> queryMchOrder(mchNo, payOrderId, mchOrderNo));
+    }
+
+    /** 根据支付订单号查询， 活跃表不存在时查询归档表 **/
+    @Override
+    public PayOrder getById(Serializable payOrderId){
+
+        PayOrder payOrder = super.getById(payOrderId);
+        if(payOrder != null || payOrderId == null){
+            return payOrder;
+        }
+        return payOrderMapper.selectArchiveById(payOrderId.toString());
+    }
+
+    /** 商户订单号是否已存在 （含归档表， 避免归档后复用订单号导致查单结果不一致） **/
+    public boolean existsMchOrderNo(String mchNo, String mchOrderNo){
+        if(count(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getMchOrderNo, mchOrderNo)) > 0){
+            return true;
+        }
+        return payOrderMapper.selectArchiveByMchOrderNo(mchNo, mchOrderNo) != null;
+    }
+
+    /** 查询商户订单 （活跃表不存在时查询归档表） **/
     public PayOrder queryMchOrder(String mchNo, String payOrderId, String mchOrderNo){
 
         if(StringUtils.isNotEmpty(payOrderId)){
-            return getOne(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getPayOrderId, payOrderId));
+            PayOrder payOrder = getOne(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getPayOrderId, payOrderId));
+            if(payOrder == null){
+                payOrder = payOrderMapper.selectArchiveById(payOrderId);
+                payOrder = (payOrder != null && payOrder.getMchNo().equals(mchNo)) ? payOrder : null;
+            }
+            return payOrder;
         }else if(StringUtils.isNotEmpty(mchOrderNo)){
-            return getOne(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getMchOrderNo, mchOrderNo));
+            PayOrder payOrder = getOne(PayOrder.gw().eq(PayOrder::getMchNo, mchNo).eq(PayOrder::getMchOrderNo, mchOrderNo));
+            return payOrder != null ? payOrder : payOrderMapper.selectArchiveByMchOrderNo(mchNo, mchOrderNo);
         }else{
             return null;
         }
     }
 
+    /** 批量查询商户订单 （活跃表不存在的单号再查询归档表） **/
+    public List<PayOrder> queryMchOrderList(String mchNo, Collection<String> payOrderIds, Collection<String> mchOrderNos){
+
+        boolean hasPayOrderIds = payOrderIds != null && !payOrderIds.isEmpty();
+        boolean hasMchOrderNos = mchOrderNos != null && !mchOrderNos.isEmpty();
+        if(!hasPayOrderIds && !hasMchOrderNos){
+            return new ArrayList<>();
+        }
+
+        List<PayOrder> result = list(PayOrder.gw().eq(PayOrder::getMchNo, mchNo)
+                .and(wrapper -> wrapper.in(hasPayOrderIds, PayOrder::getPayOrderId, payOrderIds)
+                        .or(hasPayOrderIds && hasMchOrderNos)
+                        .in(hasMchOrderNos, PayOrder::getMchOrderNo, mchOrderNos))
+        );
+
+        Set<String> foundPayOrderIds = new HashSet<>();
+        Set<String> foundMchOrderNos = new HashSet<>();
+        result.forEach(payOrder -> {
+            foundPayOrderIds.add(payOrder.getPayOrderId());
+            foundMchOrderNos.add(payOrder.getMchOrderNo());
+        });
+
+        List<String> archivePayOrderIds = new ArrayList<>();
+        if(hasPayOrderIds){
+            payOrderIds.stream().filter(id -> !foundPayOrderIds.contains(id)).forEach(archivePayOrderIds::add);
+        }
+        List<String> archiveMchOrderNos = new ArrayList<>();
+        if(hasMchOrderNos){
+            mchOrderNos.stream().filter(no -> !foundMchOrderNos.contains(no)).forEach(archiveMchOrderNos::add);
+        }
+
+        if(!archivePayOrderIds.isEmpty() || !archiveMchOrderNos.isEmpty()){
+            result.addAll(payOrderMapper.selectArchiveList(mchNo, archivePayOrderIds, archiveMchOrderNos));
+        }
+        return result;
+    }
+
 
+    @ReadReplica
     public Map payCount(String mchNo, Byte state, Byte refundState, String dayStart, String dayEnd) {
         Map param = new HashMap<>();
         if (state != null) {
@@ -167,6 +329,7 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
         return payOrderMapper.payCount(param);
     }
 
+    @ReadReplica
     public List<Map> payTypeCount(String mchNo, Byte state, Byte refundState, String dayStart, String dayEnd) {
         Map param = new HashMap<>();
         if (state != null) {
@@ -190,14 +353,17 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
     /** 更新订单为 超时状态 **/
     public Integer updateOrderExpired(){
 
+        long startNanos = JeepayMetrics.start();
         PayOrder payOrder = new PayOrder();
         payOrder.setState(PayOrder.STATE_CLOSED);
 
-        return baseMapper.update(payOrder,
+        int updateCount = baseMapper.update(payOrder,
                 PayOrder.gw()
                         .in(PayOrder::getState, Arrays.asList(PayOrder.STATE_INIT, PayOrder.STATE_ING))
                         .le(PayOrder::getExpiredTime, new Date())
         );
+        JeepayMetrics.record("jeepay.pay.order.transition", startNanos, "transition", "expired", "outcome", updateCount > 0 ? "updated" : "skipped");
+        return updateCount;
     }
 
     /** 更新订单 通知状态 --> 已发送 **/
@@ -209,6 +375,7 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
     }
 
     /** 首页支付周统计 **/
+    @ReadReplica
     public JSONObject mainPageWeekCount(String mchNo) {
         JSONObject json = new JSONObject();
         Map dayAmount = new LinkedHashMap();
@@ -250,6 +417,7 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
     }
 
     /** 首页统计总数量 **/
+    @ReadReplica
     public JSONObject mainPageNumCount(String mchNo) {
         JSONObject json = new JSONObject();
         // 商户总数
@@ -266,6 +434,7 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
     }
 
     /** 首页支付统计 **/
+    @ReadReplica
     public List<Map> mainPagePayCount(String mchNo, String createdStart, String createdEnd) {
         Map param = new HashMap<>(); // 条件参数
         int daySpace = 6; // 默认最近七天（含当天）
@@ -295,6 +464,7 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
     }
 
     /** 首页支付类型统计 **/
+    @ReadReplica
     public ArrayList mainPagePayTypeCount(String mchNo, String createdStart, String createdEnd) {
         // 返回数据列
         ArrayList array = new ArrayList<>();
@@ -401,6 +571,7 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
      * @param wrapper
      * @return
      */
+    @ReadReplica
     public IPage<PayOrder> listByPage(IPage iPage, PayOrder payOrder, JSONObject paramJSON, LambdaQueryWrapper<PayOrder> wrapper) {
         if (StringUtils.isNotEmpty(payOrder.getPayOrderId())) {
             wrapper.eq(PayOrder::getPayOrderId, payOrder.getPayOrderId());
@@ -440,17 +611,15 @@ public class PayOrderService extends ServiceImpl<PayOrderMapper, PayOrder> {
                 wrapper.le(PayOrder::getCreatedAt, paramJSON.getString("createdEnd"));
             }
         }
-        // 三合一订单
+        // 三合一订单： 先按各单号列的索引定位订单号， 再按主键查询（ 避免多列OR导致全表扫描 ）
         if (paramJSON != null && StringUtils.isNotEmpty(paramJSON.getString("unionOrderId"))) {
-            wrapper.and(wr -> {
-                wr.eq(PayOrder::getPayOrderId, paramJSON.getString("unionOrderId"))
-                        .or().eq(PayOrder::getMchOrderNo, paramJSON.getString("unionOrderId"))
-                        .or().eq(PayOrder::getChannelOrderNo, paramJSON.getString("unionOrderId"));
-            });
+            List<String> unionIds = baseMapper.selectIdsByUnionOrderId(paramJSON.getString("unionOrderId"), payOrder.getMchNo(), OrderPageMapper.UNION_ORDER_ID_LIMIT);
+            if (unionIds.isEmpty()) {
+                return orderListPageService.emptyPage(iPage);
+            }
+            wrapper.in(PayOrder::getPayOrderId, unionIds);
         }
 
-        wrapper.orderByDesc(PayOrder::getCreatedAt);
-
-        return page(iPage, wrapper);
+        return orderListPageService.page(baseMapper, iPage, wrapper, PayOrder::getCreatedAt, PayOrder::getPayOrderId);
     }
 }
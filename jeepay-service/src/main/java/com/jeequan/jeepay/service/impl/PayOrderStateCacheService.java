@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.alibaba.fastjson.JSON;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.constants.CS;
+import com.jeequan.jeepay.core.entity.PayOrder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.function.Supplier;
+
+/**
+ * 支付订单状态缓存 （仅用于商户查单接口）
+ *
+ * 一致性说明：
+ * 1. 订单状态变更（事务提交后）先重新生成版本号并删除缓存， 再从数据库读取最新数据回填；
+ * 2. 查单未命中时， 先读取版本号再查询数据库， 回填时版本号不一致（期间发生了状态变更）则放弃回填；
+ * 3. 超时关单为批量更新， 无法逐笔通知， 因此缓存中 【订单生成/支付中】 且已过期的订单 不使用缓存。
+ * 以上保证不会返回比最近一次已提交状态更旧的数据。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:12
+ */
+@Slf4j
+@Service
+public class PayOrderStateCacheService {
+
+    /** 缓存时间（秒）， 0 表示不使用缓存查单（状态变更时仍会清除缓存） **/
+    @Value("${isys.pay-order-state-cache-time:60}")
+    private long cacheTime;
+
+    /** 是否启用缓存查单 **/
+    public boolean isEnabled(){
+        return cacheTime > 0;
+    }
+
+    /**
+     * 查询商户订单， 优先从缓存获取
+     * @param dbLoader 缓存未命中时的数据库查询
+     * **/
+    public PayOrder queryMchOrder(String mchNo, String payOrderId, String mchOrderNo, Supplier<PayOrder> dbLoader){
+
+        if(!isEnabled()){
+            return dbLoader.get();
+        }
+
+        try {
+
+            // 按商户订单号查询时， 先获取支付订单号
+            if(StringUtils.isEmpty(payOrderId) && StringUtils.isNotEmpty(mchOrderNo)){
+                payOrderId = RedisUtil.getString(CS.getCacheKeyPayOrderMchOrderNo(mchNo, mchOrderNo));
+            }
+
+            String version = null;
+            if(StringUtils.isNotEmpty(payOrderId)){
+
+                PayOrder cacheOrder = RedisUtil.getObject(CS.getCacheKeyPayOrderState(payOrderId), PayOrder.class);
+                if(isAvailable(cacheOrder, mchNo)){
+                    return cacheOrder;
+                }
+
+                // 必须在查询数据库之前获取版本号
+                version = StringUtils.defaultString(RedisUtil.getString(CS.getCacheKeyPayOrderStateVer(payOrderId)));
+            }
+
+            PayOrder payOrder = dbLoader.get();
+            if(payOrder == null){
+                return null;
+            }
+
+            // 按商户订单号首次查询， 此时无法保证查库前已获取版本号， 仅建立映射关系， 下次查询再回填
+            if(version != null && payOrder.getPayOrderId().equals(payOrderId)){
+                setIfVersion(payOrder, version);
+            }
+            RedisUtil.setString(CS.getCacheKeyPayOrderMchOrderNo(payOrder.getMchNo(), payOrder.getMchOrderNo()), payOrder.getPayOrderId(), cacheTime);
+            return payOrder;
+
+        } catch (Exception e) {
+            log.error("查询订单状态缓存异常， 使用数据库查询", e);
+            return dbLoader.get();
+        }
+    }
+
+    /**
+     * 订单状态已变更： 存在事务时在事务提交后执行， 否则立即执行。
+     * @param dbLoader 回填缓存使用的数据库查询
+     * **/
+    public void refresh(String payOrderId, Supplier<PayOrder> dbLoader){
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doRefresh(payOrderId, dbLoader);
+                }
+            });
+            return ;
+        }
+
+        doRefresh(payOrderId, dbLoader);
+    }
+
+    private void doRefresh(String payOrderId, Supplier<PayOrder> dbLoader){
+
+        try {
+
+            // 重新生成版本号（使正在进行的回填失效）， 并删除缓存
+            String version = IdUtil.fastSimpleUUID();
+            RedisUtil.setString(CS.getCacheKeyPayOrderStateVer(payOrderId), version, cacheTime * 2 + 60);
+            RedisUtil.del(CS.getCacheKeyPayOrderState(payOrderId));
+
+            if(!isEnabled()){
+                return ;
+            }
+
+            // 写入最新状态
+            PayOrder payOrder = dbLoader.get();
+            if(payOrder != null){
+                setIfVersion(payOrder, version);
+            }
+
+        } catch (Exception e) {
+            log.error("刷新订单状态缓存异常, payOrderId={}", payOrderId, e);
+        }
+    }
+
+    /** 版本号未变更时 写入缓存 **/
+    private void setIfVersion(PayOrder payOrder, String version){
+        RedisUtil.setStringIfEquals(CS.getCacheKeyPayOrderStateVer(payOrder.getPayOrderId()), version,
+                CS.getCacheKeyPayOrderState(payOrder.getPayOrderId()), JSON.toJSONString(payOrder), cacheTime);
+    }
+
+    /** 缓存数据是否可用 **/
+    private boolean isAvailable(PayOrder cacheOrder, String mchNo){
+
+        if(cacheOrder == null || !mchNo.equals(cacheOrder.getMchNo())){
+            return false;
+        }
+
+        // 未完成的订单已过期： 可能已被批量关闭
+        if(cacheOrder.getState() == PayOrder.STATE_INIT || cacheOrder.getState() == PayOrder.STATE_ING){
+            return cacheOrder.getExpiredTime() == null || cacheOrder.getExpiredTime().after(new Date());
+        }
+        return true;
+    }
+
+}
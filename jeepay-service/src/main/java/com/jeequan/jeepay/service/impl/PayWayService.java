@@ -18,8 +18,14 @@ package com.jeequan.jeepay.service.impl;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jeequan.jeepay.core.entity.PayWay;
 import com.jeequan.jeepay.service.mapper.PayWayMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * <p>
  * 支付方式表 服务实现类
@@ -31,4 +37,50 @@ import org.springframework.stereotype.Service;
 @Service
 public class PayWayService extends ServiceImpl<PayWayMapper, PayWay> {
 
+    /** 支付方式变更时， 通过 ResetAppConfigMQ 广播该groupKey 通知各应用刷新字典 **/
+    public static final String CACHE_GROUP_KEY = "payWay";
+
+    /** 字典缓存时间（秒）： 广播丢失时的兜底刷新周期 **/
+    @Value("${isys.pay-way-cache-time:300}")
+    private int cacheTime;
+
+    /** 支付方式字典  wayCode -> wayName **/
+    private volatile Map<String, String> wayNameMap;
+    private volatile long expireAt;
+
+    /** 获取支付方式字典 （进程内缓存） **/
+    public Map<String, String> getWayNameMap(){
+
+        Map<String, String> map = wayNameMap;
+        if(map != null && System.currentTimeMillis() < expireAt){
+            return map;
+        }
+
+        synchronized (this){
+            if(wayNameMap == null || System.currentTimeMillis() >= expireAt){
+                Map<String, String> result = new HashMap<>();
+                list(PayWay.gw().select(PayWay::getWayCode, PayWay::getWayName)).forEach(item -> result.put(item.getWayCode(), item.getWayName()));
+                expireAt = System.currentTimeMillis() + cacheTime * 1000L;
+                wayNameMap = Collections.unmodifiableMap(result);
+            }
+            return wayNameMap;
+        }
+    }
+
+    /** 获取支付方式名称， 不存在时返回wayCode **/
+    public String getWayName(String wayCode){
+        String wayName = getWayNameMap().get(wayCode);
+        return StringUtils.isNotEmpty(wayName) ? wayName : wayCode;
+    }
+
+    /** 支付方式是否存在 （字典中不存在时查询DB， 避免新增的支付方式在刷新前不可用） **/
+    public boolean existsWayCode(String wayCode){
+        return getWayNameMap().containsKey(wayCode) || count(PayWay.gw().eq(PayWay::getWayCode, wayCode)) > 0;
+    }
+
+    /** 清除字典缓存， 下次使用时重新加载 **/
+    public void resetCache(){
+        wayNameMap = null;
+    }
+
 }
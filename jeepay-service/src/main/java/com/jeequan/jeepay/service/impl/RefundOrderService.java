@@ -22,15 +22,23 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jeequan.jeepay.core.entity.RefundOrder;
 import com.jeequan.jeepay.core.exception.BizException;
+import com.jeequan.jeepay.service.mapper.OrderPageMapper;
 import com.jeequan.jeepay.service.mapper.PayOrderMapper;
 import com.jeequan.jeepay.service.mapper.RefundOrderMapper;
+import com.jeequan.jeepay.service.datasource.ReadReplica;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * <p>
@@ -44,19 +52,83 @@ import java.util.Date;
 public class RefundOrderService extends ServiceImpl<RefundOrderMapper, RefundOrder> {
 
     @Autowired private PayOrderMapper payOrderMapper;
+    @Autowired private PayOrderService payOrderService;
+    @Autowired private OrderListPageService orderListPageService;
 
-    /** 查询商户订单 **/
+    /** 商户退款单号是否已存在 （含归档表， 避免归档后复用退款单号导致查单结果不一致） **/
+    public boolean existsMchRefundNo(String mchNo, String mchRefundNo){
+        if(count(RefundOrder.gw().eq(RefundOrder::getMchNo, mchNo).eq(RefundOrder::getMchRefundNo, mchRefundNo)) > 0){
+            return true;
+        }
+        return baseMapper.selectArchiveByMchRefundNo(mchNo, mchRefundNo) != null;
+    }
+
+    /** 根据退款单号查询， 活跃表不存在时查询归档表 **/
+    @Override
+    public RefundOrder getById(Serializable refundOrderId){
+
+        RefundOrder refundOrder = super.getById(refundOrderId);
+        if(refundOrder != null || refundOrderId == null){
+            return refundOrder;
+        }
+        return baseMapper.selectArchiveById(refundOrderId.toString());
+    }
+
+    /** 查询商户订单 （活跃表不存在时查询归档表） **/
     public RefundOrder queryMchOrder(String mchNo, String mchRefundNo, String refundOrderId){
 
         if(StringUtils.isNotEmpty(refundOrderId)){
-            return getOne(RefundOrder.gw().eq(RefundOrder::getMchNo, mchNo).eq(RefundOrder::getRefundOrderId, refundOrderId));
+            RefundOrder refundOrder = getOne(RefundOrder.gw().eq(RefundOrder::getMchNo, mchNo).eq(RefundOrder::getRefundOrderId, refundOrderId));
+            if(refundOrder == null){
+                refundOrder = baseMapper.selectArchiveById(refundOrderId);
+                refundOrder = (refundOrder != null && refundOrder.getMchNo().equals(mchNo)) ? refundOrder : null;
+            }
+            return refundOrder;
         }else if(StringUtils.isNotEmpty(mchRefundNo)){
-            return getOne(RefundOrder.gw().eq(RefundOrder::getMchNo, mchNo).eq(RefundOrder::getMchRefundNo, mchRefundNo));
+            RefundOrder refundOrder = getOne(RefundOrder.gw().eq(RefundOrder::getMchNo, mchNo).eq(RefundOrder::getMchRefundNo, mchRefundNo));
+            return refundOrder != null ? refundOrder : baseMapper.selectArchiveByMchRefundNo(mchNo, mchRefundNo);
         }else{
             return null;
         }
     }
 
+    /** 批量查询商户退款单 （活跃表不存在的单号再查询归档表） **/
+    public List<RefundOrder> queryMchOrderList(String mchNo, Collection<String> refundOrderIds, Collection<String> mchRefundNos){
+
+        boolean hasRefundOrderIds = refundOrderIds != null && !refundOrderIds.isEmpty();
+        boolean hasMchRefundNos = mchRefundNos != null && !mchRefundNos.isEmpty();
+        if(!hasRefundOrderIds && !hasMchRefundNos){
+            return new ArrayList<>();
+        }
+
+        List<RefundOrder> result = list(RefundOrder.gw().eq(RefundOrder::getMchNo, mchNo)
+                .and(wrapper -> wrapper.in(hasRefundOrderIds, RefundOrder::getRefundOrderId, refundOrderIds)
+                        .or(hasRefundOrderIds && hasMchRefundNos)
+                        .in(hasMchRefundNos, RefundOrder::getMchRefundNo, mchRefundNos))
+        );
+
+        Set<String> foundRefundOrderIds = new HashSet<>();
+        Set<String> foundMchRefundNos = new HashSet<>();
+        result.forEach(refundOrder -> {
+            foundRefundOrderIds.add(refundOrder.getRefundOrderId());
+            foundMchRefundNos.add(refundOrder.getMchRefundNo());
+        });
+
+        List<String> archiveRefundOrderIds = new ArrayList<>();
+        if(hasRefundOrderIds){
+            refundOrderIds.stream().filter(id -> !foundRefundOrderIds.contains(id)).forEach(archiveRefundOrderIds::add);
+        }
+        List<String> archiveMchRefundNos = new ArrayList<>();
+        if(hasMchRefundNos){
+            mchRefundNos.stream().filter(no -> !foundMchRefundNos.contains(no)).forEach(archiveMchRefundNos::add);
+        }
+
+        if(!archiveRefundOrderIds.isEmpty() || !archiveMchRefundNos.isEmpty()){
+            result.addAll(baseMapper.selectArchiveList(mchNo, archiveRefundOrderIds, archiveMchRefundNos));
+        }
+        return result;
+    }
+
 
     /** 更新退款单状态  【退款单生成】 --》 【退款中】 **/
     public boolean updateInit2Ing(String refundOrderId, String channelOrderNo){
@@ -91,6 +163,7 @@ public class RefundOrderService extends ServiceImpl<RefundOrderMapper, RefundOrd
         if(updateCount <= 0){
             throw new BizException("更新订单数据异常");
         }
+        payOrderService.refreshStateCache(refundOrder.getPayOrderId());
 
         return true;
     }
@@ -140,6 +213,7 @@ public class RefundOrderService extends ServiceImpl<RefundOrderMapper, RefundOrd
     }
 
 
+    @ReadReplica
     public IPage<RefundOrder> pageList(IPage iPage, LambdaQueryWrapper<RefundOrder> wrapper, RefundOrder refundOrder, JSONObject paramJSON) {
         if (StringUtils.isNotEmpty(refundOrder.getRefundOrderId())) {
             wrapper.eq(RefundOrder::getRefundOrderId, refundOrder.getRefundOrderId());
@@ -176,17 +250,14 @@ public class RefundOrderService extends ServiceImpl<RefundOrderMapper, RefundOrd
                 wrapper.le(RefundOrder::getCreatedAt, paramJSON.getString("createdEnd"));
             }
         }
-        // 三合一订单
+        // 三合一订单： 先按各单号列的索引定位订单号， 再按主键查询（ 避免多列OR导致全表扫描 ）
         if (paramJSON != null && StringUtils.isNotEmpty(paramJSON.getString("unionOrderId"))) {
-            wrapper.and(wr -> {
-                wr.eq(RefundOrder::getPayOrderId, paramJSON.getString("unionOrderId"))
-                        .or().eq(RefundOrder::getRefundOrderId, paramJSON.getString("unionOrderId"))
-                        .or().eq(RefundOrder::getChannelPayOrderNo, paramJSON.getString("unionOrderId"))
-                        .or().eq(RefundOrder::getMchRefundNo, paramJSON.getString("unionOrderId"));
-            });
+            List<String> unionIds = baseMapper.selectIdsByUnionOrderId(paramJSON.getString("unionOrderId"), refundOrder.getMchNo(), OrderPageMapper.UNION_ORDER_ID_LIMIT);
+            if (unionIds.isEmpty()) {
+                return orderListPageService.emptyPage(iPage);
+            }
+            wrapper.in(RefundOrder::getRefundOrderId, unionIds);
         }
-        wrapper.orderByDesc(RefundOrder::getCreatedAt);
-
-        return page(iPage, wrapper);
+        return orderListPageService.page(baseMapper, iPage, wrapper, RefundOrder::getCreatedAt, RefundOrder::getRefundOrderId);
     }
 }
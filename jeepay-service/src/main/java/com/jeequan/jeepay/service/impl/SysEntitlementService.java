@@ -15,11 +15,28 @@
  */
 package com.jeequan.jeepay.service.impl;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.jeequan.jeepay.core.cache.RedisUtil;
+import com.jeequan.jeepay.core.constants.CS;
 import com.jeequan.jeepay.core.entity.SysEntitlement;
+import com.jeequan.jeepay.core.utils.JeepayKit;
+import com.jeequan.jeepay.core.utils.TreeDataBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.jeequan.jeepay.service.mapper.SysEntitlementMapper;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
 /**
  * <p>
  * 系统权限表 服务实现类
@@ -31,7 +48,73 @@ import com.jeequan.jeepay.service.mapper.SysEntitlementMapper;
 @Service
 public class SysEntitlementService extends ServiceImpl<SysEntitlementMapper, SysEntitlement> {
 
+    /** 菜单树缓存时间（秒）， 0 表示不使用缓存 **/
+    @Value("${isys.ent-tree-cache-time:7200}")
+    private long entTreeCacheTime;
+
+    /** 查询权限集合对应的菜单树 （左侧菜单 + 其他菜单， 仅启用状态） **/
+    public List<JSONObject> queryMenuTree(String sysType, Collection<String> entIdList){
+
+        if(entIdList == null || entIdList.isEmpty()){
+            return new ArrayList<>();
+        }
+
+        List<String> sortedEntIds = new ArrayList<>(entIdList);
+        sortedEntIds.sort(null);
+        String entSetDigest = JeepayKit.md5(String.join(",", sortedEntIds), "UTF-8");
+
+        return queryTreeByCache(sysType, entSetDigest, () -> list(SysEntitlement.gw()
+                .in(SysEntitlement::getEntId, sortedEntIds)
+                .in(SysEntitlement::getEntType, Arrays.asList(CS.ENT_TYPE.MENU_LEFT, CS.ENT_TYPE.MENU_OTHER))
+                .eq(SysEntitlement::getSysType, sysType)
+                .eq(SysEntitlement::getState, CS.PUB_USABLE)));
+    }
+
+    /** 查询系统全部权限树 （权限管理、角色分配使用） **/
+    public List<JSONObject> queryAllTree(String sysType){
+        return queryTreeByCache(sysType, "ALL", () -> list(SysEntitlement.gw().eq(SysEntitlement::getSysType, sysType)));
+    }
+
+    /**
+     * 缓存key包含权限表版本摘要 （记录数 + 最近更新时间）， 权限数据变更（包含其他系统、SQL脚本变更）后自动失效；
+     * 角色权限关系变更将改变用户的权限集合， 即对应不同的缓存key。
+     **/
+    private List<JSONObject> queryTreeByCache(String sysType, String entSetDigest, Supplier<List<SysEntitlement>> dbLoader){
+
+        if(entTreeCacheTime <= 0){
+            return buildTree(dbLoader.get());
+        }
+
+        String cacheKey = CS.getCacheKeyEntTree(sysType, getEntVersion(sysType), entSetDigest);
+        String cacheValue = RedisUtil.getString(cacheKey);
+        if(cacheValue != null){
+            return JSON.parseArray(cacheValue, JSONObject.class);
+        }
+
+        List<JSONObject> tree = buildTree(dbLoader.get());
+        RedisUtil.setString(cacheKey, JSON.toJSONString(tree), entTreeCacheTime);
+        return tree;
+    }
+
+    /** 权限表版本摘要 **/
+    private String getEntVersion(String sysType){
+
+        Map<String, Object> map = getMap(new QueryWrapper<SysEntitlement>()
+                .select("count(1) AS total", "max(updated_at) AS maxUpdatedAt")
+                .eq("sys_type", sysType));
+
+        if(map == null){
+            return "0_0";
+        }
+        Object maxUpdatedAt = map.get("maxUpdatedAt");
+        return map.get("total") + "_" + (maxUpdatedAt instanceof Date ? ((Date) maxUpdatedAt).getTime() : 0);
+    }
 
+    /** 转换为json树状结构 **/
+    private List<JSONObject> buildTree(List<SysEntitlement> list){
 
+        JSONArray jsonArray = (JSONArray) JSON.toJSON(list);
+        return new TreeDataBuilder(jsonArray, "entId", "pid", "children", "entSort", true).buildTreeObject();
+    }
 
 }
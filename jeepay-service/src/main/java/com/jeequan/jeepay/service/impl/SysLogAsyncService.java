@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.impl;
+
+import com.alibaba.fastjson.JSON;
+import com.jeequan.jeepay.core.entity.SysLog;
+import com.jeequan.jeepay.core.metrics.JeepayMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 系统操作日志 异步批量写入
+ * 请求线程仅将日志放入有界队列（队列满时丢弃并计数）， 由单独的线程完成响应结果序列化、截断及批量入库。
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 09:40
+ */
+@Slf4j
+@Service
+public class SysLogAsyncService {
+
+    /** 截断后的内容后缀 **/
+    private static final String TRUNCATE_SUFFIX = "...(truncated)";
+
+    @Autowired private SysLogService sysLogService;
+
+    /** 队列容量 **/
+    @Value("${isys.sys-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    /** 每批次最大写入条数 **/
+    @Value("${isys.sys-log.batch-size:200}")
+    private int batchSize;
+
+    /** 请求参数 / 响应结果 最大保存长度 **/
+    @Value("${isys.sys-log.max-length:4000}")
+    private int maxLength;
+
+    /** 日志队列 **/
+    private volatile BlockingQueue<LogEvent> logQueue;
+
+    /** 写入线程 **/
+    private Thread writeThread;
+
+    private volatile boolean running = true;
+
+    /** 队列满时丢弃的数量 **/
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /** 已写入的数量 **/
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    /** 写入失败的数量 **/
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /** 注册运行指标 （队列积压、丢弃、写入成功、写入失败数量） **/
+    @PostConstruct
+    public void registerMetrics(){
+        JeepayMetrics.gauge("jeepay.syslog.backlog", this::getBacklog);
+        JeepayMetrics.gauge("jeepay.syslog.dropped", this::getDroppedCount);
+        JeepayMetrics.gauge("jeepay.syslog.written", this::getWrittenCount);
+        JeepayMetrics.gauge("jeepay.syslog.failed", this::getFailedCount);
+    }
+
+    /**
+     * 提交日志
+     * @param sysLog 日志基本信息
+     * @param optRes 响应结果对象， 将在写入线程中序列化 (String类型直接使用)
+     * @return 是否放入队列成功
+     */
+    public boolean asyncSave(SysLog sysLog, Object optRes){
+
+        if(!running){
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        if(!getLogQueue().offer(new LogEvent(sysLog, optRes))){
+            long dropped = droppedCount.incrementAndGet();
+            if(dropped == 1 || dropped % 1000 == 0){
+                log.warn("系统日志队列已满，丢弃日志。 累计丢弃数量={}, 队列容量={}", dropped, queueCapacity);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /** 队列中待写入的数量 **/
+    public int getBacklog(){
+        return logQueue == null ? 0 : logQueue.size();
+    }
+
+    public long getDroppedCount(){
+        return droppedCount.get();
+    }
+
+    public long getWrittenCount(){
+        return writtenCount.get();
+    }
+
+    public long getFailedCount(){
+        return failedCount.get();
+    }
+
+    /** 获取日志队列， 首次使用时启动写入线程 （未使用日志的项目不创建线程） **/
+    private BlockingQueue<LogEvent> getLogQueue(){
+
+        if(logQueue == null){
+            synchronized (this){
+                if(logQueue == null){
+                    writeThread = new Thread(this::writeLoop, "sys-log-writer");
+                    writeThread.setDaemon(true);
+                    logQueue = new ArrayBlockingQueue<>(queueCapacity);
+                    writeThread.start();
+                }
+            }
+        }
+        return logQueue;
+    }
+
+    /** 写入线程： 按批次从队列获取并写入， 停止后写完队列中剩余的数据 **/
+    private void writeLoop(){
+
+        List<LogEvent> eventList = new ArrayList<>(batchSize);
+        while (running || !logQueue.isEmpty()) {
+            try {
+                LogEvent first = logQueue.poll(1, TimeUnit.SECONDS);
+                if(first == null){
+                    continue;
+                }
+                eventList.add(first);
+                logQueue.drainTo(eventList, batchSize - 1);
+                writeBatch(eventList);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("系统日志写入异常", e);
+            } finally {
+                eventList.clear();
+            }
+        }
+    }
+
+    /** 序列化并批量写入， 批量失败时逐条写入 **/
+    private void writeBatch(List<LogEvent> eventList){
+
+        List<SysLog> sysLogList = new ArrayList<>(eventList.size());
+        for (LogEvent event : eventList) {
+            SysLog sysLog = event.sysLog;
+            try {
+                if(event.optRes != null){
+                    sysLog.setOptResInfo(event.optRes instanceof String ? (String) event.optRes : JSON.toJSONString(event.optRes));
+                }
+            } catch (Exception e) {
+                sysLog.setOptResInfo("响应结果序列化失败");
+            }
+            sysLog.setOptReqParam(truncate(sysLog.getOptReqParam()));
+            sysLog.setOptResInfo(truncate(sysLog.getOptResInfo()));
+            sysLogList.add(sysLog);
+        }
+
+        try {
+            sysLogService.batchInsert(sysLogList);
+            writtenCount.addAndGet(sysLogList.size());
+            return;
+        } catch (Exception e) {
+            log.error("系统日志批量写入异常，尝试逐条写入。 size={}", sysLogList.size(), e);
+        }
+
+        for (SysLog sysLog : sysLogList) {
+            try {
+                sysLogService.save(sysLog);
+                writtenCount.incrementAndGet();
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+                log.error("系统日志写入异常， methodName={}", sysLog.getMethodName(), e);
+            }
+        }
+    }
+
+    /** 截断超长内容 **/
+    private String truncate(String str){
+        if(str == null || maxLength <= 0 || str.length() <= maxLength){
+            return str;
+        }
+        return str.substring(0, maxLength) + TRUNCATE_SUFFIX;
+    }
+
+    /** 停止时写完队列中的剩余日志 **/
+    @PreDestroy
+    public void shutdown(){
+
+        running = false;
+        if(writeThread == null){
+            return ;
+        }
+
+        try {
+            writeThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("系统日志写入线程已停止。 已写入={}, 丢弃={}, 失败={}, 未写入={}", writtenCount.get(), droppedCount.get(), failedCount.get(), getBacklog());
+    }
+
+    /** 日志事件 **/
+    private static class LogEvent {
+
+        private final SysLog sysLog;
+
+        private final Object optRes;
+
+        LogEvent(SysLog sysLog, Object optRes){
+            this.sysLog = sysLog;
+            this.optRes = optRes;
+        }
+    }
+
+}
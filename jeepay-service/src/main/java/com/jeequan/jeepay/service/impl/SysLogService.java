@@ -20,6 +20,8 @@ import com.jeequan.jeepay.core.entity.SysLog;
 import com.jeequan.jeepay.service.mapper.SysLogMapper;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * <p>
  * 系统操作日志表 服务实现类
@@ -31,4 +33,12 @@ import org.springframework.stereotype.Service;
 @Service
 public class SysLogService extends ServiceImpl<SysLogMapper, SysLog> {
 
+    /** 批量插入日志 **/
+    public int batchInsert(List<SysLog> list){
+        if(list == null || list.isEmpty()){
+            return 0;
+        }
+        return baseMapper.batchInsert(list);
+    }
+
 }
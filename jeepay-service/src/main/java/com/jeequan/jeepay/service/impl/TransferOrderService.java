@@ -21,12 +21,22 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jeequan.jeepay.core.entity.TransferOrder;
+import com.jeequan.jeepay.service.mapper.OrderPageMapper;
 import com.jeequan.jeepay.service.mapper.TransferOrderMapper;
+import com.jeequan.jeepay.service.datasource.ReadReplica;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -39,6 +49,7 @@ import java.util.Date;
 @Service
 public class TransferOrderService extends ServiceImpl<TransferOrderMapper, TransferOrder> {
 
+    @Autowired private OrderListPageService orderListPageService;
 
     /** 更新转账订单状态  【转账订单生成】 --》 【转账中】 **/
     public boolean updateInit2Ing(String transferId){
@@ -100,21 +111,140 @@ public class TransferOrderService extends ServiceImpl<TransferOrderMapper, Trans
         return false;
     }
 
+    /** 更新转账订单状态  【转账订单生成】 --》 【订单关闭】 （ 系统异常， 订单不再处理 ） **/
+    public boolean updateInit2Close(String transferId, String errCode, String errMsg){
+
+        TransferOrder updateRecord = new TransferOrder();
+        updateRecord.setState(TransferOrder.STATE_CLOSED);
+        updateRecord.setDispatchState(TransferOrder.DISPATCH_STATE_NONE);
+        updateRecord.setErrCode(errCode);
+        updateRecord.setErrMsg(errMsg);
+
+        return update(updateRecord, new LambdaUpdateWrapper<TransferOrder>()
+                .eq(TransferOrder::getTransferId, transferId).eq(TransferOrder::getState, TransferOrder.STATE_INIT));
+    }
+
+    /** 开始调用渠道接口： 清除待后台调用标记 （ 更新成功的线程负责调用， 保证同一订单仅调用一次 ） **/
+    public boolean updateDispatchStart(String transferId){
+
+        TransferOrder updateRecord = new TransferOrder();
+        updateRecord.setDispatchState(TransferOrder.DISPATCH_STATE_NONE);
+
+        return update(updateRecord, new LambdaUpdateWrapper<TransferOrder>()
+                .eq(TransferOrder::getTransferId, transferId)
+                .eq(TransferOrder::getState, TransferOrder.STATE_INIT)
+                .eq(TransferOrder::getDispatchState, TransferOrder.DISPATCH_STATE_QUEUED));
+    }
+
 
 
     /** 查询商户订单 **/
     public TransferOrder queryMchOrder(String mchNo, String mchOrderNo, String transferId){
 
         if(StringUtils.isNotEmpty(transferId)){
-            return getOne(TransferOrder.gw().eq(TransferOrder::getMchNo, mchNo).eq(TransferOrder::getTransferId, transferId));
+            TransferOrder transferOrder = getOne(TransferOrder.gw().eq(TransferOrder::getMchNo, mchNo).eq(TransferOrder::getTransferId, transferId));
+            if(transferOrder == null){
+                transferOrder = baseMapper.selectArchiveById(transferId);
+                transferOrder = (transferOrder != null && transferOrder.getMchNo().equals(mchNo)) ? transferOrder : null;
+            }
+            return transferOrder;
         }else if(StringUtils.isNotEmpty(mchOrderNo)){
-            return getOne(TransferOrder.gw().eq(TransferOrder::getMchNo, mchNo).eq(TransferOrder::getMchOrderNo, mchOrderNo));
+            TransferOrder transferOrder = getOne(TransferOrder.gw().eq(TransferOrder::getMchNo, mchNo).eq(TransferOrder::getMchOrderNo, mchOrderNo));
+            return transferOrder != null ? transferOrder : baseMapper.selectArchiveByMchOrderNo(mchNo, mchOrderNo);
         }else{
             return null;
         }
     }
 
+    /** 批量查询商户订单 （活跃表不存在的单号再查询归档表） **/
+    public List<TransferOrder> queryMchOrderList(String mchNo, Collection<String> transferIds, Collection<String> mchOrderNos){
+
+        boolean hasTransferIds = transferIds != null && !transferIds.isEmpty();
+        boolean hasMchOrderNos = mchOrderNos != null && !mchOrderNos.isEmpty();
+        if(!hasTransferIds && !hasMchOrderNos){
+            return new ArrayList<>();
+        }
+
+        List<TransferOrder> result = list(TransferOrder.gw().eq(TransferOrder::getMchNo, mchNo)
+                .and(wrapper -> wrapper.in(hasTransferIds, TransferOrder::getTransferId, transferIds)
+                        .or(hasTransferIds && hasMchOrderNos)
+                        .in(hasMchOrderNos, TransferOrder::getMchOrderNo, mchOrderNos))
+        );
+
+        Set<String> foundTransferIds = new HashSet<>();
+        Set<String> foundMchOrderNos = new HashSet<>();
+        result.forEach(transferOrder -> {
+            foundTransferIds.add(transferOrder.getTransferId());
+            foundMchOrderNos.add(transferOrder.getMchOrderNo());
+        });
+
+        List<String> archiveTransferIds = new ArrayList<>();
+        if(hasTransferIds){
+            transferIds.stream().filter(id -> !foundTransferIds.contains(id)).forEach(archiveTransferIds::add);
+        }
+        List<String> archiveMchOrderNos = new ArrayList<>();
+        if(hasMchOrderNos){
+            mchOrderNos.stream().filter(no -> !foundMchOrderNos.contains(no)).forEach(archiveMchOrderNos::add);
+        }
+
+        if(!archiveTransferIds.isEmpty() || !archiveMchOrderNos.isEmpty()){
+            result.addAll(baseMapper.selectArchiveList(mchNo, archiveTransferIds, archiveMchOrderNos));
+        }
+        return result;
+    }
+
+    /** 查询已存在的商户订单号 **/
+    public Set<String> queryExistMchOrderNos(String mchNo, Collection<String> mchOrderNos){
 
+        if(mchOrderNos == null || mchOrderNos.isEmpty()){
+            return new HashSet<>();
+        }
+
+        Set<String> result = list(TransferOrder.gw().select(TransferOrder::getMchOrderNo)
+                .eq(TransferOrder::getMchNo, mchNo).in(TransferOrder::getMchOrderNo, mchOrderNos)
+        ).stream().map(TransferOrder::getMchOrderNo).collect(Collectors.toSet());
+
+        // 归档表中的订单号同样不可复用
+        if(result.size() < mchOrderNos.size()){
+            result.addAll(baseMapper.selectArchiveMchOrderNos(mchNo, mchOrderNos));
+        }
+        return result;
+    }
+
+    /** 商户订单号是否已存在 （含归档表） **/
+    public boolean existsMchOrderNo(String mchNo, String mchOrderNo){
+        if(count(TransferOrder.gw().eq(TransferOrder::getMchNo, mchNo).eq(TransferOrder::getMchOrderNo, mchOrderNo)) > 0){
+            return true;
+        }
+        return baseMapper.selectArchiveByMchOrderNo(mchNo, mchOrderNo) != null;
+    }
+
+    /** 批量保存转账订单 ( 多值insert， 每批最多500条 ) **/
+    @Transactional
+    public void saveBatchOrder(List<TransferOrder> orderList){
+
+        if(orderList == null || orderList.isEmpty()){
+            return ;
+        }
+
+        for (int i = 0; i < orderList.size(); i += 500) {
+            baseMapper.batchInsert(orderList.subList(i, Math.min(i + 500, orderList.size())));
+        }
+    }
+
+    /** 根据转账订单号查询， 活跃表不存在时查询归档表 **/
+    @Override
+    public TransferOrder getById(Serializable transferId){
+
+        TransferOrder transferOrder = super.getById(transferId);
+        if(transferOrder != null || transferId == null){
+            return transferOrder;
+        }
+        return baseMapper.selectArchiveById(transferId.toString());
+    }
+
+
+    @ReadReplica
     public IPage<TransferOrder> pageList(IPage iPage, LambdaQueryWrapper<TransferOrder> wrapper, TransferOrder transferOrder, JSONObject paramJSON) {
         if (StringUtils.isNotEmpty(transferOrder.getTransferId())) {
             wrapper.eq(TransferOrder::getTransferId, transferOrder.getTransferId());
@@ -142,16 +272,14 @@ public class TransferOrderService extends ServiceImpl<TransferOrderMapper, Trans
                 wrapper.le(TransferOrder::getCreatedAt, paramJSON.getString("createdEnd"));
             }
         }
-        // 三合一订单
+        // 三合一订单： 先按各单号列的索引定位订单号， 再按主键查询（ 避免多列OR导致全表扫描 ）
         if (paramJSON != null && StringUtils.isNotEmpty(paramJSON.getString("unionOrderId"))) {
-            wrapper.and(wr -> {
-                wr.eq(TransferOrder::getTransferId, paramJSON.getString("unionOrderId"))
-                        .or().eq(TransferOrder::getMchOrderNo, paramJSON.getString("unionOrderId"))
-                        .or().eq(TransferOrder::getChannelOrderNo, paramJSON.getString("unionOrderId"));
-            });
+            List<String> unionIds = baseMapper.selectIdsByUnionOrderId(paramJSON.getString("unionOrderId"), transferOrder.getMchNo(), OrderPageMapper.UNION_ORDER_ID_LIMIT);
+            if (unionIds.isEmpty()) {
+                return orderListPageService.emptyPage(iPage);
+            }
+            wrapper.in(TransferOrder::getTransferId, unionIds);
         }
-        wrapper.orderByDesc(TransferOrder::getCreatedAt);
-
-        return page(iPage, wrapper);
+        return orderListPageService.page(baseMapper, iPage, wrapper, TransferOrder::getCreatedAt, TransferOrder::getTransferId);
     }
 }
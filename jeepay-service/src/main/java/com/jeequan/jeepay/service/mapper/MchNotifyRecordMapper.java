@@ -39,4 +39,7 @@ public interface MchNotifyRecordMapper extends BaseMapper<MchNotifyRecord> {
      */
     Integer updateIngAndAddNotifyCountLimit(@Param("notifyId") Long notifyId);
 
+    /** 查询归档通知记录 **/
+    MchNotifyRecord selectArchiveById(@Param("notifyId") Long notifyId);
+
 }
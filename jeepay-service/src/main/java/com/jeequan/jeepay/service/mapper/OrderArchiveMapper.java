@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.mapper;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>
+ * 历史数据归档 Mapper 接口
+ *  （ 表名、主键列名由 OrderArchiveService.ArchiveTable 内部定义， 不接受外部参数 ）
+ * </p>
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:12
+ */
+public interface OrderArchiveMapper {
+
+    /** 查询待归档的主键列表 （ 终态 & 创建时间早于beforeTime ） **/
+    List<String> selectArchiveIds(@Param("tableName") String tableName, @Param("idColumn") String idColumn,
+                                  @Param("states") Collection<Byte> states, @Param("beforeTime") Date beforeTime,
+                                  @Param("limit") int limit);
+
+    /** 复制到归档表 **/
+    int copyToArchive(@Param("tableName") String tableName, @Param("idColumn") String idColumn,
+                      @Param("states") Collection<Byte> states, @Param("ids") List<String> ids);
+
+    /** 删除活跃表数据 **/
+    int deleteByIds(@Param("tableName") String tableName, @Param("idColumn") String idColumn,
+                    @Param("states") Collection<Byte> states, @Param("ids") List<String> ids);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 订单列表分页 Mapper 公共接口 （ 封顶计数 & 估算总数 ）
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 14:12
+ */
+public interface OrderPageMapper<T> extends BaseMapper<T> {
+
+    /** 封顶计数： 最多扫描cap条记录， 返回值 <= cap **/
+    Long selectCappedCount(@Param(Constants.WRAPPER) Wrapper<T> wrapper, @Param("cap") long cap);
+
+    /** 估算总数： 读取数据表统计信息中的行数 （ 仅无查询条件时使用 ） **/
+    Long selectApproxCount();
+
+    /** 三合一订单号查询的最大返回数量 **/
+    int UNION_ORDER_ID_LIMIT = 100;
+
+    /** 三合一订单号查询： 按各单号列的索引分别定位， 返回匹配的订单号（主键）， mchNo不为空时仅查询该商户的订单， 最多返回limit条 **/
+    List<String> selectIdsByUnionOrderId(@Param("unionOrderId") String unionOrderId, @Param("mchNo") String mchNo, @Param("limit") int limit);
+
+}
@@ -6,6 +6,8 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.jeequan.jeepay.core.entity.PayOrderDivisionRecord;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 /**
  * <p>
  * 分账记录表 Mapper 接口
@@ -22,4 +24,10 @@ public interface PayOrderDivisionRecordMapper extends BaseMapper<PayOrderDivisio
     /**  batch_order_id 去重， 查询出所有的 分账已受理状态的订单， 支持分页。 */
     IPage<PayOrderDivisionRecord> distinctBatchOrderIdList(IPage<?> page, @Param("ew") Wrapper<PayOrderDivisionRecord> wrapper);
 
+    /** 批量插入分账记录 (单条多值insert语句)， 回填recordId **/
+    int batchInsert(@Param("list") List<PayOrderDivisionRecord> list);
+
+    /** 查询归档分账记录 **/
+    PayOrderDivisionRecord selectArchiveById(@Param("recordId") Long recordId);
+
 }
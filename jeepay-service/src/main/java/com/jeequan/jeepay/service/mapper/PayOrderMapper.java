@@ -15,10 +15,10 @@
  */
 package com.jeequan.jeepay.service.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jeequan.jeepay.core.entity.PayOrder;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -30,7 +30,7 @@ import java.util.Map;
  * @author [mybatis plus generator]
  * @since 2021-04-27
  */
-public interface PayOrderMapper extends BaseMapper<PayOrder> {
+public interface PayOrderMapper extends OrderPageMapper<PayOrder> {
 
     Map payCount(Map param);
 
@@ -40,4 +40,14 @@ public interface PayOrderMapper extends BaseMapper<PayOrder> {
 
     /** 更新订单退款金额和次数 **/
     int updateRefundAmountAndCount(@Param("payOrderId") String payOrderId, @Param("currentRefundAmount") Long currentRefundAmount);
+
+    /** 查询归档订单 **/
+    PayOrder selectArchiveById(@Param("payOrderId") String payOrderId);
+
+    /** 根据商户订单号查询归档订单 **/
+    PayOrder selectArchiveByMchOrderNo(@Param("mchNo") String mchNo, @Param("mchOrderNo") String mchOrderNo);
+
+    /** 批量查询归档订单 **/
+    List<PayOrder> selectArchiveList(@Param("mchNo") String mchNo, @Param("payOrderIds") Collection<String> payOrderIds, @Param("mchOrderNos") Collection<String> mchOrderNos);
+
 }
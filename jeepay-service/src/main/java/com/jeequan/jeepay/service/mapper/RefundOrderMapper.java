@@ -15,8 +15,11 @@
  */
 package com.jeequan.jeepay.service.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jeequan.jeepay.core.entity.RefundOrder;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>
@@ -26,9 +29,18 @@ import com.jeequan.jeepay.core.entity.RefundOrder;
  * @author [mybatis plus generator]
  * @since 2021-04-27
  */
-public interface RefundOrderMapper extends BaseMapper<RefundOrder> {
+public interface RefundOrderMapper extends OrderPageMapper<RefundOrder> {
 
     /** 查询全部退成功金额 **/
     Long sumSuccessRefundAmount(String payOrderId);
 
+    /** 查询归档退款单 **/
+    RefundOrder selectArchiveById(@Param("refundOrderId") String refundOrderId);
+
+    /** 根据商户退款单号查询归档退款单 **/
+    RefundOrder selectArchiveByMchRefundNo(@Param("mchNo") String mchNo, @Param("mchRefundNo") String mchRefundNo);
+
+    /** 批量查询归档退款单 **/
+    List<RefundOrder> selectArchiveList(@Param("mchNo") String mchNo, @Param("refundOrderIds") Collection<String> refundOrderIds, @Param("mchRefundNos") Collection<String> mchRefundNos);
+
 }
@@ -17,6 +17,9 @@ package com.jeequan.jeepay.service.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jeequan.jeepay.core.entity.SysLog;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * <p>
@@ -28,4 +31,7 @@ import com.jeequan.jeepay.core.entity.SysLog;
  */
 public interface SysLogMapper extends BaseMapper<SysLog> {
 
+    /** 批量插入日志 (单条多值insert语句) **/
+    int batchInsert(@Param("list") List<SysLog> list);
+
 }
@@ -15,8 +15,11 @@
  */
 package com.jeequan.jeepay.service.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jeequan.jeepay.core.entity.TransferOrder;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>
@@ -26,6 +29,21 @@ import com.jeequan.jeepay.core.entity.TransferOrder;
  * @author [mybatis plus generator]
  * @since 2021-08-11
  */
-public interface TransferOrderMapper extends BaseMapper<TransferOrder> {
+public interface TransferOrderMapper extends OrderPageMapper<TransferOrder> {
+
+    /** 批量插入转账订单 (单条多值insert语句) **/
+    int batchInsert(@Param("list") List<TransferOrder> list);
+
+    /** 查询归档转账订单 **/
+    TransferOrder selectArchiveById(@Param("transferId") String transferId);
+
+    /** 根据商户订单号查询归档转账订单 **/
+    TransferOrder selectArchiveByMchOrderNo(@Param("mchNo") String mchNo, @Param("mchOrderNo") String mchOrderNo);
+
+    /** 批量查询归档转账订单 **/
+    List<TransferOrder> selectArchiveList(@Param("mchNo") String mchNo, @Param("transferIds") Collection<String> transferIds, @Param("mchOrderNos") Collection<String> mchOrderNos);
+
+    /** 查询归档表中已存在的商户订单号 **/
+    List<String> selectArchiveMchOrderNos(@Param("mchNo") String mchNo, @Param("mchOrderNos") Collection<String> mchOrderNos);
 
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021-2031, 河北计全科技有限公司 (https://www.jeequan.com & jeequan@126.com).
+ * <p>
+ * Licensed under the GNU LESSER GENERAL PUBLIC LICENSE 3.0;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.gnu.org/licenses/lgpl.html
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jeequan.jeepay.service.datasource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 读写分离路由测试： 使用两个嵌入式数据库分别作为主库和从库， 通过查询结果判断实际路由的数据库
+ *
+ * @author terrfly
+ * @site https://www.jeequan.com
+ * @date 2026/10/19 10:50
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+
+    private EmbeddedDatabase replica;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void init(){
+
+        primary = newDatabase("primary");
+        replica = newDatabase("replica");
+
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setMaxLagSeconds(5);
+        properties.setLagSql(""); // 初始化时不启动后台检测， 测试中手动触发
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, Collections.singletonList(replica), properties);
+        routingDataSource.afterPropertiesSet();
+
+        properties.setLagSql("select lag_seconds from t_replica_lag");
+        properties.setLagColumn("lag_seconds");
+        routingDataSource.checkReplicaLag();
+
+        // 与 ReadReplicaConfig 一致： 开启事务时不获取连接， 保证只读标识先于路由确定
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @After
+    public void destroy() throws Exception {
+        routingDataSource.destroy();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    /** 无事务且未标记从库： 主库 **/
+    @Test
+    public void defaultRoutesToPrimary(){
+        assertEquals("primary", queryNodeName());
+    }
+
+    /** ReadReplicaContext： 从库 **/
+    @Test
+    public void replicaContextRoutesToReplica(){
+        assertEquals("replica", ReadReplicaContext.call(this::queryNodeName));
+        assertEquals("primary", queryNodeName()); // 退出后恢复
+    }
+
+    /** 只读事务： 从库 **/
+    @Test
+    public void readOnlyTransactionRoutesToReplica(){
+        transactionTemplate.setReadOnly(true);
+        assertEquals("replica", transactionTemplate.execute(status -> queryNodeName()));
+    }
+
+    /** 读写事务： 即使标记了从库也使用主库 **/
+    @Test
+    public void readWriteTransactionRoutesToPrimary(){
+        assertEquals("primary", transactionTemplate.execute(status -> queryNodeName()));
+        assertEquals("primary", ReadReplicaContext.call(() -> transactionTemplate.execute(status -> queryNodeName())));
+    }
+
+    /** 复制延迟超过阈值： 回退至主库， 恢复后重新使用从库 **/
+    @Test
+    public void lagAboveThresholdFallsBackToPrimary(){
+
+        new JdbcTemplate(replica).update("update t_replica_lag set lag_seconds = 100");
+        routingDataSource.checkReplicaLag();
+
+        assertTrue(routingDataSource.getAvailableReplicas().isEmpty());
+        assertEquals("primary", ReadReplicaContext.call(this::queryNodeName));
+
+        new JdbcTemplate(replica).update("update t_replica_lag set lag_seconds = 1");
+        routingDataSource.checkReplicaLag();
+
+        assertEquals(Collections.singletonList(ReplicaRoutingDataSource.REPLICA_PREFIX + 0), routingDataSource.getAvailableReplicas());
+        assertEquals("replica", ReadReplicaContext.call(this::queryNodeName));
+    }
+
+    /** 延迟检测失败（ 如复制中断 ）： 回退至主库 **/
+    @Test
+    public void lagCheckFailureFallsBackToPrimary(){
+
+        new JdbcTemplate(replica).execute("drop table t_replica_lag");
+        routingDataSource.checkReplicaLag();
+
+        assertTrue(routingDataSource.getAvailableReplicas().isEmpty());
+        assertEquals("primary", ReadReplicaContext.call(this::queryNodeName));
+    }
+
+    /** 查询当前连接所在的数据库名称 **/
+    private String queryNodeName(){
+        return jdbcTemplate.queryForObject("select name from t_node", String.class);
+    }
+
+    /** 创建嵌入式数据库， t_node 记录数据库名称， t_replica_lag 模拟复制延迟 **/
+    private static EmbeddedDatabase newDatabase(String name){
+
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table t_node (name varchar(20))");
+        jdbcTemplate.update("insert into t_node values (?)", name);
+        jdbcTemplate.execute("create table t_replica_lag (lag_seconds bigint)");
+        jdbcTemplate.update("insert into t_replica_lag values (0)");
+        return database;
+    }
+
+}